@@ -2,24 +2,19 @@ package com.pratham.foodreview.backend;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import io.github.cdimascio.dotenv.Dotenv;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
 @SpringBootApplication
 public class BackendApplication {
-	static {
-		// Load .env file before Spring starts
-		Dotenv dotenv = Dotenv.configure()
-			.directory(".")
-			.ignoreIfMissing()
-			.load();
-		
-		// Set as system properties for Spring to pick up
-		dotenv.entries().forEach(entry -> {
-			System.setProperty(entry.getKey(), entry.getValue());
-		});
-	}
-	
+
 	public static void main(String[] args) {
-		SpringApplication.run(BackendApplication.class, args);
+		// .env is loaded once, by DotenvConfig (registered in META-INF/spring.factories)
+		SpringApplication app = new SpringApplication(BackendApplication.class);
+
+		// Record per-bean startup steps for StartupTimelineReporter; off by default
+		if (Boolean.getBoolean("startup.timeline")) {
+			app.setApplicationStartup(new BufferingApplicationStartup(8192));
+		}
+		app.run(args);
 	}
 }
@@ -0,0 +1,39 @@
+package com.pratham.foodreview.backend.config;
+
+import com.pratham.foodreview.backend.service.PoolMetrics;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+// Runs before the pool starts: installs the metrics hook PoolController reads, and on Postgres
+// turns on server-side prepared statements. Repository queries are a small fixed set of SQL
+// strings, so preparing them on first use and caching per connection means each is planned once
+// per connection instead of on every execution. Turn db.server-prepared-statements off when
+// connecting through a transaction-mode PgBouncer older than 1.21.
+@Configuration
+public class DataSourceConfig {
+
+  @Bean
+  static BeanPostProcessor hikariCustomizer(Environment env) {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof HikariDataSource hikari) {
+          if (hikari.getMetricsTrackerFactory() == null) {
+            hikari.setMetricsTrackerFactory(new PoolMetrics());
+          }
+          String url = hikari.getJdbcUrl();
+          if (url != null && url.startsWith("jdbc:postgresql:")) {
+            boolean prepared = env.getProperty("db.server-prepared-statements", Boolean.class, true);
+            hikari.addDataSourceProperty("prepareThreshold", prepared ? env.getProperty("db.prepare-threshold", "1") : "0");
+            hikari.addDataSourceProperty("preparedStatementCacheQueries", env.getProperty("db.prepared-statement-cache-queries", "512"));
+            hikari.addDataSourceProperty("preparedStatementCacheSizeMiB", env.getProperty("db.prepared-statement-cache-mib", "8"));
+          }
+        }
+        return bean;
+      }
+    };
+  }
+}
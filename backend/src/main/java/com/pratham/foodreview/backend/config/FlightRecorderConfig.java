@@ -0,0 +1,74 @@
+package com.pratham.foodreview.backend.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pratham.foodreview.backend.service.FlightRecorder;
+import com.pratham.foodreview.backend.service.RequestTrace;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+// Phase hooks for the slow-request flight recorder: JDBC time through a Hibernate session
+// listener, JWT decoding by wrapping the JwtDecoder bean, and JSON writing through the Jackson
+// message converter. Pool wait comes from PoolMetrics and mapping from ReviewMapper.
+@Configuration
+public class FlightRecorderConfig {
+
+  @Bean
+  HibernatePropertiesCustomizer jdbcTimingCustomizer() {
+    return properties -> properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, JdbcTimingListener.class.getName());
+  }
+
+  @Bean
+  @ConditionalOnProperty(name = "flight-recorder.enabled", havingValue = "true", matchIfMissing = true)
+  FilterRegistrationBean<FlightRecorderFilter> flightRecorderFilter(FlightRecorder recorder) {
+    FilterRegistrationBean<FlightRecorderFilter> registration = new FilterRegistrationBean<>(new FlightRecorderFilter(recorder));
+    // Outermost, so the trace covers the security chain and the response write
+    registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+    return registration;
+  }
+
+  // Replaces Boot's default converter (same ObjectMapper) to time serialization
+  @Bean
+  MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+    return new MappingJackson2HttpMessageConverter(objectMapper) {
+      @Override
+      protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+        long t = RequestTrace.start();
+        try {
+          super.writeInternal(object, type, outputMessage);
+        } finally {
+          RequestTrace.stop(RequestTrace.Phase.SERIALIZATION, t);
+        }
+      }
+    };
+  }
+
+  @Bean
+  static BeanPostProcessor jwtDecoderTiming() {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof JwtDecoder decoder)) return bean;
+        return (JwtDecoder) token -> {
+          long t = RequestTrace.start();
+          try {
+            return decoder.decode(token);
+          } finally {
+            RequestTrace.stop(RequestTrace.Phase.JWT, t);
+          }
+        };
+      }
+    };
+  }
+}
@@ -0,0 +1,37 @@
+package com.pratham.foodreview.backend.config;
+
+import com.pratham.foodreview.backend.service.FlightRecorder;
+import com.pratham.foodreview.backend.service.RequestTrace;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+// Opens a RequestTrace for each request and hands it to FlightRecorder when the response is done.
+// Routes are recorded by handler pattern (/users/{id}), falling back to the raw path.
+public class FlightRecorderFilter extends OncePerRequestFilter {
+
+  private final FlightRecorder recorder;
+
+  public FlightRecorderFilter(FlightRecorder recorder) {
+    this.recorder = recorder;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+      throws ServletException, IOException {
+    RequestTrace trace = recorder.begin();
+    int status = 500;
+    try {
+      chain.doFilter(request, response);
+      status = response.getStatus();
+    } finally {
+      Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+      recorder.end(trace, request.getMethod(), pattern != null ? pattern.toString() : request.getRequestURI(), status);
+    }
+  }
+}
@@ -0,0 +1,29 @@
+package com.pratham.foodreview.backend.config;
+
+import com.pratham.foodreview.backend.service.InMemoryInvalidationTransport;
+import com.pratham.foodreview.backend.service.InvalidationTransport;
+import com.pratham.foodreview.backend.service.PostgresInvalidationTransport;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class InvalidationConfig {
+
+  // postgres: LISTEN/NOTIFY across instances; memory: single JVM (tests, local dev)
+  @Bean
+  InvalidationTransport invalidationTransport(@Value("${invalidation.transport:postgres}") String transport,
+                                              @Value("${invalidation.channel:cache_invalidation}") String channel,
+                                              @Value("${spring.datasource.url}") String url,
+                                              @Value("${spring.datasource.username:}") String username,
+                                              @Value("${spring.datasource.password:}") String password,
+                                              DataSource dataSource) {
+    return switch (transport) {
+      case "postgres" -> new PostgresInvalidationTransport(dataSource, url, username, password, channel);
+      case "memory" -> new InMemoryInvalidationTransport();
+      default -> throw new IllegalArgumentException("Unknown invalidation.transport: " + transport);
+    };
+  }
+}
@@ -0,0 +1,52 @@
+package com.pratham.foodreview.backend.config;
+
+import com.pratham.foodreview.backend.service.RequestTrace;
+import org.hibernate.SessionEventListener;
+
+// Registered as hibernate.session.events.auto; Hibernate creates one per session. Times JDBC
+// prepare plus execute for each statement and reports it to the request's flight-recorder trace
+// and, when sql-stats is on, to RequestSqlStats. Both are no-ops outside an HTTP request.
+public class JdbcTimingListener implements SessionEventListener {
+
+  private long started;
+  private long prepareNanos;
+
+  @Override
+  public void jdbcPrepareStatementStart() {
+    started = System.nanoTime();
+  }
+
+  @Override
+  public void jdbcPrepareStatementEnd() {
+    if (started != 0) prepareNanos += System.nanoTime() - started;
+    started = 0;
+  }
+
+  @Override
+  public void jdbcExecuteStatementStart() {
+    started = System.nanoTime();
+  }
+
+  @Override
+  public void jdbcExecuteStatementEnd() {
+    finish();
+  }
+
+  @Override
+  public void jdbcExecuteBatchStart() {
+    started = System.nanoTime();
+  }
+
+  @Override
+  public void jdbcExecuteBatchEnd() {
+    finish();
+  }
+
+  private void finish() {
+    long elapsed = prepareNanos + (started != 0 ? System.nanoTime() - started : 0);
+    started = 0;
+    prepareNanos = 0;
+    RequestTrace.add(RequestTrace.Phase.SQL, elapsed);
+    RequestSqlStats.addJdbcNanos(elapsed);
+  }
+}
@@ -0,0 +1,33 @@
+package com.pratham.foodreview.backend.config;
+
+import com.pratham.foodreview.backend.service.LocalObjectStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.TimeUnit;
+
+// Serves uploaded photos from the local object store. Keys are random and never rewritten,
+// so responses can be cached for a long time.
+@Configuration
+public class MediaConfig implements WebMvcConfigurer {
+
+  private final LocalObjectStore objectStore;
+  private final String publicBaseUrl;
+
+  public MediaConfig(LocalObjectStore objectStore,
+                     @Value("${photos.public-base-url:/media}") String publicBaseUrl) {
+    this.objectStore = objectStore;
+    this.publicBaseUrl = publicBaseUrl;
+  }
+
+  @Override
+  public void addResourceHandlers(ResourceHandlerRegistry registry) {
+    String location = objectStore.root().toUri().toString();
+    registry.addResourceHandler(publicBaseUrl + "/**")
+      .addResourceLocations(location.endsWith("/") ? location : location + "/")
+      .setCacheControl(CacheControl.maxAge(30, TimeUnit.DAYS).cachePublic());
+  }
+}
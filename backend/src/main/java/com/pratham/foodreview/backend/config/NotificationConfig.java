@@ -0,0 +1,26 @@
+package com.pratham.foodreview.backend.config;
+
+import com.pratham.foodreview.backend.service.LogNotificationSink;
+import com.pratham.foodreview.backend.service.NotificationSink;
+import com.pratham.foodreview.backend.service.PushGatewayNotificationSink;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class NotificationConfig {
+
+  // log: log and keep recent deliveries in memory; push-gateway: simulated remote push service
+  @Bean
+  NotificationSink notificationSink(@Value("${notifications.sink:log}") String sink,
+                                    @Value("${notifications.log.keep:1000}") int keep,
+                                    @Value("${notifications.push-gateway.latency-ms:20}") long latencyMs,
+                                    @Value("${notifications.push-gateway.failure-rate:0.0}") double failureRate,
+                                    @Value("${notifications.push-gateway.max-in-flight:8}") int maxInFlight) {
+    return switch (sink) {
+      case "log" -> new LogNotificationSink(keep);
+      case "push-gateway" -> new PushGatewayNotificationSink(latencyMs, failureRate, maxInFlight);
+      default -> throw new IllegalArgumentException("Unknown notifications.sink: " + sink);
+    };
+  }
+}
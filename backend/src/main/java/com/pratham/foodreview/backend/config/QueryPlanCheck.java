@@ -0,0 +1,123 @@
+package com.pratham.foodreview.backend.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+// Runs EXPLAIN on the SQL behind each filtered repository query at startup and fails the boot if
+// any of them plans a sequential scan, so a missing or invalid index shows up on deploy (and in
+// the test suite, against the H2 schema) instead of as a slow page later. On Postgres the check
+// runs with enable_seqscan off: small tables would be scanned anyway, but with seq scans
+// penalized a Seq Scan left in the plan means no usable index exists.
+//
+// The statements are hand-written equivalents of the repository methods named in each check,
+// since Hibernate only renders SQL when a query first runs. Literals stand in for parameters.
+// SchemaTests runs each named repository method and checks that the SQL Hibernate generates
+// filters and sorts on the same table and columns as its check. Checks named after JdbcTemplate
+// code (NotificationFanout, FeedRanker) are copies of SQL in those classes and kept by hand.
+public class QueryPlanCheck implements ApplicationRunner {
+
+  private static final Logger log = LoggerFactory.getLogger(QueryPlanCheck.class);
+  private static final String ID = "'00000000-0000-0000-0000-000000000001'";
+  private static final String ID2 = "'00000000-0000-0000-0000-000000000002'";
+  private static final String AT = "timestamp with time zone '2026-01-01 00:00:00+00'";
+
+  // postgresOnly for indexes H2 can't express (expression indexes)
+  record Check(String query, String sql, boolean postgresOnly) {
+    Check(String query, String sql) {
+      this(query, sql, false);
+    }
+  }
+
+  static final List<Check> CHECKS = List.of(
+    new Check("ReviewRepository.findByUser_IdOrderByCreatedAtDesc",
+      "select id from reviews where user_id = " + ID + " order by created_at desc"),
+    new Check("ReviewRepository.findByUser_IdInOrderByCreatedAtDesc",
+      "select id from reviews where user_id in (" + ID + ", " + ID2 + ") order by created_at desc"),
+    new Check("ReviewRepository.findByRestaurant_IdOrderByCreatedAtDesc",
+      "select id from reviews where restaurant_id = " + ID + " order by created_at desc"),
+    new Check("ReviewRepository.findChangedSince",
+      "select id from reviews where user_id in (" + ID + ") and updated_at < " + AT
+        + " and (updated_at > " + AT + " or (updated_at = " + AT + " and id > " + ID2 + ")) order by updated_at, id"),
+    new Check("ReviewTombstoneRepository.findDeletedSince",
+      "select review_id from review_tombstones where user_id in (" + ID + ") and deleted_at < " + AT
+        + " and (deleted_at > " + AT + " or (deleted_at = " + AT + " and review_id > " + ID2 + "))"
+        + " order by deleted_at, review_id"),
+    new Check("FollowRepository.findByFollower_Id",
+      "select following_id from follows where follower_id = " + ID),
+    new Check("FollowRepository.countByFollowing_Id",
+      "select count(*) from follows where following_id = " + ID),
+    new Check("NotificationFanout.readChunk",
+      "select follower_id from follows where following_id = " + ID + " and follower_id > " + ID2
+        + " order by follower_id limit 500"),
+    new Check("FollowRepository.countFollowersByIds",
+      "select following_id, count(*) from follows where following_id in (" + ID + ", " + ID2 + ") group by following_id"),
+    new Check("RestaurantRepository.findByProviderAndProviderId",
+      "select id from restaurants where provider = 'google' and provider_id = 'p'"),
+    new Check("RestaurantRepository.findByProviderAndProviderIdIn",
+      "select id from restaurants where provider = 'google' and provider_id in ('p', 'q')"),
+    new Check("RestaurantRatingRepository.findByRestaurantIdIn",
+      "select score from restaurant_ratings where restaurant_id in (" + ID + ", " + ID2 + ")"),
+    new Check("FeedRanker.load",
+      "select author_id, score, updated_at_ms from feed_affinity where viewer_id = " + ID
+        + " order by score desc limit 256"),
+    new Check("ProfileRepository.findByUsername",
+      "select id from profiles where username = 'u'"),
+    new Check("ProfileRepository.findByUsernamePrefix",
+      "select id from profiles where username is not null and lower(username) like 'ab%' order by username", true)
+  );
+
+  private final JdbcTemplate jdbc;
+  private final boolean failOnSeqScan;
+
+  public QueryPlanCheck(DataSource dataSource, boolean failOnSeqScan) {
+    this.jdbc = new JdbcTemplate(dataSource);
+    this.failOnSeqScan = failOnSeqScan;
+  }
+
+  @Override
+  public void run(ApplicationArguments args) {
+    List<String> scans = sequentialScans(CHECKS);
+    if (scans.isEmpty()) {
+      log.info("Query plan check: {} repository queries use indexes", CHECKS.size());
+      return;
+    }
+    String message = "Sequential scans in " + scans.size() + " repository queries:\n" + String.join("\n", scans);
+    if (failOnSeqScan) throw new IllegalStateException(message);
+    log.warn(message);
+  }
+
+  // "query: plan" for each check whose plan scans a whole table
+  List<String> sequentialScans(List<Check> checks) {
+    return jdbc.execute((ConnectionCallback<List<String>>) con -> {
+      boolean postgres = "PostgreSQL".equals(con.getMetaData().getDatabaseProductName());
+      List<String> out = new ArrayList<>();
+      try (Statement st = con.createStatement()) {
+        if (postgres) st.execute("set enable_seqscan = off");
+        try {
+          for (Check check : checks) {
+            if (check.postgresOnly() && !postgres) continue;
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rs = st.executeQuery((postgres ? "explain (costs off) " : "explain ") + check.sql())) {
+              while (rs.next()) plan.append(rs.getString(1).strip()).append(' ');
+            }
+            String p = plan.toString().strip();
+            if (postgres ? p.contains("Seq Scan") : p.contains(".tableScan")) out.add(check.query() + ": " + p);
+          }
+        } finally {
+          if (postgres) st.execute("reset enable_seqscan");
+        }
+      }
+      return out;
+    });
+  }
+}
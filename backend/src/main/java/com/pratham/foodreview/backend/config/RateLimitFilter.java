@@ -0,0 +1,55 @@
+package com.pratham.foodreview.backend.config;
+
+import com.pratham.foodreview.backend.service.RateLimitService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// Registered inside the security chain after bearer-token authentication, so the JWT subject
+// is already resolved when we pick the bucket key.
+public class RateLimitFilter extends OncePerRequestFilter {
+
+  private final RateLimitService rateLimitService;
+
+  public RateLimitFilter(RateLimitService rateLimitService) {
+    this.rateLimitService = rateLimitService;
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return HttpMethod.OPTIONS.matches(request.getMethod()) || "/health".equals(request.getRequestURI());
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+      throws ServletException, IOException {
+    RateLimitService.Permit permit = rateLimitService.acquireUser(clientKey(request));
+    if (!permit.granted()) {
+      response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+      response.setHeader("Retry-After", String.valueOf(permit.retryAfterSeconds()));
+      response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+      response.getWriter().write("{\"error\": \"Too many requests\"}");
+      return;
+    }
+    chain.doFilter(request, response);
+  }
+
+  private String clientKey(HttpServletRequest request) {
+    Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+    if (auth instanceof JwtAuthenticationToken jwtAuth) {
+      return "sub:" + jwtAuth.getToken().getSubject();
+    }
+    // Honors X-Forwarded-For only when server.forward-headers-strategy is configured
+    return "ip:" + request.getRemoteAddr();
+  }
+}
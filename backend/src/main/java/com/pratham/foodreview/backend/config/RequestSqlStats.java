@@ -0,0 +1,146 @@
+package com.pratham.foodreview.backend.config;
+
+import com.pratham.foodreview.backend.service.DebugStats;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+// Per-request SQL accounting, switched on by sql-stats.enabled (dev and test; off by default).
+// Hibernate hands every statement it prepares to Inspector, which counts it and groups it by
+// shape (literals and IN-list lengths erased); JdbcTimingListener adds up the time spent in
+// JDBC prepare and execute. SqlStatsFilter opens a Window around each request on
+// the request thread. A shape that repeats within one request is the usual sign of an N+1.
+// JdbcTemplate queries bypass Hibernate and are not counted.
+@Component
+public class RequestSqlStats implements DebugStats {
+
+  private static final ThreadLocal<Window> CURRENT = new ThreadLocal<>();
+  private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+  private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(\\.\\d+)?\\b");
+  private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)*\\s*\\)");
+  private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+  public static final class Window {
+    private int statements;
+    private long jdbcNanos;
+    private final Map<String, Integer> shapes = new HashMap<>();
+
+    public int statements() {
+      return statements;
+    }
+
+    public long jdbcMillis() {
+      return jdbcNanos / 1_000_000;
+    }
+
+    // Distinct shapes run in this window
+    Set<String> shapes() {
+      return shapes.keySet();
+    }
+
+    // The shape run most often in this window, or null if nothing ran
+    public Map.Entry<String, Integer> mostRepeated() {
+      Map.Entry<String, Integer> best = null;
+      for (Map.Entry<String, Integer> e : shapes.entrySet()) {
+        if (best == null || e.getValue() > best.getValue()) best = e;
+      }
+      return best;
+    }
+  }
+
+  // Registered as hibernate.session_factory.statement_inspector
+  public static final class Inspector implements StatementInspector {
+    @Override
+    public String inspect(String sql) {
+      Window w = CURRENT.get();
+      if (w != null) {
+        w.statements++;
+        w.shapes.merge(shape(sql), 1, Integer::sum);
+      }
+      return sql;
+    }
+  }
+
+  private static final class Route {
+    final LongAdder requests = new LongAdder();
+    final LongAdder statements = new LongAdder();
+    volatile int maxStatements;
+    volatile int worstRepeat;
+    volatile String worstShape;
+  }
+
+  private final Map<String, Route> routes = new ConcurrentHashMap<>();
+  private final LongAdder suspectedNPlusOne = new LongAdder();
+
+  static void addJdbcNanos(long nanos) {
+    Window w = CURRENT.get();
+    if (w != null) w.jdbcNanos += nanos;
+  }
+
+  public Window begin() {
+    Window w = new Window();
+    CURRENT.set(w);
+    return w;
+  }
+
+  // route is "METHOD /pattern"; repeated is whether the worst shape crossed the threshold
+  public void end(Window w, String route, boolean repeated) {
+    CURRENT.remove();
+    Route r = routes.computeIfAbsent(route, k -> new Route());
+    r.requests.increment();
+    r.statements.add(w.statements);
+    Map.Entry<String, Integer> worst = w.mostRepeated();
+    synchronized (r) {
+      if (w.statements > r.maxStatements) r.maxStatements = w.statements;
+      if (worst != null && worst.getValue() > r.worstRepeat) {
+        r.worstRepeat = worst.getValue();
+        r.worstShape = worst.getKey();
+      }
+    }
+    if (repeated) suspectedNPlusOne.increment();
+  }
+
+  // Per-route statement counts; only populated when sql-stats.enabled is on
+  @Override
+  public String debugPath() {
+    return "sql";
+  }
+
+  @Override
+  public Map<String, Object> stats() {
+    Map<String, Object> out = new LinkedHashMap<>();
+    out.put("suspectedNPlusOne", suspectedNPlusOne.sum());
+    Map<String, Object> byRoute = new LinkedHashMap<>();
+    routes.entrySet().stream()
+      .sorted(Map.Entry.comparingByKey())
+      .forEach(e -> {
+        Route r = e.getValue();
+        Map<String, Object> m = new LinkedHashMap<>();
+        long requests = r.requests.sum();
+        m.put("requests", requests);
+        m.put("avgStatements", requests > 0 ? (double) r.statements.sum() / requests : 0.0);
+        m.put("maxStatements", r.maxStatements);
+        m.put("worstRepeat", r.worstRepeat);
+        m.put("worstShape", r.worstShape);
+        byRoute.put(e.getKey(), m);
+      });
+    out.put("routes", byRoute);
+    return out;
+  }
+
+  // Statement with literals replaced by ? and IN lists of any length collapsed, so the same
+  // query with different arguments has the same shape
+  static String shape(String sql) {
+    String s = STRING_LITERAL.matcher(sql).replaceAll("?");
+    s = NUMBER_LITERAL.matcher(s).replaceAll("?");
+    s = IN_LIST.matcher(s).replaceAll("(?)");
+    return WHITESPACE.matcher(s).replaceAll(" ").trim();
+  }
+}
@@ -0,0 +1,35 @@
+package com.pratham.foodreview.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+// Schema migrations before JPA starts, and the query plan check once the app is up. Both are off
+// in the fast-start profile: scaled-up instances join a database an earlier boot already migrated.
+@Configuration
+public class SchemaConfig {
+
+  @Bean
+  @ConditionalOnProperty(name = "schema.migrations.enabled", havingValue = "true")
+  SchemaMigrations schemaMigrations(DataSource dataSource,
+                                    @Value("${schema.migrations.location:classpath:db/migration}") String location) {
+    return new SchemaMigrations(dataSource, location);
+  }
+
+  // Repositories and startup loads query as soon as JPA is up, so migrations finish first
+  @Bean
+  static EntityManagerFactoryDependsOnPostProcessor entityManagerFactoryDependsOnSchemaMigrations() {
+    return new EntityManagerFactoryDependsOnPostProcessor(SchemaMigrations.class);
+  }
+
+  @Bean
+  @ConditionalOnProperty(name = "schema.plan-check.enabled", havingValue = "true", matchIfMissing = true)
+  QueryPlanCheck queryPlanCheck(DataSource dataSource,
+                                @Value("${schema.plan-check.fail-on-seq-scan:true}") boolean failOnSeqScan) {
+    return new QueryPlanCheck(dataSource, failOnSeqScan);
+  }
+}
@@ -0,0 +1,146 @@
+package com.pratham.foodreview.backend.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+// Applies classpath:db/migration/V<n>__<description>.sql in version order at startup and records
+// each one in schema_migrations with a checksum, so the tables and indexes the repository queries
+// depend on are defined in this repo rather than only in the Supabase console. Statements run one
+// at a time in autocommit mode because CREATE INDEX CONCURRENTLY can't run inside a transaction.
+// Every script must therefore be safe to re-run: one that fails halfway starts from the top on
+// the next boot. Startup fails if an applied script was edited. Add a new version instead.
+//
+// Runs before the EntityManagerFactory is built (see SchemaConfig). Instances booting together
+// take turns on a Postgres advisory lock.
+public class SchemaMigrations implements InitializingBean {
+
+  private static final Logger log = LoggerFactory.getLogger(SchemaMigrations.class);
+  private static final Pattern FILE_NAME = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+  private static final long LOCK_KEY = 0x666f6f6452657677L;
+
+  record Migration(int version, String description, long checksum, Resource script) {}
+
+  private final DataSource dataSource;
+  private final String location;
+
+  public SchemaMigrations(DataSource dataSource, String location) {
+    this.dataSource = dataSource;
+    this.location = location;
+  }
+
+  @Override
+  public void afterPropertiesSet() throws Exception {
+    List<Migration> migrations = load(location);
+    try (Connection con = dataSource.getConnection()) {
+      con.setAutoCommit(true);
+      boolean postgres = "PostgreSQL".equals(con.getMetaData().getDatabaseProductName());
+      if (postgres) execute(con, "select pg_advisory_lock(" + LOCK_KEY + ")");
+      try {
+        migrate(con, migrations);
+        if (postgres) verifyIndexes(con);
+      } finally {
+        if (postgres) execute(con, "select pg_advisory_unlock(" + LOCK_KEY + ")");
+      }
+    }
+  }
+
+  private void migrate(Connection con, List<Migration> migrations) throws SQLException {
+    execute(con, "create table if not exists schema_migrations ("
+      + "version integer primary key, description varchar(255) not null, "
+      + "checksum bigint not null, applied_at timestamp with time zone not null)");
+
+    JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+    Map<Integer, Long> applied = new HashMap<>();
+    jdbc.query("select version, checksum from schema_migrations",
+      rs -> { applied.put(rs.getInt(1), rs.getLong(2)); });
+
+    int ran = 0;
+    for (Migration m : migrations) {
+      Long checksum = applied.get(m.version());
+      if (checksum != null) {
+        if (checksum != m.checksum()) {
+          throw new IllegalStateException("Migration V" + m.version() + "__" + m.description()
+            + " was edited after it was applied; add a new version instead");
+        }
+        continue;
+      }
+      long started = System.nanoTime();
+      ScriptUtils.executeSqlScript(con, m.script());
+      jdbc.update("insert into schema_migrations (version, description, checksum, applied_at) values (?, ?, ?, ?)",
+        m.version(), m.description(), m.checksum(), Timestamp.from(Instant.now()));
+      log.info("Applied migration V{}__{} in {} ms", m.version(), m.description(), (System.nanoTime() - started) / 1_000_000);
+      ran++;
+    }
+    log.info("Schema at V{} ({} migrations applied now)",
+      migrations.isEmpty() ? 0 : migrations.get(migrations.size() - 1).version(), ran);
+  }
+
+  private void verifyIndexes(Connection con) throws SQLException {
+    List<String> invalid = new ArrayList<>();
+    try (Statement st = con.createStatement();
+         var rs = st.executeQuery("select indexrelid::regclass::text from pg_index i "
+           + "join pg_class c on c.oid = i.indrelid join pg_namespace n on n.oid = c.relnamespace "
+           + "where n.nspname = 'public' and not i.indisvalid")) {
+      while (rs.next()) invalid.add(rs.getString(1));
+    }
+    if (!invalid.isEmpty()) {
+      throw new IllegalStateException("Invalid indexes " + invalid
+        + " (an interrupted concurrent build); drop them and restart to rebuild");
+    }
+  }
+
+  static List<Migration> load(String location) throws IOException {
+    List<Migration> out = new ArrayList<>();
+    for (Resource r : new PathMatchingResourcePatternResolver().getResources(location + "/V*__*.sql")) {
+      Matcher m = FILE_NAME.matcher(r.getFilename());
+      if (!m.matches()) throw new IllegalStateException("Badly named migration " + r.getFilename());
+      out.add(new Migration(Integer.parseInt(m.group(1)), m.group(2), checksum(r), r));
+    }
+    out.sort(Comparator.comparingInt(Migration::version));
+    for (int i = 1; i < out.size(); i++) {
+      if (out.get(i).version() == out.get(i - 1).version()) {
+        throw new IllegalStateException("Duplicate migration version V" + out.get(i).version());
+      }
+    }
+    return out;
+  }
+
+  private static long checksum(Resource r) throws IOException {
+    try (InputStream in = r.getInputStream()) {
+      // Line endings normalized so a checkout on Windows doesn't look like an edit
+      String sql = new String(in.readAllBytes(), StandardCharsets.UTF_8).replace("\r\n", "\n");
+      CRC32 crc = new CRC32();
+      crc.update(sql.getBytes(StandardCharsets.UTF_8));
+      return crc.getValue();
+    }
+  }
+
+  private static void execute(Connection con, String sql) throws SQLException {
+    try (Statement st = con.createStatement()) {
+      st.execute(sql);
+    }
+  }
+}
@@ -1,31 +1,38 @@
 package com.pratham.foodreview.backend.config;
 
+import com.pratham.foodreview.backend.service.RateLimitService;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.oauth2.server.resource.web.authentication.BearerTokenAuthenticationFilter;
 import org.springframework.security.web.SecurityFilterChain;
 
 @Configuration
 public class SecurityConfig {
 
   @Bean
-  public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+  public SecurityFilterChain securityFilterChain(HttpSecurity http, RateLimitService rateLimitService) throws Exception {
     http
       .cors(Customizer.withDefaults())
       .csrf(csrf -> csrf.disable())
       .authorizeHttpRequests(auth -> auth
         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
 
+        // personalised or writes, so carved out of the public paths below
+        .requestMatchers("/restaurants/recommended", "/users/suggestions", "/users/*/follow").authenticated()
+
         // public endpoints
-        .requestMatchers("/health", "/debug/**", "/restaurants/**", "/ingredients/**", "/users/**", "/reviewfeed/user/**").permitAll()
+        .requestMatchers("/health", "/error", "/debug/**", "/restaurants/**", "/ingredients/**", "/users/**", "/reviewfeed/user/**", "/media/**", "/photos/**").permitAll()
 
         // everything else requires a valid Bearer token
         .anyRequest().authenticated()
       )
       // Validate Authorization: Bearer <JWT> using Spring Resource Server
-      .oauth2ResourceServer(oauth2 -> oauth2.jwt(Customizer.withDefaults()));
+      .oauth2ResourceServer(oauth2 -> oauth2.jwt(Customizer.withDefaults()))
+      // Per-caller token bucket, keyed by JWT subject once the bearer token is validated
+      .addFilterAfter(new RateLimitFilter(rateLimitService), BearerTokenAuthenticationFilter.class);
 
     return http.build();
   }
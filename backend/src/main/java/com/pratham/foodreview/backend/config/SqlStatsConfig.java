@@ -0,0 +1,34 @@
+package com.pratham.foodreview.backend.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+// Wires RequestSqlStats into Hibernate and the servlet chain when sql-stats.enabled is set.
+// JDBC timing comes from JdbcTimingListener, which FlightRecorderConfig always registers.
+@Configuration
+@ConditionalOnProperty(name = "sql-stats.enabled", havingValue = "true")
+public class SqlStatsConfig {
+
+  @Bean
+  HibernatePropertiesCustomizer sqlStatsHibernateCustomizer() {
+    return properties -> {
+      properties.put(AvailableSettings.STATEMENT_INSPECTOR, new RequestSqlStats.Inspector());
+    };
+  }
+
+  @Bean
+  FilterRegistrationBean<SqlStatsFilter> sqlStatsFilter(RequestSqlStats stats,
+                                                        @Value("${sql-stats.repeat-threshold:5}") int repeatThreshold) {
+    FilterRegistrationBean<SqlStatsFilter> registration =
+      new FilterRegistrationBean<>(new SqlStatsFilter(stats, repeatThreshold));
+    // Just inside the flight recorder, so the whole request (security included) is in the window
+    registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+    return registration;
+  }
+}
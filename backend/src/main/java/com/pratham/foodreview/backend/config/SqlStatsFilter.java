@@ -0,0 +1,59 @@
+package com.pratham.foodreview.backend.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.Map;
+
+// Reports each request's SQL as X-Sql-Count / X-Sql-Time-Ms headers, plus X-Sql-Repeated when one
+// statement shape ran repeat-threshold times or more. The body is buffered so the headers can
+// still be set after the handler has run, which is why this is dev/test only.
+public class SqlStatsFilter extends OncePerRequestFilter {
+
+  private static final Logger log = LoggerFactory.getLogger(SqlStatsFilter.class);
+  private static final int MAX_SHAPE_CHARS = 200;
+
+  private final RequestSqlStats stats;
+  private final int repeatThreshold;
+
+  public SqlStatsFilter(RequestSqlStats stats, int repeatThreshold) {
+    this.stats = stats;
+    this.repeatThreshold = repeatThreshold;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+      throws ServletException, IOException {
+    ContentCachingResponseWrapper wrapped = new ContentCachingResponseWrapper(response);
+    RequestSqlStats.Window window = stats.begin();
+    boolean repeated = false;
+    String route = request.getMethod() + " " + request.getRequestURI();
+    try {
+      chain.doFilter(request, wrapped);
+    } finally {
+      Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+      if (pattern != null) route = request.getMethod() + " " + pattern;
+      Map.Entry<String, Integer> worst = window.mostRepeated();
+      repeated = worst != null && worst.getValue() >= repeatThreshold;
+      stats.end(window, route, repeated);
+
+      wrapped.setHeader("X-Sql-Count", String.valueOf(window.statements()));
+      wrapped.setHeader("X-Sql-Time-Ms", String.valueOf(window.jdbcMillis()));
+      if (repeated) {
+        String shape = worst.getKey();
+        if (shape.length() > MAX_SHAPE_CHARS) shape = shape.substring(0, MAX_SHAPE_CHARS) + "...";
+        wrapped.setHeader("X-Sql-Repeated", worst.getValue() + "x " + shape);
+        log.warn("Possible N+1 on {}: {} statements, {}x {}", route, window.statements(), worst.getValue(), worst.getKey());
+      }
+      wrapped.copyBodyToResponse();
+    }
+  }
+}
@@ -0,0 +1,101 @@
+package com.pratham.foodreview.backend.config;
+
+import com.pratham.foodreview.backend.service.DebugStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Turns the buffered startup steps (enabled with -Dstartup.timeline=true) into a per-bean
+// init time report, logged and written to startup.timeline.file once the app is ready.
+@Component
+public class StartupTimelineReporter implements ApplicationListener<ApplicationReadyEvent>, DebugStats {
+
+  private static final Logger log = LoggerFactory.getLogger(StartupTimelineReporter.class);
+
+  private final String reportFile;
+  private final int topN;
+  private volatile Map<String, Object> report = Map.of("enabled", false);
+
+  public StartupTimelineReporter(@Value("${startup.timeline.file:target/startup-timeline.txt}") String reportFile,
+                                 @Value("${startup.timeline.top:25}") int topN) {
+    this.reportFile = reportFile;
+    this.topN = topN;
+  }
+
+  @Override
+  public void onApplicationEvent(ApplicationReadyEvent event) {
+    long jvmUptimeMs = ManagementFactory.getRuntimeMXBean().getUptime();
+    Duration timeTaken = event.getTimeTaken();
+    if (!(event.getApplicationContext().getApplicationStartup() instanceof BufferingApplicationStartup startup)) {
+      report = Map.of("enabled", false, "jvmUptimeAtReadyMs", jvmUptimeMs);
+      return;
+    }
+
+    // Bean instantiation steps nest, so each duration includes the beans it pulled in
+    List<BeanTiming> beans = new ArrayList<>();
+    for (StartupTimeline.TimelineEvent e : startup.getBufferedTimeline().getEvents()) {
+      if (!"spring.beans.instantiate".equals(e.getStartupStep().getName())) continue;
+      String beanName = null;
+      for (StartupStep.Tag tag : e.getStartupStep().getTags()) {
+        if ("beanName".equals(tag.getKey())) beanName = tag.getValue();
+      }
+      if (beanName != null) beans.add(new BeanTiming(beanName, e.getDuration().toMillis()));
+    }
+    beans.sort(Comparator.comparingLong(BeanTiming::millis).reversed());
+    List<BeanTiming> top = beans.subList(0, Math.min(topN, beans.size()));
+
+    StringBuilder sb = new StringBuilder();
+    sb.append("startup: ready in ").append(timeTaken != null ? timeTaken.toMillis() : -1)
+      .append(" ms (jvm uptime ").append(jvmUptimeMs).append(" ms), ")
+      .append(beans.size()).append(" beans instantiated\n");
+    for (BeanTiming b : top) {
+      sb.append(String.format("%8d ms  %s%n", b.millis(), b.beanName()));
+    }
+    log.info("Startup timeline (slowest beans, inclusive):\n{}", sb);
+
+    try {
+      Path path = Path.of(reportFile);
+      if (path.getParent() != null) Files.createDirectories(path.getParent());
+      Files.writeString(path, sb);
+    } catch (IOException e) {
+      log.warn("Could not write startup timeline to {}", reportFile, e);
+    }
+
+    Map<String, Object> out = new LinkedHashMap<>();
+    out.put("enabled", true);
+    out.put("readyMs", timeTaken != null ? timeTaken.toMillis() : -1);
+    out.put("jvmUptimeAtReadyMs", jvmUptimeMs);
+    out.put("beansInstantiated", beans.size());
+    out.put("slowestBeans", top);
+    report = out;
+  }
+
+  @Override
+  public String debugPath() {
+    return "startup";
+  }
+
+  @Override
+  public Map<String, Object> stats() {
+    return report;
+  }
+
+  public record BeanTiming(String beanName, long millis) {}
+}
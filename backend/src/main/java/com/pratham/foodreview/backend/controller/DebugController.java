@@ -0,0 +1,56 @@
+package com.pratham.foodreview.backend.controller;
+
+import com.pratham.foodreview.backend.service.DebugStats;
+import com.pratham.foodreview.backend.service.FlightRecorder;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Subsystem counters, one route per DebugStats bean: /debug/pool, /debug/feed, ... and
+// /debug/caches for everything under caches/.
+@RestController
+@RequestMapping("/debug")
+public class DebugController {
+
+    private final Map<String, DebugStats> sources = new HashMap<>();
+    private final FlightRecorder flightRecorder;
+
+    public DebugController(List<DebugStats> sources, FlightRecorder flightRecorder) {
+        for (DebugStats source : sources) {
+            DebugStats previous = this.sources.putIfAbsent(source.debugPath(), source);
+            if (previous != null) {
+                throw new IllegalStateException("Duplicate debug path " + source.debugPath() + ": "
+                    + previous.getClass().getSimpleName() + ", " + source.getClass().getSimpleName());
+            }
+        }
+        this.flightRecorder = flightRecorder;
+    }
+
+    @GetMapping("/{name}")
+    public Map<String, Object> stats(@PathVariable String name) {
+        DebugStats source = sources.get(name);
+        if (source != null) return source.stats();
+        Map<String, Object> grouped = new TreeMap<>();
+        sources.forEach((path, s) -> {
+            if (path.startsWith(name + "/")) grouped.put(path.substring(name.length() + 1), s.stats());
+        });
+        if (grouped.isEmpty()) throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        return grouped;
+    }
+
+    // Slowest recent requests with their phase breakdown; ?route=/reviewfeed/feed narrows it
+    @GetMapping("/requests")
+    public Map<String, Object> requests(@RequestParam(required = false) String route,
+                                        @RequestParam(defaultValue = "20") int limit) {
+        return flightRecorder.report(route, Math.max(1, Math.min(limit, 200)));
+    }
+}
@@ -1,40 +1,35 @@
 package com.pratham.foodreview.backend.controller;
 
+import com.pratham.foodreview.backend.service.IngredientCache;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.client.RestTemplate;
 
 import java.util.Map;
 
+// Lazy: the scraper proxy is rarely hit. Lookups go through IngredientCache, which answers
+// repeats from its own log and only calls the menu scraper on a miss.
+@Lazy
 @RestController
 @RequestMapping("/ingredients")
 public class IngredientsController {
 
-    private static final String MENU_SCRAPER_URL = "http://localhost:8001/api/ingredients";
+    private final IngredientCache ingredientCache;
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    public IngredientsController(IngredientCache ingredientCache) {
+        this.ingredientCache = ingredientCache;
+    }
 
+    // Cached bodies are written out as stored, never parsed and re-serialized
     @PostMapping("/lookup")
-    public ResponseEntity<String> lookupIngredients(@RequestBody Map<String, Object> request) {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-
-        HttpEntity<Map<String, Object>> entity = new HttpEntity<>(request, headers);
-
-        try {
-            ResponseEntity<String> response = restTemplate.exchange(
-                MENU_SCRAPER_URL,
-                HttpMethod.POST,
-                entity,
-                String.class
-            );
-            return ResponseEntity.status(response.getStatusCode())
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body(response.getBody());
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.BAD_GATEWAY)
-                    .body("{\"error\": \"Menu scraper service unavailable: " +
-                          e.getMessage().replace("\"", "'") + "\"}");
+    public ResponseEntity<byte[]> lookupIngredients(@RequestBody Map<String, Object> request) {
+        IngredientCache.Result result = ingredientCache.lookup(request);
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(result.status())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("X-Cache", result.cache());
+        if (result.retryAfterSeconds() > 0) {
+            response.header(HttpHeaders.RETRY_AFTER, String.valueOf(result.retryAfterSeconds()));
         }
+        return response.body(result.body());
     }
 }
@@ -6,6 +6,8 @@ import com.pratham.foodreview.backend.entity.Profile;
 import com.pratham.foodreview.backend.repo.FollowRepository;
 import com.pratham.foodreview.backend.repo.ProfileRepository;
 import com.pratham.foodreview.backend.repo.ReviewRepository;
+import com.pratham.foodreview.backend.service.InvalidationBus;
+import com.pratham.foodreview.backend.service.InvalidationKeys;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -26,13 +28,16 @@ public class MeController {
   private final ProfileRepository profileRepository;
   private final ReviewRepository reviewRepository;
   private final FollowRepository followRepository;
+  private final InvalidationBus invalidationBus;
 
   public MeController(ProfileRepository profileRepository,
                       ReviewRepository reviewRepository,
-                      FollowRepository followRepository) {
+                      FollowRepository followRepository,
+                      InvalidationBus invalidationBus) {
     this.profileRepository = profileRepository;
     this.reviewRepository = reviewRepository;
     this.followRepository = followRepository;
+    this.invalidationBus = invalidationBus;
   }
 
   @PatchMapping("/me")
@@ -54,6 +59,7 @@ public class MeController {
     if (request.bio() != null) profile.setBio(request.bio().trim());
 
     profileRepository.save(profile);
+    invalidationBus.publishAfterCommit(InvalidationKeys.PROFILE, userId);
 
     log.info("[PATCH /me] saved: username={} displayName={} bio={}",
         profile.getUsername(), profile.getDisplayName(), profile.getBio());
@@ -0,0 +1,63 @@
+package com.pratham.foodreview.backend.controller;
+
+import com.pratham.foodreview.backend.service.PlacesPhotoCache;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+
+@RestController
+@RequestMapping("/photos")
+public class PhotoController {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final PlacesPhotoCache photoCache;
+
+    public PhotoController(PlacesPhotoCache photoCache) {
+        this.photoCache = photoCache;
+    }
+
+    // Serves a Google Places photo_reference from the local disk cache.
+    @GetMapping("/{ref}")
+    public void getPhoto(@PathVariable String ref, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        PlacesPhotoCache.CachedPhoto photo = photoCache.get(ref);
+
+        response.setHeader(HttpHeaders.ETAG, photo.etag());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=604800");
+        if (photo.etag().equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        response.setContentType(photo.contentType());
+        response.setContentLengthLong(photo.size());
+
+        // Tomcat's NIO connector can sendfile() the file after we return: zero copies in user space
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, photo.path().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, photo.size());
+            return;
+        }
+
+        try (FileChannel file = FileChannel.open(photo.path(), StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = 0;
+            while (position < photo.size()) {
+                position += file.transferTo(position, photo.size() - position, out);
+            }
+        }
+    }
+}
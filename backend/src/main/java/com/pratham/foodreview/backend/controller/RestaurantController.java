@@ -1,9 +1,23 @@
 package com.pratham.foodreview.backend.controller;
 
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import com.pratham.foodreview.backend.service.ClusterIndex;
+import com.pratham.foodreview.backend.service.HybridSearchService;
+import com.pratham.foodreview.backend.service.RatingService;
+import com.pratham.foodreview.backend.service.RecommendationService;
+import com.pratham.foodreview.backend.service.RestaurantDetailCache;
 import com.pratham.foodreview.backend.service.SearchService;
+import com.pratham.foodreview.backend.service.TypeaheadIndex;
+import com.pratham.foodreview.backend.dto.MapClusters;
 import com.pratham.foodreview.backend.dto.RestaurantDetailResponse;
 import com.pratham.foodreview.backend.dto.RestaurantSearchResult;
+import com.pratham.foodreview.backend.dto.RestaurantSuggestion;
 import com.pratham.foodreview.backend.dto.ReviewResponse;
 import com.pratham.foodreview.backend.dto.TrendingRestaurantResponse;
 import com.pratham.foodreview.backend.entity.Restaurant;
@@ -25,18 +39,52 @@ public class RestaurantController {
     private final SearchService places;
     private final RestaurantRepository restaurantRepository;
     private final ReviewRepository reviewRepository;
+    private final RestaurantDetailCache detailCache;
+    private final RatingService ratingService;
+    private final RecommendationService recommendationService;
+    private final ClusterIndex clusterIndex;
+    private final TypeaheadIndex typeaheadIndex;
+    private final HybridSearchService hybridSearch;
 
-    public RestaurantController(SearchService places,
+    public RestaurantController(@Lazy SearchService places,
                                 RestaurantRepository restaurantRepository,
-                                ReviewRepository reviewRepository) {
+                                ReviewRepository reviewRepository,
+                                RestaurantDetailCache detailCache,
+                                RatingService ratingService,
+                                RecommendationService recommendationService,
+                                ClusterIndex clusterIndex,
+                                TypeaheadIndex typeaheadIndex,
+                                HybridSearchService hybridSearch) {
         this.places = places;
         this.restaurantRepository = restaurantRepository;
         this.reviewRepository = reviewRepository;
+        this.detailCache = detailCache;
+        this.ratingService = ratingService;
+        this.recommendationService = recommendationService;
+        this.clusterIndex = clusterIndex;
+        this.typeaheadIndex = typeaheadIndex;
+        this.hybridSearch = hybridSearch;
     }   
 
+    // Our restaurants and Google's, merged; X-Search-Missing names a source that ran out of time
     @GetMapping("/search")
-    public List<RestaurantSearchResult> search(@RequestParam String query, @RequestParam Double lat, @RequestParam Double lng){
-        return places.searchRestaurants(query, lat, lng);
+    public ResponseEntity<List<RestaurantSearchResult>> search(@RequestParam String query, @RequestParam Double lat, @RequestParam Double lng){
+        HybridSearchService.Result result = hybridSearch.search(query, lat, lng);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (!result.missingSources().isEmpty()) {
+            response.header("X-Search-Missing", String.join(",", result.missingSources()));
+        }
+        return response.body(result.restaurants());
+    }
+
+    // Per-keystroke suggestions from restaurants already in the database; /search (Google) is
+    // meant for submit only
+    @GetMapping("/typeahead")
+    public List<RestaurantSuggestion> typeahead(@RequestParam String q,
+                                                @RequestParam(required = false) Double lat,
+                                                @RequestParam(required = false) Double lng,
+                                                @RequestParam(defaultValue = "8") Integer limit) {
+        return typeaheadIndex.suggest(q, lat, lng, limit);
     }
     
     @GetMapping("/test-search")
@@ -53,23 +101,41 @@ public class RestaurantController {
     }
     
     @GetMapping("/trending")
-    public List<TrendingRestaurantResponse> getTrending() {
-        List<Restaurant> restaurants = restaurantRepository.findAll();
-        return restaurants.stream().map(r -> new TrendingRestaurantResponse(
-            r.getId().toString(),
-            r.getName(),
-            r.getAddress(),
-            r.getLat(),
-            r.getLng(),
-            r.getPhotoUrl(),
-            r.getCategories(),
-            r.getPriceTier(),
-            reviewRepository.countByRestaurant_Id(r.getId())
-        )).collect(Collectors.toList());
+    public List<TrendingRestaurantResponse> getTrending(@RequestParam(defaultValue = "50") Integer limit) {
+        return ratingService.trending(limit);
+    }
+
+    @GetMapping("/top-rated")
+    public List<TrendingRestaurantResponse> topRated(@RequestParam Double lat,
+                                                     @RequestParam Double lng,
+                                                     @RequestParam(defaultValue = "5") Double radiusKm,
+                                                     @RequestParam(defaultValue = "20") Integer limit,
+                                                     @RequestParam(defaultValue = "1") Long minReviews) {
+        return ratingService.topRatedNearby(lat, lng, radiusKm, limit, minReviews);
+    }
+
+    // Map markers for a viewport: GET /restaurants/clusters?bbox=west,south,east,north&zoom=12
+    @GetMapping("/clusters")
+    public MapClusters clusters(@RequestParam List<Double> bbox, @RequestParam Integer zoom) {
+        if (bbox.size() != 4) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "bbox must be west,south,east,north");
+        }
+        return clusterIndex.clusters(bbox.get(0), bbox.get(1), bbox.get(2), bbox.get(3), zoom);
+    }
+
+    @GetMapping("/recommended")
+    public List<TrendingRestaurantResponse> recommended(@AuthenticationPrincipal Jwt jwt,
+                                                        @RequestParam(defaultValue = "20") Integer limit) {
+        UUID userId = UUID.fromString(jwt.getSubject());
+        return recommendationService.recommendedFor(userId, limit);
     }
 
     @GetMapping("/{id}")
     public RestaurantDetailResponse getRestaurant(@PathVariable UUID id) {
+        return detailCache.get(id, this::buildRestaurantDetail);
+    }
+
+    private RestaurantDetailResponse buildRestaurantDetail(UUID id) {
         Restaurant r = restaurantRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Restaurant not found"));
 
@@ -87,6 +153,7 @@ public class RestaurantController {
             review.getRating(),
             review.getText(),
             review.getPhotoUrls(),
+            review.getThumbnailUrls(),
             review.getDishes() != null ? Arrays.asList(review.getDishes()) : new ArrayList<>(),
             review.getCreatedAt().toString()
         )).collect(Collectors.toList());
@@ -101,6 +168,7 @@ public class RestaurantController {
             r.getCategories(),
             r.getPriceTier(),
             reviewResponses.size(),
+            ratingService.summaryFor(id),
             reviewResponses
         );
     }
@@ -1,13 +1,17 @@
 package com.pratham.foodreview.backend.controller;
 
 import com.pratham.foodreview.backend.dto.CreateReviewRequest;
+import com.pratham.foodreview.backend.dto.NormalizedReviewList;
 import com.pratham.foodreview.backend.dto.ReviewResponse;
+import com.pratham.foodreview.backend.service.FeedRanker;
 import com.pratham.foodreview.backend.service.ReviewFeedService;
+import com.pratham.foodreview.backend.service.ReviewMapper;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -15,9 +19,11 @@ import java.util.UUID;
 public class ReviewFeedController {
 
     private final ReviewFeedService reviewFeedService;
+    private final FeedRanker feedRanker;
 
-    public ReviewFeedController(ReviewFeedService reviewFeedService) {
+    public ReviewFeedController(ReviewFeedService reviewFeedService, FeedRanker feedRanker) {
         this.reviewFeedService = reviewFeedService;
+        this.feedRanker = feedRanker;
     }
 
     @PostMapping
@@ -28,25 +34,60 @@ public class ReviewFeedController {
         return reviewFeedService.createReview(userId, request);
     }
 
+    // List bodies are assembled from pre-serialized review fragments (ReviewFragmentCache)
+    // Ranked by default (FeedRanker); ?order=recent for newest first. lat/lng, when sent, are
+    // remembered as one of the user's recent locations for the distance term.
     @GetMapping("/feed")
-    public List<ReviewResponse> getFriendsFeed(@AuthenticationPrincipal Jwt jwt) {
+    public ResponseEntity<byte[]> getFriendsFeed(@AuthenticationPrincipal Jwt jwt,
+                                                 @RequestParam(defaultValue = "ranked") String order,
+                                                 @RequestParam(required = false) Double lat,
+                                                 @RequestParam(required = false) Double lng) {
         UUID userId = UUID.fromString(jwt.getSubject());
-        return reviewFeedService.getFriendsFeed(userId);
+        feedRanker.recordLocation(userId, lat, lng);
+        return json(reviewFeedService.getFriendsFeedJson(userId, !"recent".equals(order)));
+    }
+
+    @GetMapping(path = "/feed", params = "shape=normalized")
+    public NormalizedReviewList getFriendsFeedNormalized(@AuthenticationPrincipal Jwt jwt,
+                                                         @RequestParam(defaultValue = "ranked") String order,
+                                                         @RequestParam(required = false) Double lat,
+                                                         @RequestParam(required = false) Double lng) {
+        UUID userId = UUID.fromString(jwt.getSubject());
+        feedRanker.recordLocation(userId, lat, lng);
+        return ReviewMapper.normalize(reviewFeedService.getFriendsFeed(userId, !"recent".equals(order)));
     }
 
     @GetMapping("/user/{userId}")
-    public List<ReviewResponse> getUserReviews(@PathVariable UUID userId) {
-        return reviewFeedService.getUserReviews(userId);
+    public ResponseEntity<byte[]> getUserReviews(@PathVariable UUID userId) {
+        return json(reviewFeedService.getUserReviewsJson(userId));
+    }
+
+    @GetMapping(path = "/user/{userId}", params = "shape=normalized")
+    public NormalizedReviewList getUserReviewsNormalized(@PathVariable UUID userId) {
+        return ReviewMapper.normalize(reviewFeedService.getUserReviews(userId));
     }
 
     @GetMapping("/{reviewId}")
-    public ReviewResponse getReview(@PathVariable UUID reviewId) {
-        return reviewFeedService.getReview(reviewId);
+    public ReviewResponse getReview(@AuthenticationPrincipal Jwt jwt, @PathVariable UUID reviewId) {
+        ReviewResponse review = reviewFeedService.getReview(reviewId);
+        // Opening someone's review counts toward the reader's affinity for them
+        if (jwt != null) feedRanker.recordInteraction(UUID.fromString(jwt.getSubject()), UUID.fromString(review.userId()));
+        return review;
     }
 
     @GetMapping("/my-reviews")
-    public List<ReviewResponse> getMyReviews(@AuthenticationPrincipal Jwt jwt) {
+    public ResponseEntity<byte[]> getMyReviews(@AuthenticationPrincipal Jwt jwt) {
         UUID userId = UUID.fromString(jwt.getSubject());
-        return reviewFeedService.getUserReviews(userId);
+        return json(reviewFeedService.getUserReviewsJson(userId));
+    }
+
+    @GetMapping(path = "/my-reviews", params = "shape=normalized")
+    public NormalizedReviewList getMyReviewsNormalized(@AuthenticationPrincipal Jwt jwt) {
+        UUID userId = UUID.fromString(jwt.getSubject());
+        return ReviewMapper.normalize(reviewFeedService.getUserReviews(userId));
+    }
+
+    private static ResponseEntity<byte[]> json(byte[] body) {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
 }
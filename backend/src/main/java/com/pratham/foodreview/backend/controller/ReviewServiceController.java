@@ -1,15 +1,22 @@
 package com.pratham.foodreview.backend.controller;
 
 import com.pratham.foodreview.backend.dto.CreateReviewRequest;
+import com.pratham.foodreview.backend.dto.NormalizedReviewList;
+import com.pratham.foodreview.backend.dto.PhotoUploadResponse;
 import com.pratham.foodreview.backend.dto.ReviewResponse;
 import com.pratham.foodreview.backend.dto.ReviewUpdate;
+import com.pratham.foodreview.backend.service.PhotoService;
 import com.pratham.foodreview.backend.service.ProfileService;
+import com.pratham.foodreview.backend.service.ReviewMapper;
 import com.pratham.foodreview.backend.service.ReviewService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartHttpServletRequest;
 
-import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -18,10 +25,12 @@ public class ReviewServiceController {
 
     private final ReviewService reviewService;
     private final ProfileService profileService;
+    private final PhotoService photoService;
 
-    public ReviewServiceController(ReviewService reviewService, ProfileService profileService) {
+    public ReviewServiceController(ReviewService reviewService, ProfileService profileService, PhotoService photoService) {
         this.reviewService = reviewService;
         this.profileService = profileService;
+        this.photoService = photoService;
     }
 
     @PostMapping
@@ -41,9 +50,33 @@ public class ReviewServiceController {
         return reviewService.updateReview(userId, reviewId, updateDetails);
     }
 
+    @DeleteMapping("/{reviewId}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void deleteReview(
+            @AuthenticationPrincipal Jwt jwt,
+            @PathVariable UUID reviewId) {
+        UUID userId = UUID.fromString(jwt.getSubject());
+        reviewService.deleteReview(userId, reviewId);
+    }
+
+    @PostMapping(path = "/{reviewId}/photos", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public PhotoUploadResponse uploadPhoto(
+            @AuthenticationPrincipal Jwt jwt,
+            @PathVariable UUID reviewId,
+            MultipartHttpServletRequest request) {
+        UUID userId = UUID.fromString(jwt.getSubject());
+        return photoService.upload(userId, reviewId, request);
+    }
+
     @GetMapping("/my-reviews")
-    public List<ReviewResponse> getMyReviews(@AuthenticationPrincipal Jwt jwt) {
+    public ResponseEntity<byte[]> getMyReviews(@AuthenticationPrincipal Jwt jwt) {
+        UUID userId = UUID.fromString(jwt.getSubject());
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(profileService.getReviewsJson(userId));
+    }
+
+    @GetMapping(path = "/my-reviews", params = "shape=normalized")
+    public NormalizedReviewList getMyReviewsNormalized(@AuthenticationPrincipal Jwt jwt) {
         UUID userId = UUID.fromString(jwt.getSubject());
-        return profileService.getReviews(userId);
+        return ReviewMapper.normalize(profileService.getReviews(userId));
     }
 }
@@ -0,0 +1,28 @@
+package com.pratham.foodreview.backend.controller;
+
+import com.pratham.foodreview.backend.dto.SyncResponse;
+import com.pratham.foodreview.backend.service.SyncService;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+@RestController
+public class SyncController {
+
+    private final SyncService syncService;
+
+    public SyncController(SyncService syncService) {
+        this.syncService = syncService;
+    }
+
+    @GetMapping("/sync")
+    public SyncResponse sync(@AuthenticationPrincipal Jwt jwt,
+                             @RequestParam(required = false) String since) {
+        UUID userId = UUID.fromString(jwt.getSubject());
+        return syncService.sync(userId, since);
+    }
+}
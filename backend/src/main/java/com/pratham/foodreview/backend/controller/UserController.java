@@ -1,12 +1,22 @@
 package com.pratham.foodreview.backend.controller;
 
+import com.pratham.foodreview.backend.dto.ProfilePageResponse;
 import com.pratham.foodreview.backend.dto.ProfileResponse;
+import com.pratham.foodreview.backend.dto.UserSuggestion;
 import com.pratham.foodreview.backend.entity.Profile;
 import com.pratham.foodreview.backend.repo.FollowRepository;
 import com.pratham.foodreview.backend.repo.ProfileRepository;
 import com.pratham.foodreview.backend.repo.ReviewRepository;
+import com.pratham.foodreview.backend.service.FeedRanker;
+import com.pratham.foodreview.backend.service.FollowService;
+import com.pratham.foodreview.backend.service.ProfilePageService;
+import com.pratham.foodreview.backend.service.ProfileService;
+import com.pratham.foodreview.backend.service.SuggestionService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -20,13 +30,61 @@ public class UserController {
     private final ProfileRepository profileRepository;
     private final ReviewRepository reviewRepository;
     private final FollowRepository followRepository;
+    private final ProfileService profileService;
+    private final ProfilePageService profilePageService;
+    private final FeedRanker feedRanker;
+    private final FollowService followService;
+    private final SuggestionService suggestionService;
+    private final int maxBatchIds;
 
     public UserController(ProfileRepository profileRepository,
                           ReviewRepository reviewRepository,
-                          FollowRepository followRepository) {
+                          FollowRepository followRepository,
+                          ProfileService profileService,
+                          ProfilePageService profilePageService,
+                          FeedRanker feedRanker,
+                          FollowService followService,
+                          SuggestionService suggestionService,
+                          @Value("${users.batch-max-ids:100}") int maxBatchIds) {
         this.profileRepository = profileRepository;
         this.reviewRepository = reviewRepository;
         this.followRepository = followRepository;
+        this.profileService = profileService;
+        this.profilePageService = profilePageService;
+        this.feedRanker = feedRanker;
+        this.followService = followService;
+        this.suggestionService = suggestionService;
+        this.maxBatchIds = maxBatchIds;
+    }
+
+    // Batch lookup for avatar/name lists: GET /users?ids=a,b,c
+    @GetMapping
+    public List<ProfileResponse> getUsers(@RequestParam List<UUID> ids) {
+        if (ids.size() > maxBatchIds) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + maxBatchIds + " ids per request");
+        }
+        return profileService.getProfiles(ids);
+    }
+
+    @GetMapping("/suggestions")
+    public List<UserSuggestion> getSuggestions(@AuthenticationPrincipal Jwt jwt,
+                                               @RequestParam(defaultValue = "20") Integer limit) {
+        UUID userId = UUID.fromString(jwt.getSubject());
+        return suggestionService.suggestFor(userId, limit);
+    }
+
+    @PostMapping("/{id}/follow")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void follow(@AuthenticationPrincipal Jwt jwt, @PathVariable UUID id) {
+        UUID userId = UUID.fromString(jwt.getSubject());
+        followService.follow(userId, id);
+    }
+
+    @DeleteMapping("/{id}/follow")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void unfollow(@AuthenticationPrincipal Jwt jwt, @PathVariable UUID id) {
+        UUID userId = UUID.fromString(jwt.getSubject());
+        followService.unfollow(userId, id);
     }
 
     @GetMapping("/{id}")
@@ -48,6 +106,18 @@ public class UserController {
         );
     }
 
+    // Everything the profile screen shows first (profile, counts, first page of reviews) in one
+    // round trip; counts or reviews may be null and listed in unavailable if they ran late
+    @GetMapping("/{id}/page")
+    public ProfilePageResponse getUserPage(@AuthenticationPrincipal Jwt jwt,
+                                           @PathVariable UUID id,
+                                           @RequestParam(defaultValue = "20") int limit) {
+        ProfilePageResponse page = profilePageService.getPage(id, limit);
+        // Signed-in visits count toward the visitor's feed affinity for this user
+        if (jwt != null) feedRanker.recordInteraction(UUID.fromString(jwt.getSubject()), id);
+        return page;
+    }
+
     @GetMapping("/search")
     public List<ProfileResponse> searchUsers(@RequestParam String q) {
         if (q == null || q.isBlank() || q.length() < 1) {
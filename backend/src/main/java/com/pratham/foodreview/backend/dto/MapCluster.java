@@ -0,0 +1,12 @@
+package com.pratham.foodreview.backend.dto;
+
+// One marker on the map: a single restaurant (restaurantId/name set, count 1) or a cluster.
+public record MapCluster(
+    String restaurantId,
+    String name,
+    double lat,
+    double lng,
+    int count,
+    long reviewCount,
+    Double averageRating
+) {}
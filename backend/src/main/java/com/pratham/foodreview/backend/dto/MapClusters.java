@@ -0,0 +1,9 @@
+package com.pratham.foodreview.backend.dto;
+
+import java.util.List;
+
+// zoom is the clustering level actually used; it can be coarser than requested to stay under the result cap
+public record MapClusters(
+    int zoom,
+    List<MapCluster> clusters
+) {}
@@ -0,0 +1,36 @@
+package com.pratham.foodreview.backend.dto;
+
+import java.util.List;
+import java.util.Map;
+
+// Opt-in (?shape=normalized) list shape: reviews reference users and restaurants by id and
+// each one is sent once in the side tables.
+public record NormalizedReviewList(
+    List<Review> reviews,
+    Map<String, User> users,
+    Map<String, Restaurant> restaurants
+) {
+    public record Review(
+        String id,
+        String userId,
+        String restaurantId,
+        Integer rating,
+        String text,
+        List<String> photoUrls,
+        List<String> thumbnailUrls,
+        List<String> items,
+        String createdAt
+    ) {}
+
+    public record User(
+        String userName,
+        String userAvatar
+    ) {}
+
+    public record Restaurant(
+        String name,
+        String address,
+        String photoUrl,
+        String providerId
+    ) {}
+}
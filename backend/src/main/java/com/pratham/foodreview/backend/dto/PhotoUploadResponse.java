@@ -0,0 +1,12 @@
+package com.pratham.foodreview.backend.dto;
+
+import java.util.List;
+
+// variantsPending: thumbnail and display variants are being generated and will replace url in
+// the review's photoUrls (and fill thumbnailUrls) when done. false means the original is final.
+public record PhotoUploadResponse(
+    String reviewId,
+    String url,
+    List<String> photoUrls,
+    boolean variantsPending
+) {}
@@ -0,0 +1,23 @@
+package com.pratham.foodreview.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.util.List;
+
+// GET /users/{id}/page: the profile fields of ProfileResponse plus the first page of reviews, in
+// one response. Parts that missed their deadline are null and named in unavailable, so the app
+// can fall back to /users/{id} or /reviewfeed/user/{id} for just those.
+public record ProfilePageResponse(
+    String id,
+    String username,
+    String displayName,
+    String avatarUrl,
+    String bio,
+    Long reviewCount,
+    Long followerCount,
+    Long followingCount,
+    // ReviewResponse JSON array, already encoded by ReviewFragmentCache
+    @JsonRawValue String reviews,
+    Boolean hasMoreReviews,
+    List<String> unavailable
+) {}
@@ -0,0 +1,10 @@
+package com.pratham.foodreview.backend.dto;
+
+import java.util.List;
+
+public record RatingSummary(
+    long count,
+    Double average,
+    Double score,
+    List<Long> histogram
+) {}
@@ -12,5 +12,6 @@ public record RestaurantDetailResponse(
     List<String> categories,
     Integer priceTier,
     long reviewCount,
+    RatingSummary rating,
     List<ReviewResponse> reviews
 ) {}
@@ -1,5 +1,7 @@
 package com.pratham.foodreview.backend.dto;
 
+// id, reviewCount and localRating are set when the restaurant is already in our database
+// (reviewCount 0 if nobody has reviewed it yet); rating is Google's.
 public record RestaurantSearchResult(
   String provider,
   String providerId,
@@ -9,5 +11,8 @@ public record RestaurantSearchResult(
   Double lng,
   String photoReference,
   Integer priceLevel,
-  Double rating
+  Double rating,
+  String id,
+  Long reviewCount,
+  Double localRating
 ) {}
@@ -0,0 +1,15 @@
+package com.pratham.foodreview.backend.dto;
+
+import java.util.List;
+
+public record RestaurantSuggestion(
+    String id,
+    String provider,
+    String providerId,
+    String name,
+    String address,
+    Double lat,
+    Double lng,
+    List<String> categories,
+    Double distanceKm
+) {}
@@ -15,6 +15,7 @@ public record ReviewResponse(
   Integer rating,
   String text,
   List<String> photoUrls,
+  List<String> thumbnailUrls,
   List<String> items,
   String createdAt
 ) {}
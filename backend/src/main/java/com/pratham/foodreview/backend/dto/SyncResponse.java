@@ -0,0 +1,13 @@
+package com.pratham.foodreview.backend.dto;
+
+import java.util.List;
+
+// full: the client must drop its local copy and replace it with this (and following) pages.
+// hasMore: call again with the returned token straight away.
+public record SyncResponse(
+    String token,
+    boolean full,
+    boolean hasMore,
+    List<ReviewResponse> reviews,
+    List<String> deletedReviewIds
+) {}
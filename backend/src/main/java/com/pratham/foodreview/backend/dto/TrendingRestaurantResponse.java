@@ -11,5 +11,6 @@ public record TrendingRestaurantResponse(
     String photoUrl,
     List<String> categories,
     Integer priceTier,
-    long reviewCount
+    long reviewCount,
+    RatingSummary rating
 ) {}
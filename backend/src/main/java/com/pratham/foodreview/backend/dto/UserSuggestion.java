@@ -0,0 +1,11 @@
+package com.pratham.foodreview.backend.dto;
+
+public record UserSuggestion(
+    String id,
+    String username,
+    String displayName,
+    String avatarUrl,
+    int mutualFollows,
+    int sharedRestaurants,
+    double score
+) {}
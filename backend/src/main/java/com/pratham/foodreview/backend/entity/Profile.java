@@ -9,7 +9,7 @@ import java.util.UUID;
 public class Profile{
 
     @Id
-    @Column(name = "id", columnDefinition = "uiud")
+    @Column(name = "id", columnDefinition = "uuid")
     private UUID id;
 
     @Column(name = "username", unique = true)
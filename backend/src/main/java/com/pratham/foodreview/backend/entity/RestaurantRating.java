@@ -0,0 +1,67 @@
+package com.pratham.foodreview.backend.entity;
+
+import jakarta.persistence.*;
+
+import java.util.UUID;
+
+// Running rating aggregate per restaurant, maintained by RatingService on every review write.
+@Entity
+@Table(name = "restaurant_ratings", schema = "public")
+public class RestaurantRating {
+
+    @Id
+    @Column(name = "restaurant_id", columnDefinition = "uuid")
+    private UUID restaurantId;
+
+    @Column(name = "review_count", nullable = false)
+    private long reviewCount;
+
+    @Column(name = "rating_sum", nullable = false)
+    private long ratingSum;
+
+    @Column(name = "count_1", nullable = false)
+    private long count1;
+
+    @Column(name = "count_2", nullable = false)
+    private long count2;
+
+    @Column(name = "count_3", nullable = false)
+    private long count3;
+
+    @Column(name = "count_4", nullable = false)
+    private long count4;
+
+    @Column(name = "count_5", nullable = false)
+    private long count5;
+
+    // Bayesian-smoothed mean, kept in the row so "top rated" can sort without computing it
+    @Column(name = "score")
+    private Double score;
+
+    public UUID getRestaurantId() { return restaurantId; }
+    public void setRestaurantId(UUID restaurantId) { this.restaurantId = restaurantId; }
+
+    public long getReviewCount() { return reviewCount; }
+    public void setReviewCount(long reviewCount) { this.reviewCount = reviewCount; }
+
+    public long getRatingSum() { return ratingSum; }
+    public void setRatingSum(long ratingSum) { this.ratingSum = ratingSum; }
+
+    public long getCount1() { return count1; }
+    public void setCount1(long count1) { this.count1 = count1; }
+
+    public long getCount2() { return count2; }
+    public void setCount2(long count2) { this.count2 = count2; }
+
+    public long getCount3() { return count3; }
+    public void setCount3(long count3) { this.count3 = count3; }
+
+    public long getCount4() { return count4; }
+    public void setCount4(long count4) { this.count4 = count4; }
+
+    public long getCount5() { return count5; }
+    public void setCount5(long count5) { this.count5 = count5; }
+
+    public Double getScore() { return score; }
+    public void setScore(Double score) { this.score = score; }
+}
@@ -37,6 +37,11 @@ public class Review {
   @Column(name = "photo_urls", columnDefinition = "jsonb")
   private List<String> photoUrls;
 
+  // thumbnailUrls.get(i) is the thumbnail of photoUrls.get(i), or null until it has been generated
+  @Type(JsonType.class)
+  @Column(name = "thumbnail_urls", columnDefinition = "jsonb")
+  private List<String> thumbnailUrls;
+
   @Column(name = "created_at")
   private OffsetDateTime createdAt;
 
@@ -66,6 +71,9 @@ public class Review {
   public List<String> getPhotoUrls() { return photoUrls; }
   public void setPhotoUrls(List<String> photoUrls) { this.photoUrls = photoUrls; }
 
+  public List<String> getThumbnailUrls() { return thumbnailUrls; }
+  public void setThumbnailUrls(List<String> thumbnailUrls) { this.thumbnailUrls = thumbnailUrls; }
+
   public OffsetDateTime getCreatedAt() { return createdAt; }
   public void setCreatedAt(OffsetDateTime createdAt) { this.createdAt = createdAt; }
 
@@ -0,0 +1,37 @@
+package com.pratham.foodreview.backend.entity;
+
+import jakarta.persistence.*;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+// Left behind when a review is deleted so /sync can tell clients to drop it.
+@Entity
+@Table(name = "review_tombstones", schema = "public")
+public class ReviewTombstone {
+
+  @Id
+  @Column(name = "review_id", columnDefinition = "uuid")
+  private UUID reviewId;
+
+  @Column(name = "user_id", columnDefinition = "uuid", nullable = false)
+  private UUID userId;
+
+  @Column(name = "restaurant_id", columnDefinition = "uuid", nullable = false)
+  private UUID restaurantId;
+
+  @Column(name = "deleted_at", nullable = false)
+  private OffsetDateTime deletedAt;
+
+  public UUID getReviewId() { return reviewId; }
+  public void setReviewId(UUID reviewId) { this.reviewId = reviewId; }
+
+  public UUID getUserId() { return userId; }
+  public void setUserId(UUID userId) { this.userId = userId; }
+
+  public UUID getRestaurantId() { return restaurantId; }
+  public void setRestaurantId(UUID restaurantId) { this.restaurantId = restaurantId; }
+
+  public OffsetDateTime getDeletedAt() { return deletedAt; }
+  public void setDeletedAt(OffsetDateTime deletedAt) { this.deletedAt = deletedAt; }
+}
@@ -0,0 +1,32 @@
+package com.pratham.foodreview.backend.entity;
+
+import jakarta.persistence.*;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+// Precomputed top-N restaurants for one user, written by RecommendationService's batch job.
+// items packs each entry as a 16-byte restaurant id followed by a 4-byte float score, best first.
+@Entity
+@Table(name = "user_recommendations", schema = "public")
+public class UserRecommendations {
+
+  @Id
+  @Column(name = "user_id", columnDefinition = "uuid")
+  private UUID userId;
+
+  @Column(name = "items", nullable = false)
+  private byte[] items;
+
+  @Column(name = "computed_at", nullable = false)
+  private OffsetDateTime computedAt;
+
+  public UUID getUserId() { return userId; }
+  public void setUserId(UUID userId) { this.userId = userId; }
+
+  public byte[] getItems() { return items; }
+  public void setItems(byte[] items) { this.items = items; }
+
+  public OffsetDateTime getComputedAt() { return computedAt; }
+  public void setComputedAt(OffsetDateTime computedAt) { this.computedAt = computedAt; }
+}
@@ -3,7 +3,10 @@ package com.pratham.foodreview.backend.repo;
 import com.pratham.foodreview.backend.entity.Follow;
 import com.pratham.foodreview.backend.entity.FollowId;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -11,4 +14,11 @@ public interface FollowRepository extends JpaRepository<Follow, FollowId> {
   List<Follow> findByFollower_Id(UUID followerId);
   long countByFollower_Id(UUID followerId);
   long countByFollowing_Id(UUID followingId);
+
+  // [profileId, count] pairs for batch profile lookups
+  @Query("SELECT f.following.id, COUNT(f) FROM Follow f WHERE f.following.id IN :ids GROUP BY f.following.id")
+  List<Object[]> countFollowersByIds(@Param("ids") Collection<UUID> ids);
+
+  @Query("SELECT f.follower.id, COUNT(f) FROM Follow f WHERE f.follower.id IN :ids GROUP BY f.follower.id")
+  List<Object[]> countFollowingByIds(@Param("ids") Collection<UUID> ids);
 }
@@ -0,0 +1,85 @@
+package com.pratham.foodreview.backend.repo;
+
+import com.pratham.foodreview.backend.entity.RestaurantRating;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface RestaurantRatingRepository extends JpaRepository<RestaurantRating, UUID> {
+
+  List<RestaurantRating> findByRestaurantIdIn(Collection<UUID> restaurantIds);
+
+  List<RestaurantRating> findByReviewCountGreaterThanEqualOrderByScoreDesc(long minReviews, Pageable pageable);
+
+  @Modifying
+  @Query(value = "INSERT INTO restaurant_ratings (restaurant_id, review_count, rating_sum, count_1, count_2, count_3, count_4, count_5) "
+      + "VALUES (:restaurantId, 0, 0, 0, 0, 0, 0, 0) ON CONFLICT DO NOTHING", nativeQuery = true)
+  int ensureRow(@Param("restaurantId") UUID restaurantId);
+
+  // Single-statement delta so concurrent writers never lose updates. Every right-hand side sees
+  // the pre-update row, so the score is computed from the new totals.
+  @Modifying
+  @Query("UPDATE RestaurantRating r SET "
+      + "r.reviewCount = r.reviewCount + :countDelta, "
+      + "r.ratingSum = r.ratingSum + :sumDelta, "
+      + "r.count1 = r.count1 + (CASE WHEN :added = 1 THEN 1 ELSE 0 END) - (CASE WHEN :removed = 1 THEN 1 ELSE 0 END), "
+      + "r.count2 = r.count2 + (CASE WHEN :added = 2 THEN 1 ELSE 0 END) - (CASE WHEN :removed = 2 THEN 1 ELSE 0 END), "
+      + "r.count3 = r.count3 + (CASE WHEN :added = 3 THEN 1 ELSE 0 END) - (CASE WHEN :removed = 3 THEN 1 ELSE 0 END), "
+      + "r.count4 = r.count4 + (CASE WHEN :added = 4 THEN 1 ELSE 0 END) - (CASE WHEN :removed = 4 THEN 1 ELSE 0 END), "
+      + "r.count5 = r.count5 + (CASE WHEN :added = 5 THEN 1 ELSE 0 END) - (CASE WHEN :removed = 5 THEN 1 ELSE 0 END), "
+      + "r.score = (:priorWeight * :priorMean + r.ratingSum + :sumDelta) / (:priorWeight + r.reviewCount + :countDelta) "
+      + "WHERE r.restaurantId = :restaurantId")
+  int applyDelta(@Param("restaurantId") UUID restaurantId,
+                 @Param("countDelta") long countDelta,
+                 @Param("sumDelta") long sumDelta,
+                 @Param("added") int added,
+                 @Param("removed") int removed,
+                 @Param("priorWeight") double priorWeight,
+                 @Param("priorMean") double priorMean);
+
+  @Modifying
+  @Query("UPDATE RestaurantRating r SET r.score = (:priorWeight * :priorMean + r.ratingSum) / (:priorWeight + r.reviewCount)")
+  int recomputeScores(@Param("priorWeight") double priorWeight, @Param("priorMean") double priorMean);
+
+  // [prior_weight, prior_mean] the stored scores use, locked until the caller's transaction ends;
+  // empty before the first refresh
+  @Query(value = "SELECT prior_weight, prior_mean FROM rating_prior WHERE id = 1 FOR UPDATE", nativeQuery = true)
+  List<Object[]> lockAppliedPrior();
+
+  @Modifying
+  @Query(value = "UPDATE rating_prior SET prior_weight = :priorWeight, prior_mean = :priorMean WHERE id = 1", nativeQuery = true)
+  int updateAppliedPrior(@Param("priorWeight") double priorWeight, @Param("priorMean") double priorMean);
+
+  @Modifying
+  @Query(value = "INSERT INTO rating_prior (id, prior_weight, prior_mean) VALUES (1, :priorWeight, :priorMean) "
+      + "ON CONFLICT DO NOTHING", nativeQuery = true)
+  int insertAppliedPrior(@Param("priorWeight") double priorWeight, @Param("priorMean") double priorMean);
+
+  @Modifying
+  @Query(value = "DELETE FROM restaurant_ratings", nativeQuery = true)
+  int deleteAllRows();
+
+  @Modifying
+  @Query(value = "INSERT INTO restaurant_ratings (restaurant_id, review_count, rating_sum, count_1, count_2, count_3, count_4, count_5, score) "
+      + "SELECT restaurant_id, COUNT(*), SUM(rating), "
+      + "SUM(CASE WHEN rating = 1 THEN 1 ELSE 0 END), SUM(CASE WHEN rating = 2 THEN 1 ELSE 0 END), "
+      + "SUM(CASE WHEN rating = 3 THEN 1 ELSE 0 END), SUM(CASE WHEN rating = 4 THEN 1 ELSE 0 END), "
+      + "SUM(CASE WHEN rating = 5 THEN 1 ELSE 0 END), "
+      + "(:priorWeight * :priorMean + SUM(rating)) / (:priorWeight + COUNT(*)) "
+      + "FROM reviews GROUP BY restaurant_id", nativeQuery = true)
+  int rebuildFromReviews(@Param("priorWeight") double priorWeight, @Param("priorMean") double priorMean);
+
+  // Bounding-box prefilter; callers apply the exact radius check
+  @Query("SELECT rr FROM RestaurantRating rr, Restaurant r WHERE r.id = rr.restaurantId "
+      + "AND r.lat BETWEEN :minLat AND :maxLat AND r.lng BETWEEN :minLng AND :maxLng "
+      + "AND rr.reviewCount >= :minReviews ORDER BY rr.score DESC")
+  List<RestaurantRating> findTopRatedInBox(@Param("minLat") double minLat, @Param("maxLat") double maxLat,
+                                           @Param("minLng") double minLng, @Param("maxLng") double maxLng,
+                                           @Param("minReviews") long minReviews, Pageable pageable);
+}
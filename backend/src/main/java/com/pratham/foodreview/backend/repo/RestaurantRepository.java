@@ -3,9 +3,13 @@ package com.pratham.foodreview.backend.repo;
 import com.pratham.foodreview.backend.entity.Restaurant;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface RestaurantRepository extends JpaRepository<Restaurant, UUID> {
   Optional<Restaurant> findByProviderAndProviderId(String provider, String providerId);
+
+  List<Restaurant> findByProviderAndProviderIdIn(String provider, Collection<String> providerIds);
 }
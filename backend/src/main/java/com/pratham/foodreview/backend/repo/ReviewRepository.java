@@ -1,21 +1,47 @@
 package com.pratham.foodreview.backend.repo;
 
 import com.pratham.foodreview.backend.entity.Review;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface ReviewRepository extends JpaRepository<Review, UUID> {
   List<Review> findByUser_IdOrderByCreatedAtDesc(UUID userId);
+
+  List<Review> findByUser_IdOrderByCreatedAtDesc(UUID userId, Pageable pageable);
   @Query("SELECT r FROM Review r JOIN FETCH r.user JOIN FETCH r.restaurant WHERE r.restaurant.id = :restaurantId ORDER BY r.createdAt DESC")
   List<Review> findByRestaurant_IdOrderByCreatedAtDesc(@Param("restaurantId") UUID restaurantId);
   
   @Query("SELECT r FROM Review r WHERE r.user.id IN :userIds ORDER BY r.createdAt DESC")
-  List<Review> findByUser_IdInOrderByCreatedAtDesc(@Param("userIds") List<UUID> userIds);
+  List<Review> findByUser_IdInOrderByCreatedAtDesc(@Param("userIds") List<UUID> userIds, Pageable pageable);
+
+  // Keyset scan over (updated_at, id) for delta sync, served by reviews_user_updated_idx
+  @Query("SELECT r FROM Review r WHERE r.user.id IN :userIds AND r.updatedAt < :until "
+      + "AND (r.updatedAt > :since OR (r.updatedAt = :since AND r.id > :afterId)) "
+      + "ORDER BY r.updatedAt ASC, r.id ASC")
+  List<Review> findChangedSince(@Param("userIds") Collection<UUID> userIds,
+                                @Param("since") OffsetDateTime since,
+                                @Param("afterId") UUID afterId,
+                                @Param("until") OffsetDateTime until,
+                                Pageable pageable);
+
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT r FROM Review r WHERE r.id = :id")
+  Optional<Review> findByIdForUpdate(@Param("id") UUID id);
 
   long countByUser_Id(UUID userId);
+
+  // [userId, count] pairs; users without reviews are absent
+  @Query("SELECT r.user.id, COUNT(r) FROM Review r WHERE r.user.id IN :userIds GROUP BY r.user.id")
+  List<Object[]> countByUserIds(@Param("userIds") Collection<UUID> userIds);
   long countByRestaurant_Id(UUID restaurantId);
 }
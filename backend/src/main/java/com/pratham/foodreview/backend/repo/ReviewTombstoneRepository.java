@@ -0,0 +1,30 @@
+package com.pratham.foodreview.backend.repo;
+
+import com.pratham.foodreview.backend.entity.ReviewTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface ReviewTombstoneRepository extends JpaRepository<ReviewTombstone, UUID> {
+
+  // Keyset scan over (deleted_at, review_id), served by review_tombstones_user_deleted_idx
+  @Query("SELECT t FROM ReviewTombstone t WHERE t.userId IN :userIds AND t.deletedAt < :until "
+      + "AND (t.deletedAt > :since OR (t.deletedAt = :since AND t.reviewId > :afterId)) "
+      + "ORDER BY t.deletedAt ASC, t.reviewId ASC")
+  List<ReviewTombstone> findDeletedSince(@Param("userIds") Collection<UUID> userIds,
+                                         @Param("since") OffsetDateTime since,
+                                         @Param("afterId") UUID afterId,
+                                         @Param("until") OffsetDateTime until,
+                                         Pageable pageable);
+
+  @Modifying
+  @Query("DELETE FROM ReviewTombstone t WHERE t.deletedAt < :before")
+  int deleteOlderThan(@Param("before") OffsetDateTime before);
+}
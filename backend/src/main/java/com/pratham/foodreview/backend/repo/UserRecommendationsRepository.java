@@ -0,0 +1,9 @@
+package com.pratham.foodreview.backend.repo;
+
+import com.pratham.foodreview.backend.entity.UserRecommendations;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.UUID;
+
+public interface UserRecommendationsRepository extends JpaRepository<UserRecommendations, UUID> {
+}
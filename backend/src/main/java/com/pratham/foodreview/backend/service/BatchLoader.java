@@ -0,0 +1,77 @@
+package com.pratham.foodreview.backend.service;
+
+import com.pratham.foodreview.backend.entity.Profile;
+import com.pratham.foodreview.backend.entity.Restaurant;
+import com.pratham.foodreview.backend.repo.ProfileRepository;
+import com.pratham.foodreview.backend.repo.RestaurantRepository;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+// Loads profiles and restaurants by id with one IN query per entity type. Loaded rows are kept
+// for the rest of the HTTP request (as a request attribute), so several mapping passes in one
+// request only fetch what they haven't seen yet. Outside a request nothing is remembered.
+// Read paths only: rows are not refreshed if the same request modifies them.
+@Component
+public class BatchLoader {
+
+    private static final String ATTRIBUTE = BatchLoader.class.getName() + ".LOADED";
+
+    private final ProfileRepository profileRepository;
+    private final RestaurantRepository restaurantRepository;
+
+    public BatchLoader(ProfileRepository profileRepository, RestaurantRepository restaurantRepository) {
+        this.profileRepository = profileRepository;
+        this.restaurantRepository = restaurantRepository;
+    }
+
+    public Map<UUID, Profile> profiles(Collection<UUID> ids) {
+        return load(loaded().profiles, ids, profileRepository, Profile::getId);
+    }
+
+    public Map<UUID, Restaurant> restaurants(Collection<UUID> ids) {
+        return load(loaded().restaurants, ids, restaurantRepository, Restaurant::getId);
+    }
+
+    private static <T> Map<UUID, T> load(Map<UUID, T> known, Collection<UUID> ids,
+                                         JpaRepository<T, UUID> repository, Function<T, UUID> idOf) {
+        Set<UUID> missing = new LinkedHashSet<>();
+        for (UUID id : ids) {
+            if (id != null && !known.containsKey(id)) missing.add(id);
+        }
+        if (!missing.isEmpty()) {
+            for (T row : repository.findAllById(missing)) known.put(idOf.apply(row), row);
+        }
+        Map<UUID, T> out = new HashMap<>();
+        for (UUID id : ids) {
+            T row = known.get(id);
+            if (row != null) out.put(id, row);
+        }
+        return out;
+    }
+
+    private Loaded loaded() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) return new Loaded();
+        Loaded loaded = (Loaded) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (loaded == null) {
+            loaded = new Loaded();
+            attributes.setAttribute(ATTRIBUTE, loaded, RequestAttributes.SCOPE_REQUEST);
+        }
+        return loaded;
+    }
+
+    private static class Loaded {
+        final Map<UUID, Profile> profiles = new HashMap<>();
+        final Map<UUID, Restaurant> restaurants = new HashMap<>();
+    }
+}
@@ -0,0 +1,331 @@
+package com.pratham.foodreview.backend.service;
+
+import com.pratham.foodreview.backend.dto.MapCluster;
+import com.pratham.foodreview.backend.dto.MapClusters;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-memory clustering of restaurant coordinates for the map. Each zoom level 0..max-zoom is a
+// grid of CELL_PX-pixel cells over the Web Mercator plane; a cell at zoom z holds exactly the four
+// cells below it at z + 1, so a restaurant's cell at every level comes from shifting its cell at
+// max-zoom. Cells keep running sums (count, position, ratings), so adding, moving or re-rating a
+// restaurant touches one cell per level, and a query only reads the cells under the viewport.
+//
+// A cell also keeps the XOR of its members' ids: when the count is 1 that XOR is the member, so
+// single restaurants come back as points without storing member lists on coarse levels.
+//
+// Restaurant changes arrive on the invalidation bus (every review write publishes the
+// restaurant id); the row and its rating aggregate are re-read and the point replaced. Changes
+// that land while a rebuild is reading the table are replayed once the new points are in.
+@Service
+public class ClusterIndex implements DebugStats {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterIndex.class);
+
+    private static final int CELL_PX = 64;
+    private static final double MAX_LAT = 85.05112878;
+
+    private static final String SELECT_POINTS = "SELECT r.id, r.name, r.lat, r.lng, rr.review_count, rr.rating_sum "
+        + "FROM restaurants r LEFT JOIN restaurant_ratings rr ON rr.restaurant_id = r.id "
+        + "WHERE r.lat IS NOT NULL AND r.lng IS NOT NULL";
+
+    private record Point(UUID id, String name, double lat, double lng, long reviewCount, long ratingSum,
+                         int cellX, int cellY) {}
+
+    private static final class Cell {
+        int count;
+        double sumLat;
+        double sumLng;
+        long reviewCount;
+        long ratingSum;
+        long xorMsb;
+        long xorLsb;
+
+        void apply(Point p, int sign) {
+            count += sign;
+            sumLat += sign * p.lat();
+            sumLng += sign * p.lng();
+            reviewCount += sign * p.reviewCount();
+            ratingSum += sign * p.ratingSum();
+            xorMsb ^= p.id().getMostSignificantBits();
+            xorLsb ^= p.id().getLeastSignificantBits();
+        }
+    }
+
+    private final JdbcTemplate jdbc;
+    private final int maxZoom;
+    private final int maxResults;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<UUID, Point> points = new HashMap<>();
+    // levels[z]: cell key (x << 32 | y) -> aggregate
+    private final List<Map<Long, Cell>> levels = new ArrayList<>();
+    // Members of each max-zoom cell, for zooms past max-zoom where clusters are split up
+    private final Map<Long, List<Point>> finest = new HashMap<>();
+    private volatile boolean ready;
+    private final TouchedKeys<UUID> touched = new TouchedKeys<>();
+    private volatile long lastBuildMs;
+    private final SingleFlight rebuilds = new SingleFlight("clusters-rebuild", this::rebuild);
+
+    public ClusterIndex(DataSource dataSource,
+                        InvalidationBus invalidationBus,
+                        @Value("${clusters.max-zoom:16}") int maxZoom,
+                        @Value("${clusters.max-results:300}") int maxResults) {
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.maxZoom = maxZoom;
+        this.maxResults = maxResults;
+        for (int z = 0; z <= maxZoom; z++) levels.add(new HashMap<>());
+        invalidationBus.subscribe(InvalidationKeys.RESTAURANT, key -> refresh(UUID.fromString(key)),
+            this::rebuildInBackground);
+    }
+
+    // bbox is west,south,east,north; west > east means the box crosses the antimeridian
+    public MapClusters clusters(double west, double south, double east, double north, int zoom) {
+        if (zoom < 0 || zoom > 22) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "zoom must be between 0 and 22");
+        }
+        if (south > north || south < -90 || north > 90 || Math.abs(west) > 180 || Math.abs(east) > 180) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "bbox must be west,south,east,north in degrees");
+        }
+        lock.readLock().lock();
+        try {
+            // Beyond max-zoom the finest cells are split back into their restaurants
+            boolean expand = zoom > maxZoom;
+            int level = Math.min(zoom, maxZoom);
+            while (true) {
+                // Level 0 has at most 16 cells, so it always fits
+                int cap = level == 0 ? Integer.MAX_VALUE : maxResults;
+                List<MapCluster> out = collect(level, west, south, east, north, expand, cap);
+                if (out != null) return new MapClusters(expand ? zoom : level, out);
+                // Too many markers for this viewport; step out until the result fits
+                expand = false;
+                level--;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Returns null if the viewport holds more than max-results markers at this level
+    private List<MapCluster> collect(int level, double west, double south, double east, double north,
+                                     boolean expand, int cap) {
+        Map<Long, Cell> cells = levels.get(level);
+        int shift = maxZoom - level;
+        int y0 = cellY(north) >> shift;
+        int y1 = cellY(south) >> shift;
+        List<int[]> xRanges = west <= east
+            ? List.of(new int[] {cellX(west) >> shift, cellX(east) >> shift})
+            : List.of(new int[] {cellX(west) >> shift, cellX(180) >> shift}, new int[] {0, cellX(east) >> shift});
+
+        List<MapCluster> out = new ArrayList<>();
+        for (int[] xs : xRanges) {
+            long span = (long) (xs[1] - xs[0] + 1) * (y1 - y0 + 1);
+            if (span <= cells.size()) {
+                for (int x = xs[0]; x <= xs[1]; x++) {
+                    for (int y = y0; y <= y1; y++) {
+                        Cell c = cells.get(key(x, y));
+                        if (c != null && !emit(c, key(x, y), expand, west, south, east, north, out, cap)) return null;
+                    }
+                }
+            } else {
+                // A huge box at a deep zoom: scanning the level is cheaper than probing every cell
+                for (Map.Entry<Long, Cell> e : cells.entrySet()) {
+                    int x = (int) (e.getKey() >>> 32);
+                    int y = (int) (long) e.getKey();
+                    if (x < xs[0] || x > xs[1] || y < y0 || y > y1) continue;
+                    if (!emit(e.getValue(), e.getKey(), expand, west, south, east, north, out, cap)) return null;
+                }
+            }
+        }
+        return out;
+    }
+
+    private boolean emit(Cell c, long cellKey, boolean expand, double west, double south, double east, double north,
+                         List<MapCluster> out, int cap) {
+        if (c.count <= 0) return true;
+        if (c.count == 1 || expand) {
+            if (c.count == 1) {
+                out.add(toMarker(points.get(new UUID(c.xorMsb, c.xorLsb))));
+            } else {
+                // Only reached at max-zoom, where members are kept per cell
+                for (Point p : finest.getOrDefault(cellKey, List.of())) {
+                    if (p.lat() < south || p.lat() > north) continue;
+                    if (west <= east ? (p.lng() < west || p.lng() > east) : (p.lng() < west && p.lng() > east)) continue;
+                    out.add(toMarker(p));
+                }
+            }
+        } else {
+            out.add(new MapCluster(null, null, c.sumLat / c.count, c.sumLng / c.count, c.count, c.reviewCount,
+                c.reviewCount > 0 ? (double) c.ratingSum / c.reviewCount : null));
+        }
+        return out.size() <= cap;
+    }
+
+    private static MapCluster toMarker(Point p) {
+        return new MapCluster(p.id().toString(), p.name(), p.lat(), p.lng(), 1, p.reviewCount(),
+            p.reviewCount() > 0 ? (double) p.ratingSum() / p.reviewCount() : null);
+    }
+
+    public void refresh(UUID restaurantId) {
+        touched.touch(restaurantId);
+        List<Point> rows = jdbc.query(SELECT_POINTS + " AND r.id = ?", (rs, n) -> point(rs), restaurantId);
+        lock.writeLock().lock();
+        try {
+            remove(restaurantId);
+            if (!rows.isEmpty()) add(rows.get(0));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        rebuildInBackground();
+    }
+
+    void rebuildInBackground() {
+        rebuilds.request();
+    }
+
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        touched.begin();
+        Set<UUID> replay;
+        try {
+            List<Point> rows = jdbc.query(SELECT_POINTS, (rs, n) -> point(rs));
+            lock.writeLock().lock();
+            try {
+                points.clear();
+                levels.forEach(Map::clear);
+                finest.clear();
+                rows.forEach(this::add);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            replay = touched.end();
+        }
+        for (UUID id : replay) refresh(id);
+        ready = true;
+        lastBuildMs = (System.nanoTime() - start) / 1_000_000;
+        log.info("Cluster index built in {} ms: {}", lastBuildMs, stats());
+    }
+
+    // lat/lng pairs for ids into out (NaN for restaurants without coordinates or not loaded yet);
+    // FeedRanker's distance term reads coordinates here rather than from the database
+    public void coordinates(List<UUID> ids, double[] out) {
+        lock.readLock().lock();
+        try {
+            for (int i = 0; i < ids.size(); i++) {
+                Point p = points.get(ids.get(i));
+                out[i * 2] = p != null ? p.lat() : Double.NaN;
+                out[i * 2 + 1] = p != null ? p.lng() : Double.NaN;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public String debugPath() {
+        return "clusters";
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        lock.readLock().lock();
+        try {
+            Map<String, Object> out = new LinkedHashMap<>();
+            out.put("ready", ready);
+            out.put("restaurants", points.size());
+            long cells = 0;
+            for (Map<Long, Cell> level : levels) cells += level.size();
+            out.put("cells", cells);
+            out.put("maxZoom", maxZoom);
+            out.put("lastBuildMs", lastBuildMs);
+            out.put("rebuildsPending", rebuilds.pending());
+            out.put("rebuildsDropped", rebuilds.dropped());
+            return out;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        rebuilds.shutdown();
+    }
+
+    // Caller holds the write lock
+    private void add(Point p) {
+        points.put(p.id(), p);
+        finest.computeIfAbsent(key(p.cellX(), p.cellY()), k -> new ArrayList<>(1)).add(p);
+        for (int z = 0; z <= maxZoom; z++) {
+            int shift = maxZoom - z;
+            levels.get(z).computeIfAbsent(key(p.cellX() >> shift, p.cellY() >> shift), k -> new Cell()).apply(p, 1);
+        }
+    }
+
+    private void remove(UUID id) {
+        Point p = points.remove(id);
+        if (p == null) return;
+        List<Point> members = finest.get(key(p.cellX(), p.cellY()));
+        members.remove(p);
+        if (members.isEmpty()) finest.remove(key(p.cellX(), p.cellY()));
+        for (int z = 0; z <= maxZoom; z++) {
+            int shift = maxZoom - z;
+            long k = key(p.cellX() >> shift, p.cellY() >> shift);
+            Cell c = levels.get(z).get(k);
+            c.apply(p, -1);
+            if (c.count == 0) levels.get(z).remove(k);
+        }
+    }
+
+    private Point point(ResultSet rs) throws SQLException {
+        double lat = rs.getDouble(3);
+        double lng = rs.getDouble(4);
+        return new Point(rs.getObject(1, UUID.class), rs.getString(2), lat, lng,
+            rs.getLong(5), rs.getLong(6), cellX(lng), cellY(lat));
+    }
+
+    // Web Mercator, in cells at max-zoom
+    private int cellX(double lng) {
+        double x = (lng + 180) / 360;
+        return clampCell(x);
+    }
+
+    private int cellY(double lat) {
+        double rad = Math.toRadians(Math.max(-MAX_LAT, Math.min(MAX_LAT, lat)));
+        double y = (1 - Math.log(Math.tan(rad) + 1 / Math.cos(rad)) / Math.PI) / 2;
+        return clampCell(y);
+    }
+
+    private int clampCell(double unit) {
+        long cells = (1L << maxZoom) * (256 / CELL_PX);
+        return (int) Math.max(0, Math.min(cells - 1, (long) Math.floor(unit * cells)));
+    }
+
+    private static long key(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,12 @@
+package com.pratham.foodreview.backend.service;
+
+import java.util.Map;
+
+// A subsystem's counters, served by DebugController at /debug/{debugPath()}. Paths with a common
+// prefix (caches/...) are also served together at the prefix, keyed by the rest of the path.
+public interface DebugStats {
+
+    String debugPath();
+
+    Map<String, Object> stats();
+}
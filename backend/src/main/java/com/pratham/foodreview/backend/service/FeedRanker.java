@@ -0,0 +1,508 @@
+package com.pratham.foodreview.backend.service;
+
+import com.pratham.foodreview.backend.entity.Review;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Orders friends-feed candidates by
+//   recency-weight  * 2^(-age / recency-half-life)
+// + affinity-weight * affinity(viewer, author)
+// + rating-weight   * (rating - 3) / 2
+// + distance-weight * exp(-km to the nearest of the viewer's recent locations / distance-scale)
+// so one review from a close friend isn't buried under a prolific acquaintance's.
+//
+// Affinity is 1 - exp(-raw / affinity-scale), where raw is the viewer's interactions with the
+// author plus co-review-weight per restaurant they have both reviewed. An interaction is opening
+// one of the author's reviews or their profile page, and each decays with interaction-half-life.
+// Co-reviews come from SuggestionService's review graph, which is already maintained incrementally.
+//
+// Decayed interaction scores are shared through feed_affinity: new interactions are added to
+// memory at once and written behind every flush-ms, as score * 2^(-elapsed / half-life) + delta
+// in one UPDATE so instances writing the same pair don't lose each other's counts. A viewer's
+// state (top affinities plus the places of their latest reviews) is loaded on first use and
+// reloaded every cache-ttl-minutes, so every instance converges on the same ranking within that
+// window. Loads run on a background thread: a viewer seen for the first time is ranked with what
+// this instance already knows about them, and an expired one with their previous state, until the
+// load lands. At most max-cached-users viewers are held; the least recently used are evicted.
+//
+// Scoring is one pass over primitive arrays, with affinity looked up once per author and
+// restaurant coordinates read from ClusterIndex, so ranking issues no SQL. The candidate set is
+// bounded by feed.candidates.
+@Service
+public class FeedRanker implements DebugStats {
+
+    private static final Logger log = LoggerFactory.getLogger(FeedRanker.class);
+    private static final int RECENT_LOCATIONS = 5;
+    private static final double LN2 = Math.log(2);
+    // Rows this many half-lives old are worth under 0.1% of their last value
+    private static final int PRUNE_HALF_LIVES = 10;
+    private static final long PRUNE_INTERVAL_MS = 3_600_000;
+    private static final int MAX_QUEUED_LOADS = 1024;
+
+    private static final String LOAD_AFFINITY =
+        "SELECT author_id, score, updated_at_ms FROM feed_affinity WHERE viewer_id = ? ORDER BY score DESC LIMIT ?";
+    private static final String LOAD_LOCATIONS =
+        "SELECT r.lat, r.lng FROM reviews v JOIN restaurants r ON r.id = v.restaurant_id "
+            + "WHERE v.user_id = ? ORDER BY v.created_at DESC LIMIT " + RECENT_LOCATIONS;
+    private static final String ADD_AFFINITY =
+        "UPDATE feed_affinity SET score = score * POWER(0.5, (? - updated_at_ms) / ?) + ?, updated_at_ms = ? "
+            + "WHERE viewer_id = ? AND author_id = ?";
+    private static final String INSERT_AFFINITY =
+        "INSERT INTO feed_affinity (viewer_id, author_id, score, updated_at_ms) VALUES (?, ?, ?, ?) ON CONFLICT DO NOTHING";
+
+    private final SuggestionService suggestionService;
+    private final ClusterIndex clusterIndex;
+    private final double recencyWeight;
+    private final double affinityWeight;
+    private final double ratingWeight;
+    private final double distanceWeight;
+    private final double recencyHalfLifeMs;
+    private final double interactionHalfLifeMs;
+    private final double coReviewWeight;
+    private final double affinityScale;
+    private final double selfAffinity;
+    private final double distanceScaleKm;
+    private final int maxInteractionsPerUser;
+    private final int maxCachedUsers;
+    private final long cacheTtlMs;
+    private final JdbcTemplate jdbc;
+    private final ThreadPoolExecutor loader = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(MAX_QUEUED_LOADS), r -> {
+            Thread t = new Thread(r, "feed-viewer-load");
+            t.setDaemon(true);
+            return t;
+        });
+
+    private final ConcurrentHashMap<UUID, Viewer> viewers = new ConcurrentHashMap<>();
+    // Interactions not yet written to feed_affinity: viewer -> author -> [count, last at]
+    private final ConcurrentHashMap<UUID, Map<UUID, double[]>> unflushed = new ConcurrentHashMap<>();
+    private volatile long lastPruneMs = System.currentTimeMillis();
+    private final LongAdder ranked = new LongAdder();
+    private final LongAdder rankNanos = new LongAdder();
+    private final AtomicLong maxRankNanos = new AtomicLong();
+    private final LongAdder interactionsRecorded = new LongAdder();
+    private final LongAdder viewerLoads = new LongAdder();
+    // Submitted and not yet finished
+    private final AtomicInteger viewerLoadsPending = new AtomicInteger();
+    private final LongAdder viewerLoadsDropped = new LongAdder();
+    private final LongAdder viewerEvictions = new LongAdder();
+    private final LongAdder affinityRowsWritten = new LongAdder();
+    private final LongAdder flushFailures = new LongAdder();
+
+    public FeedRanker(SuggestionService suggestionService,
+                      ClusterIndex clusterIndex,
+                      DataSource dataSource,
+                      @Value("${feed.ranking.recency-weight:1.0}") double recencyWeight,
+                      @Value("${feed.ranking.affinity-weight:1.0}") double affinityWeight,
+                      @Value("${feed.ranking.rating-weight:0.3}") double ratingWeight,
+                      @Value("${feed.ranking.distance-weight:0.5}") double distanceWeight,
+                      @Value("${feed.ranking.recency-half-life-hours:24}") double recencyHalfLifeHours,
+                      @Value("${feed.ranking.interaction-half-life-days:14}") double interactionHalfLifeDays,
+                      @Value("${feed.ranking.co-review-weight:0.5}") double coReviewWeight,
+                      @Value("${feed.ranking.affinity-scale:3}") double affinityScale,
+                      @Value("${feed.ranking.self-affinity:0.5}") double selfAffinity,
+                      @Value("${feed.ranking.distance-scale-km:5}") double distanceScaleKm,
+                      @Value("${feed.ranking.max-interactions-per-user:256}") int maxInteractionsPerUser,
+                      @Value("${feed.ranking.max-cached-users:20000}") int maxCachedUsers,
+                      @Value("${feed.ranking.cache-ttl-minutes:10}") long cacheTtlMinutes) {
+        this.suggestionService = suggestionService;
+        this.clusterIndex = clusterIndex;
+        this.recencyWeight = recencyWeight;
+        this.affinityWeight = affinityWeight;
+        this.ratingWeight = ratingWeight;
+        this.distanceWeight = distanceWeight;
+        this.recencyHalfLifeMs = recencyHalfLifeHours * 3_600_000;
+        this.interactionHalfLifeMs = interactionHalfLifeDays * 86_400_000;
+        this.coReviewWeight = coReviewWeight;
+        this.affinityScale = affinityScale;
+        this.selfAffinity = selfAffinity;
+        this.distanceScaleKm = distanceScaleKm;
+        this.maxInteractionsPerUser = maxInteractionsPerUser;
+        this.maxCachedUsers = Math.max(1, maxCachedUsers);
+        this.cacheTtlMs = TimeUnit.MINUTES.toMillis(cacheTtlMinutes);
+        this.jdbc = new JdbcTemplate(dataSource);
+    }
+
+    public void recordInteraction(UUID viewer, UUID author) {
+        if (viewer.equals(author)) return;
+        interactionsRecorded.increment();
+        long now = System.currentTimeMillis();
+        unflushed.computeIfAbsent(viewer, k -> new ConcurrentHashMap<>()).merge(author, new double[] {1, now},
+            (e, one) -> new double[] {decayed(e, now, interactionHalfLifeMs) + 1, now});
+        // A viewer not cached here picks this up from unflushed when loaded
+        Viewer v = viewers.get(viewer);
+        if (v != null) v.interactions.add(author, now);
+    }
+
+    public void recordLocation(UUID userId, Double lat, Double lng) {
+        if (lat == null || lng == null) return;
+        viewer(userId).locations.add(lat, lng);
+    }
+
+    // For a newly written review: only remember the place once it is committed. A viewer not
+    // cached here will read it from their reviews when loaded.
+    public void recordReviewLocationAfterCommit(UUID userId, Double lat, Double lng) {
+        if (lat == null || lng == null) return;
+        Runnable record = () -> {
+            Viewer v = viewers.get(userId);
+            if (v != null) v.locations.add(lat, lng);
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    record.run();
+                }
+            });
+        } else {
+            record.run();
+        }
+    }
+
+    // The limit best candidates, best first; candidates need their user and restaurant set
+    public List<Review> rank(UUID viewer, List<Review> candidates, int limit) {
+        long started = System.nanoTime();
+        int n = candidates.size();
+        if (n == 0) return List.of();
+
+        // Per-author affinity, computed once per distinct author
+        Map<UUID, Integer> authorSlot = new HashMap<>();
+        List<UUID> authors = new ArrayList<>();
+        int[] authorOf = new int[n];
+        for (int i = 0; i < n; i++) {
+            UUID author = candidates.get(i).getUser().getId();
+            Integer slot = authorSlot.get(author);
+            if (slot == null) {
+                slot = authors.size();
+                authorSlot.put(author, slot);
+                authors.add(author);
+            }
+            authorOf[i] = slot;
+        }
+        int[] shared = new int[authors.size()];
+        suggestionService.sharedRestaurants(viewer, authors, shared);
+        Viewer state = viewer(viewer);
+        Interactions mine = state.interactions;
+        long now = System.currentTimeMillis();
+        double[] affinity = new double[authors.size()];
+        for (int a = 0; a < affinity.length; a++) {
+            UUID author = authors.get(a);
+            if (author.equals(viewer)) {
+                affinity[a] = selfAffinity;
+            } else {
+                double raw = mine.get(author, now, interactionHalfLifeMs) + coReviewWeight * shared[a];
+                affinity[a] = 1 - Math.exp(-raw / affinityScale);
+            }
+        }
+
+        // Restaurant coordinates (from ClusterIndex, in memory) only matter when we know where
+        // the viewer has been
+        double[] near = state.locations.snapshot();
+        double[] place = null;
+        if (near.length > 0) {
+            place = new double[n * 2];
+            clusterIndex.coordinates(candidates.stream().map(r -> r.getRestaurant().getId()).toList(), place);
+        }
+
+        double[] score = new double[n];
+        for (int i = 0; i < n; i++) {
+            Review r = candidates.get(i);
+            double s = affinityWeight * affinity[authorOf[i]];
+            OffsetDateTime at = r.getCreatedAt();
+            if (at != null) {
+                double ageMs = Math.max(0, now - at.toInstant().toEpochMilli());
+                s += recencyWeight * Math.exp(-ageMs * LN2 / recencyHalfLifeMs);
+            }
+            if (r.getRating() != null) s += ratingWeight * (r.getRating() - 3) / 2.0;
+            if (place != null && !Double.isNaN(place[i * 2])) {
+                double km = Double.MAX_VALUE;
+                for (int k = 0; k < near.length; k += 2) {
+                    km = Math.min(km, RatingService.distanceKm(near[k], near[k + 1], place[i * 2], place[i * 2 + 1]));
+                }
+                s += distanceWeight * Math.exp(-km / distanceScaleKm);
+            }
+            score[i] = s;
+        }
+
+        // Top-k by insertion into a sorted index array; k and n are both small
+        int k = Math.min(limit, n);
+        int[] top = new int[k];
+        int size = 0;
+        for (int i = 0; i < n; i++) {
+            if (size == k && score[i] <= score[top[k - 1]]) continue;
+            int pos = size < k ? size++ : k - 1;
+            while (pos > 0 && score[top[pos - 1]] < score[i]) {
+                top[pos] = top[pos - 1];
+                pos--;
+            }
+            top[pos] = i;
+        }
+        List<Review> out = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) out.add(candidates.get(top[i]));
+
+        long elapsed = System.nanoTime() - started;
+        ranked.increment();
+        rankNanos.add(elapsed);
+        maxRankNanos.accumulateAndGet(elapsed, Math::max);
+        return out;
+    }
+
+    // Ranking time per feed and how much affinity/location state is held
+    @Override
+    public String debugPath() {
+        return "feed";
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        long n = ranked.sum();
+        out.put("feedsRanked", n);
+        out.put("avgRankMicros", n > 0 ? rankNanos.sum() / n / 1000.0 : 0.0);
+        out.put("maxRankMicros", maxRankNanos.get() / 1000.0);
+        out.put("interactionsRecorded", interactionsRecorded.sum());
+        out.put("cachedUsers", viewers.size());
+        out.put("maxCachedUsers", maxCachedUsers);
+        out.put("viewerLoads", viewerLoads.sum());
+        out.put("viewerLoadsPending", viewerLoadsPending.get());
+        out.put("viewerLoadsDropped", viewerLoadsDropped.sum());
+        out.put("viewerEvictions", viewerEvictions.sum());
+        out.put("unflushedUsers", unflushed.size());
+        out.put("affinityRowsWritten", affinityRowsWritten.sum());
+        out.put("flushFailures", flushFailures.sum());
+        return out;
+    }
+
+    // Never blocks on the database: a missing or expired viewer is returned as it stands and
+    // (re)loaded in the background
+    private Viewer viewer(UUID userId) {
+        Viewer v = viewers.get(userId);
+        if (v == null) {
+            Viewer created = new Viewer();
+            Map<UUID, double[]> pending = unflushed.get(userId);
+            if (pending != null) pending.forEach((author, e) -> created.interactions.add(author, e[0], (long) e[1]));
+            v = viewers.putIfAbsent(userId, created);
+            if (v == null) {
+                v = created;
+                if (viewers.size() > maxCachedUsers) evictIfNeeded();
+            }
+        }
+        v.lastAccess = System.nanoTime();
+        if (System.currentTimeMillis() - v.loadedAtMs >= cacheTtlMs && v.loading.compareAndSet(false, true)) {
+            Viewer target = v;
+            viewerLoadsPending.incrementAndGet();
+            try {
+                loader.execute(() -> {
+                    try {
+                        load(userId, target);
+                    } finally {
+                        target.loading.set(false);
+                        viewerLoadsPending.decrementAndGet();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // Retried on the viewer's next request
+                target.loading.set(false);
+                viewerLoadsPending.decrementAndGet();
+                viewerLoadsDropped.increment();
+            }
+        }
+        return v;
+    }
+
+    // Shared affinity and recent review places from the database, plus this instance's unflushed
+    // interactions, swapped into the cached viewer. Places already known here are kept as the
+    // most recent. A failed read leaves the viewer as it was, to be retried after the TTL.
+    private void load(UUID userId, Viewer v) {
+        viewerLoads.increment();
+        long now = System.currentTimeMillis();
+        Interactions interactions = new Interactions();
+        Locations locations = new Locations();
+        try {
+            jdbc.query(LOAD_AFFINITY, rs -> {
+                interactions.put(rs.getObject(1, UUID.class), rs.getDouble(2), rs.getLong(3));
+            }, userId, maxInteractionsPerUser);
+            List<double[]> places = new ArrayList<>();
+            jdbc.query(LOAD_LOCATIONS, rs -> {
+                double lat = rs.getDouble(1);
+                if (rs.wasNull()) return;
+                double lng = rs.getDouble(2);
+                if (!rs.wasNull()) places.add(new double[] {lat, lng});
+            }, userId);
+            // Oldest first, so the newest ends up as the most recent entry
+            for (int i = places.size() - 1; i >= 0; i--) locations.add(places.get(i)[0], places.get(i)[1]);
+        } catch (DataAccessException e) {
+            log.warn("Could not load feed affinity for {}", userId, e);
+            v.loadedAtMs = now;
+            return;
+        }
+        Map<UUID, double[]> pending = unflushed.get(userId);
+        if (pending != null) pending.forEach((author, e) -> interactions.add(author, e[0], (long) e[1]));
+        double[] known = v.locations.snapshot();
+        for (int k = 0; k < known.length; k += 2) locations.add(known[k], known[k + 1]);
+        v.interactions = interactions;
+        v.locations = locations;
+        v.loadedAtMs = now;
+    }
+
+    // Least recently used viewers go first, down to 90% so we don't sort on every insert
+    private synchronized void evictIfNeeded() {
+        if (viewers.size() <= maxCachedUsers) return;
+        int target = maxCachedUsers * 9 / 10;
+        List<Map.Entry<UUID, Viewer>> candidates = new ArrayList<>(viewers.entrySet());
+        candidates.sort(Comparator.comparingLong(e -> e.getValue().lastAccess));
+        for (Map.Entry<UUID, Viewer> e : candidates) {
+            if (viewers.size() <= target) break;
+            if (viewers.remove(e.getKey(), e.getValue())) viewerEvictions.increment();
+        }
+    }
+
+    // Writes unflushed interactions to feed_affinity, decaying the stored score in the same
+    // statement; a pair no instance has written yet is inserted
+    @Scheduled(fixedDelayString = "${feed.ranking.flush-ms:5000}")
+    public void flush() {
+        long now = System.currentTimeMillis();
+        for (UUID viewer : unflushed.keySet()) {
+            Map<UUID, double[]> pending = unflushed.remove(viewer);
+            if (pending == null) continue;
+            for (Map.Entry<UUID, double[]> e : pending.entrySet()) {
+                double[] at = e.getValue();
+                try {
+                    write(viewer, e.getKey(), decayed(at, now, interactionHalfLifeMs), now);
+                    affinityRowsWritten.increment();
+                } catch (DataAccessException ex) {
+                    flushFailures.increment();
+                    log.warn("Could not write feed affinity {} -> {}", viewer, e.getKey(), ex);
+                }
+            }
+        }
+        if (now - lastPruneMs > PRUNE_INTERVAL_MS) {
+            lastPruneMs = now;
+            try {
+                jdbc.update("DELETE FROM feed_affinity WHERE updated_at_ms < ?",
+                    now - (long) (PRUNE_HALF_LIVES * interactionHalfLifeMs));
+            } catch (DataAccessException ex) {
+                log.warn("Could not prune feed affinity", ex);
+            }
+        }
+    }
+
+    private void write(UUID viewer, UUID author, double delta, long now) {
+        Object[] add = {now, interactionHalfLifeMs, delta, now, viewer, author};
+        if (jdbc.update(ADD_AFFINITY, add) > 0) return;
+        if (jdbc.update(INSERT_AFFINITY, viewer, author, delta, now) > 0) return;
+        // Another instance inserted the pair in between
+        jdbc.update(ADD_AFFINITY, add);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        loader.shutdownNow();
+        flush();
+    }
+
+    private static double decayed(double[] e, long now, double halfLifeMs) {
+        return e[0] * Math.exp(-(now - e[1]) * LN2 / halfLifeMs);
+    }
+
+    private final class Viewer {
+        // 0 until the first load lands, so the viewer counts as expired
+        volatile long loadedAtMs;
+        final AtomicBoolean loading = new AtomicBoolean();
+        volatile Interactions interactions = new Interactions();
+        volatile Locations locations = new Locations();
+        volatile long lastAccess = System.nanoTime();
+    }
+
+    // One viewer's decaying interaction counts by author
+    private final class Interactions {
+        private final Map<UUID, double[]> byAuthor = new HashMap<>();
+
+        synchronized void add(UUID author, long now) {
+            add(author, 1, now);
+        }
+
+        // count interactions as of at
+        synchronized void add(UUID author, double count, long at) {
+            double[] e = byAuthor.get(author);
+            if (e == null) {
+                if (byAuthor.size() >= maxInteractionsPerUser) evictWeakest(at);
+                byAuthor.put(author, new double[] {count, at});
+            } else {
+                long now = Math.max(at, (long) e[1]);
+                e[0] = decayed(e, now, interactionHalfLifeMs) + decayed(new double[] {count, at}, now, interactionHalfLifeMs);
+                e[1] = now;
+            }
+        }
+
+        synchronized void put(UUID author, double score, long at) {
+            byAuthor.put(author, new double[] {score, at});
+        }
+
+        synchronized double get(UUID author, long now, double halfLifeMs) {
+            double[] e = byAuthor.get(author);
+            return e != null ? decayed(e, now, halfLifeMs) : 0;
+        }
+
+        private void evictWeakest(long now) {
+            UUID weakest = null;
+            double min = Double.MAX_VALUE;
+            for (Map.Entry<UUID, double[]> e : byAuthor.entrySet()) {
+                double v = decayed(e.getValue(), now, interactionHalfLifeMs);
+                if (v < min) {
+                    min = v;
+                    weakest = e.getKey();
+                }
+            }
+            byAuthor.remove(weakest);
+        }
+    }
+
+    // The last few places a user opened the feed from or reviewed, as lat/lng pairs
+    private static final class Locations {
+        private final double[] latLng = new double[RECENT_LOCATIONS * 2];
+        private int size;
+        private int next;
+
+        synchronized void add(double lat, double lng) {
+            latLng[next * 2] = lat;
+            latLng[next * 2 + 1] = lng;
+            next = (next + 1) % RECENT_LOCATIONS;
+            size = Math.min(size + 1, RECENT_LOCATIONS);
+        }
+
+        synchronized double[] snapshot() {
+            double[] out = new double[size * 2];
+            System.arraycopy(latLng, 0, out, 0, out.length);
+            return out;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.pratham.foodreview.backend.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Always-on slow-request recorder. Every finished request leaves an immutable snapshot (route,
+// status, total and per-phase time from RequestTrace) in a ring buffer of the most recent
+// ring-size requests; the slowest requests of the last window-minutes are also kept in a fixed
+// set of slots. Both are updated with plain atomics (no locks), and a request faster than the
+// current slowest-N floor costs one volatile read on top of the ring write.
+//
+// With flight-recorder.jfr on, each request is also a JFR event (RequestTraceEvent).
+@Service
+public class FlightRecorder {
+
+    public record Snapshot(String method, String route, int status, long atEpochMs, long totalNanos,
+                           long[] phaseNanos, int[] phaseCounts) {}
+
+    private final boolean jfr;
+    private final long windowMs;
+    private final AtomicReferenceArray<Snapshot> ring;
+    private final int ringMask;
+    private final AtomicLong cursor = new AtomicLong();
+    private final AtomicReferenceArray<Snapshot> slowest;
+    // Fastest request currently held in the slowest set (0 while any slot is free or expired),
+    // and the oldest slot's start: once that leaves the window a slot has expired and the floor
+    // no longer applies, whether or not anything recomputed it since
+    private record Floor(long nanos, long oldestEpochMs) {}
+    private static final Floor NO_FLOOR = new Floor(0, Long.MAX_VALUE);
+    private volatile Floor floor = NO_FLOOR;
+
+    @Autowired
+    public FlightRecorder(@Value("${flight-recorder.ring-size:1024}") int ringSize,
+                          @Value("${flight-recorder.slowest:50}") int slowest,
+                          @Value("${flight-recorder.window-minutes:60}") long windowMinutes,
+                          @Value("${flight-recorder.jfr:false}") boolean jfr) {
+        this(ringSize, slowest, Duration.ofMinutes(windowMinutes), jfr);
+    }
+
+    FlightRecorder(int ringSize, int slowest, Duration window, boolean jfr) {
+        int size = Integer.highestOneBit(Math.max(2, ringSize - 1)) << 1;
+        this.ring = new AtomicReferenceArray<>(size);
+        this.ringMask = size - 1;
+        this.slowest = new AtomicReferenceArray<>(Math.max(1, slowest));
+        this.windowMs = window.toMillis();
+        this.jfr = jfr;
+    }
+
+    public RequestTrace begin() {
+        RequestTrace trace = RequestTrace.open();
+        if (jfr) {
+            RequestTraceEvent event = new RequestTraceEvent();
+            if (event.isEnabled()) {
+                event.begin();
+                trace.event = event;
+            }
+        }
+        return trace;
+    }
+
+    public void end(RequestTrace trace, String method, String route, int status) {
+        RequestTrace.close();
+        long total = System.nanoTime() - trace.startNanos;
+        Snapshot snapshot = new Snapshot(method, route, status, trace.startEpochMs, total,
+            trace.nanos.clone(), trace.counts.clone());
+        ring.set((int) (cursor.getAndIncrement() & ringMask), snapshot);
+        Floor f = floor;
+        if (total > f.nanos() || f.oldestEpochMs() < snapshot.atEpochMs() - windowMs) offerSlowest(snapshot);
+        if (trace.event != null) commit(trace.event, snapshot);
+    }
+
+    private void offerSlowest(Snapshot snapshot) {
+        long cutoff = snapshot.atEpochMs() - windowMs;
+        while (true) {
+            // Replace the free, expired or fastest slot, if this request is slower than it
+            int victim = -1;
+            Snapshot current = null;
+            for (int i = 0; i < slowest.length(); i++) {
+                Snapshot s = slowest.get(i);
+                if (s == null || s.atEpochMs() < cutoff) {
+                    victim = i;
+                    current = s;
+                    break;
+                }
+                if (victim < 0 || s.totalNanos() < current.totalNanos()) {
+                    victim = i;
+                    current = s;
+                }
+            }
+            if (current != null && current.atEpochMs() >= cutoff && current.totalNanos() >= snapshot.totalNanos()) {
+                return;
+            }
+            if (slowest.compareAndSet(victim, current, snapshot)) {
+                floor = floor(cutoff);
+                return;
+            }
+        }
+    }
+
+    private Floor floor(long cutoff) {
+        long min = Long.MAX_VALUE;
+        long oldest = Long.MAX_VALUE;
+        for (int i = 0; i < slowest.length(); i++) {
+            Snapshot s = slowest.get(i);
+            if (s == null || s.atEpochMs() < cutoff) return NO_FLOOR;
+            min = Math.min(min, s.totalNanos());
+            oldest = Math.min(oldest, s.atEpochMs());
+        }
+        return new Floor(min, oldest);
+    }
+
+    private static void commit(RequestTraceEvent event, Snapshot s) {
+        event.end();
+        if (!event.shouldCommit()) return;
+        event.method = s.method();
+        event.route = s.route();
+        event.status = s.status();
+        event.jwt = s.phaseNanos()[RequestTrace.Phase.JWT.ordinal()];
+        event.poolWait = s.phaseNanos()[RequestTrace.Phase.POOL_WAIT.ordinal()];
+        event.sql = s.phaseNanos()[RequestTrace.Phase.SQL.ordinal()];
+        event.sqlStatements = s.phaseCounts()[RequestTrace.Phase.SQL.ordinal()];
+        event.mapping = s.phaseNanos()[RequestTrace.Phase.MAPPING.ordinal()];
+        event.serialization = s.phaseNanos()[RequestTrace.Phase.SERIALIZATION.ordinal()];
+        event.commit();
+    }
+
+    public List<Snapshot> slowest() {
+        long cutoff = System.currentTimeMillis() - windowMs;
+        List<Snapshot> out = new ArrayList<>();
+        for (int i = 0; i < slowest.length(); i++) {
+            Snapshot s = slowest.get(i);
+            if (s != null && s.atEpochMs() >= cutoff) out.add(s);
+        }
+        out.sort(Comparator.comparingLong(Snapshot::totalNanos).reversed());
+        floor = floor(cutoff);
+        return out;
+    }
+
+    public List<Snapshot> recent() {
+        List<Snapshot> out = new ArrayList<>(ring.length());
+        for (int i = 0; i < ring.length(); i++) {
+            Snapshot s = ring.get(i);
+            if (s != null) out.add(s);
+        }
+        out.sort(Comparator.comparingLong(Snapshot::atEpochMs));
+        return out;
+    }
+
+    // route == null for all routes
+    public Map<String, Object> report(String route, int limit) {
+        List<Snapshot> recent = recent().stream().filter(s -> route == null || route.equals(s.route())).toList();
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("windowMinutes", TimeUnit.MILLISECONDS.toMinutes(windowMs));
+        out.put("jfr", jfr);
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", recent.size());
+        if (!recent.isEmpty()) {
+            long[] totals = recent.stream().mapToLong(Snapshot::totalNanos).sorted().toArray();
+            summary.put("p50Ms", ms(totals[(totals.length - 1) / 2]));
+            summary.put("p99Ms", ms(totals[(int) Math.ceil(totals.length * 0.99) - 1]));
+            summary.put("maxMs", ms(totals[totals.length - 1]));
+            Map<String, Object> avg = new LinkedHashMap<>();
+            for (RequestTrace.Phase p : RequestTrace.Phase.values()) {
+                avg.put(p.label, ms(recent.stream().mapToLong(s -> s.phaseNanos()[p.ordinal()]).sum() / recent.size()));
+            }
+            summary.put("avgPhaseMs", avg);
+        }
+        out.put("recent", summary);
+        out.put("slowest", slowest().stream()
+            .filter(s -> route == null || route.equals(s.route()))
+            .limit(limit)
+            .map(FlightRecorder::describe)
+            .toList());
+        return out;
+    }
+
+    static Map<String, Object> describe(Snapshot s) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("method", s.method());
+        m.put("route", s.route());
+        m.put("status", s.status());
+        m.put("at", Instant.ofEpochMilli(s.atEpochMs()).toString());
+        m.put("totalMs", ms(s.totalNanos()));
+        // Phases overlap (SQL issued while mapping counts toward both), so they don't sum to total
+        Map<String, Object> phases = new LinkedHashMap<>();
+        for (RequestTrace.Phase p : RequestTrace.Phase.values()) {
+            phases.put(p.label + "Ms", ms(s.phaseNanos()[p.ordinal()]));
+        }
+        phases.put("sqlStatements", s.phaseCounts()[RequestTrace.Phase.SQL.ordinal()]);
+        phases.put("poolAcquires", s.phaseCounts()[RequestTrace.Phase.POOL_WAIT.ordinal()]);
+        m.put("phases", phases);
+        return m;
+    }
+
+    private static double ms(long nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+}
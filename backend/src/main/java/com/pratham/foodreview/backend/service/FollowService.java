@@ -0,0 +1,58 @@
+package com.pratham.foodreview.backend.service;
+
+import com.pratham.foodreview.backend.entity.Follow;
+import com.pratham.foodreview.backend.entity.FollowId;
+import com.pratham.foodreview.backend.repo.FollowRepository;
+import com.pratham.foodreview.backend.repo.ProfileRepository;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+// Follow / unfollow. Both are idempotent; every change is announced on the invalidation bus so
+// each instance's SuggestionService re-reads the edge.
+@Service
+public class FollowService {
+
+    private final FollowRepository followRepository;
+    private final ProfileRepository profileRepository;
+    private final InvalidationBus invalidationBus;
+
+    public FollowService(FollowRepository followRepository,
+                         ProfileRepository profileRepository,
+                         InvalidationBus invalidationBus) {
+        this.followRepository = followRepository;
+        this.profileRepository = profileRepository;
+        this.invalidationBus = invalidationBus;
+    }
+
+    @Transactional
+    public void follow(UUID followerId, UUID followingId) {
+        if (followerId.equals(followingId)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cannot follow yourself");
+        }
+        FollowId id = new FollowId(followerId, followingId);
+        if (followRepository.existsById(id)) return;
+
+        Follow follow = new Follow();
+        follow.setId(id);
+        follow.setFollower(profileRepository.findById(followerId)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User profile not found")));
+        follow.setFollowing(profileRepository.findById(followingId)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found")));
+        follow.setCreatedAt(OffsetDateTime.now());
+        followRepository.save(follow);
+        invalidationBus.publishAfterCommit(InvalidationKeys.FOLLOW, InvalidationKeys.followKey(followerId, followingId));
+    }
+
+    @Transactional
+    public void unfollow(UUID followerId, UUID followingId) {
+        FollowId id = new FollowId(followerId, followingId);
+        if (!followRepository.existsById(id)) return;
+        followRepository.deleteById(id);
+        invalidationBus.publishAfterCommit(InvalidationKeys.FOLLOW, InvalidationKeys.followKey(followerId, followingId));
+    }
+}
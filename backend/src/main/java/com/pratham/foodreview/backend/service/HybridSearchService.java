@@ -0,0 +1,229 @@
+package com.pratham.foodreview.backend.service;
+
+import com.pratham.foodreview.backend.dto.RatingSummary;
+import com.pratham.foodreview.backend.dto.RestaurantSearchResult;
+import com.pratham.foodreview.backend.dto.RestaurantSuggestion;
+import com.pratham.foodreview.backend.entity.Restaurant;
+import com.pratham.foodreview.backend.repo.RestaurantRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Restaurant search over our own restaurants (TypeaheadIndex, with review counts and ratings) and
+// Google Places at the same time. Google runs on a small pool while the local lookup runs on the
+// request thread, and both share one deadline. If Google is late, rate limited or fails, the local
+// results come back alone and google is listed in missingSources. Results are deduplicated on
+// (provider, providerId). Restaurants with reviews here come first; after them come Google's
+// results in Google's order, then local matches Google didn't return.
+@Service
+public class HybridSearchService implements DebugStats {
+
+    private static final Logger log = LoggerFactory.getLogger(HybridSearchService.class);
+    private static final String GOOGLE = "google";
+
+    public record Result(List<RestaurantSearchResult> restaurants, List<String> missingSources) {}
+
+    private static final class SourceStats {
+        final LongAdder calls = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final AtomicLong maxNanos = new AtomicLong();
+        final LongAdder missed = new LongAdder();
+
+        void record(long nanos) {
+            calls.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> m = new LinkedHashMap<>();
+            long n = calls.sum();
+            m.put("calls", n);
+            m.put("avgMs", n > 0 ? totalNanos.sum() / n / 1_000_000.0 : 0.0);
+            m.put("maxMs", maxNanos.get() / 1_000_000.0);
+            m.put("missed", missed.sum());
+            return m;
+        }
+    }
+
+    private final SearchService places;
+    private final TypeaheadIndex typeaheadIndex;
+    private final RestaurantRepository restaurantRepository;
+    private final RatingService ratingService;
+    private final long deadlineMs;
+    private final int localLimit;
+    private final ThreadPoolExecutor googleWorkers;
+
+    private final SourceStats local = new SourceStats();
+    private final SourceStats google = new SourceStats();
+
+    public HybridSearchService(@Lazy SearchService places,
+                               TypeaheadIndex typeaheadIndex,
+                               RestaurantRepository restaurantRepository,
+                               RatingService ratingService,
+                               @Value("${search.deadline-ms:1200}") long deadlineMs,
+                               @Value("${search.local-limit:20}") int localLimit,
+                               @Value("${search.google-threads:8}") int googleThreads,
+                               @Value("${search.google-queue-capacity:32}") int googleQueueCapacity) {
+        this.places = places;
+        this.typeaheadIndex = typeaheadIndex;
+        this.restaurantRepository = restaurantRepository;
+        this.ratingService = ratingService;
+        this.deadlineMs = deadlineMs;
+        this.localLimit = Math.max(1, Math.min(localLimit, 20));
+
+        AtomicInteger n = new AtomicInteger();
+        this.googleWorkers = new ThreadPoolExecutor(googleThreads, googleThreads, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(googleQueueCapacity), r -> {
+                Thread t = new Thread(r, "search-google-" + n.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+    }
+
+    public Result search(String query, Double lat, Double lng) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMs);
+        Future<List<RestaurantSearchResult>> googleFuture;
+        try {
+            googleFuture = googleWorkers.submit(() -> {
+                long t = System.nanoTime();
+                try {
+                    return places.searchRestaurants(query, lat, lng);
+                } finally {
+                    google.record(System.nanoTime() - t);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            googleFuture = null;
+        }
+
+        long t = System.nanoTime();
+        List<RestaurantSuggestion> localMatches = typeaheadIndex.suggest(query, lat, lng, localLimit);
+        local.record(System.nanoTime() - t);
+
+        List<RestaurantSearchResult> googleResults = null;
+        boolean rateLimited = false;
+        if (googleFuture != null) {
+            try {
+                googleResults = googleFuture.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                googleFuture.cancel(true);
+                log.info("Google Places missed the {} ms search deadline: query='{}'", deadlineMs, query);
+            } catch (ExecutionException e) {
+                rateLimited = e.getCause() instanceof ResponseStatusException rse
+                    && rse.getStatusCode() == HttpStatus.TOO_MANY_REQUESTS;
+                if (!rateLimited) log.warn("Google Places search failed: query='{}'", query, e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (googleResults == null) {
+            google.missed.increment();
+            // Nothing to show at all: keep the old "try again shortly" answer
+            if (rateLimited && localMatches.isEmpty()) {
+                throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Search is busy, try again shortly");
+            }
+        }
+
+        return new Result(merge(localMatches, googleResults != null ? googleResults : List.of()),
+            googleResults != null ? List.of() : List.of(GOOGLE));
+    }
+
+    private List<RestaurantSearchResult> merge(List<RestaurantSuggestion> localMatches,
+                                               List<RestaurantSearchResult> googleResults) {
+        // Google results we already have rows for, including ones the local text match missed
+        Map<String, UUID> localIds = new HashMap<>();
+        for (RestaurantSuggestion s : localMatches) localIds.put(key(s.provider(), s.providerId()), UUID.fromString(s.id()));
+        List<String> unmatchedPlaceIds = googleResults.stream()
+            .filter(g -> !localIds.containsKey(key(g.provider(), g.providerId())))
+            .map(RestaurantSearchResult::providerId)
+            .toList();
+        if (!unmatchedPlaceIds.isEmpty()) {
+            for (Restaurant r : restaurantRepository.findByProviderAndProviderIdIn(GOOGLE, unmatchedPlaceIds)) {
+                localIds.put(key(r.getProvider(), r.getProviderId()), r.getId());
+            }
+        }
+        Map<UUID, RatingSummary> ratings = ratingService.summariesFor(localIds.values());
+
+        Map<String, RestaurantSearchResult> merged = new LinkedHashMap<>();
+        for (RestaurantSearchResult g : googleResults) {
+            String k = key(g.provider(), g.providerId());
+            UUID id = localIds.get(k);
+            merged.putIfAbsent(k, id == null ? g : new RestaurantSearchResult(
+                g.provider(), g.providerId(), g.name(), g.address(), g.lat(), g.lng(),
+                g.photoReference(), g.priceLevel(), g.rating(),
+                id.toString(), count(ratings.get(id)), average(ratings.get(id))));
+        }
+        for (RestaurantSuggestion s : localMatches) {
+            UUID id = UUID.fromString(s.id());
+            merged.putIfAbsent(key(s.provider(), s.providerId()), new RestaurantSearchResult(
+                s.provider(), s.providerId(), s.name(), s.address(), s.lat(), s.lng(),
+                null, null, null,
+                s.id(), count(ratings.get(id)), average(ratings.get(id))));
+        }
+
+        List<RestaurantSearchResult> reviewed = new ArrayList<>();
+        List<RestaurantSearchResult> rest = new ArrayList<>();
+        for (RestaurantSearchResult r : merged.values()) {
+            (r.reviewCount() != null && r.reviewCount() > 0 ? reviewed : rest).add(r);
+        }
+        reviewed.addAll(rest);
+        return reviewed;
+    }
+
+    // Per-source search latency and how often Google missed the deadline
+    @Override
+    public String debugPath() {
+        return "search";
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("deadlineMs", deadlineMs);
+        out.put("local", local.toMap());
+        out.put("google", google.toMap());
+        out.put("googleActive", googleWorkers.getActiveCount());
+        out.put("googleQueued", googleWorkers.getQueue().size());
+        return out;
+    }
+
+    private static String key(String provider, String providerId) {
+        return provider + ":" + providerId;
+    }
+
+    private static long count(RatingSummary summary) {
+        return summary != null ? summary.count() : 0;
+    }
+
+    private static Double average(RatingSummary summary) {
+        return summary != null ? summary.average() : null;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        googleWorkers.shutdownNow();
+    }
+}
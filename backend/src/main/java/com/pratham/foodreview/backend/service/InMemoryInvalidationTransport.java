@@ -0,0 +1,34 @@
+package com.pratham.foodreview.backend.service;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+// Delivers to every started transport in the same JVM, so tests can run several "instances"
+// side by side. Delivery is synchronous on the publishing thread.
+public class InMemoryInvalidationTransport implements InvalidationTransport {
+
+    private static final List<InMemoryInvalidationTransport> STARTED = new CopyOnWriteArrayList<>();
+
+    private volatile Consumer<String> onMessage;
+
+    @Override
+    public void start(Consumer<String> onMessage, Runnable onReconnect) {
+        this.onMessage = onMessage;
+        STARTED.add(this);
+    }
+
+    @Override
+    public void publish(String payload) {
+        for (InMemoryInvalidationTransport t : STARTED) {
+            Consumer<String> handler = t.onMessage;
+            if (handler != null) handler.accept(payload);
+        }
+    }
+
+    @Override
+    public void stop() {
+        STARTED.remove(this);
+        onMessage = null;
+    }
+}
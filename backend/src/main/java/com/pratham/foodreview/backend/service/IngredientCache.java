@@ -0,0 +1,468 @@
+package com.pratham.foodreview.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+// Persistent cache in front of the menu scraper's /api/ingredients. Requests are keyed by the
+// SHA-256 of their canonical JSON (keys sorted), so field order doesn't matter. Successful
+// response bodies are appended to a single log file and served back as the stored bytes.
+//
+// Record layout: magic(4) | key(32) | expiresAtMillis(8) | length(4) | crc32(4) | body(length)
+//
+// The in-memory index (key -> offset) is rebuilt on startup by scanning a read-only mapping of
+// the log; a torn tail from a crash fails its CRC and is truncated. Overwritten and expired
+// records are dead space: once the log passes max-bytes, or is more than half dead, it is
+// compacted into a fresh file with the oldest live entries dropped first. Compaction runs on its
+// own thread; lookups and appends only wait for the final catch-up and swap.
+@Service
+public class IngredientCache implements DebugStats {
+
+    private static final Logger log = LoggerFactory.getLogger(IngredientCache.class);
+
+    private static final int MAGIC = 0x494E4743; // "INGC"
+    private static final int KEY_BYTES = 32;
+    private static final int HEADER_BYTES = 4 + KEY_BYTES + 8 + 4 + 4;
+    private static final long COMPACT_MIN_BYTES = 1 << 20;
+    private static final String LOG_FILE = "ingredients.log";
+
+    public record Result(int status, byte[] body, String cache, long retryAfterSeconds) {}
+
+    private record Entry(long offset, int length, long expiresAt) {}
+
+    private final Path dir;
+    private final Path logPath;
+    private final long ttlMillis;
+    private final long maxBytes;
+    private final int maxEntryBytes;
+    private final URI upstream;
+    private final RateLimitService rateLimitService;
+    private final HttpClient httpClient;
+    private final ObjectMapper canonicalMapper = JsonMapper.builder()
+        .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+        .enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+        .build();
+
+    // Positional reads run under the read lock; appends and the compaction swap take the write lock
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ConcurrentHashMap<String, Entry> index = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, CompletableFuture<Result>> inflight = new ConcurrentHashMap<>();
+    private FileChannel channel;
+    private long fileBytes;
+    private long liveBytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder writes = new LongAdder();
+    private final LongAdder compactions = new LongAdder();
+    private final LongAdder compactionFailures = new LongAdder();
+    private final SingleFlight compactor = new SingleFlight("ingredient-cache-compact", this::compact);
+
+    public IngredientCache(@Value("${ingredient-cache.dir:./data/ingredient-cache}") String dir,
+                           @Value("${ingredient-cache.ttl-seconds:604800}") long ttlSeconds,
+                           @Value("${ingredient-cache.max-bytes:67108864}") long maxBytes,
+                           @Value("${ingredient-cache.max-entry-bytes:1048576}") int maxEntryBytes,
+                           @Value("${menu-scraper.url:http://localhost:8001/api/ingredients}") String upstreamUrl,
+                           RateLimitService rateLimitService) throws IOException {
+        this.dir = Path.of(dir).toAbsolutePath().normalize();
+        this.logPath = this.dir.resolve(LOG_FILE);
+        this.ttlMillis = ttlSeconds * 1000;
+        // One mapping covers the whole log on restart, so it has to stay addressable by an int
+        this.maxBytes = Math.min(maxBytes, Integer.MAX_VALUE / 2);
+        this.maxEntryBytes = maxEntryBytes;
+        this.upstream = URI.create(upstreamUrl);
+        this.rateLimitService = rateLimitService;
+        this.httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        open();
+    }
+
+    public Result lookup(Map<String, Object> request) {
+        byte[] canonical;
+        try {
+            canonical = canonicalMapper.writeValueAsBytes(request);
+        } catch (JsonProcessingException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid lookup request");
+        }
+        String key = sha256(canonical);
+
+        byte[] cached = read(key);
+        if (cached != null) {
+            hits.increment();
+            return new Result(200, cached, "HIT", 0);
+        }
+
+        CompletableFuture<Result> created = new CompletableFuture<>();
+        CompletableFuture<Result> existing = inflight.putIfAbsent(key, created);
+        if (existing != null) {
+            coalesced.increment();
+            return await(existing);
+        }
+        try {
+            // A fetch may have landed between the read above and winning the inflight slot
+            cached = read(key);
+            if (cached != null) {
+                hits.increment();
+                created.complete(new Result(200, cached, "HIT", 0));
+                return created.join();
+            }
+            misses.increment();
+            Result result = fetch(key, canonical);
+            created.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            inflight.remove(key, created);
+        }
+    }
+
+    @Override
+    public String debugPath() {
+        return "caches/ingredients";
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        lock.readLock().lock();
+        try {
+            out.put("entries", index.size());
+            out.put("fileBytes", fileBytes);
+            out.put("liveBytes", liveBytes);
+        } finally {
+            lock.readLock().unlock();
+        }
+        out.put("maxBytes", maxBytes);
+        out.put("hits", hits.sum());
+        out.put("misses", misses.sum());
+        out.put("coalesced", coalesced.sum());
+        out.put("expired", expired.sum());
+        out.put("writes", writes.sum());
+        out.put("compactions", compactions.sum());
+        out.put("compactionFailures", compactionFailures.sum());
+        out.put("compactionsPending", compactor.pending());
+        return out;
+    }
+
+    private Result fetch(String key, byte[] canonical) {
+        RateLimitService.Permit permit = rateLimitService.acquireUpstream(RateLimitService.MENU_SCRAPER);
+        if (!permit.granted()) {
+            return new Result(429, error("Menu scraper is busy, try again shortly"), "MISS", permit.retryAfterSeconds());
+        }
+        HttpResponse<byte[]> response;
+        try {
+            response = httpClient.send(HttpRequest.newBuilder(upstream)
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(canonical))
+                    .build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            return new Result(502, error("Menu scraper service unavailable: " + e.getMessage()), "MISS", 0);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted");
+        }
+        if (response.statusCode() / 100 != 2) {
+            return new Result(502, error("Menu scraper returned " + response.statusCode()), "MISS", 0);
+        }
+        byte[] body = response.body();
+        if (body.length <= maxEntryBytes) append(key, body);
+        return new Result(response.statusCode(), body, "MISS", 0);
+    }
+
+    private byte[] read(String key) {
+        lock.readLock().lock();
+        try {
+            Entry e = index.get(key);
+            if (e == null) return null;
+            if (e.expiresAt() < System.currentTimeMillis()) {
+                expired.increment();
+                return null;
+            }
+            ByteBuffer buf = ByteBuffer.allocate(e.length());
+            while (buf.hasRemaining()) {
+                if (channel.read(buf, e.offset() + buf.position()) < 0) throw new IOException("Unexpected end of cache log");
+            }
+            return buf.array();
+        } catch (IOException ex) {
+            log.warn("Ingredient cache read failed for {}", key, ex);
+            return null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void append(String key, byte[] body) {
+        lock.writeLock().lock();
+        try {
+            long expiresAt = System.currentTimeMillis() + ttlMillis;
+            ByteBuffer record = encode(HexFormat.of().parseHex(key), expiresAt, body);
+            long offset = fileBytes;
+            while (record.hasRemaining()) offset += channel.write(record, offset);
+            Entry previous = index.put(key, new Entry(fileBytes + HEADER_BYTES, body.length, expiresAt));
+            if (previous != null) liveBytes -= HEADER_BYTES + previous.length();
+            liveBytes += HEADER_BYTES + body.length;
+            fileBytes = offset;
+            writes.increment();
+            if (needsCompaction()) compactor.request();
+        } catch (IOException e) {
+            // The response is still served; only the cache write is lost
+            log.warn("Ingredient cache append failed for {}", key, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Caller holds a lock
+    private boolean needsCompaction() {
+        return fileBytes > maxBytes || (fileBytes > COMPACT_MIN_BYTES && liveBytes < fileBytes / 2);
+    }
+
+    // Copies live, unexpired records oldest-first into a new file, skipping the oldest ones until
+    // the result fits in 90% of max-bytes. Records never move within the log, so the bulk copy
+    // runs without the lock while appends continue at the end; the write lock is only taken to
+    // copy what was appended meanwhile and to swap files. The old channel stays open until the
+    // new file has replaced the log, so a failed move leaves the cache as it was.
+    private void compact() {
+        long now = System.currentTimeMillis();
+        List<Map.Entry<String, Entry>> live = new ArrayList<>();
+        long keepBytes = 0;
+        long copiedUpTo;
+        lock.readLock().lock();
+        try {
+            if (!needsCompaction()) return;
+            copiedUpTo = fileBytes;
+            for (Map.Entry<String, Entry> e : index.entrySet()) {
+                if (e.getValue().expiresAt() < now) continue;
+                live.add(Map.entry(e.getKey(), e.getValue()));
+                keepBytes += HEADER_BYTES + e.getValue().length();
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        live.sort(Comparator.comparingLong(e -> e.getValue().offset()));
+        int skip = 0;
+        long target = maxBytes * 9 / 10;
+        while (keepBytes > target && skip < live.size()) {
+            keepBytes -= HEADER_BYTES + live.get(skip++).getValue().length();
+        }
+
+        Path tmp = dir.resolve(LOG_FILE + ".compact");
+        FileChannel out = null;
+        try {
+            out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+            Map<String, Entry> copied = new HashMap<>();
+            Map<String, Entry> moved = new HashMap<>();
+            long written = 0;
+            for (Map.Entry<String, Entry> e : live.subList(skip, live.size())) {
+                moved.put(e.getKey(), new Entry(written + HEADER_BYTES, e.getValue().length(), e.getValue().expiresAt()));
+                copied.put(e.getKey(), e.getValue());
+                written = copy(e.getValue(), out, written);
+            }
+
+            lock.writeLock().lock();
+            try {
+                // Keep a copied record only if it is still the current one for its key; records
+                // appended since the snapshot are copied now, in log order
+                Map<String, Entry> next = new HashMap<>();
+                List<Map.Entry<String, Entry>> appended = new ArrayList<>();
+                for (Map.Entry<String, Entry> e : index.entrySet()) {
+                    if (e.getValue().offset() - HEADER_BYTES >= copiedUpTo) appended.add(e);
+                    else if (e.getValue().equals(copied.get(e.getKey()))) next.put(e.getKey(), moved.get(e.getKey()));
+                }
+                appended.sort(Comparator.comparingLong(e -> e.getValue().offset()));
+                for (Map.Entry<String, Entry> e : appended) {
+                    next.put(e.getKey(), new Entry(written + HEADER_BYTES, e.getValue().length(), e.getValue().expiresAt()));
+                    written = copy(e.getValue(), out, written);
+                }
+                out.force(true);
+                Files.move(tmp, logPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+                // The new channel was opened on the temp file and now refers to the log
+                FileChannel old = channel;
+                channel = out;
+                out = null;
+                closeQuietly(old);
+                log.info("Compacted ingredient cache: {} -> {} bytes, {} -> {} entries", fileBytes, written, index.size(), next.size());
+                index.clear();
+                index.putAll(next);
+                fileBytes = written;
+                liveBytes = written;
+                compactions.increment();
+                // Appends during the copy may already have pushed it back over the limit
+                if (needsCompaction()) compactor.request();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } catch (IOException e) {
+            compactionFailures.increment();
+            log.warn("Ingredient cache compaction failed; keeping the current log", e);
+        } finally {
+            if (out != null) {
+                closeQuietly(out);
+                try {
+                    Files.deleteIfExists(tmp);
+                } catch (IOException e) {
+                    log.warn("Could not delete {}", tmp, e);
+                }
+            }
+        }
+    }
+
+    // Copies the whole record behind e to out at position, returning the position after it
+    private long copy(Entry e, FileChannel out, long position) throws IOException {
+        long from = e.offset() - HEADER_BYTES;
+        long length = HEADER_BYTES + e.length();
+        long copied = 0;
+        while (copied < length) copied += channel.transferTo(from + copied, length - copied, out);
+        return position + length;
+    }
+
+    private static void closeQuietly(FileChannel ch) {
+        try {
+            ch.close();
+        } catch (IOException e) {
+            log.warn("Could not close ingredient cache channel", e);
+        }
+    }
+
+    private void open() throws IOException {
+        Files.createDirectories(dir);
+        Files.deleteIfExists(dir.resolve(LOG_FILE + ".compact"));
+        channel = FileChannel.open(logPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = channel.size();
+        long valid = 0;
+        if (size > 0) {
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(size, Integer.MAX_VALUE));
+            valid = scan(map);
+        }
+        if (valid < size) {
+            log.warn("Truncating ingredient cache log from {} to {} bytes (incomplete tail)", size, valid);
+            channel.truncate(valid);
+        }
+        fileBytes = valid;
+        if (!index.isEmpty()) {
+            log.info("Loaded {} cached ingredient lookups ({} bytes) from {}", index.size(), fileBytes, logPath);
+        }
+    }
+
+    // Returns the length of the valid prefix; later records for a key replace earlier ones
+    private long scan(MappedByteBuffer map) {
+        long now = System.currentTimeMillis();
+        byte[] keyBytes = new byte[KEY_BYTES];
+        int pos = 0;
+        while (pos + HEADER_BYTES <= map.limit()) {
+            map.position(pos);
+            if (map.getInt() != MAGIC) break;
+            map.get(keyBytes);
+            long expiresAt = map.getLong();
+            int length = map.getInt();
+            int crc = map.getInt();
+            if (length < 0 || pos + HEADER_BYTES + length > map.limit()) break;
+            if (crc != crc(map.duplicate().position(pos + 4), KEY_BYTES + 8 + 4, map.duplicate().position(pos + HEADER_BYTES), length)) break;
+
+            String key = HexFormat.of().formatHex(keyBytes);
+            Entry previous = index.remove(key);
+            if (previous != null) liveBytes -= HEADER_BYTES + previous.length();
+            if (expiresAt >= now) {
+                index.put(key, new Entry(pos + HEADER_BYTES, length, expiresAt));
+                liveBytes += HEADER_BYTES + length;
+            }
+            pos += HEADER_BYTES + length;
+        }
+        return pos;
+    }
+
+    private static ByteBuffer encode(byte[] key, long expiresAt, byte[] body) {
+        ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + body.length);
+        record.putInt(MAGIC).put(key).putLong(expiresAt).putInt(body.length);
+        record.putInt(crc(ByteBuffer.wrap(record.array(), 4, KEY_BYTES + 8 + 4), KEY_BYTES + 8 + 4, ByteBuffer.wrap(body), body.length));
+        record.put(body);
+        return record.flip();
+    }
+
+    private static int crc(ByteBuffer header, int headerLength, ByteBuffer body, int bodyLength) {
+        CRC32 crc = new CRC32();
+        crc.update(header.slice().limit(headerLength));
+        crc.update(body.slice().limit(bodyLength));
+        return (int) crc.getValue();
+    }
+
+    private static byte[] error(String message) {
+        return ("{\"error\": \"" + message.replace("\"", "'") + "\"}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static Result await(CompletableFuture<Result> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw e;
+        }
+    }
+
+    private static String sha256(byte[] value) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(value));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        compactor.shutdown();
+        lock.writeLock().lock();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Could not close ingredient cache log", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
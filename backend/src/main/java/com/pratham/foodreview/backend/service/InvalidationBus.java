@@ -0,0 +1,256 @@
+package com.pratham.foodreview.backend.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+// Broadcasts "namespace:key" invalidations to every instance. Local subscribers run on the bus's
+// own thread right after commit, so an index refresh that queries the database never holds up
+// the request that wrote; remote copies are invalidated within flush-ms. Keys written during one flush window
+// are deduplicated and sent together. Each message carries this node's id and a sequence number,
+// and a heartbeat repeats the latest sequence, so a receiver that misses a message notices the
+// gap and clears whole caches instead of serving stale entries indefinitely.
+//
+// Wire format: <nodeId>|<seq>|<ns:key>,<ns:key>...   (empty key list = heartbeat)
+@Service
+public class InvalidationBus implements DebugStats {
+
+    private static final Logger log = LoggerFactory.getLogger(InvalidationBus.class);
+    // pg_notify payloads are capped at 8000 bytes
+    private static final int MAX_PAYLOAD_CHARS = 7000;
+
+    private record Subscriber(Consumer<String> onKey, Runnable onResync) {}
+
+    private final InvalidationTransport transport;
+    private final long flushMs;
+    private final long heartbeatMs;
+    private final String nodeId = UUID.randomUUID().toString().substring(0, 8);
+
+    private final Map<String, List<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<String, Long> lastSeen = new ConcurrentHashMap<>();
+    private final LongAdder published = new LongAdder();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder messages = new LongAdder();
+    private final LongAdder received = new LongAdder();
+    private final LongAdder resyncs = new LongAdder();
+    // Local keys handed to the bus thread and not yet dispatched
+    private final AtomicInteger localPending = new AtomicInteger();
+    private ScheduledExecutorService scheduler;
+
+    public InvalidationBus(InvalidationTransport transport,
+                           @Value("${invalidation.flush-ms:50}") long flushMs,
+                           @Value("${invalidation.heartbeat-ms:5000}") long heartbeatMs) {
+        this.transport = transport;
+        this.flushMs = flushMs;
+        this.heartbeatMs = heartbeatMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "invalidation-bus");
+            t.setDaemon(true);
+            return t;
+        });
+        transport.start(this::onMessage, () -> resync("transport reconnected"));
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, flushMs, flushMs, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::heartbeat, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            // Lets local dispatches already queued finish; periodic tasks are cancelled
+            scheduler.shutdown();
+            try {
+                scheduler.awaitTermination(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        flushQuietly();
+        transport.stop();
+    }
+
+    // onKey gets the key part for this namespace; onResync must drop everything the cache holds.
+    public void subscribe(String namespace, Consumer<String> onKey, Runnable onResync) {
+        subscribers.computeIfAbsent(namespace, ns -> new CopyOnWriteArrayList<>()).add(new Subscriber(onKey, onResync));
+    }
+
+    // Applies locally and broadcasts once the surrounding transaction commits; immediately when
+    // there is none.
+    public void publishAfterCommit(String namespace, Object key) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(namespace, key);
+                }
+            });
+        } else {
+            publish(namespace, key);
+        }
+    }
+
+    public void publish(String namespace, Object key) {
+        String entry = namespace + ":" + key;
+        published.increment();
+        dispatchLocally(entry);
+        pending.add(entry);
+    }
+
+    public void flush() {
+        if (pending.isEmpty()) return;
+        List<String> batch = new ArrayList<>(pending);
+        pending.removeAll(batch);
+
+        StringBuilder keys = new StringBuilder();
+        for (String entry : batch) {
+            if (keys.length() > 0 && keys.length() + entry.length() + 1 > MAX_PAYLOAD_CHARS) {
+                send(keys.toString());
+                keys.setLength(0);
+            }
+            if (keys.length() > 0) keys.append(',');
+            keys.append(entry);
+            sent.increment();
+        }
+        send(keys.toString());
+    }
+
+    @Override
+    public String debugPath() {
+        return "caches/invalidationBus";
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("nodeId", nodeId);
+        out.put("transport", transport.getClass().getSimpleName());
+        out.put("sequence", sequence.get());
+        out.put("published", published.sum());
+        out.put("sentKeys", sent.sum());
+        out.put("messages", messages.sum());
+        out.put("receivedKeys", received.sum());
+        out.put("resyncs", resyncs.sum());
+        out.put("localPending", localPending.get());
+        out.put("knownNodes", lastSeen.size());
+        return out;
+    }
+
+    // synchronized so sequence numbers reach the transport in order
+    private synchronized void send(String keys) {
+        messages.increment();
+        transport.publish(nodeId + "|" + sequence.incrementAndGet() + "|" + keys);
+    }
+
+    synchronized void heartbeat() {
+        try {
+            transport.publish(nodeId + "|" + sequence.get() + "|");
+        } catch (RuntimeException e) {
+            log.warn("Invalidation heartbeat failed", e);
+        }
+    }
+
+    void onMessage(String payload) {
+        String[] parts = payload.split("\\|", 3);
+        if (parts.length != 3) return;
+        String node = parts[0];
+        if (node.equals(nodeId)) return;
+        long seq;
+        try {
+            seq = Long.parseLong(parts[1]);
+        } catch (NumberFormatException e) {
+            return;
+        }
+        boolean heartbeat = parts[2].isEmpty();
+
+        Long last = lastSeen.get(node);
+        // First contact with a node: nothing to compare against yet
+        boolean gap = last != null && seq > last && (heartbeat || seq != last + 1);
+        if (last == null || seq > last) lastSeen.put(node, seq);
+        if (gap) {
+            resync("missed messages from node " + node + " (" + last + " -> " + seq + ")");
+            return;
+        }
+        if (heartbeat) return;
+        for (String entry : parts[2].split(",")) {
+            received.increment();
+            dispatch(entry);
+        }
+    }
+
+    // On the bus thread; inline before start and after stop
+    private void dispatchLocally(String entry) {
+        ScheduledExecutorService s = scheduler;
+        if (s != null) {
+            localPending.incrementAndGet();
+            try {
+                s.execute(() -> {
+                    try {
+                        dispatch(entry);
+                    } finally {
+                        localPending.decrementAndGet();
+                    }
+                });
+                return;
+            } catch (RejectedExecutionException e) {
+                localPending.decrementAndGet();
+            }
+        }
+        dispatch(entry);
+    }
+
+    private void dispatch(String entry) {
+        int colon = entry.indexOf(':');
+        if (colon <= 0) return;
+        List<Subscriber> subs = subscribers.get(entry.substring(0, colon));
+        if (subs == null) return;
+        String key = entry.substring(colon + 1);
+        for (Subscriber s : subs) {
+            try {
+                s.onKey().accept(key);
+            } catch (RuntimeException e) {
+                log.warn("Invalidation handler failed for {}", entry, e);
+            }
+        }
+    }
+
+    private void resync(String reason) {
+        resyncs.increment();
+        log.info("Clearing invalidation-bus caches: {}", reason);
+        subscribers.values().forEach(list -> list.forEach(s -> s.onResync().run()));
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Invalidation flush failed", e);
+        }
+    }
+}
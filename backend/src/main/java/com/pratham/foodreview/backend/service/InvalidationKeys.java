@@ -0,0 +1,18 @@
+package com.pratham.foodreview.backend.service;
+
+import java.util.UUID;
+
+// Namespaces used on the InvalidationBus; keys are entity ids, except FOLLOW which names an edge.
+public final class InvalidationKeys {
+
+    public static final String RESTAURANT = "restaurant";
+    public static final String PROFILE = "profile";
+    public static final String FOLLOW = "follow";
+
+    private InvalidationKeys() {}
+
+    // "<followerId>/<followingId>"; the bus reserves ',' and ':'
+    public static String followKey(UUID followerId, UUID followingId) {
+        return followerId + "/" + followingId;
+    }
+}
@@ -0,0 +1,16 @@
+package com.pratham.foodreview.backend.service;
+
+import java.util.function.Consumer;
+
+// Carries InvalidationBus payloads between instances. Delivery is best effort; the bus detects
+// gaps from per-node sequence numbers and resyncs, so transports need not be reliable.
+public interface InvalidationTransport {
+
+    // onMessage receives every payload published by any instance (including this one).
+    // onReconnect is called after the transport may have missed messages.
+    void start(Consumer<String> onMessage, Runnable onReconnect);
+
+    void publish(String payload);
+
+    void stop();
+}
@@ -0,0 +1,79 @@
+package com.pratham.foodreview.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+// Filesystem object store. Writes go to a temp file next to the target and are renamed into
+// place, so readers never see a partial object. Bytes move with FileChannel.transferFrom, which
+// is a kernel copy only when the source is a FileChannel (photo variants written to temp files);
+// stream-backed sources such as multipart uploads are copied through a user-space buffer.
+@Service
+public class LocalObjectStore implements ObjectStore {
+
+    private static final long CHUNK = 1L << 20;
+
+    private final Path root;
+    private final String publicBaseUrl;
+
+    public LocalObjectStore(@Value("${photos.storage-root:./data/photos}") String root,
+                            @Value("${photos.public-base-url:/media}") String publicBaseUrl) {
+        this.root = Path.of(root).toAbsolutePath().normalize();
+        this.publicBaseUrl = publicBaseUrl.endsWith("/") ? publicBaseUrl.substring(0, publicBaseUrl.length() - 1) : publicBaseUrl;
+    }
+
+    public Path root() {
+        return root;
+    }
+
+    @Override
+    public long put(String key, ReadableByteChannel source) throws IOException {
+        Path target = resolve(key);
+        Files.createDirectories(target.getParent());
+        Path tmp = Files.createTempFile(target.getParent(), ".upload-", ".tmp");
+        try {
+            long position = 0;
+            try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                long n;
+                // Blocking sources only return 0 at end of stream
+                while ((n = out.transferFrom(source, position, CHUNK)) > 0) {
+                    position += n;
+                }
+            }
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return position;
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    @Override
+    public ReadableByteChannel open(String key) throws IOException {
+        return FileChannel.open(resolve(key), StandardOpenOption.READ);
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Files.deleteIfExists(resolve(key));
+    }
+
+    @Override
+    public String publicUrl(String key) {
+        return publicBaseUrl + "/" + key;
+    }
+
+    private Path resolve(String key) {
+        Path path = root.resolve(key).normalize();
+        if (!path.startsWith(root) || path.equals(root)) {
+            throw new IllegalArgumentException("Invalid object key: " + key);
+        }
+        return path;
+    }
+}
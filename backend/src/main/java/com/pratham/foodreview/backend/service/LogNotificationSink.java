@@ -0,0 +1,38 @@
+package com.pratham.foodreview.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Logs each delivery and keeps the most recent ones in memory (tests, local dev). Never fails.
+public class LogNotificationSink implements NotificationSink {
+
+    private static final Logger log = LoggerFactory.getLogger(LogNotificationSink.class);
+
+    public record Delivery(UUID recipient, List<Notification> batch) {}
+
+    private final int keep;
+    private final ConcurrentLinkedDeque<Delivery> recent = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    public LogNotificationSink(int keep) {
+        this.keep = Math.max(1, keep);
+    }
+
+    @Override
+    public void deliver(UUID recipient, List<Notification> batch) {
+        log.debug("Notify {}: {} new review(s), latest {}", recipient, batch.size(), batch.get(batch.size() - 1).reviewId());
+        recent.addLast(new Delivery(recipient, List.copyOf(batch)));
+        if (size.incrementAndGet() > keep && recent.pollFirst() != null) size.decrementAndGet();
+    }
+
+    // Oldest first
+    public List<Delivery> recent() {
+        return new ArrayList<>(recent);
+    }
+}
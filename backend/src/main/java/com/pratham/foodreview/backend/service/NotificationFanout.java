@@ -0,0 +1,332 @@
+package com.pratham.foodreview.backend.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Tells a reviewer's followers about a new review, off the request thread. The request only
+// queues the post after commit (a full queue drops it and counts it; the post never waits).
+// Fan-out threads then read the author's followers from follows in chunk-size keyset pages and
+// add the notification to each follower's pending batch. A recipient's batch is delivered to the
+// NotificationSink coalesce-ms after its first notification, so a follower of several busy
+// reviewers gets one delivery per window rather than one per review.
+//
+// Backpressure runs back up the pipeline: delivery threads hand overflow back to the flusher,
+// so pending batches grow while the sink is slow, and fan-out pauses between chunks while more
+// than max-pending notifications are waiting. Failed deliveries are retried with jittered
+// exponential backoff up to max-attempts, then dropped and counted. Pending notifications live
+// in memory and are lost on shutdown; this is a best-effort channel.
+@Service
+public class NotificationFanout implements DebugStats {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationFanout.class);
+    private static final String FIRST_CHUNK =
+        "SELECT follower_id FROM follows WHERE following_id = ? ORDER BY follower_id LIMIT ?";
+    private static final String NEXT_CHUNK =
+        "SELECT follower_id FROM follows WHERE following_id = ? AND follower_id > ? ORDER BY follower_id LIMIT ?";
+    private static final long MAX_BACKOFF_MS = 30_000;
+
+    private static final class Pending {
+        final long firstAtNanos = System.nanoTime();
+        final List<NotificationSink.Notification> batch = new ArrayList<>();
+    }
+
+    private final boolean enabled;
+    private final NotificationSink sink;
+    private final JdbcTemplate jdbc;
+    private final int chunkSize;
+    private final long coalesceNanos;
+    private final int maxBatch;
+    private final int maxPending;
+    private final int maxAttempts;
+    private final long retryBaseMs;
+
+    private final ThreadPoolExecutor readers;
+    private final ThreadPoolExecutor deliverers;
+    private final ScheduledExecutorService timer;
+    private final ConcurrentHashMap<UUID, Pending> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingNotifications = new AtomicInteger();
+    private final Object capacity = new Object();
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder droppedPosts = new LongAdder();
+    private final LongAdder chunks = new LongAdder();
+    private final LongAdder followersRead = new LongAdder();
+    private final LongAdder readFailures = new LongAdder();
+    private final LongAdder backpressureWaits = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder truncated = new LongAdder();
+    private final LongAdder deliveries = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder deliveryNanos = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder deadLettered = new LongAdder();
+
+    public NotificationFanout(DataSource dataSource,
+                              NotificationSink sink,
+                              @Value("${notifications.enabled:true}") boolean enabled,
+                              @Value("${notifications.fanout-threads:2}") int fanoutThreads,
+                              @Value("${notifications.queue-capacity:1024}") int queueCapacity,
+                              @Value("${notifications.chunk-size:500}") int chunkSize,
+                              @Value("${notifications.coalesce-ms:2000}") long coalesceMs,
+                              @Value("${notifications.max-batch:20}") int maxBatch,
+                              @Value("${notifications.max-pending:100000}") int maxPending,
+                              @Value("${notifications.delivery-threads:4}") int deliveryThreads,
+                              @Value("${notifications.delivery-queue-capacity:256}") int deliveryQueueCapacity,
+                              @Value("${notifications.max-attempts:5}") int maxAttempts,
+                              @Value("${notifications.retry-base-ms:200}") long retryBaseMs) {
+        this.enabled = enabled;
+        this.sink = sink;
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.coalesceNanos = TimeUnit.MILLISECONDS.toNanos(coalesceMs);
+        this.maxBatch = Math.max(1, maxBatch);
+        this.maxPending = Math.max(1, maxPending);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBaseMs = Math.max(1, retryBaseMs);
+
+        AtomicInteger n = new AtomicInteger();
+        this.readers = new ThreadPoolExecutor(fanoutThreads, fanoutThreads, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), r -> {
+                Thread t = new Thread(r, "notify-fanout-" + n.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        // A full delivery queue runs the delivery on the flusher, which stops it draining pending
+        this.deliverers = new ThreadPoolExecutor(deliveryThreads, deliveryThreads, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(deliveryQueueCapacity), r -> {
+                Thread t = new Thread(r, "notify-delivery-" + n.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            }, new ThreadPoolExecutor.CallerRunsPolicy());
+        this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "notify-flush");
+            t.setDaemon(true);
+            return t;
+        });
+        long tick = Math.max(10, coalesceMs / 4);
+        timer.scheduleWithFixedDelay(this::flushSafely, tick, tick, TimeUnit.MILLISECONDS);
+    }
+
+    // Queues the fan-out once the review is committed, so followers never hear about a rollback
+    public void publishAfterCommit(UUID authorId, UUID reviewId, UUID restaurantId) {
+        if (!enabled) return;
+        NotificationSink.Notification notification =
+            new NotificationSink.Notification(authorId, reviewId, restaurantId, System.currentTimeMillis());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(notification);
+                }
+            });
+        } else {
+            publish(notification);
+        }
+    }
+
+    void publish(NotificationSink.Notification notification) {
+        published.increment();
+        try {
+            readers.execute(() -> fanOut(notification));
+        } catch (RejectedExecutionException e) {
+            droppedPosts.increment();
+            log.warn("Notification queue full; followers of {} won't hear about review {}",
+                notification.authorId(), notification.reviewId());
+        }
+    }
+
+    private void fanOut(NotificationSink.Notification notification) {
+        UUID after = null;
+        try {
+            while (true) {
+                awaitCapacity();
+                List<UUID> chunk = readChunk(notification.authorId(), after);
+                chunks.increment();
+                followersRead.add(chunk.size());
+                for (UUID recipient : chunk) enqueue(recipient, notification);
+                if (chunk.size() < chunkSize) return;
+                after = chunk.get(chunk.size() - 1);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (DataAccessException e) {
+            readFailures.increment();
+            log.warn("Fan-out of review {} stopped after follower {}", notification.reviewId(), after, e);
+        }
+    }
+
+    // Retries a failed page in place so a blip doesn't restart (and re-notify) from the top
+    private List<UUID> readChunk(UUID authorId, UUID after) throws InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return after == null
+                    ? jdbc.queryForList(FIRST_CHUNK, UUID.class, authorId, chunkSize)
+                    : jdbc.queryForList(NEXT_CHUNK, UUID.class, authorId, after, chunkSize);
+            } catch (DataAccessException e) {
+                if (attempt >= maxAttempts) throw e;
+                Thread.sleep(backoffMs(attempt));
+            }
+        }
+    }
+
+    // Soft limit: each fan-out thread can overshoot by up to one chunk
+    private void awaitCapacity() throws InterruptedException {
+        if (pendingNotifications.get() < maxPending) return;
+        backpressureWaits.increment();
+        synchronized (capacity) {
+            while (pendingNotifications.get() >= maxPending) {
+                capacity.wait(TimeUnit.NANOSECONDS.toMillis(coalesceNanos) + 1);
+            }
+        }
+    }
+
+    // Keeps the newest max-batch notifications per recipient
+    private void enqueue(UUID recipient, NotificationSink.Notification notification) {
+        pending.compute(recipient, (k, p) -> {
+            if (p == null) {
+                p = new Pending();
+            } else {
+                coalesced.increment();
+            }
+            if (p.batch.size() >= maxBatch) {
+                p.batch.remove(0);
+                truncated.increment();
+            } else {
+                pendingNotifications.incrementAndGet();
+            }
+            p.batch.add(notification);
+            return p;
+        });
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Notification flush failed", e);
+        }
+    }
+
+    // Hands every batch whose window has closed to the delivery threads
+    void flush() {
+        long now = System.nanoTime();
+        for (Map.Entry<UUID, Pending> e : pending.entrySet()) {
+            Pending p = e.getValue();
+            if (now - p.firstAtNanos < coalesceNanos || !pending.remove(e.getKey(), p)) continue;
+            pendingNotifications.addAndGet(-p.batch.size());
+            submit(e.getKey(), p.batch, 1);
+            if (pendingNotifications.get() < maxPending) {
+                synchronized (capacity) {
+                    capacity.notifyAll();
+                }
+            }
+        }
+    }
+
+    private void submit(UUID recipient, List<NotificationSink.Notification> batch, int attempt) {
+        try {
+            deliverers.execute(() -> deliver(recipient, batch, attempt));
+        } catch (RejectedExecutionException e) {
+            // Only after shutdown
+            deadLettered.add(batch.size());
+        }
+    }
+
+    private void deliver(UUID recipient, List<NotificationSink.Notification> batch, int attempt) {
+        long t = System.nanoTime();
+        try {
+            sink.deliver(recipient, batch);
+            deliveries.increment();
+            delivered.add(batch.size());
+            deliveryNanos.add(System.nanoTime() - t);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            deadLettered.add(batch.size());
+        } catch (Exception e) {
+            failures.increment();
+            if (attempt >= maxAttempts) {
+                deadLettered.add(batch.size());
+                log.warn("Dropping {} notification(s) for {} after {} attempts", batch.size(), recipient, attempt, e);
+                return;
+            }
+            retries.increment();
+            log.debug("Delivery to {} failed (attempt {}), retrying", recipient, attempt, e);
+            try {
+                timer.schedule(() -> submit(recipient, batch, attempt + 1), backoffMs(attempt), TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException shutdown) {
+                deadLettered.add(batch.size());
+            }
+        }
+    }
+
+    // Full jitter over an exponentially growing ceiling
+    private long backoffMs(int attempt) {
+        long ceiling = Math.min(MAX_BACKOFF_MS, retryBaseMs << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1);
+    }
+
+    // Fan-out progress, coalescing and delivery retries for review notifications
+    @Override
+    public String debugPath() {
+        return "notifications";
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("enabled", enabled);
+        out.put("sink", sink.getClass().getSimpleName());
+        out.put("queuedPosts", readers.getQueue().size());
+        out.put("pendingRecipients", pending.size());
+        out.put("pendingNotifications", pendingNotifications.get());
+        out.put("queuedDeliveries", deliverers.getQueue().size());
+        out.put("published", published.sum());
+        out.put("droppedPosts", droppedPosts.sum());
+        out.put("chunks", chunks.sum());
+        out.put("followersRead", followersRead.sum());
+        out.put("readFailures", readFailures.sum());
+        out.put("backpressureWaits", backpressureWaits.sum());
+        out.put("coalesced", coalesced.sum());
+        out.put("truncated", truncated.sum());
+        long deliveryCount = deliveries.sum();
+        out.put("deliveries", deliveryCount);
+        out.put("delivered", delivered.sum());
+        out.put("avgDeliveryMs", deliveryCount > 0 ? deliveryNanos.sum() / 1_000_000.0 / deliveryCount : 0.0);
+        out.put("failures", failures.sum());
+        out.put("retries", retries.sum());
+        out.put("deadLettered", deadLettered.sum());
+        return out;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        readers.shutdownNow();
+        timer.shutdownNow();
+        deliverers.shutdown();
+    }
+}
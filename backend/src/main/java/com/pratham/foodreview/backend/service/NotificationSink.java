@@ -0,0 +1,16 @@
+package com.pratham.foodreview.backend.service;
+
+import java.util.List;
+import java.util.UUID;
+
+// Where NotificationFanout hands off a recipient's coalesced notifications. A delivery that
+// throws is retried with backoff, so implementations should fail loudly rather than drop, and
+// must tolerate seeing the same batch more than once.
+public interface NotificationSink {
+
+    // One review by someone the recipient follows
+    record Notification(UUID authorId, UUID reviewId, UUID restaurantId, long createdAtEpochMs) {}
+
+    // batch is oldest first and never empty
+    void deliver(UUID recipient, List<Notification> batch) throws Exception;
+}
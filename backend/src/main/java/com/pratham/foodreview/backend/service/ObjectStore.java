@@ -0,0 +1,18 @@
+package com.pratham.foodreview.backend.service;
+
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+
+// Blob storage for user uploads. Implementations stream from the channel; callers never hand
+// over whole byte arrays.
+public interface ObjectStore {
+
+    // Stores the channel's bytes under key, replacing any existing object. Returns bytes written.
+    long put(String key, ReadableByteChannel source) throws IOException;
+
+    ReadableByteChannel open(String key) throws IOException;
+
+    void delete(String key) throws IOException;
+
+    String publicUrl(String key);
+}
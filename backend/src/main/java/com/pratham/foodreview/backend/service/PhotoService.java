@@ -0,0 +1,282 @@
+package com.pratham.foodreview.backend.service;
+
+import com.pratham.foodreview.backend.dto.PhotoUploadResponse;
+import com.pratham.foodreview.backend.entity.Review;
+import com.pratham.foodreview.backend.repo.ReviewRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.multipart.MultipartHttpServletRequest;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+// Review photo uploads. The original is streamed to the object store on the request thread
+// (bounded by max-concurrent-uploads) and attached to the review right away; thumbnail and
+// display variants are produced on a small worker pool, after which the display variant
+// replaces the original in the review's photoUrls, the thumbnail fills the matching slot in
+// thumbnailUrls, and the original object is deleted.
+@Service
+public class PhotoService {
+
+    private static final Logger log = LoggerFactory.getLogger(PhotoService.class);
+
+    private static final Map<String, String> EXTENSIONS = Map.of(
+        "image/jpeg", "jpg",
+        "image/png", "png"
+    );
+    private static final int THUMBNAIL_EDGE = 320;
+    private static final int DISPLAY_EDGE = 1080;
+    private static final long MAX_PIXELS = 50_000_000L;
+
+    private final ReviewRepository reviewRepository;
+    private final ObjectStore objectStore;
+    private final RestaurantDetailCache restaurantDetailCache;
+    private final TransactionTemplate tx;
+    private final int maxPerReview;
+    private final Semaphore uploadSlots;
+    private final ThreadPoolExecutor workers;
+
+    public PhotoService(ReviewRepository reviewRepository,
+                        ObjectStore objectStore,
+                        RestaurantDetailCache restaurantDetailCache,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${photos.max-per-review:10}") int maxPerReview,
+                        @Value("${photos.max-concurrent-uploads:4}") int maxConcurrentUploads,
+                        @Value("${photos.workers:2}") int workerThreads,
+                        @Value("${photos.queue-capacity:64}") int queueCapacity) {
+        this.reviewRepository = reviewRepository;
+        this.objectStore = objectStore;
+        this.restaurantDetailCache = restaurantDetailCache;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.maxPerReview = maxPerReview;
+        this.uploadSlots = new Semaphore(maxConcurrentUploads);
+
+        AtomicInteger n = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerThreads, workerThreads, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), r -> {
+                Thread t = new Thread(r, "photo-worker-" + n.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+    }
+
+    // Takes the lazily-parsed multipart request so the body is only read from the socket once
+    // an upload slot is held.
+    public PhotoUploadResponse upload(UUID userId, UUID reviewId, MultipartHttpServletRequest request) {
+        Review review = reviewRepository.findById(reviewId)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Review not found"));
+        if (!review.getUser().getId().equals(userId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "User is not the owner of the review");
+        }
+        // Cheap early reject before reading the body; enforced again under the row lock
+        if (review.getPhotoUrls() != null && review.getPhotoUrls().size() >= maxPerReview) {
+            throw limitReached();
+        }
+
+        // Uploads hold a request thread for as long as the client takes to send; cap how many can
+        if (!uploadSlots.tryAcquire()) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many uploads in progress");
+        }
+        try {
+            MultipartFile file = request.getFile("file");
+            String extension = file != null && file.getContentType() != null ? EXTENSIONS.get(file.getContentType()) : null;
+            if (extension == null || file.isEmpty()) {
+                throw new ResponseStatusException(HttpStatus.UNSUPPORTED_MEDIA_TYPE, "Only JPEG and PNG photos are supported");
+            }
+
+            String base = "reviews/" + reviewId + "/" + UUID.randomUUID();
+            String originalKey = base + "." + extension;
+            try (InputStream in = file.getInputStream(); ReadableByteChannel channel = Channels.newChannel(in)) {
+                objectStore.put(originalKey, channel);
+            } catch (IOException e) {
+                log.error("Failed to store photo for review {}", reviewId, e);
+                throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Could not store photo");
+            }
+
+            String originalUrl = objectStore.publicUrl(originalKey);
+            List<String> photoUrls;
+            try {
+                photoUrls = updatePhotos(reviewId, (urls, thumbnails) -> {
+                    // Concurrent uploads all pass the early check; only the row lock serializes them
+                    if (urls.size() >= maxPerReview) throw limitReached();
+                    urls.add(originalUrl);
+                    thumbnails.add(null);
+                });
+            } catch (RuntimeException e) {
+                deleteQuietly(originalKey);
+                throw e;
+            }
+
+            String thumbnailKey = base + "_thumb.jpg";
+            String displayKey = base + "_" + DISPLAY_EDGE + ".jpg";
+            boolean pending;
+            try {
+                workers.execute(() -> generateVariants(reviewId, originalKey, originalUrl, thumbnailKey, displayKey));
+                pending = true;
+            } catch (RejectedExecutionException e) {
+                // The original is already attached; variants are an optimization we can skip
+                log.warn("Photo worker queue full, serving original only: review={} key={}", reviewId, originalKey);
+                pending = false;
+            }
+
+            return new PhotoUploadResponse(reviewId.toString(), originalUrl, photoUrls, pending);
+        } finally {
+            uploadSlots.release();
+        }
+    }
+
+    private void generateVariants(UUID reviewId, String originalKey, String originalUrl,
+                                  String thumbnailKey, String displayKey) {
+        try {
+            BufferedImage source = decode(originalKey, DISPLAY_EDGE);
+            writeJpeg(scale(source, THUMBNAIL_EDGE), thumbnailKey);
+            writeJpeg(scale(source, DISPLAY_EDGE), displayKey);
+
+            String displayUrl = objectStore.publicUrl(displayKey);
+            String thumbnailUrl = objectStore.publicUrl(thumbnailKey);
+            boolean[] attached = new boolean[1];
+            updatePhotos(reviewId, (urls, thumbnails) -> {
+                int i = urls.indexOf(originalUrl);
+                if (i < 0) return;
+                urls.set(i, displayUrl);
+                thumbnails.set(i, thumbnailUrl);
+                attached[0] = true;
+            });
+            if (attached[0]) {
+                // Nothing references the original any more
+                deleteQuietly(originalKey);
+                log.info("Generated photo variants: review={} key={}", reviewId, originalKey);
+            } else {
+                // The photo was removed while the variants were being made
+                deleteQuietly(thumbnailKey);
+                deleteQuietly(displayKey);
+            }
+        } catch (Exception e) {
+            log.error("Failed to generate photo variants: review={} key={}", reviewId, originalKey, e);
+        }
+    }
+
+    // change gets mutable copies of photoUrls and thumbnailUrls, padded to the same length
+    private List<String> updatePhotos(UUID reviewId, BiConsumer<List<String>, List<String>> change) {
+        return tx.execute(status -> {
+            // Row lock so concurrent uploads and variant jobs on the same review don't lose updates
+            Review review = reviewRepository.findByIdForUpdate(reviewId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Review not found"));
+            List<String> urls = review.getPhotoUrls() != null ? new ArrayList<>(review.getPhotoUrls()) : new ArrayList<>();
+            List<String> thumbnails = review.getThumbnailUrls() != null ? new ArrayList<>(review.getThumbnailUrls()) : new ArrayList<>();
+            while (thumbnails.size() < urls.size()) thumbnails.add(null);
+            change.accept(urls, thumbnails);
+            review.setPhotoUrls(urls);
+            review.setThumbnailUrls(thumbnails);
+            review.setUpdatedAt(OffsetDateTime.now());
+            reviewRepository.save(review);
+            restaurantDetailCache.invalidateAfterCommit(review.getRestaurant().getId());
+            return urls;
+        });
+    }
+
+    private void deleteQuietly(String key) {
+        try {
+            objectStore.delete(key);
+        } catch (IOException e) {
+            log.warn("Failed to delete photo object {}", key, e);
+        }
+    }
+
+    private static ResponseStatusException limitReached() {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Photo limit reached for this review");
+    }
+
+    // Decodes with source subsampling so a 12MP photo never has to be held at full resolution.
+    private BufferedImage decode(String key, int targetEdge) throws IOException {
+        try (ReadableByteChannel channel = objectStore.open(key);
+             ImageInputStream input = ImageIO.createImageInputStream(Channels.newInputStream(channel))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) throw new IOException("Unsupported image format: " + key);
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > MAX_PIXELS) throw new IOException("Image too large: " + width + "x" + height);
+
+                ImageReadParam param = reader.getDefaultReadParam();
+                int factor = Math.max(1, Math.max(width, height) / (targetEdge * 2));
+                param.setSourceSubsampling(factor, factor, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage scale(BufferedImage source, int maxEdge) {
+        double ratio = Math.min(1.0, (double) maxEdge / Math.max(source.getWidth(), source.getHeight()));
+        int width = Math.max(1, (int) Math.round(source.getWidth() * ratio));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * ratio));
+        BufferedImage out = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = out.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            // JPEG has no alpha; flatten transparent PNGs onto white
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return out;
+    }
+
+    private void writeJpeg(BufferedImage image, String key) throws IOException {
+        Path tmp = Files.createTempFile("photo-variant-", ".jpg");
+        try {
+            if (!ImageIO.write(image, "jpg", tmp.toFile())) throw new IOException("No JPEG writer available");
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.READ)) {
+                objectStore.put(key, channel);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdown();
+    }
+}
@@ -0,0 +1,301 @@
+package com.pratham.foodreview.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// Disk cache in front of the Google Places photo endpoint. Files are named by the SHA-256 of the
+// photo_reference, the in-memory index is rebuilt from the directory on startup, total size is
+// capped with LRU eviction, and concurrent misses for one reference share a single download.
+@Service
+public class PlacesPhotoCache implements DebugStats {
+
+    private static final Logger log = LoggerFactory.getLogger(PlacesPhotoCache.class);
+
+    private static final Pattern REFERENCE = Pattern.compile("[A-Za-z0-9_-]{1,1024}");
+    private static final Pattern CACHED_FILE = Pattern.compile("[0-9a-f]{64}\\.(jpg|png|webp|gif)");
+    private static final Map<String, String> EXTENSIONS = Map.of(
+        "image/jpeg", "jpg",
+        "image/png", "png",
+        "image/webp", "webp",
+        "image/gif", "gif"
+    );
+
+    public record CachedPhoto(Path path, long size, String contentType, String etag) {}
+
+    private final Path dir;
+    private final long maxBytes;
+    private final long maxObjectBytes;
+    private final int maxWidth;
+    private final long evictionGraceNanos;
+    private final String upstreamUrl;
+    private final String apiKey;
+    private final RateLimitService rateLimitService;
+    private final HttpClient httpClient;
+
+    private final ConcurrentHashMap<String, Entry> index = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, CompletableFuture<Entry>> inflight = new ConcurrentHashMap<>();
+    private final AtomicLong totalBytes = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public PlacesPhotoCache(@Value("${places-photos.cache-dir:./data/places-photos}") String dir,
+                            @Value("${places-photos.max-bytes:536870912}") long maxBytes,
+                            @Value("${places-photos.max-object-bytes:10485760}") long maxObjectBytes,
+                            @Value("${places-photos.max-width:800}") int maxWidth,
+                            @Value("${places-photos.eviction-grace-ms:10000}") long evictionGraceMs,
+                            @Value("${places-photos.upstream-url:https://maps.googleapis.com/maps/api/place/photo}") String upstreamUrl,
+                            @Value("${google.places.api-key}") String apiKey,
+                            RateLimitService rateLimitService) throws IOException {
+        this.dir = Path.of(dir).toAbsolutePath().normalize();
+        this.maxBytes = maxBytes;
+        this.maxObjectBytes = maxObjectBytes;
+        this.maxWidth = maxWidth;
+        this.evictionGraceNanos = TimeUnit.MILLISECONDS.toNanos(evictionGraceMs);
+        this.upstreamUrl = upstreamUrl;
+        this.apiKey = apiKey;
+        this.rateLimitService = rateLimitService;
+        this.httpClient = HttpClient.newBuilder()
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+        loadIndex();
+    }
+
+    public CachedPhoto get(String reference) {
+        if (reference == null || !REFERENCE.matcher(reference).matches()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid photo reference");
+        }
+        String id = sha256(reference);
+
+        Entry entry = index.get(id);
+        if (entry != null) {
+            hits.increment();
+            entry.lastAccess = System.nanoTime();
+            return entry.toPhoto();
+        }
+
+        CompletableFuture<Entry> created = new CompletableFuture<>();
+        CompletableFuture<Entry> existing = inflight.putIfAbsent(id, created);
+        if (existing != null) {
+            coalesced.increment();
+            return await(existing).toPhoto();
+        }
+        try {
+            // A download may have finished between the index miss and winning the inflight slot
+            entry = index.get(id);
+            if (entry == null) {
+                misses.increment();
+                entry = download(reference, id);
+                index.put(id, entry);
+                totalBytes.addAndGet(entry.size);
+                evictIfNeeded();
+            }
+            created.complete(entry);
+            return entry.toPhoto();
+        } catch (RuntimeException e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            inflight.remove(id, created);
+        }
+    }
+
+    @Override
+    public String debugPath() {
+        return "caches/placesPhotos";
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("entries", index.size());
+        out.put("bytes", totalBytes.get());
+        out.put("maxBytes", maxBytes);
+        out.put("hits", hits.sum());
+        out.put("misses", misses.sum());
+        out.put("coalesced", coalesced.sum());
+        out.put("evictions", evictions.sum());
+        return out;
+    }
+
+    private Entry download(String reference, String id) {
+        if (!rateLimitService.acquireUpstream(RateLimitService.PLACES).granted()) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Photo service is busy, try again shortly");
+        }
+
+        URI uri = URI.create(upstreamUrl + "?maxwidth=" + maxWidth
+            + "&photo_reference=" + URLEncoder.encode(reference, StandardCharsets.UTF_8)
+            + "&key=" + URLEncoder.encode(apiKey, StandardCharsets.UTF_8));
+        Path tmp = null;
+        try {
+            Files.createDirectories(dir);
+            tmp = Files.createTempFile(dir, ".fetch-", ".tmp");
+            // Body is streamed straight to disk, never buffered in the heap
+            HttpResponse<Path> response = httpClient.send(
+                HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(10)).GET().build(),
+                HttpResponse.BodyHandlers.ofFile(tmp));
+
+            if (response.statusCode() == 400 || response.statusCode() == 404) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Photo not found");
+            }
+            if (response.statusCode() != 200) {
+                log.warn("Places photo upstream returned {} for {}", response.statusCode(), id);
+                throw new ResponseStatusException(HttpStatus.BAD_GATEWAY, "Photo upstream error");
+            }
+            String contentType = response.headers().firstValue("Content-Type").orElse("image/jpeg");
+            int semicolon = contentType.indexOf(';');
+            if (semicolon >= 0) contentType = contentType.substring(0, semicolon).trim();
+            String extension = EXTENSIONS.get(contentType);
+            if (extension == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_GATEWAY, "Unexpected photo content type: " + contentType);
+            }
+            long size = Files.size(tmp);
+            if (size == 0 || size > maxObjectBytes) {
+                throw new ResponseStatusException(HttpStatus.BAD_GATEWAY, "Unexpected photo size: " + size);
+            }
+
+            Path target = dir.resolve(id + "." + extension);
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return new Entry(id, target, size, contentType, System.nanoTime());
+        } catch (IOException e) {
+            log.error("Failed to fetch Places photo {}", id, e);
+            throw new ResponseStatusException(HttpStatus.BAD_GATEWAY, "Photo upstream unavailable");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted");
+        } finally {
+            if (tmp != null) {
+                try {
+                    Files.deleteIfExists(tmp);
+                } catch (IOException ignored) {
+                    // best effort; stray temp files are removed on the next startup
+                }
+            }
+        }
+    }
+
+    private void evictIfNeeded() {
+        if (totalBytes.get() <= maxBytes) return;
+
+        long target = maxBytes * 9 / 10;
+        long now = System.nanoTime();
+        List<Entry> candidates = new ArrayList<>(index.values());
+        candidates.sort(Comparator.comparingLong(e -> e.lastAccess));
+        for (Entry e : candidates) {
+            if (totalBytes.get() <= target) break;
+            // Recently read files may still be mid-sendfile in the container
+            if (now - e.lastAccess < evictionGraceNanos) continue;
+            if (index.remove(e.id, e)) {
+                totalBytes.addAndGet(-e.size);
+                evictions.increment();
+                try {
+                    Files.deleteIfExists(e.path);
+                } catch (IOException ex) {
+                    log.warn("Could not delete evicted photo {}", e.path, ex);
+                }
+            }
+        }
+    }
+
+    // Rebuilds the index from disk so a restart keeps the warm cache. File mtime stands in
+    // for last access, relative to now.
+    private void loadIndex() throws IOException {
+        Files.createDirectories(dir);
+        long nowNanos = System.nanoTime();
+        long nowMillis = System.currentTimeMillis();
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path path : (Iterable<Path>) files::iterator) {
+                String name = path.getFileName().toString();
+                if (name.endsWith(".tmp")) {
+                    Files.deleteIfExists(path);
+                    continue;
+                }
+                if (!CACHED_FILE.matcher(name).matches()) continue;
+                String id = name.substring(0, 64);
+                String extension = name.substring(65);
+                String contentType = EXTENSIONS.entrySet().stream()
+                    .filter(e -> e.getValue().equals(extension)).map(Map.Entry::getKey).findFirst().orElse("image/jpeg");
+                long size = Files.size(path);
+                long ageMillis = Math.max(0, nowMillis - Files.getLastModifiedTime(path).toMillis());
+                index.put(id, new Entry(id, path, size, contentType, nowNanos - TimeUnit.MILLISECONDS.toNanos(ageMillis)));
+                totalBytes.addAndGet(size);
+            }
+        }
+        if (!index.isEmpty()) {
+            log.info("Loaded {} cached Places photos ({} bytes) from {}", index.size(), totalBytes.get(), dir);
+        }
+        evictIfNeeded();
+    }
+
+    private static Entry await(CompletableFuture<Entry> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw e;
+        }
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class Entry {
+        final String id;
+        final Path path;
+        final long size;
+        final String contentType;
+        volatile long lastAccess;
+
+        Entry(String id, Path path, long size, String contentType, long lastAccess) {
+            this.id = id;
+            this.path = path;
+            this.size = size;
+            this.contentType = contentType;
+            this.lastAccess = lastAccess;
+        }
+
+        CachedPhoto toPhoto() {
+            return new CachedPhoto(path, size, contentType, "\"" + id + "\"");
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.pratham.foodreview.backend.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Resizes the Hikari pool from observed load. Every tick it reads one window of acquire waits,
+// timeouts, peak active connections and connection hold time (our stand-in for query latency):
+//  - grow by half when callers waited or timed out, unless hold time climbed since the last grow
+//    (the database is the bottleneck then and more connections only add contention);
+//  - shrink by one after quiet-windows consecutive windows using at most half the pool.
+// Growth is fast and shrinking slow so bursts are absorbed without churning connections, which
+// would also throw away their prepared statements.
+@Service
+public class PoolController implements DebugStats {
+
+    private static final Logger log = LoggerFactory.getLogger(PoolController.class);
+    private static final int MAX_DECISIONS = 50;
+
+    public enum Action { GROW, SHRINK, HOLD }
+
+    public record Decision(Instant at, Action action, int fromSize, int toSize, String reason,
+                           PoolMetrics.Window window, int awaiting) {}
+
+    private final HikariDataSource hikari;
+    private final PoolMetrics metrics;
+    private final boolean enabled;
+    private final int minSize;
+    private final int maxSize;
+    private final double growWaitMs;
+    private final double latencyGuard;
+    private final int quietWindows;
+
+    private final ArrayDeque<Decision> decisions = new ArrayDeque<>();
+    private int quietStreak;
+    private Action lastAction = Action.HOLD;
+    private double usageAtLastGrow;
+    private volatile PoolMetrics.Window lastWindow;
+
+    public PoolController(DataSource dataSource,
+                          @Value("${pool-controller.enabled:true}") boolean enabled,
+                          @Value("${pool-controller.min-size:2}") int minSize,
+                          @Value("${pool-controller.max-size:10}") int maxSize,
+                          @Value("${pool-controller.grow-wait-ms:5}") double growWaitMs,
+                          @Value("${pool-controller.latency-guard:1.5}") double latencyGuard,
+                          @Value("${pool-controller.quiet-windows:6}") int quietWindows) throws SQLException {
+        this.hikari = dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : null;
+        this.metrics = hikari != null && hikari.getMetricsTrackerFactory() instanceof PoolMetrics m ? m : null;
+        this.enabled = enabled && metrics != null;
+        this.minSize = Math.max(1, minSize);
+        this.maxSize = Math.max(this.minSize, maxSize);
+        this.growWaitMs = growWaitMs;
+        this.latencyGuard = latencyGuard;
+        this.quietWindows = quietWindows;
+        if (enabled && metrics == null) {
+            log.warn("Pool controller disabled: datasource is not a Hikari pool with PoolMetrics installed");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${pool-controller.interval-ms:5000}", initialDelayString = "${pool-controller.interval-ms:5000}")
+    public synchronized void tick() {
+        if (!enabled) return;
+        HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+        if (pool == null) return; // not started yet
+
+        PoolMetrics.Window window = metrics.snapshotAndReset();
+        lastWindow = window;
+        int current = hikari.getHikariConfigMXBean().getMaximumPoolSize();
+        Decision decision = decide(window, current, pool.getThreadsAwaitingConnection());
+        if (decision.action() == Action.HOLD) return;
+
+        hikari.getHikariConfigMXBean().setMaximumPoolSize(decision.toSize());
+        if (hikari.getHikariConfigMXBean().getMinimumIdle() > decision.toSize()) {
+            hikari.getHikariConfigMXBean().setMinimumIdle(decision.toSize());
+        }
+        log.info("Pool {} {} -> {}: {}", decision.action(), decision.fromSize(), decision.toSize(), decision.reason());
+    }
+
+    // Package-private and free of Hikari calls so the policy can be unit tested.
+    synchronized Decision decide(PoolMetrics.Window w, int current, int awaiting) {
+        boolean pressured = w.timeouts() > 0 || awaiting > 0 || (w.acquires() > 0 && w.meanWaitMs() >= growWaitMs);
+        Decision decision;
+        if (current < minSize) {
+            decision = record(Action.GROW, current, minSize, "below configured minimum", w, awaiting);
+        } else if (current > maxSize) {
+            decision = record(Action.SHRINK, current, maxSize, "above configured maximum", w, awaiting);
+        } else if (pressured && current < maxSize) {
+            quietStreak = 0;
+            if (lastAction == Action.GROW && usageAtLastGrow > 0 && w.meanUsageMs() > usageAtLastGrow * latencyGuard) {
+                decision = record(Action.HOLD, current, current, String.format(
+                    "waits persist but hold time rose %.1f -> %.1f ms since last grow; database-bound",
+                    usageAtLastGrow, w.meanUsageMs()), w, awaiting);
+            } else {
+                int target = Math.min(maxSize, current + Math.max(1, current / 2));
+                usageAtLastGrow = w.meanUsageMs();
+                decision = record(Action.GROW, current, target, String.format(
+                    "mean wait %.1f ms, max %.1f ms, %d timeouts, %d waiting", w.meanWaitMs(), w.maxWaitMs(), w.timeouts(), awaiting),
+                    w, awaiting);
+            }
+        } else if (!pressured && w.peakActive() * 2 <= current && current > minSize) {
+            if (++quietStreak >= quietWindows) {
+                quietStreak = 0;
+                decision = record(Action.SHRINK, current, current - 1, String.format(
+                    "peak active %d of %d for %d windows", w.peakActive(), current, quietWindows), w, awaiting);
+            } else {
+                decision = new Decision(Instant.now(), Action.HOLD, current, current, "quiet", w, awaiting);
+            }
+        } else {
+            quietStreak = 0;
+            decision = new Decision(Instant.now(), Action.HOLD, current, current, "steady", w, awaiting);
+        }
+        if (decision.action() != Action.HOLD) lastAction = decision.action();
+        return decision;
+    }
+
+    private Decision record(Action action, int from, int to, String reason, PoolMetrics.Window w, int awaiting) {
+        Decision d = new Decision(Instant.now(), action, from, to, reason, w, awaiting);
+        decisions.addLast(d);
+        if (decisions.size() > MAX_DECISIONS) decisions.removeFirst();
+        return d;
+    }
+
+    @Override
+    public String debugPath() {
+        return "pool";
+    }
+
+    @Override
+    public synchronized Map<String, Object> stats() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("enabled", enabled);
+        out.put("minSize", minSize);
+        out.put("maxSize", maxSize);
+        if (hikari != null) {
+            out.put("currentMaxPoolSize", hikari.getHikariConfigMXBean().getMaximumPoolSize());
+            HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+            if (pool != null) {
+                out.put("active", pool.getActiveConnections());
+                out.put("idle", pool.getIdleConnections());
+                out.put("awaiting", pool.getThreadsAwaitingConnection());
+            }
+            Map<String, Object> statements = new LinkedHashMap<>();
+            for (String key : List.of("prepareThreshold", "preparedStatementCacheQueries", "preparedStatementCacheSizeMiB")) {
+                Object value = hikari.getDataSourceProperties().get(key);
+                if (value != null) statements.put(key, value);
+            }
+            out.put("preparedStatements", statements);
+        }
+        out.put("lastWindow", lastWindow);
+        List<Decision> recent = new ArrayList<>(decisions);
+        Collections.reverse(recent);
+        out.put("decisions", recent);
+        return out;
+    }
+}
@@ -0,0 +1,66 @@
+package com.pratham.foodreview.backend.service;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Hikari metrics hook feeding PoolController. Accumulates one observation window at a time;
+// the controller drains it with snapshotAndReset() on every tick.
+public class PoolMetrics implements MetricsTrackerFactory {
+
+    public record Window(long acquires, double meanWaitMs, double maxWaitMs, long timeouts,
+                         long usages, double meanUsageMs, int peakActive) {}
+
+    private final LongAdder acquires = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder usages = new LongAdder();
+    private final LongAdder usageMillis = new LongAdder();
+    private final AtomicInteger peakActive = new AtomicInteger();
+    private volatile PoolStats poolStats;
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        this.poolStats = poolStats;
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                acquires.increment();
+                waitNanos.add(elapsedAcquiredNanos);
+                maxWaitNanos.accumulateAndGet(elapsedAcquiredNanos, Math::max);
+                // Called on the borrowing thread, so this lands in that request's trace
+                RequestTrace.add(RequestTrace.Phase.POOL_WAIT, elapsedAcquiredNanos);
+                // PoolStats caches its counts for a second, so this stays cheap on the hot path
+                peakActive.accumulateAndGet(poolStats.getActiveConnections() + 1, Math::max);
+            }
+
+            @Override
+            public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+                usages.increment();
+                usageMillis.add(elapsedBorrowedMillis);
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                timeouts.increment();
+            }
+        };
+    }
+
+    public Window snapshotAndReset() {
+        long a = acquires.sumThenReset();
+        long w = waitNanos.sumThenReset();
+        long max = maxWaitNanos.getAndSet(0);
+        long t = timeouts.sumThenReset();
+        long u = usages.sumThenReset();
+        long um = usageMillis.sumThenReset();
+        PoolStats stats = poolStats;
+        int peak = Math.max(peakActive.getAndSet(0), stats != null ? stats.getActiveConnections() : 0);
+        return new Window(a, a == 0 ? 0 : w / 1e6 / a, max / 1e6, t, u, u == 0 ? 0 : (double) um / u, peak);
+    }
+}
@@ -0,0 +1,104 @@
+package com.pratham.foodreview.backend.service;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+// LISTEN/NOTIFY transport. Listening needs a long-lived session, so it gets its own connection
+// outside the pool; publishing borrows a pooled connection for a single pg_notify call.
+// NOTIFY is delivered only to sessions listening at the time, hence onReconnect after any drop.
+public class PostgresInvalidationTransport implements InvalidationTransport {
+
+    private static final Logger log = LoggerFactory.getLogger(PostgresInvalidationTransport.class);
+    private static final Pattern CHANNEL = Pattern.compile("[a-z_][a-z0-9_]{0,62}");
+
+    private final DataSource dataSource;
+    private final String url;
+    private final String username;
+    private final String password;
+    private final String channel;
+
+    private volatile boolean running;
+    private Thread listener;
+
+    public PostgresInvalidationTransport(DataSource dataSource, String url, String username, String password, String channel) {
+        if (!CHANNEL.matcher(channel).matches()) throw new IllegalArgumentException("Invalid channel name: " + channel);
+        this.dataSource = dataSource;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.channel = channel;
+    }
+
+    @Override
+    public synchronized void start(Consumer<String> onMessage, Runnable onReconnect) {
+        running = true;
+        listener = new Thread(() -> listen(onMessage, onReconnect), "invalidation-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @Override
+    public void publish(String payload) {
+        try (Connection c = dataSource.getConnection();
+             PreparedStatement ps = c.prepareStatement("SELECT pg_notify(?, ?)")) {
+            ps.setString(1, channel);
+            ps.setString(2, payload);
+            ps.execute();
+        } catch (SQLException e) {
+            // Receivers see the sequence gap on our next message or heartbeat and resync
+            log.warn("Failed to publish cache invalidation", e);
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (listener != null) listener.interrupt();
+    }
+
+    private void listen(Consumer<String> onMessage, Runnable onReconnect) {
+        long backoffMs = 500;
+        while (running) {
+            try (Connection c = DriverManager.getConnection(url, username, password)) {
+                try (Statement st = c.createStatement()) {
+                    st.execute("LISTEN " + channel);
+                }
+                // Anything published before LISTEN took effect is lost, including on first connect
+                onReconnect.run();
+                backoffMs = 500;
+                PGConnection pg = c.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pg.getNotifications(10_000);
+                    if (notifications == null) continue;
+                    for (PGNotification n : notifications) {
+                        try {
+                            onMessage.accept(n.getParameter());
+                        } catch (RuntimeException e) {
+                            log.warn("Cache invalidation handler failed", e);
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) break;
+                log.warn("Invalidation listener disconnected, retrying in {} ms: {}", backoffMs, e.getMessage());
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException ie) {
+                    break;
+                }
+                backoffMs = Math.min(30_000, backoffMs * 2);
+            }
+        }
+    }
+}
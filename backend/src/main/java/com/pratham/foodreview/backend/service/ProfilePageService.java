@@ -0,0 +1,206 @@
+package com.pratham.foodreview.backend.service;
+
+import com.pratham.foodreview.backend.dto.ProfilePageResponse;
+import com.pratham.foodreview.backend.entity.Profile;
+import com.pratham.foodreview.backend.entity.Review;
+import com.pratham.foodreview.backend.repo.FollowRepository;
+import com.pratham.foodreview.backend.repo.ProfileRepository;
+import com.pratham.foodreview.backend.repo.ReviewRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Backs GET /users/{id}/page: the profile, its counts and the first page of reviews, fetched in
+// parallel on a bounded pool. Each part has its own deadline, measured from the start of the
+// request. The profile is required: 404 if it doesn't exist, 503 if it can't be read in time.
+// Counts and reviews are best effort. When one misses its deadline or fails, the page comes back
+// without it and names it in unavailable, so a slow count doesn't hold up the screen.
+//
+// Each part borrows its own pooled connection, so a page briefly holds up to three. When the
+// queue is full a part runs on the request thread instead, which is the old sequential cost.
+@Service
+public class ProfilePageService implements DebugStats {
+
+    private static final Logger log = LoggerFactory.getLogger(ProfilePageService.class);
+
+    private record ReviewPage(String json, boolean hasMore) {}
+
+    private final ProfileRepository profileRepository;
+    private final ReviewRepository reviewRepository;
+    private final FollowRepository followRepository;
+    private final ReviewFragmentCache reviewFragmentCache;
+    private final TransactionTemplate readOnlyTx;
+    private final long profileTimeoutMs;
+    private final long countsTimeoutMs;
+    private final long reviewsTimeoutMs;
+    private final int maxReviews;
+    private final ThreadPoolExecutor workers;
+
+    private final LongAdder pages = new LongAdder();
+    private final LongAdder profileTimeouts = new LongAdder();
+    private final LongAdder countsUnavailable = new LongAdder();
+    private final LongAdder reviewsUnavailable = new LongAdder();
+
+    public ProfilePageService(ProfileRepository profileRepository,
+                              ReviewRepository reviewRepository,
+                              FollowRepository followRepository,
+                              ReviewFragmentCache reviewFragmentCache,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${profile-page.threads:8}") int threads,
+                              @Value("${profile-page.queue-capacity:64}") int queueCapacity,
+                              @Value("${profile-page.profile-timeout-ms:1000}") long profileTimeoutMs,
+                              @Value("${profile-page.counts-timeout-ms:300}") long countsTimeoutMs,
+                              @Value("${profile-page.reviews-timeout-ms:800}") long reviewsTimeoutMs,
+                              @Value("${profile-page.max-reviews:50}") int maxReviews) {
+        this.profileRepository = profileRepository;
+        this.reviewRepository = reviewRepository;
+        this.followRepository = followRepository;
+        this.reviewFragmentCache = reviewFragmentCache;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.profileTimeoutMs = profileTimeoutMs;
+        this.countsTimeoutMs = countsTimeoutMs;
+        this.reviewsTimeoutMs = reviewsTimeoutMs;
+        this.maxReviews = maxReviews;
+
+        AtomicInteger n = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), r -> {
+                Thread t = new Thread(r, "profile-page-" + n.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    public ProfilePageResponse getPage(UUID userId, int reviewLimit) {
+        pages.increment();
+        long started = System.nanoTime();
+        int limit = Math.max(1, Math.min(reviewLimit, maxReviews));
+
+        Future<Optional<Profile>> profile = workers.submit(() -> profileRepository.findById(userId));
+        Future<long[]> counts = workers.submit(() -> new long[] {
+            reviewRepository.countByUser_Id(userId),
+            followRepository.countByFollowing_Id(userId),
+            followRepository.countByFollower_Id(userId)
+        });
+        Future<ReviewPage> reviews = workers.submit(() -> firstReviews(userId, limit));
+
+        Profile p;
+        try {
+            p = get(profile, started, profileTimeoutMs).orElse(null);
+        } catch (TimeoutException e) {
+            profileTimeouts.increment();
+            cancel(profile, counts, reviews);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Profile lookup timed out");
+        } catch (ExecutionException e) {
+            cancel(counts, reviews);
+            throw e.getCause() instanceof RuntimeException re ? re : new IllegalStateException(e.getCause());
+        }
+        if (p == null) {
+            cancel(counts, reviews);
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        }
+
+        List<String> unavailable = new ArrayList<>();
+        long[] c = optional("counts", counts, started, countsTimeoutMs, unavailable, countsUnavailable);
+        ReviewPage r = optional("reviews", reviews, started, reviewsTimeoutMs, unavailable, reviewsUnavailable);
+        return new ProfilePageResponse(
+            p.getId().toString(),
+            p.getUsername(),
+            p.getDisplayName(),
+            p.getAvatarUrl(),
+            p.getBio(),
+            c != null ? c[0] : null,
+            c != null ? c[1] : null,
+            c != null ? c[2] : null,
+            r != null ? r.json() : null,
+            r != null ? r.hasMore() : null,
+            unavailable
+        );
+    }
+
+    @Override
+    public String debugPath() {
+        return "profile-page";
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("pages", pages.sum());
+        out.put("profileTimeouts", profileTimeouts.sum());
+        out.put("countsUnavailable", countsUnavailable.sum());
+        out.put("reviewsUnavailable", reviewsUnavailable.sum());
+        out.put("activeWorkers", workers.getActiveCount());
+        out.put("queued", workers.getQueue().size());
+        return out;
+    }
+
+    private ReviewPage firstReviews(UUID userId, int limit) {
+        return readOnlyTx.execute(status -> {
+            // One extra row tells us whether there's a next page without a count
+            List<Review> page = reviewRepository.findByUser_IdOrderByCreatedAtDesc(userId, PageRequest.of(0, limit + 1));
+            boolean hasMore = page.size() > limit;
+            byte[] json = reviewFragmentCache.toJsonArray(hasMore ? page.subList(0, limit) : page);
+            return new ReviewPage(new String(json, StandardCharsets.UTF_8), hasMore);
+        });
+    }
+
+    // null (and the part named in unavailable) if it failed or missed its deadline
+    private static <T> T optional(String part, Future<T> future, long started, long timeoutMs,
+                                  List<String> unavailable, LongAdder misses) {
+        try {
+            return get(future, started, timeoutMs);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.debug("Profile page part {} missed its {} ms deadline", part, timeoutMs);
+        } catch (ExecutionException e) {
+            log.warn("Profile page part {} failed", part, e.getCause());
+        }
+        misses.increment();
+        unavailable.add(part);
+        return null;
+    }
+
+    private static <T> T get(Future<T> future, long started, long timeoutMs) throws TimeoutException, ExecutionException {
+        long remaining = started + TimeUnit.MILLISECONDS.toNanos(timeoutMs) - System.nanoTime();
+        try {
+            return future.get(Math.max(0, remaining), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted");
+        }
+    }
+
+    private static void cancel(Future<?>... futures) {
+        for (Future<?> f : futures) f.cancel(true);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdown();
+    }
+}
@@ -1,13 +1,22 @@
 package com.pratham.foodreview.backend.service;
 
+import com.pratham.foodreview.backend.dto.ProfileResponse;
 import com.pratham.foodreview.backend.dto.ReviewResponse;
+import com.pratham.foodreview.backend.entity.Profile;
 import com.pratham.foodreview.backend.entity.Review;
+import com.pratham.foodreview.backend.repo.FollowRepository;
 import com.pratham.foodreview.backend.repo.ProfileRepository;
+import com.pratham.foodreview.backend.repo.ReviewRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -15,35 +24,73 @@ import java.util.stream.Collectors;
 public class ProfileService {
 
     private final ProfileRepository profileRepository;
+    private final ReviewRepository reviewRepository;
+    private final FollowRepository followRepository;
+    private final BatchLoader batchLoader;
+    private final ReviewMapper reviewMapper;
+    private final ReviewFragmentCache reviewFragmentCache;
 
-    public ProfileService(ProfileRepository profileRepository) {
+    public ProfileService(ProfileRepository profileRepository,
+                          ReviewRepository reviewRepository,
+                          FollowRepository followRepository,
+                          BatchLoader batchLoader,
+                          ReviewMapper reviewMapper,
+                          ReviewFragmentCache reviewFragmentCache) {
         this.profileRepository = profileRepository;
+        this.reviewRepository = reviewRepository;
+        this.followRepository = followRepository;
+        this.batchLoader = batchLoader;
+        this.reviewMapper = reviewMapper;
+        this.reviewFragmentCache = reviewFragmentCache;
+    }
+
+    // Profiles with their counts in four queries regardless of how many ids are asked for.
+    // Unknown ids are skipped; the rest keep the requested order.
+    @Transactional(readOnly = true)
+    public List<ProfileResponse> getProfiles(Collection<UUID> ids) {
+        Set<UUID> unique = new LinkedHashSet<>(ids);
+        if (unique.isEmpty()) return List.of();
+
+        Map<UUID, Profile> profiles = batchLoader.profiles(unique);
+        if (profiles.isEmpty()) return List.of();
+        Map<UUID, Long> reviewCounts = toCounts(reviewRepository.countByUserIds(profiles.keySet()));
+        Map<UUID, Long> followerCounts = toCounts(followRepository.countFollowersByIds(profiles.keySet()));
+        Map<UUID, Long> followingCounts = toCounts(followRepository.countFollowingByIds(profiles.keySet()));
+
+        List<ProfileResponse> out = new ArrayList<>(profiles.size());
+        for (UUID id : unique) {
+            Profile p = profiles.get(id);
+            if (p == null) continue;
+            out.add(new ProfileResponse(
+                p.getId().toString(),
+                p.getUsername(),
+                p.getDisplayName(),
+                p.getAvatarUrl(),
+                p.getBio(),
+                reviewCounts.getOrDefault(id, 0L),
+                followerCounts.getOrDefault(id, 0L),
+                followingCounts.getOrDefault(id, 0L)
+            ));
+        }
+        return out;
     }
 
     @Transactional(readOnly = true)
     public List<ReviewResponse> getReviews(UUID userId) {
         List<Review> reviews = profileRepository.findReviewsByUserId(userId);
         return reviews.stream()
-            .map(this::toReviewResponse)
+            .map(reviewMapper::toResponse)
             .collect(Collectors.toList());
     }
 
-    private ReviewResponse toReviewResponse(Review review) {
-        return new ReviewResponse(
-            review.getId().toString(),
-            review.getUser().getId().toString(),
-            review.getUser().getUsername(),
-            review.getUser().getAvatarUrl(),
-            review.getRestaurant().getId().toString(),
-            review.getRestaurant().getName(),
-            review.getRestaurant().getAddress(),
-            review.getRestaurant().getPhotoUrl(),
-            review.getRestaurant().getProviderId(),
-            review.getRating(),
-            review.getText(),
-            review.getPhotoUrls(),
-            review.getDishes() != null ? List.of(review.getDishes()) : new ArrayList<>(),
-            review.getCreatedAt().toString()
-        );
+    @Transactional(readOnly = true)
+    public byte[] getReviewsJson(UUID userId) {
+        return reviewFragmentCache.toJsonArray(profileRepository.findReviewsByUserId(userId));
+    }
+
+    private static Map<UUID, Long> toCounts(List<Object[]> rows) {
+        Map<UUID, Long> counts = new HashMap<>();
+        for (Object[] row : rows) counts.put((UUID) row[0], ((Number) row[1]).longValue());
+        return counts;
     }
 }
@@ -0,0 +1,44 @@
+package com.pratham.foodreview.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Stand-in for a remote push gateway until a real provider is wired up. Behaves like one from
+// the caller's side: every call takes latency-ms, a failure-rate fraction of calls fail, and
+// calls beyond max-in-flight are refused (the gateway's 429) instead of queueing.
+public class PushGatewayNotificationSink implements NotificationSink {
+
+    private static final Logger log = LoggerFactory.getLogger(PushGatewayNotificationSink.class);
+
+    private final long latencyMs;
+    private final double failureRate;
+    private final Semaphore inFlight;
+
+    public PushGatewayNotificationSink(long latencyMs, double failureRate, int maxInFlight) {
+        this.latencyMs = latencyMs;
+        this.failureRate = failureRate;
+        this.inFlight = new Semaphore(Math.max(1, maxInFlight));
+    }
+
+    @Override
+    public void deliver(UUID recipient, List<Notification> batch) throws Exception {
+        if (!inFlight.tryAcquire()) {
+            throw new IOException("Push gateway busy");
+        }
+        try {
+            if (latencyMs > 0) Thread.sleep(latencyMs);
+            if (ThreadLocalRandom.current().nextDouble() < failureRate) {
+                throw new IOException("Push gateway returned 503");
+            }
+            log.debug("Pushed {} notification(s) to {}", batch.size(), recipient);
+        } finally {
+            inFlight.release();
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.pratham.foodreview.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+@Service
+public class RateLimitService implements DebugStats {
+
+    public static final String USER = "user";
+    public static final String PLACES = "places";
+    public static final String MENU_SCRAPER = "menu-scraper";
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimitService.class);
+    private static final Permit GRANTED = new Permit(true, 0);
+
+    public record Permit(boolean granted, long retryAfterSeconds) {}
+
+    private final boolean enabled;
+    private final boolean queue;
+    private final long maxWaitNanos;
+    private final int maxWaiters;
+    private final int maxKeys;
+    private final int userCapacity;
+    private final double userRefillPerSecond;
+
+    // At most max-keys callers get their own bucket. Buckets that have refilled are swept off the
+    // request path; while the map is full, new callers share one overflow bucket instead, so an
+    // address spray is throttled as a whole rather than growing the map.
+    private final ConcurrentHashMap<String, TokenBucket> userBuckets = new ConcurrentHashMap<>();
+    private final TokenBucket overflowBucket;
+    private final LongAdder overflowed = new LongAdder();
+    private final LongAdder swept = new LongAdder();
+    private final Map<String, TokenBucket> upstreamBuckets;
+    private final Map<String, LimiterStats> stats = new LinkedHashMap<>();
+    private final AtomicInteger waiters = new AtomicInteger();
+
+    public RateLimitService(@Value("${rate-limit.enabled:true}") boolean enabled,
+                            @Value("${rate-limit.mode:reject}") String mode,
+                            @Value("${rate-limit.max-wait-ms:250}") long maxWaitMs,
+                            @Value("${rate-limit.max-waiters:16}") int maxWaiters,
+                            @Value("${rate-limit.max-keys:10000}") int maxKeys,
+                            @Value("${rate-limit.user.capacity:30}") int userCapacity,
+                            @Value("${rate-limit.user.refill-per-second:10}") double userRefillPerSecond,
+                            @Value("${rate-limit.places.capacity:5}") int placesCapacity,
+                            @Value("${rate-limit.places.refill-per-second:2}") double placesRefillPerSecond,
+                            @Value("${rate-limit.menu-scraper.capacity:5}") int scraperCapacity,
+                            @Value("${rate-limit.menu-scraper.refill-per-second:2}") double scraperRefillPerSecond) {
+        this.enabled = enabled;
+        this.queue = "queue".equalsIgnoreCase(mode);
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+        this.maxWaiters = maxWaiters;
+        this.maxKeys = maxKeys;
+        this.userCapacity = userCapacity;
+        this.userRefillPerSecond = userRefillPerSecond;
+        this.overflowBucket = new TokenBucket(userCapacity, userRefillPerSecond);
+        this.upstreamBuckets = Map.of(
+            PLACES, new TokenBucket(placesCapacity, placesRefillPerSecond),
+            MENU_SCRAPER, new TokenBucket(scraperCapacity, scraperRefillPerSecond)
+        );
+        for (String name : new String[] {USER, PLACES, MENU_SCRAPER}) {
+            stats.put(name, new LimiterStats());
+        }
+    }
+
+    // Per-caller budget; key is the JWT subject, or the client IP on public routes.
+    public Permit acquireUser(String key) {
+        if (!enabled) return GRANTED;
+        TokenBucket bucket = userBuckets.get(key);
+        if (bucket == null) {
+            if (userBuckets.size() >= maxKeys) {
+                overflowed.increment();
+                bucket = overflowBucket;
+            } else {
+                bucket = userBuckets.computeIfAbsent(key, k -> new TokenBucket(userCapacity, userRefillPerSecond));
+            }
+        }
+        return acquire(USER, bucket);
+    }
+
+    // Full buckets hold no state, so dropping them is invisible to callers. A request that looked
+    // up a bucket just before it was swept charges the dropped one and at most one token is lost.
+    @Scheduled(fixedDelayString = "${rate-limit.sweep-ms:1000}")
+    public void sweep() {
+        userBuckets.values().removeIf(bucket -> {
+            if (!bucket.isFull()) return false;
+            swept.increment();
+            return true;
+        });
+    }
+
+    // Global budget shared by every request that calls out to Google Places or the menu scraper.
+    public Permit acquireUpstream(String name) {
+        if (!enabled) return GRANTED;
+        TokenBucket bucket = upstreamBuckets.get(name);
+        if (bucket == null) {
+            throw new IllegalArgumentException("Unknown upstream limiter: " + name);
+        }
+        return acquire(name, bucket);
+    }
+
+    private Permit acquire(String name, TokenBucket bucket) {
+        LimiterStats s = stats.get(name);
+
+        // Queueing is capped by max-waiters so a burst cannot park every request thread
+        long maxWait = queue && waiters.get() < maxWaiters ? maxWaitNanos : 0;
+        long wait = bucket.reserve(maxWait);
+        if (wait < 0) {
+            s.rejected.increment();
+            long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(bucket.nanosUntilAvailable() + 999_999_999L));
+            log.debug("Rate limit rejected: limiter={} retryAfter={}s", name, retryAfter);
+            return new Permit(false, retryAfter);
+        }
+        if (wait > 0) {
+            waiters.incrementAndGet();
+            try {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                s.rejected.increment();
+                return new Permit(false, 1);
+            } finally {
+                waiters.decrementAndGet();
+            }
+            s.queued.increment();
+            s.waitNanos.add(wait);
+        }
+        s.permitted.increment();
+        return GRANTED;
+    }
+
+    @Override
+    public String debugPath() {
+        return "rate-limits";
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("enabled", enabled);
+        out.put("mode", queue ? "queue" : "reject");
+        out.put("activeKeys", userBuckets.size());
+        out.put("maxKeys", maxKeys);
+        out.put("overflowed", overflowed.sum());
+        out.put("swept", swept.sum());
+        out.put("waiters", waiters.get());
+        stats.forEach((name, s) -> {
+            long queued = s.queued.sum();
+            out.put(name, Map.of(
+                "permitted", s.permitted.sum(),
+                "queued", queued,
+                "rejected", s.rejected.sum(),
+                "avgQueueWaitMs", queued == 0 ? 0.0 : s.waitNanos.sum() / (double) queued / 1_000_000.0
+            ));
+        });
+        return out;
+    }
+
+    private static class LimiterStats {
+        final LongAdder permitted = new LongAdder();
+        final LongAdder queued = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+        final LongAdder waitNanos = new LongAdder();
+    }
+}
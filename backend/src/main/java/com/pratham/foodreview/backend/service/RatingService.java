@@ -0,0 +1,209 @@
+package com.pratham.foodreview.backend.service;
+
+import com.pratham.foodreview.backend.dto.RatingSummary;
+import com.pratham.foodreview.backend.dto.TrendingRestaurantResponse;
+import com.pratham.foodreview.backend.entity.Restaurant;
+import com.pratham.foodreview.backend.entity.RestaurantRating;
+import com.pratham.foodreview.backend.repo.RestaurantRatingRepository;
+import com.pratham.foodreview.backend.repo.RestaurantRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Per-restaurant rating aggregates (count, sum, 1-5 histogram, Bayesian score). Review writes
+// apply a delta in the same transaction, so reads never have to scan reviews.
+@Service
+public class RatingService {
+
+    private static final Logger log = LoggerFactory.getLogger(RatingService.class);
+
+    private static final double EARTH_RADIUS_KM = 6371.0;
+    private static final int MAX_PAGES = 20;
+
+    private final RestaurantRatingRepository ratingRepository;
+    private final RestaurantRepository restaurantRepository;
+    private final double priorWeight;
+    private final double priorMean;
+
+    public RatingService(RestaurantRatingRepository ratingRepository,
+                         RestaurantRepository restaurantRepository,
+                         @Value("${ratings.prior-weight:5}") double priorWeight,
+                         @Value("${ratings.prior-mean:3.5}") double priorMean) {
+        this.ratingRepository = ratingRepository;
+        this.restaurantRepository = restaurantRepository;
+        this.priorWeight = priorWeight;
+        this.priorMean = priorMean;
+    }
+
+    public static void validateRating(Integer rating) {
+        if (rating == null || rating < 1 || rating > 5) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Rating must be between 1 and 5");
+        }
+    }
+
+    // Must run inside the caller's review transaction
+    public void recordCreated(UUID restaurantId, int rating) {
+        ratingRepository.ensureRow(restaurantId);
+        ratingRepository.applyDelta(restaurantId, 1, rating, rating, 0, priorWeight, priorMean);
+    }
+
+    public void recordChanged(UUID restaurantId, int oldRating, int newRating) {
+        if (oldRating == newRating) return;
+        ratingRepository.ensureRow(restaurantId);
+        ratingRepository.applyDelta(restaurantId, 0, newRating - oldRating, newRating, oldRating, priorWeight, priorMean);
+    }
+
+    public void recordDeleted(UUID restaurantId, int rating) {
+        ratingRepository.applyDelta(restaurantId, -1, -rating, 0, rating, priorWeight, priorMean);
+    }
+
+    public RatingSummary summaryFor(UUID restaurantId) {
+        return ratingRepository.findById(restaurantId).map(this::toSummary).orElseGet(this::emptySummary);
+    }
+
+    public Map<UUID, RatingSummary> summariesFor(Collection<UUID> restaurantIds) {
+        Map<UUID, RatingSummary> out = new HashMap<>();
+        if (restaurantIds.isEmpty()) return out;
+        for (RestaurantRating rating : ratingRepository.findByRestaurantIdIn(restaurantIds)) {
+            out.put(rating.getRestaurantId(), toSummary(rating));
+        }
+        return out;
+    }
+
+    public RatingSummary emptySummary() {
+        return new RatingSummary(0, null, null, List.of(0L, 0L, 0L, 0L, 0L));
+    }
+
+    // Highest Bayesian score within radiusKm. The aggregate table is read in score order over a
+    // lat/lng bounding box and trimmed to the exact circle, so nothing is aggregated per request.
+    @Transactional(readOnly = true)
+    public List<TrendingRestaurantResponse> topRatedNearby(double lat, double lng, double radiusKm,
+                                                           int limit, long minReviews) {
+        if (radiusKm <= 0 || radiusKm > 100) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "radiusKm must be between 0 and 100");
+        }
+        if (limit < 1 || limit > 100) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and 100");
+        }
+
+        double dLat = Math.toDegrees(radiusKm / EARTH_RADIUS_KM);
+        double cosLat = Math.max(0.01, Math.cos(Math.toRadians(lat)));
+        double dLng = Math.min(180, dLat / cosLat);
+
+        int pageSize = Math.max(50, limit * 2);
+        List<TrendingRestaurantResponse> out = new ArrayList<>(limit);
+        for (int page = 0; page < MAX_PAGES && out.size() < limit; page++) {
+            List<RestaurantRating> ratings = ratingRepository.findTopRatedInBox(
+                lat - dLat, lat + dLat, lng - dLng, lng + dLng, Math.max(1, minReviews), PageRequest.of(page, pageSize));
+            if (ratings.isEmpty()) break;
+
+            Map<UUID, Restaurant> restaurants = restaurantRepository
+                .findAllById(ratings.stream().map(RestaurantRating::getRestaurantId).toList())
+                .stream().collect(Collectors.toMap(Restaurant::getId, Function.identity()));
+            for (RestaurantRating rating : ratings) {
+                Restaurant r = restaurants.get(rating.getRestaurantId());
+                if (r == null || distanceKm(lat, lng, r.getLat(), r.getLng()) > radiusKm) continue;
+                out.add(toTrending(r, toSummary(rating)));
+                if (out.size() == limit) break;
+            }
+            if (ratings.size() < pageSize) break;
+        }
+        return out;
+    }
+
+    // Recomputes every aggregate from the reviews table; for backfills and repairing drift.
+    @Transactional
+    public int rebuildAll() {
+        ratingRepository.deleteAllRows();
+        int rows = ratingRepository.rebuildFromReviews(priorWeight, priorMean);
+        log.info("Rebuilt rating aggregates for {} restaurants", rows);
+        return rows;
+    }
+
+    // Highest Bayesian scores overall, limited in SQL so only the page is read
+    @Transactional(readOnly = true)
+    public List<TrendingRestaurantResponse> trending(int limit) {
+        if (limit < 1 || limit > 100) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and 100");
+        }
+        List<RestaurantRating> ratings = ratingRepository.findByReviewCountGreaterThanEqualOrderByScoreDesc(1, PageRequest.of(0, limit));
+        Map<UUID, Restaurant> restaurants = restaurantRepository
+            .findAllById(ratings.stream().map(RestaurantRating::getRestaurantId).toList())
+            .stream().collect(Collectors.toMap(Restaurant::getId, Function.identity()));
+        List<TrendingRestaurantResponse> out = new ArrayList<>(ratings.size());
+        for (RestaurantRating rating : ratings) {
+            Restaurant r = restaurants.get(rating.getRestaurantId());
+            if (r != null) out.add(toTrending(r, toSummary(rating)));
+        }
+        return out;
+    }
+
+    // Scores are stored, so a changed prior has to be re-applied once. rating_prior records the
+    // prior they were computed with; boots with the same prior (the normal case) read one row and
+    // leave restaurant_ratings alone. The row lock makes instances booting together re-score once.
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void refreshScores() {
+        List<Object[]> applied = ratingRepository.lockAppliedPrior();
+        if (!applied.isEmpty()
+            && ((Number) applied.get(0)[0]).doubleValue() == priorWeight
+            && ((Number) applied.get(0)[1]).doubleValue() == priorMean) {
+            return;
+        }
+        int rows = ratingRepository.recomputeScores(priorWeight, priorMean);
+        if (ratingRepository.updateAppliedPrior(priorWeight, priorMean) == 0) {
+            ratingRepository.insertAppliedPrior(priorWeight, priorMean);
+        }
+        log.info("Re-scored {} restaurants for prior weight={} mean={}", rows, priorWeight, priorMean);
+    }
+
+    public static TrendingRestaurantResponse toTrending(Restaurant r, RatingSummary rating) {
+        return new TrendingRestaurantResponse(
+            r.getId().toString(),
+            r.getName(),
+            r.getAddress(),
+            r.getLat(),
+            r.getLng(),
+            r.getPhotoUrl(),
+            r.getCategories(),
+            r.getPriceTier(),
+            rating.count(),
+            rating
+        );
+    }
+
+    private RatingSummary toSummary(RestaurantRating r) {
+        long count = r.getReviewCount();
+        return new RatingSummary(
+            count,
+            count > 0 ? (double) r.getRatingSum() / count : null,
+            count > 0 ? r.getScore() : null,
+            List.of(r.getCount1(), r.getCount2(), r.getCount3(), r.getCount4(), r.getCount5())
+        );
+    }
+
+    static double distanceKm(double lat1, double lng1, Double lat2, Double lng2) {
+        if (lat2 == null || lng2 == null) return Double.MAX_VALUE;
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+            + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.sqrt(a));
+    }
+}
@@ -0,0 +1,252 @@
+package com.pratham.foodreview.backend.service;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Item-item collaborative filtering over a sparse user x restaurant rating matrix held in
+// primitive CSR arrays (no boxing, no per-rating objects). Pure computation, so the batch job and
+// the benchmark drive the same code.
+//
+//  1. ratings are centred on each user's mean (adjusted cosine);
+//  2. for every item, similarity to each co-rated item is the cosine of the centred vectors,
+//     shrunk by co/(co + shrink) so pairs backed by one or two users don't dominate; the top
+//     `neighbors` are kept;
+//  3. for every user, each unrated neighbour j of a rated item i accumulates sim(i, j) * (r_ui - 3),
+//     so liked items pull their neighbours up and disliked ones push them down; the best
+//     `topN` positive scores are the recommendations.
+// Steps 2 and 3 are split across cores with fork/join; each leaf reuses dense scratch arrays.
+public final class RecommendationEngine {
+
+    private static final int ITEM_BATCH = 32;
+    private static final int USER_BATCH = 256;
+
+    // One rating per index: userOf[k] rated itemOf[k] with rating[k] (1-5)
+    public record Input(int users, int items, int[] userOf, int[] itemOf, byte[] rating) {}
+
+    // Per-user top-N in CSR form: user u's items are items[offsets[u] .. offsets[u + 1]), best first
+    public record Output(int[] offsets, int[] items, float[] scores) {
+        public int count(int user) {
+            return offsets[user + 1] - offsets[user];
+        }
+    }
+
+    private final int neighbors;
+    private final int topN;
+    private final float shrink;
+
+    public RecommendationEngine(int neighbors, int topN, double shrink) {
+        this.neighbors = neighbors;
+        this.topN = topN;
+        this.shrink = (float) shrink;
+    }
+
+    public Output run(Input in, ForkJoinPool pool) {
+        int m = in.userOf().length;
+
+        // User means, then both CSR views of the centred matrix
+        double[] sum = new double[in.users()];
+        int[] uOff = new int[in.users() + 1];
+        int[] iOff = new int[in.items() + 1];
+        for (int k = 0; k < m; k++) {
+            sum[in.userOf()[k]] += in.rating()[k];
+            uOff[in.userOf()[k] + 1]++;
+            iOff[in.itemOf()[k] + 1]++;
+        }
+        for (int u = 0; u < in.users(); u++) uOff[u + 1] += uOff[u];
+        for (int i = 0; i < in.items(); i++) iOff[i + 1] += iOff[i];
+
+        int[] uItems = new int[m];
+        float[] uVal = new float[m];
+        byte[] uRaw = new byte[m];
+        int[] iUsers = new int[m];
+        float[] iVal = new float[m];
+        int[] uPos = uOff.clone();
+        int[] iPos = iOff.clone();
+        for (int k = 0; k < m; k++) {
+            int u = in.userOf()[k];
+            int i = in.itemOf()[k];
+            float centred = (float) (in.rating()[k] - sum[u] / (uOff[u + 1] - uOff[u]));
+            int up = uPos[u]++;
+            uItems[up] = i;
+            uVal[up] = centred;
+            uRaw[up] = in.rating()[k];
+            int ip = iPos[i]++;
+            iUsers[ip] = u;
+            iVal[ip] = centred;
+        }
+
+        float[] norm = new float[in.items()];
+        for (int i = 0; i < in.items(); i++) {
+            double s = 0;
+            for (int p = iOff[i]; p < iOff[i + 1]; p++) s += (double) iVal[p] * iVal[p];
+            norm[i] = (float) Math.sqrt(s);
+        }
+
+        int[] nbr = new int[in.items() * neighbors];
+        float[] nbrSim = new float[in.items() * neighbors];
+        int[] nbrCount = new int[in.items()];
+        pool.invoke(new ItemTask(0, in.items(), in.items(), uOff, uItems, uVal, iOff, iUsers, iVal, norm, nbr, nbrSim, nbrCount));
+
+        int[] recItems = new int[in.users() * topN];
+        float[] recScores = new float[in.users() * topN];
+        int[] recCount = new int[in.users()];
+        pool.invoke(new UserTask(0, in.users(), in.items(), uOff, uItems, uRaw, nbr, nbrSim, nbrCount, recItems, recScores, recCount));
+
+        // Compact the fixed-width slots into CSR
+        int[] offsets = new int[in.users() + 1];
+        for (int u = 0; u < in.users(); u++) offsets[u + 1] = offsets[u] + recCount[u];
+        int[] items = new int[offsets[in.users()]];
+        float[] scores = new float[offsets[in.users()]];
+        for (int u = 0; u < in.users(); u++) {
+            System.arraycopy(recItems, u * topN, items, offsets[u], recCount[u]);
+            System.arraycopy(recScores, u * topN, scores, offsets[u], recCount[u]);
+        }
+        return new Output(offsets, items, scores);
+    }
+
+    private final class ItemTask extends RecursiveAction {
+        final int from, to, items;
+        final int[] uOff, uItems, iOff, iUsers, nbr, nbrCount;
+        final float[] uVal, iVal, norm, nbrSim;
+
+        ItemTask(int from, int to, int items, int[] uOff, int[] uItems, float[] uVal, int[] iOff, int[] iUsers,
+                 float[] iVal, float[] norm, int[] nbr, float[] nbrSim, int[] nbrCount) {
+            this.from = from; this.to = to; this.items = items;
+            this.uOff = uOff; this.uItems = uItems; this.uVal = uVal;
+            this.iOff = iOff; this.iUsers = iUsers; this.iVal = iVal; this.norm = norm;
+            this.nbr = nbr; this.nbrSim = nbrSim; this.nbrCount = nbrCount;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > ITEM_BATCH) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new ItemTask(from, mid, items, uOff, uItems, uVal, iOff, iUsers, iVal, norm, nbr, nbrSim, nbrCount),
+                          new ItemTask(mid, to, items, uOff, uItems, uVal, iOff, iUsers, iVal, norm, nbr, nbrSim, nbrCount));
+                return;
+            }
+            float[] dot = new float[items];
+            int[] co = new int[items];
+            int[] touched = new int[items];
+            for (int i = from; i < to; i++) {
+                if (norm[i] == 0) continue;
+                int nTouched = 0;
+                for (int p = iOff[i]; p < iOff[i + 1]; p++) {
+                    int u = iUsers[p];
+                    float vi = iVal[p];
+                    for (int q = uOff[u]; q < uOff[u + 1]; q++) {
+                        int j = uItems[q];
+                        if (j == i) continue;
+                        if (co[j] == 0) touched[nTouched++] = j;
+                        co[j]++;
+                        dot[j] += vi * uVal[q];
+                    }
+                }
+                int base = i * neighbors;
+                int kept = 0;
+                for (int t = 0; t < nTouched; t++) {
+                    int j = touched[t];
+                    if (norm[j] > 0) {
+                        float sim = dot[j] / (norm[i] * norm[j]) * (co[j] / (co[j] + shrink));
+                        if (sim > 0) kept = offer(nbr, nbrSim, base, kept, neighbors, j, sim);
+                    }
+                    dot[j] = 0;
+                    co[j] = 0;
+                }
+                nbrCount[i] = kept;
+            }
+        }
+    }
+
+    private final class UserTask extends RecursiveAction {
+        final int from, to, items;
+        final int[] uOff, uItems, nbr, nbrCount, recItems, recCount;
+        final byte[] uRaw;
+        final float[] nbrSim, recScores;
+
+        UserTask(int from, int to, int items, int[] uOff, int[] uItems, byte[] uRaw, int[] nbr, float[] nbrSim,
+                 int[] nbrCount, int[] recItems, float[] recScores, int[] recCount) {
+            this.from = from; this.to = to; this.items = items;
+            this.uOff = uOff; this.uItems = uItems; this.uRaw = uRaw;
+            this.nbr = nbr; this.nbrSim = nbrSim; this.nbrCount = nbrCount;
+            this.recItems = recItems; this.recScores = recScores; this.recCount = recCount;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > USER_BATCH) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new UserTask(from, mid, items, uOff, uItems, uRaw, nbr, nbrSim, nbrCount, recItems, recScores, recCount),
+                          new UserTask(mid, to, items, uOff, uItems, uRaw, nbr, nbrSim, nbrCount, recItems, recScores, recCount));
+                return;
+            }
+            float[] score = new float[items];
+            int[] seenBy = new int[items];   // stamp = user + 1 when the user rated the item
+            int[] hitBy = new int[items];    // stamp = user + 1 when the item already has a score
+            int[] touched = new int[items];
+            for (int u = from; u < to; u++) {
+                int stamp = u + 1;
+                for (int q = uOff[u]; q < uOff[u + 1]; q++) seenBy[uItems[q]] = stamp;
+                int nTouched = 0;
+                for (int q = uOff[u]; q < uOff[u + 1]; q++) {
+                    int i = uItems[q];
+                    float w = uRaw[q] - 3;
+                    if (w == 0) continue;
+                    int base = i * neighbors;
+                    for (int n = 0; n < nbrCount[i]; n++) {
+                        int j = nbr[base + n];
+                        if (seenBy[j] == stamp) continue;
+                        if (hitBy[j] != stamp) {
+                            hitBy[j] = stamp;
+                            score[j] = 0;
+                            touched[nTouched++] = j;
+                        }
+                        score[j] += nbrSim[base + n] * w;
+                    }
+                }
+                int base = u * topN;
+                int kept = 0;
+                for (int t = 0; t < nTouched; t++) {
+                    int j = touched[t];
+                    if (score[j] > 0) kept = offer(recItems, recScores, base, kept, topN, j, score[j]);
+                }
+                sortDescending(recItems, recScores, base, kept);
+                recCount[u] = kept;
+            }
+        }
+    }
+
+    // Bounded top-k: keeps the k largest values in slots [base, base + k). Linear replacement of
+    // the current minimum is cheaper than a heap for the small k used here.
+    private static int offer(int[] ids, float[] values, int base, int size, int k, int id, float value) {
+        if (size < k) {
+            ids[base + size] = id;
+            values[base + size] = value;
+            return size + 1;
+        }
+        int min = base;
+        for (int p = base + 1; p < base + k; p++) {
+            if (values[p] < values[min]) min = p;
+        }
+        if (value > values[min]) {
+            ids[min] = id;
+            values[min] = value;
+        }
+        return size;
+    }
+
+    private static void sortDescending(int[] ids, float[] values, int base, int size) {
+        for (int a = base + 1; a < base + size; a++) {
+            int id = ids[a];
+            float v = values[a];
+            int b = a - 1;
+            while (b >= base && values[b] < v) {
+                ids[b + 1] = ids[b];
+                values[b + 1] = values[b];
+                b--;
+            }
+            ids[b + 1] = id;
+            values[b + 1] = v;
+        }
+    }
+}
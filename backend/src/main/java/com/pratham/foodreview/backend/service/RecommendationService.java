@@ -0,0 +1,287 @@
+package com.pratham.foodreview.backend.service;
+
+import com.pratham.foodreview.backend.dto.RatingSummary;
+import com.pratham.foodreview.backend.dto.TrendingRestaurantResponse;
+import com.pratham.foodreview.backend.entity.Restaurant;
+import com.pratham.foodreview.backend.entity.RestaurantRating;
+import com.pratham.foodreview.backend.repo.RestaurantRatingRepository;
+import com.pratham.foodreview.backend.repo.UserRecommendationsRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.sql.DataSource;
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+// Collaborative-filtering recommendations. A scheduled job streams (user, restaurant, rating)
+// out of reviews into primitive arrays, runs RecommendationEngine on a dedicated fork/join pool
+// and rewrites user_recommendations in one transaction. Serving is a primary-key read of one
+// packed row; users the job hasn't seen yet get the global top-rated list instead.
+//
+// The schedule fires on every instance; a Postgres advisory lock, held on its own connection for
+// the length of the run, lets one of them do the work and the others skip it.
+@Service
+public class RecommendationService implements DebugStats {
+
+    private static final Logger log = LoggerFactory.getLogger(RecommendationService.class);
+
+    private static final int ENTRY_BYTES = 20;
+    private static final int INSERT_BATCH = 1000;
+    private static final long LOCK_KEY = 0x7265636f6d6d656eL;
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final UserRecommendationsRepository recommendationsRepository;
+    private final RestaurantRatingRepository ratingRepository;
+    private final RatingService ratingService;
+    private final BatchLoader batchLoader;
+    private final boolean enabled;
+    private final RecommendationEngine engine;
+    private final ForkJoinPool pool;
+    // The nightly run takes minutes; kept off the shared scheduler thread so PoolController and
+    // FeedRanker's flush keep ticking through it
+    private final SingleFlight scheduled = new SingleFlight("recommendations-rebuild", this::rebuild);
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final LongAdder skippedElsewhere = new LongAdder();
+    private volatile Map<String, Object> lastRun = Map.of();
+
+    public RecommendationService(DataSource dataSource,
+                                 PlatformTransactionManager transactionManager,
+                                 UserRecommendationsRepository recommendationsRepository,
+                                 RestaurantRatingRepository ratingRepository,
+                                 RatingService ratingService,
+                                 BatchLoader batchLoader,
+                                 @Value("${recommendations.enabled:true}") boolean enabled,
+                                 @Value("${recommendations.neighbors:50}") int neighbors,
+                                 @Value("${recommendations.top-n:30}") int topN,
+                                 @Value("${recommendations.shrink:10}") double shrink,
+                                 @Value("${recommendations.parallelism:0}") int parallelism) {
+        this.dataSource = dataSource;
+        // Private template: the fetch size lets pgjdbc stream the scan instead of buffering it
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.jdbc.setFetchSize(10_000);
+        this.tx = new TransactionTemplate(transactionManager);
+        this.recommendationsRepository = recommendationsRepository;
+        this.ratingRepository = ratingRepository;
+        this.ratingService = ratingService;
+        this.batchLoader = batchLoader;
+        this.enabled = enabled;
+        this.engine = new RecommendationEngine(neighbors, topN, shrink);
+        // Own pool so a nightly run never starves the common pool used by request-path code
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    public List<TrendingRestaurantResponse> recommendedFor(UUID userId, int limit) {
+        if (limit < 1 || limit > 50) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and 50");
+        }
+        List<UUID> ids = recommendationsRepository.findById(userId)
+            .map(r -> unpack(r.getItems(), limit))
+            .orElseGet(List::of);
+        if (ids.isEmpty()) {
+            ids = ratingRepository.findByReviewCountGreaterThanEqualOrderByScoreDesc(1, PageRequest.of(0, limit))
+                .stream().map(RestaurantRating::getRestaurantId).toList();
+        }
+
+        Map<UUID, Restaurant> restaurants = batchLoader.restaurants(ids);
+        Map<UUID, RatingSummary> ratings = ratingService.summariesFor(ids);
+        List<TrendingRestaurantResponse> out = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            Restaurant r = restaurants.get(id);
+            if (r != null) out.add(RatingService.toTrending(r, ratings.getOrDefault(id, ratingService.emptySummary())));
+        }
+        return out;
+    }
+
+    @Scheduled(cron = "${recommendations.cron:0 0 4 * * *}")
+    public void scheduledRebuild() {
+        if (enabled) scheduled.request();
+    }
+
+    // Returns the number of users with recommendations, or -1 if a run is already in progress
+    // here or on another instance
+    public int rebuild() {
+        if (!running.compareAndSet(false, true)) return -1;
+        try (Connection lock = dataSource.getConnection()) {
+            boolean postgres = "PostgreSQL".equals(lock.getMetaData().getDatabaseProductName());
+            if (postgres && !tryLock(lock)) {
+                skippedElsewhere.increment();
+                log.info("Recommendations rebuild already running on another instance; skipping");
+                return -1;
+            }
+            try {
+                return run();
+            } finally {
+                if (postgres) unlock(lock);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not take the recommendations lock", e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private int run() {
+        long start = System.nanoTime();
+        Matrix matrix = load();
+        long loaded = System.nanoTime();
+        RecommendationEngine.Output output = engine.run(matrix.input(), pool);
+        long computed = System.nanoTime();
+        int rows = store(matrix, output);
+        long stored = System.nanoTime();
+
+        Map<String, Object> run = new LinkedHashMap<>();
+        run.put("finishedAt", Instant.now().toString());
+        run.put("users", matrix.userIds().length);
+        run.put("restaurants", matrix.itemIds().length);
+        run.put("ratings", matrix.input().userOf().length);
+        run.put("rowsWritten", rows);
+        run.put("loadMs", (loaded - start) / 1_000_000);
+        run.put("computeMs", (computed - loaded) / 1_000_000);
+        run.put("storeMs", (stored - computed) / 1_000_000);
+        lastRun = run;
+        log.info("Recommendations rebuilt: {}", run);
+        return rows;
+    }
+
+    private static boolean tryLock(Connection con) throws SQLException {
+        try (Statement st = con.createStatement(); ResultSet rs = st.executeQuery("select pg_try_advisory_lock(" + LOCK_KEY + ")")) {
+            return rs.next() && rs.getBoolean(1);
+        }
+    }
+
+    private static void unlock(Connection con) throws SQLException {
+        try (Statement st = con.createStatement()) {
+            st.execute("select pg_advisory_unlock(" + LOCK_KEY + ")");
+        }
+    }
+
+    @Override
+    public String debugPath() {
+        return "recommendations";
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("running", running.get());
+        out.put("skippedElsewhere", skippedElsewhere.sum());
+        out.put("parallelism", pool.getParallelism());
+        out.put("lastRun", lastRun);
+        return out;
+    }
+
+    record Matrix(UUID[] userIds, UUID[] itemIds, RecommendationEngine.Input input) {}
+
+    // Streams the ratings without materialising entities; ids are interned to dense ints
+    private Matrix load() {
+        return tx.execute(status -> {
+            Map<UUID, Integer> users = new HashMap<>();
+            Map<UUID, Integer> items = new HashMap<>();
+            List<UUID> userIds = new ArrayList<>();
+            List<UUID> itemIds = new ArrayList<>();
+            RatingBuffer buffer = new RatingBuffer();
+            jdbc.query("SELECT user_id, restaurant_id, rating FROM reviews", rs -> {
+                int r = rs.getInt(3);
+                if (r < 1 || r > 5) return;
+                int user = users.computeIfAbsent(rs.getObject(1, UUID.class), id -> { userIds.add(id); return userIds.size() - 1; });
+                int item = items.computeIfAbsent(rs.getObject(2, UUID.class), id -> { itemIds.add(id); return itemIds.size() - 1; });
+                buffer.add(user, item, r);
+            });
+            return new Matrix(userIds.toArray(new UUID[0]), itemIds.toArray(new UUID[0]),
+                buffer.toInput(userIds.size(), itemIds.size()));
+        });
+    }
+
+    // Full rewrite in one transaction, so readers see either the previous run or this one
+    private int store(Matrix matrix, RecommendationEngine.Output output) {
+        Timestamp computedAt = Timestamp.from(Instant.now());
+        List<Object[]> rows = new ArrayList<>();
+        for (int u = 0; u < matrix.userIds().length; u++) {
+            int count = output.count(u);
+            if (count == 0) continue;
+            ByteBuffer buf = ByteBuffer.allocate(count * ENTRY_BYTES);
+            for (int p = output.offsets()[u]; p < output.offsets()[u + 1]; p++) {
+                UUID item = matrix.itemIds()[output.items()[p]];
+                buf.putLong(item.getMostSignificantBits()).putLong(item.getLeastSignificantBits()).putFloat(output.scores()[p]);
+            }
+            rows.add(new Object[] {matrix.userIds()[u], buf.array(), computedAt});
+        }
+        tx.executeWithoutResult(status -> {
+            jdbc.update("DELETE FROM user_recommendations");
+            for (int from = 0; from < rows.size(); from += INSERT_BATCH) {
+                jdbc.batchUpdate("INSERT INTO user_recommendations (user_id, items, computed_at) VALUES (?, ?, ?)",
+                    rows.subList(from, Math.min(rows.size(), from + INSERT_BATCH)));
+            }
+        });
+        return rows.size();
+    }
+
+    static List<UUID> unpack(byte[] items, int limit) {
+        ByteBuffer buf = ByteBuffer.wrap(items);
+        int count = Math.min(limit, items.length / ENTRY_BYTES);
+        List<UUID> out = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            out.add(new UUID(buf.getLong(), buf.getLong()));
+            buf.getFloat();
+        }
+        return out;
+    }
+
+    private static final class RatingBuffer {
+        int[] userOf = new int[1 << 16];
+        int[] itemOf = new int[1 << 16];
+        byte[] rating = new byte[1 << 16];
+        int size;
+
+        void add(int user, int item, int r) {
+            if (size == userOf.length) {
+                userOf = Arrays.copyOf(userOf, size * 2);
+                itemOf = Arrays.copyOf(itemOf, size * 2);
+                rating = Arrays.copyOf(rating, size * 2);
+            }
+            userOf[size] = user;
+            itemOf[size] = item;
+            rating[size] = (byte) r;
+            size++;
+        }
+
+        RecommendationEngine.Input toInput(int users, int items) {
+            return new RecommendationEngine.Input(users, items,
+                Arrays.copyOf(userOf, size), Arrays.copyOf(itemOf, size), Arrays.copyOf(rating, size));
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduled.shutdown();
+        pool.shutdownNow();
+    }
+}
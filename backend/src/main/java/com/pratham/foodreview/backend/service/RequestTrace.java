@@ -0,0 +1,61 @@
+package com.pratham.foodreview.backend.service;
+
+// Phase timings for the request running on this thread, collected for FlightRecorder. Code on
+// the request path brackets a phase with
+//   long t = RequestTrace.start(); try { ... } finally { RequestTrace.stop(Phase.MAPPING, t); }
+// which costs one ThreadLocal read when no trace is open. Phases nest rather than partition:
+// SQL run by batch loads or lazy associations during mapping counts toward both.
+public final class RequestTrace {
+
+    public enum Phase {
+        JWT("jwt"),
+        POOL_WAIT("poolWait"),
+        SQL("sql"),
+        MAPPING("mapping"),
+        SERIALIZATION("serialization");
+
+        final String label;
+
+        Phase(String label) {
+            this.label = label;
+        }
+    }
+
+    static final int PHASES = Phase.values().length;
+    private static final ThreadLocal<RequestTrace> CURRENT = new ThreadLocal<>();
+
+    final long startNanos = System.nanoTime();
+    final long startEpochMs = System.currentTimeMillis();
+    final long[] nanos = new long[PHASES];
+    final int[] counts = new int[PHASES];
+    RequestTraceEvent event;
+
+    private RequestTrace() {}
+
+    public static RequestTrace open() {
+        RequestTrace trace = new RequestTrace();
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    public static void close() {
+        CURRENT.remove();
+    }
+
+    // 0 when no trace is open, so stop() can skip the clock read
+    public static long start() {
+        return CURRENT.get() != null ? System.nanoTime() : 0;
+    }
+
+    public static void stop(Phase phase, long started) {
+        if (started != 0) add(phase, System.nanoTime() - started);
+    }
+
+    // For hooks that measure the duration themselves (the pool, JDBC listeners)
+    public static void add(Phase phase, long elapsedNanos) {
+        RequestTrace trace = CURRENT.get();
+        if (trace == null) return;
+        trace.nanos[phase.ordinal()] += elapsedNanos;
+        trace.counts[phase.ordinal()]++;
+    }
+}
@@ -0,0 +1,52 @@
+package com.pratham.foodreview.backend.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+// JDK Flight Recorder view of one HTTP request, emitted when flight-recorder.jfr is on. Only
+// recorded while a JFR recording enables it (e.g. -XX:StartFlightRecording with a threshold on
+// com.pratham.foodreview.HttpRequest); otherwise commit() is a no-op.
+@Name("com.pratham.foodreview.HttpRequest")
+@Label("HTTP Request")
+@Category({"FoodReview", "HTTP"})
+@Description("Request latency with per-phase breakdown")
+@StackTrace(false)
+class RequestTraceEvent extends Event {
+
+    @Label("Method")
+    String method;
+
+    @Label("Route")
+    String route;
+
+    @Label("Status")
+    int status;
+
+    @Label("JWT Validation")
+    @Timespan(Timespan.NANOSECONDS)
+    long jwt;
+
+    @Label("Pool Wait")
+    @Timespan(Timespan.NANOSECONDS)
+    long poolWait;
+
+    @Label("SQL")
+    @Timespan(Timespan.NANOSECONDS)
+    long sql;
+
+    @Label("SQL Statements")
+    int sqlStatements;
+
+    @Label("Mapping")
+    @Timespan(Timespan.NANOSECONDS)
+    long mapping;
+
+    @Label("Serialization")
+    @Timespan(Timespan.NANOSECONDS)
+    long serialization;
+}
@@ -0,0 +1,227 @@
+package com.pratham.foodreview.backend.service;
+
+import com.pratham.foodreview.backend.dto.RestaurantDetailResponse;
+import com.pratham.foodreview.backend.dto.ReviewResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+// Response-level cache of restaurant detail snapshots. Concurrent misses for the same id share
+// one in-flight build, entries are dropped after commit of any review write for that restaurant,
+// and total retained size is bounded by an estimate of the snapshot bytes.
+@Service
+public class RestaurantDetailCache implements DebugStats {
+
+    private static final Logger log = LoggerFactory.getLogger(RestaurantDetailCache.class);
+
+    private final boolean enabled;
+    private final long maxBytes;
+    private final long ttlNanos;
+
+    private final ConcurrentHashMap<UUID, Slot> slots = new ConcurrentHashMap<>();
+    private final AtomicLong retainedBytes = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private final InvalidationBus invalidationBus;
+
+    public RestaurantDetailCache(@Value("${restaurant-cache.enabled:true}") boolean enabled,
+                                 @Value("${restaurant-cache.max-bytes:33554432}") long maxBytes,
+                                 @Value("${restaurant-cache.ttl-seconds:300}") long ttlSeconds,
+                                 InvalidationBus invalidationBus) {
+        this.enabled = enabled;
+        this.maxBytes = maxBytes;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.invalidationBus = invalidationBus;
+        invalidationBus.subscribe(InvalidationKeys.RESTAURANT, key -> invalidate(UUID.fromString(key)), this::clear);
+        // Snapshots embed reviewer names and avatars
+        invalidationBus.subscribe(InvalidationKeys.PROFILE, key -> invalidateReviewsBy(key), this::clear);
+    }
+
+    public RestaurantDetailResponse get(UUID restaurantId, Function<UUID, RestaurantDetailResponse> loader) {
+        if (!enabled) return loader.apply(restaurantId);
+
+        Slot slot = slots.get(restaurantId);
+        if (slot != null && slot.isExpired()) {
+            remove(restaurantId, slot);
+            slot = null;
+        }
+        if (slot != null) {
+            hits.increment();
+            slot.lastAccess = System.nanoTime();
+            return await(slot.future);
+        }
+
+        Slot created = new Slot();
+        slot = slots.putIfAbsent(restaurantId, created);
+        if (slot != null) {
+            // Another request is already building (or just built) this snapshot
+            hits.increment();
+            return await(slot.future);
+        }
+
+        misses.increment();
+        try {
+            RestaurantDetailResponse response = loader.apply(restaurantId);
+            created.bytes = estimateBytes(response);
+            created.loadedAt = System.nanoTime();
+            created.lastAccess = created.loadedAt;
+            created.future.complete(response);
+            // Only account for the entry if it was not invalidated while we were building it
+            synchronized (created) {
+                if (slots.get(restaurantId) == created) {
+                    retainedBytes.addAndGet(created.bytes);
+                    created.accounted = true;
+                }
+            }
+            evictIfNeeded();
+            return response;
+        } catch (RuntimeException e) {
+            slots.remove(restaurantId, created);
+            created.future.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    // Drops the snapshot on every instance once the surrounding transaction commits, so readers
+    // never re-cache the pre-write state. Outside a transaction it drops immediately.
+    public void invalidateAfterCommit(UUID restaurantId) {
+        invalidationBus.publishAfterCommit(InvalidationKeys.RESTAURANT, restaurantId);
+    }
+
+    // Local only; other instances are reached through invalidateAfterCommit
+    public void invalidate(UUID restaurantId) {
+        Slot slot = slots.get(restaurantId);
+        if (slot != null && remove(restaurantId, slot)) {
+            invalidations.increment();
+        }
+    }
+
+    public void clear() {
+        for (Map.Entry<UUID, Slot> e : slots.entrySet()) {
+            if (remove(e.getKey(), e.getValue())) invalidations.increment();
+        }
+    }
+
+    private void invalidateReviewsBy(String userId) {
+        for (Map.Entry<UUID, Slot> e : slots.entrySet()) {
+            CompletableFuture<RestaurantDetailResponse> future = e.getValue().future;
+            // Unfinished builds are dropped too; they may have read the old profile
+            boolean stale = !future.isDone() || future.isCompletedExceptionally()
+                || future.join().reviews().stream().anyMatch(r -> userId.equals(r.userId()));
+            if (stale && remove(e.getKey(), e.getValue())) invalidations.increment();
+        }
+    }
+
+    @Override
+    public String debugPath() {
+        return "caches/restaurantDetail";
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("entries", slots.size());
+        out.put("retainedBytes", retainedBytes.get());
+        out.put("maxBytes", maxBytes);
+        out.put("hits", hits.sum());
+        out.put("misses", misses.sum());
+        out.put("invalidations", invalidations.sum());
+        out.put("evictions", evictions.sum());
+        return out;
+    }
+
+    private boolean remove(UUID restaurantId, Slot slot) {
+        if (!slots.remove(restaurantId, slot)) return false;
+        synchronized (slot) {
+            if (slot.accounted) {
+                retainedBytes.addAndGet(-slot.bytes);
+                slot.accounted = false;
+            }
+        }
+        return true;
+    }
+
+    private void evictIfNeeded() {
+        if (retainedBytes.get() <= maxBytes) return;
+
+        // Evict least recently read snapshots down to 90% so we don't sort on every insert
+        long target = maxBytes * 9 / 10;
+        List<Map.Entry<UUID, Slot>> candidates = new ArrayList<>(slots.entrySet());
+        candidates.sort(Comparator.comparingLong(e -> e.getValue().lastAccess));
+        for (Map.Entry<UUID, Slot> e : candidates) {
+            if (retainedBytes.get() <= target) break;
+            if (e.getValue().future.isDone() && remove(e.getKey(), e.getValue())) {
+                evictions.increment();
+            }
+        }
+        log.debug("Restaurant detail cache evicted down to {} bytes", retainedBytes.get());
+    }
+
+    private static RestaurantDetailResponse await(CompletableFuture<RestaurantDetailResponse> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw e;
+        }
+    }
+
+    // Rough retained-heap estimate: 2 bytes per char plus fixed per-object overhead.
+    static long estimateBytes(RestaurantDetailResponse r) {
+        long bytes = 128 + chars(r.id()) + chars(r.name()) + chars(r.address()) + chars(r.photoUrl());
+        if (r.categories() != null) {
+            for (String c : r.categories()) bytes += 24 + chars(c);
+        }
+        if (r.rating() != null) bytes += 200;
+        if (r.reviews() != null) {
+            for (ReviewResponse review : r.reviews()) {
+                bytes += 160 + chars(review.id()) + chars(review.userId()) + chars(review.userName())
+                    + chars(review.userAvatar()) + chars(review.text()) + chars(review.createdAt());
+                if (review.photoUrls() != null) {
+                    for (String p : review.photoUrls()) bytes += 24 + chars(p);
+                }
+                if (review.thumbnailUrls() != null) {
+                    for (String t : review.thumbnailUrls()) bytes += 24 + chars(t);
+                }
+                if (review.items() != null) {
+                    for (String i : review.items()) bytes += 24 + chars(i);
+                }
+            }
+        }
+        return bytes;
+    }
+
+    private static long chars(String s) {
+        return s == null ? 0 : 40 + 2L * s.length();
+    }
+
+    private class Slot {
+        final CompletableFuture<RestaurantDetailResponse> future = new CompletableFuture<>();
+        volatile long loadedAt;
+        volatile long lastAccess;
+        volatile long bytes;
+        boolean accounted;
+
+        boolean isExpired() {
+            return future.isDone() && System.nanoTime() - loadedAt > ttlNanos;
+        }
+    }
+}
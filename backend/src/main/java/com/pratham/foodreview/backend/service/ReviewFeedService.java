@@ -4,6 +4,8 @@ import com.pratham.foodreview.backend.dto.CreateReviewRequest;
 import com.pratham.foodreview.backend.dto.ReviewResponse;
 import com.pratham.foodreview.backend.entity.*;
 import com.pratham.foodreview.backend.repo.*;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,20 +19,49 @@ public class ReviewFeedService {
     private final ReviewRepository reviewRepository;
     private final RestaurantRepository restaurantRepository;
     private final ProfileRepository profileRepository;
+    private final RestaurantDetailCache restaurantDetailCache;
+    private final RatingService ratingService;
+    private final ReviewMapper reviewMapper;
+    private final SuggestionService suggestionService;
     private final FollowRepository followRepository;
+    private final ReviewFragmentCache reviewFragmentCache;
+    private final FeedRanker feedRanker;
+    private final NotificationFanout notificationFanout;
+    private final int feedSize;
+    private final int feedCandidates;
 
     public ReviewFeedService(ReviewRepository reviewRepository,
                         RestaurantRepository restaurantRepository,
                         ProfileRepository profileRepository,
-                        FollowRepository followRepository) {
+                        FollowRepository followRepository,
+                        RestaurantDetailCache restaurantDetailCache,
+                        RatingService ratingService,
+                        ReviewMapper reviewMapper,
+                        SuggestionService suggestionService,
+                        ReviewFragmentCache reviewFragmentCache,
+                        FeedRanker feedRanker,
+                        NotificationFanout notificationFanout,
+                        @Value("${feed.size:50}") int feedSize,
+                        @Value("${feed.candidates:200}") int feedCandidates) {
         this.reviewRepository = reviewRepository;
         this.restaurantRepository = restaurantRepository;
         this.profileRepository = profileRepository;
         this.followRepository = followRepository;
+        this.restaurantDetailCache = restaurantDetailCache;
+        this.ratingService = ratingService;
+        this.reviewMapper = reviewMapper;
+        this.suggestionService = suggestionService;
+        this.reviewFragmentCache = reviewFragmentCache;
+        this.feedRanker = feedRanker;
+        this.notificationFanout = notificationFanout;
+        this.feedSize = feedSize;
+        this.feedCandidates = Math.max(feedSize, feedCandidates);
     }
 
     @Transactional
     public ReviewResponse createReview(UUID userId, CreateReviewRequest request) {
+        RatingService.validateRating(request.rating());
+
         // Get or create restaurant
         Restaurant restaurant = restaurantRepository
             .findByProviderAndProviderId(request.provider(), request.providerId())
@@ -59,11 +90,38 @@ public class ReviewFeedService {
         review.setUpdatedAt(OffsetDateTime.now());
 
         Review savedReview = reviewRepository.save(review);
-        return toReviewResponse(savedReview);
+        ratingService.recordCreated(savedReview.getRestaurant().getId(), savedReview.getRating());
+        feedRanker.recordReviewLocationAfterCommit(userId, restaurant.getLat(), restaurant.getLng());
+        suggestionService.recordReviewAfterCommit(userId, savedReview.getRestaurant().getId());
+        restaurantDetailCache.invalidateAfterCommit(savedReview.getRestaurant().getId());
+        notificationFanout.publishAfterCommit(userId, savedReview.getId(), savedReview.getRestaurant().getId());
+        return reviewMapper.toResponse(savedReview);
+    }
+
+    // ranked orders by FeedRanker; otherwise newest first
+    @Transactional(readOnly = true)
+    public List<ReviewResponse> getFriendsFeed(UUID userId, boolean ranked) {
+        return reviewMapper.toResponses(friendsFeed(userId, ranked));
+    }
+
+    // Same body as getFriendsFeed, assembled from cached per-review JSON
+    @Transactional(readOnly = true)
+    public byte[] getFriendsFeedJson(UUID userId, boolean ranked) {
+        return reviewFragmentCache.toJsonArray(friendsFeed(userId, ranked));
+    }
+
+    @Transactional(readOnly = true)
+    public List<ReviewResponse> getUserReviews(UUID userId) {
+        List<Review> reviews = reviewRepository.findByUser_IdOrderByCreatedAtDesc(userId);
+        return reviewMapper.toResponses(reviews);
     }
 
     @Transactional(readOnly = true)
-    public List<ReviewResponse> getFriendsFeed(UUID userId) {
+    public byte[] getUserReviewsJson(UUID userId) {
+        return reviewFragmentCache.toJsonArray(reviewRepository.findByUser_IdOrderByCreatedAtDesc(userId));
+    }
+
+    private List<Review> friendsFeed(UUID userId, boolean ranked) {
         // Get list of users that the current user follows
         List<UUID> followingIds = followRepository.findByFollower_Id(userId)
             .stream()
@@ -73,47 +131,16 @@ public class ReviewFeedService {
         // Add the user's own ID to see their own reviews in the feed
         followingIds.add(userId);
 
-        // Get recent reviews from followed users
-        List<Review> reviews = reviewRepository.findByUser_IdInOrderByCreatedAtDesc(followingIds);
-        
-        // Limit to recent reviews (e.g., last 50)
-        return reviews.stream()
-            .limit(50)
-            .map(this::toReviewResponse)
-            .collect(Collectors.toList());
-    }
-
-    @Transactional(readOnly = true)
-    public List<ReviewResponse> getUserReviews(UUID userId) {
-        List<Review> reviews = reviewRepository.findByUser_IdOrderByCreatedAtDesc(userId);
-        return reviews.stream()
-            .map(this::toReviewResponse)
-            .collect(Collectors.toList());
+        // Ranking picks from a wider window of recent reviews than it returns
+        int window = ranked ? feedCandidates : feedSize;
+        List<Review> reviews = reviewRepository.findByUser_IdInOrderByCreatedAtDesc(followingIds, PageRequest.of(0, window));
+        return ranked ? feedRanker.rank(userId, reviews, feedSize) : reviews;
     }
 
     @Transactional(readOnly = true)
     public ReviewResponse getReview(UUID reviewId) {
         Review review = reviewRepository.findById(reviewId)
             .orElseThrow(() -> new RuntimeException("Review not found"));
-        return toReviewResponse(review);
-    }
-
-    private ReviewResponse toReviewResponse(Review review) {
-        return new ReviewResponse(
-            review.getId().toString(),
-            review.getUser().getId().toString(),
-            review.getUser().getUsername(),
-            review.getUser().getAvatarUrl(),
-            review.getRestaurant().getId().toString(),
-            review.getRestaurant().getName(),
-            review.getRestaurant().getAddress(),
-            review.getRestaurant().getPhotoUrl(),
-            review.getRestaurant().getProviderId(),
-            review.getRating(),
-            review.getText(),
-            review.getPhotoUrls(),
-            review.getDishes() != null ? List.of(review.getDishes()) : new ArrayList<>(),
-            review.getCreatedAt().toString()
-        );
+        return reviewMapper.toResponse(review);
     }
 }
\ No newline at end of file
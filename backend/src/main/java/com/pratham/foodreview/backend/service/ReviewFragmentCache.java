@@ -0,0 +1,195 @@
+package com.pratham.foodreview.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pratham.foodreview.backend.dto.ReviewResponse;
+import com.pratham.foodreview.backend.entity.Review;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Each review's ReviewResponse JSON, already encoded, keyed by review id and version (updated_at,
+// or created_at for rows that were never edited). List endpoints concatenate the fragments into
+// a JSON array and only map and serialize the misses, so a popular review costs a copy rather
+// than author/restaurant resolution plus Jackson on every feed it appears in.
+//
+// A fragment also embeds the author's name and avatar, so profile changes on the bus drop that
+// author's fragments. Restaurant fields are only written when the restaurant is created.
+@Service
+public class ReviewFragmentCache implements DebugStats {
+
+    private static final Logger log = LoggerFactory.getLogger(ReviewFragmentCache.class);
+
+    private record Fragment(Instant version, UUID userId, byte[] json) {}
+
+    private static final class Slot {
+        final Fragment fragment;
+        volatile long lastAccess = System.nanoTime();
+
+        Slot(Fragment fragment) {
+            this.fragment = fragment;
+        }
+    }
+
+    private final boolean enabled;
+    private final long maxBytes;
+    private final ReviewMapper reviewMapper;
+    private final ObjectMapper objectMapper;
+
+    private final ConcurrentHashMap<UUID, Slot> slots = new ConcurrentHashMap<>();
+    private final AtomicLong retainedBytes = new AtomicLong();
+    // Bumped on every invalidation; fragments built across a bump are served but not stored
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ReviewFragmentCache(@Value("${review-fragments.enabled:true}") boolean enabled,
+                               @Value("${review-fragments.max-bytes:16777216}") long maxBytes,
+                               ReviewMapper reviewMapper,
+                               ObjectMapper objectMapper,
+                               InvalidationBus invalidationBus) {
+        this.enabled = enabled;
+        this.maxBytes = maxBytes;
+        this.reviewMapper = reviewMapper;
+        this.objectMapper = objectMapper;
+        invalidationBus.subscribe(InvalidationKeys.PROFILE, key -> invalidateReviewsBy(UUID.fromString(key)), this::clear);
+    }
+
+    // Same bytes as serializing reviewMapper.toResponses(reviews) as a JSON array
+    public byte[] toJsonArray(List<Review> reviews) {
+        byte[][] parts = new byte[reviews.size()][];
+        List<Review> missed = new ArrayList<>();
+        List<Integer> missedAt = new ArrayList<>();
+        for (int i = 0; i < reviews.size(); i++) {
+            Review review = reviews.get(i);
+            Slot slot = enabled ? slots.get(review.getId()) : null;
+            if (slot != null && slot.fragment.version().equals(version(review))) {
+                hits.increment();
+                slot.lastAccess = System.nanoTime();
+                parts[i] = slot.fragment.json();
+            } else {
+                missed.add(review);
+                missedAt.add(i);
+            }
+        }
+
+        if (!missed.isEmpty()) {
+            if (enabled) misses.add(missed.size());
+            long gen = generation.get();
+            List<ReviewResponse> responses = reviewMapper.toResponses(missed);
+            for (int k = 0; k < missed.size(); k++) {
+                byte[] json = write(responses.get(k));
+                parts[missedAt.get(k)] = json;
+                if (enabled) store(missed.get(k), json, gen);
+            }
+            if (enabled) evictIfNeeded();
+        }
+
+        int size = 2 + Math.max(0, parts.length - 1);
+        for (byte[] part : parts) size += part.length;
+        byte[] out = new byte[size];
+        int pos = 0;
+        out[pos++] = '[';
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) out[pos++] = ',';
+            System.arraycopy(parts[i], 0, out, pos, parts[i].length);
+            pos += parts[i].length;
+        }
+        out[pos] = ']';
+        return out;
+    }
+
+    public void clear() {
+        generation.incrementAndGet();
+        for (Map.Entry<UUID, Slot> e : slots.entrySet()) {
+            if (remove(e.getKey(), e.getValue())) invalidations.increment();
+        }
+    }
+
+    @Override
+    public String debugPath() {
+        return "caches/reviewFragments";
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("entries", slots.size());
+        out.put("retainedBytes", retainedBytes.get());
+        out.put("maxBytes", maxBytes);
+        out.put("hits", hits.sum());
+        out.put("misses", misses.sum());
+        out.put("invalidations", invalidations.sum());
+        out.put("evictions", evictions.sum());
+        return out;
+    }
+
+    private void store(Review review, byte[] json, long gen) {
+        Slot created = new Slot(new Fragment(version(review), review.getUser().getId(), json));
+        Slot previous = slots.put(review.getId(), created);
+        retainedBytes.addAndGet(json.length);
+        if (previous != null) retainedBytes.addAndGet(-previous.fragment.json().length);
+        // The author may have changed while this fragment was being built
+        if (generation.get() != gen) remove(review.getId(), created);
+    }
+
+    private void invalidateReviewsBy(UUID userId) {
+        generation.incrementAndGet();
+        for (Map.Entry<UUID, Slot> e : slots.entrySet()) {
+            if (userId.equals(e.getValue().fragment.userId()) && remove(e.getKey(), e.getValue())) {
+                invalidations.increment();
+            }
+        }
+    }
+
+    private boolean remove(UUID reviewId, Slot slot) {
+        if (!slots.remove(reviewId, slot)) return false;
+        retainedBytes.addAndGet(-slot.fragment.json().length);
+        return true;
+    }
+
+    private void evictIfNeeded() {
+        if (retainedBytes.get() <= maxBytes) return;
+
+        // Evict least recently read fragments down to 90% so we don't sort on every insert
+        long target = maxBytes * 9 / 10;
+        List<Map.Entry<UUID, Slot>> candidates = new ArrayList<>(slots.entrySet());
+        candidates.sort(Comparator.comparingLong(e -> e.getValue().lastAccess));
+        for (Map.Entry<UUID, Slot> e : candidates) {
+            if (retainedBytes.get() <= target) break;
+            if (remove(e.getKey(), e.getValue())) evictions.increment();
+        }
+        log.debug("Review fragment cache evicted down to {} bytes", retainedBytes.get());
+    }
+
+    private byte[] write(ReviewResponse response) {
+        long t = RequestTrace.start();
+        try {
+            return objectMapper.writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize review " + response.id(), e);
+        } finally {
+            RequestTrace.stop(RequestTrace.Phase.SERIALIZATION, t);
+        }
+    }
+
+    private static Instant version(Review review) {
+        OffsetDateTime at = review.getUpdatedAt() != null ? review.getUpdatedAt() : review.getCreatedAt();
+        return at.toInstant();
+    }
+}
@@ -0,0 +1,84 @@
+package com.pratham.foodreview.backend.service;
+
+import com.pratham.foodreview.backend.dto.NormalizedReviewList;
+import com.pratham.foodreview.backend.dto.ReviewResponse;
+import com.pratham.foodreview.backend.entity.Profile;
+import com.pratham.foodreview.backend.entity.Restaurant;
+import com.pratham.foodreview.backend.entity.Review;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Review -> ReviewResponse. List mapping resolves authors and restaurants through BatchLoader
+// up front instead of letting each lazy association load on its own.
+@Component
+public class ReviewMapper {
+
+    private final BatchLoader batchLoader;
+
+    public ReviewMapper(BatchLoader batchLoader) {
+        this.batchLoader = batchLoader;
+    }
+
+    public List<ReviewResponse> toResponses(List<Review> reviews) {
+        if (reviews.isEmpty()) return new ArrayList<>();
+        long t = RequestTrace.start();
+        try {
+            // getId() on an uninitialized proxy doesn't hit the database
+            Map<UUID, Profile> users = batchLoader.profiles(reviews.stream().map(r -> r.getUser().getId()).toList());
+            Map<UUID, Restaurant> restaurants = batchLoader.restaurants(reviews.stream().map(r -> r.getRestaurant().getId()).toList());
+
+            List<ReviewResponse> out = new ArrayList<>(reviews.size());
+            for (Review review : reviews) {
+                out.add(toResponse(review,
+                    users.getOrDefault(review.getUser().getId(), review.getUser()),
+                    restaurants.getOrDefault(review.getRestaurant().getId(), review.getRestaurant())));
+            }
+            return out;
+        } finally {
+            RequestTrace.stop(RequestTrace.Phase.MAPPING, t);
+        }
+    }
+
+    public ReviewResponse toResponse(Review review) {
+        return toResponse(review, review.getUser(), review.getRestaurant());
+    }
+
+    public static NormalizedReviewList normalize(List<ReviewResponse> reviews) {
+        List<NormalizedReviewList.Review> items = new ArrayList<>(reviews.size());
+        Map<String, NormalizedReviewList.User> users = new LinkedHashMap<>();
+        Map<String, NormalizedReviewList.Restaurant> restaurants = new LinkedHashMap<>();
+        for (ReviewResponse r : reviews) {
+            items.add(new NormalizedReviewList.Review(r.id(), r.userId(), r.restaurantId(), r.rating(),
+                r.text(), r.photoUrls(), r.thumbnailUrls(), r.items(), r.createdAt()));
+            users.computeIfAbsent(r.userId(), id -> new NormalizedReviewList.User(r.userName(), r.userAvatar()));
+            restaurants.computeIfAbsent(r.restaurantId(), id -> new NormalizedReviewList.Restaurant(
+                r.restaurantName(), r.restaurantAddress(), r.restaurantPhotoUrl(), r.restaurantProviderId()));
+        }
+        return new NormalizedReviewList(items, users, restaurants);
+    }
+
+    private static ReviewResponse toResponse(Review review, Profile user, Restaurant restaurant) {
+        return new ReviewResponse(
+            review.getId().toString(),
+            user.getId().toString(),
+            user.getUsername(),
+            user.getAvatarUrl(),
+            restaurant.getId().toString(),
+            restaurant.getName(),
+            restaurant.getAddress(),
+            restaurant.getPhotoUrl(),
+            restaurant.getProviderId(),
+            review.getRating(),
+            review.getText(),
+            review.getPhotoUrls(),
+            review.getThumbnailUrls(),
+            review.getDishes() != null ? List.of(review.getDishes()) : new ArrayList<>(),
+            review.getCreatedAt().toString()
+        );
+    }
+}
@@ -5,8 +5,10 @@ import com.pratham.foodreview.backend.dto.ReviewUpdate;
 import com.pratham.foodreview.backend.dto.ReviewResponse;
 import com.pratham.foodreview.backend.entity.*;
 import com.pratham.foodreview.backend.repo.*;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.OffsetDateTime;
 import java.util.*;
@@ -17,17 +19,40 @@ public class ReviewService {
     private final ReviewRepository reviewRepository;
     private final RestaurantRepository restaurantRepository;
     private final ProfileRepository profileRepository;
+    private final RestaurantDetailCache restaurantDetailCache;
+    private final RatingService ratingService;
+    private final ReviewMapper reviewMapper;
+    private final SuggestionService suggestionService;
+    private final ReviewTombstoneRepository tombstoneRepository;
+    private final NotificationFanout notificationFanout;
+    private final FeedRanker feedRanker;
 
     public ReviewService(ReviewRepository reviewRepository,
                         RestaurantRepository restaurantRepository,
-                        ProfileRepository profileRepository) {
+                        ProfileRepository profileRepository,
+                        RestaurantDetailCache restaurantDetailCache,
+                        RatingService ratingService,
+                        ReviewMapper reviewMapper,
+                        SuggestionService suggestionService,
+                        ReviewTombstoneRepository tombstoneRepository,
+                        NotificationFanout notificationFanout,
+                        FeedRanker feedRanker) {
         this.reviewRepository = reviewRepository;
         this.restaurantRepository = restaurantRepository;
         this.profileRepository = profileRepository;
+        this.restaurantDetailCache = restaurantDetailCache;
+        this.ratingService = ratingService;
+        this.reviewMapper = reviewMapper;
+        this.suggestionService = suggestionService;
+        this.tombstoneRepository = tombstoneRepository;
+        this.notificationFanout = notificationFanout;
+        this.feedRanker = feedRanker;
     }
 
     @Transactional
     public ReviewResponse createReview(UUID userId, CreateReviewRequest request) {
+        RatingService.validateRating(request.rating());
+
         // Get or create restaurant
         Restaurant restaurant = restaurantRepository
             .findByProviderAndProviderId(request.provider(), request.providerId())
@@ -56,7 +81,12 @@ public class ReviewService {
         review.setUpdatedAt(OffsetDateTime.now());
 
         Review savedReview = reviewRepository.save(review);
-        return toReviewResponse(savedReview);
+        ratingService.recordCreated(savedReview.getRestaurant().getId(), savedReview.getRating());
+        feedRanker.recordReviewLocationAfterCommit(userId, restaurant.getLat(), restaurant.getLng());
+        suggestionService.recordReviewAfterCommit(userId, savedReview.getRestaurant().getId());
+        restaurantDetailCache.invalidateAfterCommit(savedReview.getRestaurant().getId());
+        notificationFanout.publishAfterCommit(userId, savedReview.getId(), savedReview.getRestaurant().getId());
+        return reviewMapper.toResponse(savedReview);
     }
 
     @Transactional
@@ -69,31 +99,39 @@ public class ReviewService {
             throw new RuntimeException("User is not the owner of the review");
         }
         
+        RatingService.validateRating(updateDetails.rating());
+        int previousRating = review.getRating();
+
         review.setDishes(updateDetails.dishes() != null ? updateDetails.dishes().toArray(new String[0]) : new String[0]);
         review.setRating(updateDetails.rating());
         review.setText(updateDetails.content());
         review.setUpdatedAt(OffsetDateTime.now());
 
         Review savedReview = reviewRepository.save(review);
-        return toReviewResponse(savedReview);
+        ratingService.recordChanged(savedReview.getRestaurant().getId(), previousRating, savedReview.getRating());
+        restaurantDetailCache.invalidateAfterCommit(savedReview.getRestaurant().getId());
+        return reviewMapper.toResponse(savedReview);
     }
-    
-    private ReviewResponse toReviewResponse(Review review) {
-        return new ReviewResponse(
-            review.getId().toString(),
-            review.getUser().getId().toString(),
-            review.getUser().getUsername(),
-            review.getUser().getAvatarUrl(),
-            review.getRestaurant().getId().toString(),
-            review.getRestaurant().getName(),
-            review.getRestaurant().getAddress(),
-            review.getRestaurant().getPhotoUrl(),
-            review.getRestaurant().getProviderId(),
-            review.getRating(),
-            review.getText(),
-            review.getPhotoUrls(),
-            review.getDishes() != null ? List.of(review.getDishes()) : new ArrayList<>(),
-            review.getCreatedAt().toString()
-        );
+
+    @Transactional
+    public void deleteReview(UUID userId, UUID reviewId) {
+        Review review = reviewRepository.findById(reviewId)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Review not found"));
+        if (!review.getUser().getId().equals(userId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "User is not the owner of the review");
+        }
+        UUID restaurantId = review.getRestaurant().getId();
+
+        // Clients holding a sync token learn about the delete through this row
+        ReviewTombstone tombstone = new ReviewTombstone();
+        tombstone.setReviewId(reviewId);
+        tombstone.setUserId(userId);
+        tombstone.setRestaurantId(restaurantId);
+        tombstone.setDeletedAt(OffsetDateTime.now());
+        tombstoneRepository.save(tombstone);
+
+        reviewRepository.delete(review);
+        ratingService.recordDeleted(restaurantId, review.getRating());
+        restaurantDetailCache.invalidateAfterCommit(restaurantId);
     }
-}
\ No newline at end of file
+}
@@ -4,22 +4,28 @@ import com.pratham.foodreview.backend.dto.RestaurantSearchResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClient;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
 import java.util.Map;
 
-
+// Lazy (and injected lazily in RestaurantController) so the Places client is built on first search
+@Lazy
 @Service
 public class SearchService {
 
     private static final Logger log = LoggerFactory.getLogger(SearchService.class);
     private final RestClient restClient;
     private final String apiKey;
+    private final RateLimitService rateLimitService;
 
-    public SearchService( @Value("${google.places.api-key}") String apiKey){
+    public SearchService( @Value("${google.places.api-key}") String apiKey, RateLimitService rateLimitService){
         this.apiKey = apiKey;
+        this.rateLimitService = rateLimitService;
         this.restClient = RestClient.create("https://maps.googleapis.com/maps/api");
     }    
 
@@ -30,6 +36,12 @@ public class SearchService {
         String searchQuery = query + " restaurant";
         log.info("Searching restaurants: query='{}', location={}", searchQuery, loc);
 
+        // Shared Places budget: fail with 429 here rather than burn quota and get an empty list back
+        if (!rateLimitService.acquireUpstream(RateLimitService.PLACES).granted()) {
+            log.warn("Google Places budget exhausted, rejecting search: query='{}'", searchQuery);
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Search is busy, try again shortly");
+        }
+
         try {
             Map response = restClient.get()
             .uri(uriBuilder -> uriBuilder
@@ -81,7 +93,8 @@ public class SearchService {
                     ((Number) location.get("lng")).doubleValue(),
                     extractPhoto(place),
                     (Integer) place.get("price_level"),
-                    place.get("rating") != null ? ((Number) place.get("rating")).doubleValue() : null
+                    place.get("rating") != null ? ((Number) place.get("rating")).doubleValue() : null,
+                    null, null, null
                 );
             }).toList();
         } catch (Exception e) {
@@ -0,0 +1,58 @@
+package com.pratham.foodreview.backend.service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Runs one background task (an index rebuild, a log compaction) on its own daemon thread: one
+// run at a time and at most one waiting. Requests made while a run is already waiting are
+// dropped, since the waiting run starts later and covers whatever they would have done.
+final class SingleFlight {
+
+    private final Runnable task;
+    private final ThreadPoolExecutor executor;
+    // Counted here rather than read from the executor, whose active count lags a worker that
+    // is between tasks
+    private final AtomicInteger pending = new AtomicInteger();
+    private final LongAdder dropped = new LongAdder();
+
+    SingleFlight(String threadName, Runnable task) {
+        this.task = task;
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1), r -> {
+            Thread t = new Thread(r, threadName);
+            t.setDaemon(true);
+            return t;
+        }, (r, executor) -> {
+            pending.decrementAndGet();
+            dropped.increment();
+        });
+    }
+
+    void request() {
+        pending.incrementAndGet();
+        executor.execute(this::run);
+    }
+
+    private void run() {
+        try {
+            task.run();
+        } finally {
+            pending.decrementAndGet();
+        }
+    }
+
+    // Runs in progress or waiting
+    int pending() {
+        return pending.get();
+    }
+
+    long dropped() {
+        return dropped.sum();
+    }
+
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
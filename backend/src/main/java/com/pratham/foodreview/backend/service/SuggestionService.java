@@ -0,0 +1,378 @@
+package com.pratham.foodreview.backend.service;
+
+import com.pratham.foodreview.backend.dto.UserSuggestion;
+import com.pratham.foodreview.backend.entity.FollowId;
+import com.pratham.foodreview.backend.entity.Profile;
+import com.pratham.foodreview.backend.repo.FollowRepository;
+import jakarta.annotation.PreDestroy;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// "People you may know". Profile and restaurant ids are interned to dense ints and the follow
+// graph (both directions) and who-reviewed-what are held as Roaring bitmaps, so ranking is a few
+// ORs to collect candidates plus one AND-cardinality per candidate:
+//   score = |my followees ∩ candidate's followers| + restaurant-weight * |my restaurants ∩ theirs|
+// The graph is loaded on startup and nightly; follow changes arrive through the invalidation bus
+// (the edge is re-read from the database) and new reviews are applied after commit.
+@Service
+public class SuggestionService implements DebugStats {
+
+    private static final Logger log = LoggerFactory.getLogger(SuggestionService.class);
+
+    private static final RoaringBitmap EMPTY = new RoaringBitmap();
+
+    private final JdbcTemplate jdbc;
+    private final FollowRepository followRepository;
+    private final BatchLoader batchLoader;
+    private final double restaurantWeight;
+    private final int maxExpand;
+    private final int maxCandidates;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile Graph graph = new Graph();
+    private volatile boolean ready;
+    // Changes seen while a rebuild is reading the tables; replayed onto the new graph
+    private final TouchedKeys<String> touchedEdges = new TouchedKeys<>();
+    private final TouchedKeys<String> touchedReviews = new TouchedKeys<>();
+    private volatile long lastBuildMs;
+    private final SingleFlight rebuilds = new SingleFlight("suggestions-rebuild", this::rebuild);
+
+    public SuggestionService(DataSource dataSource,
+                             FollowRepository followRepository,
+                             BatchLoader batchLoader,
+                             InvalidationBus invalidationBus,
+                             @Value("${suggestions.restaurant-weight:0.5}") double restaurantWeight,
+                             @Value("${suggestions.max-expand:500}") int maxExpand,
+                             @Value("${suggestions.max-candidates:20000}") int maxCandidates) {
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.jdbc.setFetchSize(10_000);
+        this.followRepository = followRepository;
+        this.batchLoader = batchLoader;
+        this.restaurantWeight = restaurantWeight;
+        this.maxExpand = maxExpand;
+        this.maxCandidates = maxCandidates;
+        invalidationBus.subscribe(InvalidationKeys.FOLLOW, this::onEdgeChanged, this::rebuildInBackground);
+    }
+
+    public List<UserSuggestion> suggestFor(UUID userId, int limit) {
+        if (limit < 1 || limit > 50) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and 50");
+        }
+        List<Candidate> ranked = rank(userId, limit);
+        Map<UUID, Profile> profiles = batchLoader.profiles(ranked.stream().map(Candidate::id).toList());
+        List<UserSuggestion> out = new ArrayList<>(ranked.size());
+        for (Candidate c : ranked) {
+            Profile p = profiles.get(c.id());
+            if (p == null) continue;
+            out.add(new UserSuggestion(p.getId().toString(), p.getUsername(), p.getDisplayName(), p.getAvatarUrl(),
+                c.mutualFollows(), c.sharedRestaurants(), c.score()));
+        }
+        return out;
+    }
+
+    record Candidate(UUID id, int mutualFollows, int sharedRestaurants, double score) {}
+
+    List<Candidate> rank(UUID userId, int limit) {
+        lock.readLock().lock();
+        try {
+            Graph g = graph;
+            Integer me = g.profileIndex.get(userId);
+            if (me == null) return List.of();
+            RoaringBitmap followees = g.followees(me);
+            RoaringBitmap reviewed = g.reviewed(me);
+
+            // Friends of friends, plus people who reviewed the same places
+            RoaringBitmap candidates = new RoaringBitmap();
+            int expanded = 0;
+            for (IntIterator it = followees.getIntIterator(); it.hasNext() && expanded < maxExpand; expanded++) {
+                candidates.or(g.followees(it.next()));
+            }
+            expanded = 0;
+            for (IntIterator it = reviewed.getIntIterator(); it.hasNext() && expanded < maxExpand; expanded++) {
+                candidates.or(g.reviewers(it.next()));
+            }
+            candidates.andNot(followees);
+            candidates.remove(me);
+
+            PriorityQueue<double[]> top = new PriorityQueue<>(limit + 1, (a, b) -> Double.compare(a[0], b[0]));
+            int scanned = 0;
+            for (IntIterator it = candidates.getIntIterator(); it.hasNext() && scanned < maxCandidates; scanned++) {
+                int c = it.next();
+                int mutual = RoaringBitmap.andCardinality(followees, g.followers(c));
+                int shared = RoaringBitmap.andCardinality(reviewed, g.reviewed(c));
+                double score = mutual + restaurantWeight * shared;
+                if (score <= 0) continue;
+                top.offer(new double[] {score, c, mutual, shared});
+                if (top.size() > limit) top.poll();
+            }
+
+            List<Candidate> out = new ArrayList<>(top.size());
+            while (!top.isEmpty()) {
+                double[] e = top.poll();
+                out.add(0, new Candidate(g.profiles.get((int) e[1]), (int) e[2], (int) e[3], e[0]));
+            }
+            return out;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // For each of others, how many restaurants it and userId have both reviewed (FeedRanker's
+    // co-review affinity). Fills out rather than allocating; 0 for anyone the graph doesn't know.
+    public void sharedRestaurants(UUID userId, List<UUID> others, int[] out) {
+        lock.readLock().lock();
+        try {
+            Graph g = graph;
+            Integer me = g.profileIndex.get(userId);
+            RoaringBitmap mine = me != null ? g.reviewed(me) : EMPTY;
+            for (int i = 0; i < others.size(); i++) {
+                Integer other = mine.isEmpty() ? null : g.profileIndex.get(others.get(i));
+                out[i] = other != null ? RoaringBitmap.andCardinality(mine, g.reviewed(other)) : 0;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Applied after commit so a rolled-back review never counts
+    public void recordReviewAfterCommit(UUID userId, UUID restaurantId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recordReview(userId, restaurantId);
+                }
+            });
+        } else {
+            recordReview(userId, restaurantId);
+        }
+    }
+
+    private void recordReview(UUID userId, UUID restaurantId) {
+        touchedReviews.touch(userId + "/" + restaurantId);
+        lock.writeLock().lock();
+        try {
+            graph.addReview(userId, restaurantId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Bus keys only name the edge; the database says whether it exists now, so the handler is
+    // idempotent and safe to run in any order.
+    private void onEdgeChanged(String key) {
+        int slash = key.indexOf('/');
+        UUID follower = UUID.fromString(key.substring(0, slash));
+        UUID following = UUID.fromString(key.substring(slash + 1));
+        touchedEdges.touch(key);
+        boolean exists = followRepository.existsById(new FollowId(follower, following));
+        lock.writeLock().lock();
+        try {
+            graph.setFollow(follower, following, exists);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        // Off the startup path; suggestions are empty until the first build lands
+        rebuildInBackground();
+    }
+
+    void rebuildInBackground() {
+        rebuilds.request();
+    }
+
+    // Picks up review deletes and anything an instance missed. Handed to the rebuild thread so
+    // the shared scheduler thread never waits behind a rebuild that is already running.
+    @Scheduled(cron = "${suggestions.rebuild-cron:0 15 4 * * *}")
+    public void scheduledRebuild() {
+        rebuildInBackground();
+    }
+
+    // Overlapping direct calls queue up rather than skip, so a caller always gets a graph at
+    // least as new as its call.
+    public synchronized void rebuild() {
+        touchedEdges.begin();
+        touchedReviews.begin();
+        try {
+            long start = System.nanoTime();
+            Graph fresh = new Graph();
+            jdbc.query("SELECT follower_id, following_id FROM follows",
+                rs -> { fresh.setFollow(rs.getObject(1, UUID.class), rs.getObject(2, UUID.class), true); });
+            jdbc.query("SELECT DISTINCT user_id, restaurant_id FROM reviews",
+                rs -> { fresh.addReview(rs.getObject(1, UUID.class), rs.getObject(2, UUID.class)); });
+            fresh.optimize();
+
+            lock.writeLock().lock();
+            try {
+                graph = fresh;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            for (String key : touchedEdges.end()) onEdgeChanged(key);
+            for (String key : touchedReviews.end()) {
+                int slash = key.indexOf('/');
+                recordReview(UUID.fromString(key.substring(0, slash)), UUID.fromString(key.substring(slash + 1)));
+            }
+            ready = true;
+            lastBuildMs = (System.nanoTime() - start) / 1_000_000;
+            log.info("Suggestion graph built in {} ms: {}", lastBuildMs, stats());
+        } catch (RuntimeException e) {
+            log.error("Suggestion graph rebuild failed", e);
+        } finally {
+            touchedEdges.end();
+            touchedReviews.end();
+        }
+    }
+
+    @Override
+    public String debugPath() {
+        return "suggestions";
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        lock.readLock().lock();
+        try {
+            Graph g = graph;
+            Map<String, Object> out = new LinkedHashMap<>();
+            out.put("ready", ready);
+            out.put("profiles", g.profiles.size());
+            out.put("restaurants", g.restaurants.size());
+            out.put("followEdges", cardinality(g.followees));
+            out.put("reviewPairs", cardinality(g.reviewed));
+            out.put("bitmapBytes", sizeInBytes(g.followees) + sizeInBytes(g.followers)
+                + sizeInBytes(g.reviewed) + sizeInBytes(g.reviewers));
+            out.put("lastBuildMs", lastBuildMs);
+            out.put("rebuildsPending", rebuilds.pending());
+            out.put("rebuildsDropped", rebuilds.dropped());
+            return out;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        rebuilds.shutdown();
+    }
+
+    private static long cardinality(List<RoaringBitmap> bitmaps) {
+        long n = 0;
+        for (RoaringBitmap b : bitmaps) {
+            if (b != null) n += b.getLongCardinality();
+        }
+        return n;
+    }
+
+    private static long sizeInBytes(List<RoaringBitmap> bitmaps) {
+        long n = 0;
+        for (RoaringBitmap b : bitmaps) {
+            if (b != null) n += b.getLongSizeInBytes();
+        }
+        return n;
+    }
+
+    // Not thread-safe; guarded by the service's read/write lock once published
+    private static final class Graph {
+        final Map<UUID, Integer> profileIndex = new HashMap<>();
+        final List<UUID> profiles = new ArrayList<>();
+        final Map<UUID, Integer> restaurantIndex = new HashMap<>();
+        final List<UUID> restaurants = new ArrayList<>();
+        // Indexed by profile int
+        final List<RoaringBitmap> followees = new ArrayList<>();
+        final List<RoaringBitmap> followers = new ArrayList<>();
+        final List<RoaringBitmap> reviewed = new ArrayList<>();
+        // Indexed by restaurant int
+        final List<RoaringBitmap> reviewers = new ArrayList<>();
+
+        void setFollow(UUID follower, UUID following, boolean exists) {
+            int a = profile(follower);
+            int b = profile(following);
+            if (exists) {
+                bitmap(followees, a).add(b);
+                bitmap(followers, b).add(a);
+            } else {
+                bitmap(followees, a).remove(b);
+                bitmap(followers, b).remove(a);
+            }
+        }
+
+        void addReview(UUID user, UUID restaurant) {
+            int u = profile(user);
+            int r = restaurant(restaurant);
+            bitmap(reviewed, u).add(r);
+            bitmap(reviewers, r).add(u);
+        }
+
+        RoaringBitmap followees(int profile) { return get(followees, profile); }
+        RoaringBitmap followers(int profile) { return get(followers, profile); }
+        RoaringBitmap reviewed(int profile) { return get(reviewed, profile); }
+        RoaringBitmap reviewers(int restaurant) { return get(reviewers, restaurant); }
+
+        void optimize() {
+            for (List<RoaringBitmap> list : List.of(followees, followers, reviewed, reviewers)) {
+                for (RoaringBitmap b : list) {
+                    if (b != null) b.runOptimize();
+                }
+            }
+        }
+
+        private int profile(UUID id) {
+            return profileIndex.computeIfAbsent(id, k -> {
+                profiles.add(k);
+                followees.add(null);
+                followers.add(null);
+                reviewed.add(null);
+                return profiles.size() - 1;
+            });
+        }
+
+        private int restaurant(UUID id) {
+            return restaurantIndex.computeIfAbsent(id, k -> {
+                restaurants.add(k);
+                reviewers.add(null);
+                return restaurants.size() - 1;
+            });
+        }
+
+        // Most profiles follow few people, so bitmaps are only allocated on first use
+        private static RoaringBitmap bitmap(List<RoaringBitmap> list, int index) {
+            RoaringBitmap b = list.get(index);
+            if (b == null) {
+                b = new RoaringBitmap();
+                list.set(index, b);
+            }
+            return b;
+        }
+
+        private static RoaringBitmap get(List<RoaringBitmap> list, int index) {
+            RoaringBitmap b = list.get(index);
+            return b != null ? b : EMPTY;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.pratham.foodreview.backend.service;
+
+import com.pratham.foodreview.backend.dto.ReviewResponse;
+import com.pratham.foodreview.backend.dto.SyncResponse;
+import com.pratham.foodreview.backend.entity.Review;
+import com.pratham.foodreview.backend.entity.ReviewTombstone;
+import com.pratham.foodreview.backend.repo.FollowRepository;
+import com.pratham.foodreview.backend.repo.ReviewRepository;
+import com.pratham.foodreview.backend.repo.ReviewTombstoneRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+// Delta sync for the feed: everything written or deleted by the caller and the people they follow
+// since an opaque watermark. Reviews and tombstones are read with keyset range scans over
+// (updated_at, id) / (deleted_at, review_id), so a refresh with no changes is one follow lookup
+// plus two empty index scans.
+@Service
+public class SyncService {
+
+    private static final Logger log = LoggerFactory.getLogger(SyncService.class);
+
+    private static final UUID MIN_ID = new UUID(0, 0);
+    private static final OffsetDateTime EPOCH = OffsetDateTime.ofInstant(Instant.EPOCH, ZoneOffset.UTC);
+
+    // Watermark state carried in the token. followHash detects follow/unfollow since the last
+    // sync, which changes the set of authors and needs a full resync.
+    record Token(OffsetDateTime reviewsAt, UUID reviewId, OffsetDateTime deletedAt, UUID tombstoneId, long followHash) {
+
+        static Token initial(long followHash) {
+            return new Token(EPOCH, MIN_ID, EPOCH, MIN_ID, followHash);
+        }
+
+        String encode() {
+            String raw = "1." + micros(reviewsAt) + "." + reviewId + "." + micros(deletedAt) + "." + tombstoneId + "." + followHash;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Token decode(String token) {
+            try {
+                String[] f = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\.");
+                if (f.length != 6 || !f[0].equals("1")) throw new IllegalArgumentException("unknown token version");
+                return new Token(fromMicros(Long.parseLong(f[1])), UUID.fromString(f[2]),
+                    fromMicros(Long.parseLong(f[3])), UUID.fromString(f[4]), Long.parseLong(f[5]));
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid sync token");
+            }
+        }
+
+        private static long micros(OffsetDateTime t) {
+            return ChronoUnit.MICROS.between(Instant.EPOCH, t.toInstant());
+        }
+
+        private static OffsetDateTime fromMicros(long micros) {
+            return OffsetDateTime.ofInstant(Instant.EPOCH.plus(micros, ChronoUnit.MICROS), ZoneOffset.UTC);
+        }
+    }
+
+    private final ReviewRepository reviewRepository;
+    private final ReviewTombstoneRepository tombstoneRepository;
+    private final FollowRepository followRepository;
+    private final ReviewMapper reviewMapper;
+    private final int pageSize;
+    private final Duration settle;
+    private final Duration tombstoneRetention;
+
+    public SyncService(ReviewRepository reviewRepository,
+                       ReviewTombstoneRepository tombstoneRepository,
+                       FollowRepository followRepository,
+                       ReviewMapper reviewMapper,
+                       @Value("${sync.page-size:200}") int pageSize,
+                       @Value("${sync.settle-ms:2000}") long settleMs,
+                       @Value("${sync.tombstone-retention-days:30}") long tombstoneRetentionDays) {
+        this.reviewRepository = reviewRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.followRepository = followRepository;
+        this.reviewMapper = reviewMapper;
+        this.pageSize = pageSize;
+        this.settle = Duration.ofMillis(settleMs);
+        this.tombstoneRetention = Duration.ofDays(tombstoneRetentionDays);
+    }
+
+    @Transactional(readOnly = true)
+    public SyncResponse sync(UUID userId, String since) {
+        List<UUID> authorIds = followRepository.findByFollower_Id(userId).stream()
+            .map(f -> f.getFollowing().getId())
+            .collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
+        authorIds.add(userId);
+        long followHash = followHash(authorIds);
+
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        Token token = since == null || since.isBlank() ? null : Token.decode(since);
+        boolean full = token == null
+            || token.followHash() != followHash
+            // Tombstones older than the retention window are gone, so an old token can't be trusted
+            || token.deletedAt().isBefore(now.minus(tombstoneRetention));
+        if (full) token = Token.initial(followHash);
+
+        // Writers stamp updated_at before they commit; stopping short of "now" keeps a row that is
+        // still committing from landing behind the watermark.
+        OffsetDateTime until = now.minus(settle);
+
+        List<Review> reviews = reviewRepository.findChangedSince(
+            authorIds, token.reviewsAt(), token.reviewId(), until, PageRequest.of(0, pageSize));
+        // A full sync only needs current rows; deletes before it are irrelevant to an empty client
+        List<ReviewTombstone> tombstones = full ? List.of() : tombstoneRepository.findDeletedSince(
+            authorIds, token.deletedAt(), token.tombstoneId(), until, PageRequest.of(0, pageSize));
+
+        OffsetDateTime reviewsAt = token.reviewsAt();
+        UUID reviewId = token.reviewId();
+        if (!reviews.isEmpty()) {
+            Review last = reviews.get(reviews.size() - 1);
+            reviewsAt = last.getUpdatedAt();
+            reviewId = last.getId();
+        }
+        OffsetDateTime deletedAt = until;
+        UUID tombstoneId = MIN_ID;
+        if (tombstones.size() == pageSize) {
+            ReviewTombstone last = tombstones.get(tombstones.size() - 1);
+            deletedAt = last.getDeletedAt();
+            tombstoneId = last.getReviewId();
+        }
+        // else every tombstone before "until" has been seen, so the watermark can jump there and
+        // stays inside the retention window for clients that sync regularly
+
+        List<ReviewResponse> responses = reviewMapper.toResponses(reviews);
+        List<String> deleted = tombstones.stream().map(t -> t.getReviewId().toString()).toList();
+        boolean hasMore = reviews.size() == pageSize || tombstones.size() == pageSize;
+        return new SyncResponse(
+            new Token(reviewsAt, reviewId, deletedAt, tombstoneId, followHash).encode(),
+            full,
+            hasMore,
+            responses,
+            deleted
+        );
+    }
+
+    @Scheduled(cron = "${sync.tombstone-purge-cron:0 30 3 * * *}")
+    @Transactional
+    public void purgeTombstones() {
+        int removed = tombstoneRepository.deleteOlderThan(OffsetDateTime.now().minus(tombstoneRetention));
+        if (removed > 0) log.info("Purged {} review tombstones", removed);
+    }
+
+    private static long followHash(List<UUID> ids) {
+        // Order-independent so the follow list's row order doesn't matter
+        long hash = ids.size();
+        for (UUID id : ids) {
+            long h = id.getMostSignificantBits() * 0x9E3779B97F4A7C15L ^ id.getLeastSignificantBits();
+            hash += h ^ (h >>> 31);
+        }
+        return hash;
+    }
+}
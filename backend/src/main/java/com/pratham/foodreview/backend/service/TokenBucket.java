@@ -0,0 +1,51 @@
+package com.pratham.foodreview.backend.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Lock-free token bucket expressed as GCRA: the only state is the "theoretical arrival time"
+// of the next request, advanced with a CAS. Equivalent to a bucket of `capacity` tokens that
+// refills at `refillPerSecond`, without a lock or a refill thread.
+public class TokenBucket {
+
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucket(int capacity, double refillPerSecond) {
+        if (capacity < 1 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("capacity and refillPerSecond must be positive");
+        }
+        this.nanosPerToken = (long) (1_000_000_000L / refillPerSecond);
+        this.burstNanos = nanosPerToken * capacity;
+        this.theoreticalArrival = new AtomicLong(System.nanoTime());
+    }
+
+    // Reserves one token. Returns the nanos the caller has to wait before proceeding (0 when a token
+    // was available), or -1 when the wait would exceed maxWaitNanos, in which case nothing is reserved.
+    public long reserve(long maxWaitNanos) {
+        while (true) {
+            long now = System.nanoTime();
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, now) + nanosPerToken;
+            long wait = Math.max(0, next - now - burstNanos);
+            if (wait > maxWaitNanos) {
+                return -1;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return wait;
+            }
+        }
+    }
+
+    // Nanos until one token becomes available, for Retry-After.
+    public long nanosUntilAvailable() {
+        long now = System.nanoTime();
+        long next = Math.max(theoreticalArrival.get(), now) + nanosPerToken;
+        return Math.max(0, next - now - burstNanos);
+    }
+
+    // A bucket whose arrival time is in the past is full again and carries no state worth keeping.
+    public boolean isFull() {
+        return theoreticalArrival.get() <= System.nanoTime();
+    }
+}
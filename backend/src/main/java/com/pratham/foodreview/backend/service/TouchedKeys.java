@@ -0,0 +1,36 @@
+package com.pratham.foodreview.backend.service;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Keys changed while a rebuild reads its source tables. The rebuild swaps in a snapshot that
+// may predate those changes, so it replays them afterwards:
+//   touched.begin(); ...read, swap...; for (K key : touched.end()) refresh(key);
+// Incremental updates call touch() before reading the row, so a rebuild that starts while they
+// run still replays them.
+final class TouchedKeys<K> {
+
+    private final Set<K> keys = ConcurrentHashMap.newKeySet();
+    private volatile boolean active;
+
+    void begin() {
+        keys.clear();
+        active = true;
+    }
+
+    void touch(K key) {
+        if (active) keys.add(key);
+    }
+
+    boolean active() {
+        return active;
+    }
+
+    // Stops recording and returns what was recorded
+    Set<K> end() {
+        active = false;
+        Set<K> out = Set.copyOf(keys);
+        keys.clear();
+        return out;
+    }
+}
@@ -0,0 +1,412 @@
+package com.pratham.foodreview.backend.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pratham.foodreview.backend.dto.RestaurantSuggestion;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// As-you-type restaurant lookup over restaurants we already have, so keystrokes don't turn into
+// Google text searches. Name, category and address words go into a sorted term dictionary; a
+// prefix range over it is the edge n-gram lookup for the word being typed. Words of 4+ letters
+// also match terms within one edit (two from 8 letters), with candidates found through a
+// trigram -> terms map rather than by scanning the dictionary. Every query word must match.
+//
+// score = sum over query words of (match quality * field weight), then scaled down with
+// distance when lat/lng are given and nudged up by review count.
+//
+// New restaurants arrive through the RESTAURANT namespace on the invalidation bus (every review
+// write publishes its restaurant); the row is re-read and re-indexed.
+@Service
+public class TypeaheadIndex implements DebugStats {
+
+    private static final Logger log = LoggerFactory.getLogger(TypeaheadIndex.class);
+
+    private static final String SELECT_DOCS = "SELECT r.id, r.provider, r.provider_id, r.name, r.address, r.lat, r.lng, "
+        + "r.categories, rr.review_count FROM restaurants r "
+        + "LEFT JOIN restaurant_ratings rr ON rr.restaurant_id = r.id";
+
+    private static final int NAME = 1;
+    private static final int CATEGORY = 2;
+    private static final int ADDRESS = 4;
+    private static final int MAX_QUERY_WORDS = 6;
+    private static final TypeReference<List<String>> STRING_LIST = new TypeReference<>() {};
+
+    private record Doc(UUID id, String provider, String providerId, String name, String address,
+                       Double lat, Double lng, List<String> categories, long reviewCount, Map<String, Integer> terms) {}
+
+    // Docs containing a term, with a bitmask of the fields it appeared in
+    private static final class Postings {
+        int[] docs = new int[2];
+        byte[] fields = new byte[2];
+        int size;
+
+        void add(int doc, int fieldMask) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                fields = Arrays.copyOf(fields, size * 2);
+            }
+            docs[size] = doc;
+            fields[size] = (byte) fieldMask;
+            size++;
+        }
+    }
+
+    private static final class Index {
+        final List<Doc> docs = new ArrayList<>();
+        final Map<UUID, Integer> docIds = new HashMap<>();
+        final TreeMap<String, Postings> terms = new TreeMap<>();
+        final Map<String, List<String>> trigrams = new HashMap<>();
+        int dead;
+    }
+
+    private final JdbcTemplate jdbc;
+    private final ObjectMapper objectMapper;
+    private final int maxExpansions;
+    private final double distanceScaleKm;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile Index index = new Index();
+    private volatile boolean ready;
+    private final TouchedKeys<UUID> touched = new TouchedKeys<>();
+    private volatile long lastBuildMs;
+    private final LongAdder queries = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final SingleFlight rebuilds = new SingleFlight("typeahead-rebuild", this::rebuild);
+
+    public TypeaheadIndex(DataSource dataSource,
+                          ObjectMapper objectMapper,
+                          InvalidationBus invalidationBus,
+                          @Value("${typeahead.max-expansions:200}") int maxExpansions,
+                          @Value("${typeahead.distance-scale-km:5}") double distanceScaleKm) {
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.jdbc.setFetchSize(10_000);
+        this.objectMapper = objectMapper;
+        this.maxExpansions = maxExpansions;
+        this.distanceScaleKm = distanceScaleKm;
+        invalidationBus.subscribe(InvalidationKeys.RESTAURANT, key -> refresh(UUID.fromString(key)),
+            this::rebuildInBackground);
+    }
+
+    public List<RestaurantSuggestion> suggest(String query, Double lat, Double lng, int limit) {
+        if (limit < 1 || limit > 20) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and 20");
+        }
+        if ((lat == null) != (lng == null)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "lat and lng must be given together");
+        }
+        List<String> words = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (words.isEmpty()) return List.of();
+        if (words.size() > MAX_QUERY_WORDS) words = words.subList(0, MAX_QUERY_WORDS);
+        queries.increment();
+
+        lock.readLock().lock();
+        try {
+            // Intersect starting from the most selective word
+            List<Map<Integer, Double>> perWord = new ArrayList<>();
+            for (String word : words) {
+                Map<Integer, Double> scores = matchWord(word);
+                if (scores.isEmpty()) return List.of();
+                perWord.add(scores);
+            }
+            perWord.sort((a, b) -> Integer.compare(a.size(), b.size()));
+
+            record Scored(Doc doc, double score, Double distanceKm) {}
+            PriorityQueue<Scored> top = new PriorityQueue<>((a, b) -> Double.compare(a.score(), b.score()));
+            for (Map.Entry<Integer, Double> e : perWord.get(0).entrySet()) {
+                double text = e.getValue();
+                boolean all = true;
+                for (int w = 1; w < perWord.size() && all; w++) {
+                    Double s = perWord.get(w).get(e.getKey());
+                    if (s == null) all = false;
+                    else text += s;
+                }
+                if (!all) continue;
+                Doc doc = index.docs.get(e.getKey());
+                double score = text + 0.05 * Math.log1p(doc.reviewCount());
+                Double distance = null;
+                if (lat != null) {
+                    if (doc.lat() != null && doc.lng() != null) {
+                        distance = RatingService.distanceKm(lat, lng, doc.lat(), doc.lng());
+                        score *= 0.3 + 0.7 * Math.exp(-distance / distanceScaleKm);
+                    } else {
+                        score *= 0.3;
+                    }
+                }
+                top.add(new Scored(doc, score, distance));
+                if (top.size() > limit) top.poll();
+            }
+
+            List<RestaurantSuggestion> out = new ArrayList<>(top.size());
+            while (!top.isEmpty()) {
+                Scored s = top.poll();
+                Doc d = s.doc();
+                out.add(new RestaurantSuggestion(d.id().toString(), d.provider(), d.providerId(), d.name(), d.address(),
+                    d.lat(), d.lng(), d.categories(), s.distanceKm()));
+            }
+            Collections.reverse(out);
+            return out;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Caller holds the read lock. Best score per doc for one query word.
+    private Map<Integer, Double> matchWord(String word) {
+        Map<Integer, Double> scores = new HashMap<>();
+        int expanded = 0;
+        for (Map.Entry<String, Postings> e : index.terms.subMap(word, true, word + Character.MAX_VALUE, false).entrySet()) {
+            String term = e.getKey();
+            // Exact 1.0, prefix 0.75..1.0 by how much of the word has been typed
+            double quality = term.length() == word.length() ? 1.0 : 0.75 + 0.25 * word.length() / term.length();
+            collect(e.getValue(), quality, scores);
+            if (++expanded >= maxExpansions) break;
+        }
+        if (word.length() < 4) return scores;
+
+        int maxEdits = word.length() >= 8 ? 2 : 1;
+        Map<String, Integer> shared = new HashMap<>();
+        for (String gram : trigrams(word)) {
+            for (String term : index.trigrams.getOrDefault(gram, List.of())) shared.merge(term, 1, Integer::sum);
+        }
+        // Each edit breaks at most three trigrams
+        int needed = Math.max(1, trigrams(word).size() - 3 * maxEdits);
+        for (Map.Entry<String, Integer> e : shared.entrySet()) {
+            String term = e.getKey();
+            if (e.getValue() < needed || term.startsWith(word)) continue;
+            int edits = prefixDistance(word, term, maxEdits);
+            if (edits > maxEdits) continue;
+            collect(index.terms.get(term), edits == 1 ? 0.6 : 0.45, scores);
+        }
+        return scores;
+    }
+
+    private void collect(Postings postings, double quality, Map<Integer, Double> scores) {
+        for (int i = 0; i < postings.size; i++) {
+            int doc = postings.docs[i];
+            if (index.docs.get(doc) == null) continue;
+            double score = quality * fieldWeight(postings.fields[i]);
+            scores.merge(doc, score, Math::max);
+        }
+    }
+
+    private static double fieldWeight(int mask) {
+        if ((mask & NAME) != 0) return 1.0;
+        if ((mask & CATEGORY) != 0) return 0.7;
+        return 0.4;
+    }
+
+    public void refresh(UUID restaurantId) {
+        touched.touch(restaurantId);
+        List<Doc> rows = jdbc.query(SELECT_DOCS + " WHERE r.id = ?", (rs, n) -> doc(rs), restaurantId);
+        refreshes.increment();
+        lock.writeLock().lock();
+        try {
+            put(index, rows.isEmpty() ? null : rows.get(0), restaurantId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Index current = index;
+        // Replaced docs leave dead postings behind; rebuild once they are a quarter of the index
+        if (!touched.active() && current.dead > 1000 && current.dead > current.docs.size() / 4) {
+            rebuildInBackground();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        rebuildInBackground();
+    }
+
+    void rebuildInBackground() {
+        rebuilds.request();
+    }
+
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        touched.begin();
+        Set<UUID> replay;
+        try {
+            Index built = new Index();
+            jdbc.query(SELECT_DOCS, rs -> {
+                Doc doc = doc(rs);
+                put(built, doc, doc.id());
+            });
+            lock.writeLock().lock();
+            try {
+                index = built;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            replay = touched.end();
+        }
+        for (UUID id : replay) refresh(id);
+        ready = true;
+        lastBuildMs = (System.nanoTime() - start) / 1_000_000;
+        log.info("Typeahead index built in {} ms: {}", lastBuildMs, stats());
+    }
+
+    @Override
+    public String debugPath() {
+        return "typeahead";
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        lock.readLock().lock();
+        try {
+            Map<String, Object> out = new LinkedHashMap<>();
+            out.put("ready", ready);
+            out.put("restaurants", index.docIds.size());
+            out.put("deadDocs", index.dead);
+            out.put("terms", index.terms.size());
+            out.put("trigrams", index.trigrams.size());
+            out.put("queries", queries.sum());
+            out.put("refreshes", refreshes.sum());
+            out.put("lastBuildMs", lastBuildMs);
+            out.put("rebuildsPending", rebuilds.pending());
+            out.put("rebuildsDropped", rebuilds.dropped());
+            return out;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        rebuilds.shutdown();
+    }
+
+    // Caller holds the write lock (or owns an unpublished index). doc == null removes.
+    private static void put(Index idx, Doc doc, UUID id) {
+        Integer existing = idx.docIds.get(id);
+        if (existing != null && doc != null && idx.docs.get(existing).terms().equals(doc.terms())) {
+            // Same words (usually just a new review): swap the stored fields in place
+            idx.docs.set(existing, doc);
+            return;
+        }
+        if (existing != null) {
+            idx.docs.set(existing, null);
+            idx.docIds.remove(id);
+            idx.dead++;
+        }
+        if (doc == null) return;
+        int docId = idx.docs.size();
+        idx.docs.add(doc);
+        idx.docIds.put(id, docId);
+        for (Map.Entry<String, Integer> t : doc.terms().entrySet()) {
+            Postings postings = idx.terms.get(t.getKey());
+            if (postings == null) {
+                postings = new Postings();
+                idx.terms.put(t.getKey(), postings);
+                for (String gram : trigrams(t.getKey())) {
+                    idx.trigrams.computeIfAbsent(gram, g -> new ArrayList<>(2)).add(t.getKey());
+                }
+            }
+            postings.add(docId, t.getValue());
+        }
+    }
+
+    private Doc doc(ResultSet rs) throws SQLException {
+        String name = rs.getString(4);
+        String address = rs.getString(5);
+        List<String> categories = categories(rs.getString(8));
+        Map<String, Integer> terms = new HashMap<>();
+        for (String t : tokenize(name)) terms.merge(t, NAME, (a, b) -> a | b);
+        for (String c : categories) {
+            for (String t : tokenize(c)) terms.merge(t, CATEGORY, (a, b) -> a | b);
+        }
+        for (String t : tokenize(address)) terms.merge(t, ADDRESS, (a, b) -> a | b);
+        return new Doc(rs.getObject(1, UUID.class), rs.getString(2), rs.getString(3), name, address,
+            (Double) rs.getObject(6), (Double) rs.getObject(7), categories, rs.getLong(9), terms);
+    }
+
+    private List<String> categories(String json) {
+        if (json == null || json.isBlank()) return List.of();
+        try {
+            // Stored as a JSON array; some drivers hand back the array as a quoted JSON string
+            String text = json.startsWith("\"") ? objectMapper.readValue(json, String.class) : json;
+            List<String> values = objectMapper.readValue(text, STRING_LIST);
+            return values != null ? values : List.of();
+        } catch (Exception e) {
+            log.debug("Ignoring unreadable categories {}", json);
+            return List.of();
+        }
+    }
+
+    // Lowercase, accents stripped, split on anything that isn't a letter or digit
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) return List.of();
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFD)
+            .replaceAll("\\p{M}+", "")
+            .toLowerCase(Locale.ROOT);
+        List<String> out = new ArrayList<>();
+        for (String t : folded.split("[^\\p{L}\\p{N}]+")) {
+            if (!t.isEmpty()) out.add(t);
+        }
+        return out;
+    }
+
+    // Anchored at the start so "pizza" and "zapiz" don't look alike
+    static Set<String> trigrams(String term) {
+        Set<String> out = new LinkedHashSet<>();
+        String padded = "^" + term;
+        for (int i = 0; i + 3 <= padded.length(); i++) out.add(padded.substring(i, i + 3));
+        return out;
+    }
+
+    // Edit distance from word to the closest prefix of term (the rest of the term may be untyped),
+    // counting adjacent transpositions as one edit. Returns maxEdits + 1 once it is exceeded.
+    static int prefixDistance(String word, String term, int maxEdits) {
+        int n = word.length();
+        int m = Math.min(term.length(), n + maxEdits);
+        int[][] d = new int[n + 1][m + 1];
+        for (int i = 0; i <= n; i++) d[i][0] = i;
+        for (int j = 0; j <= m; j++) d[0][j] = j;
+        for (int i = 1; i <= n; i++) {
+            int rowMin = Integer.MAX_VALUE;
+            for (int j = 1; j <= m; j++) {
+                int cost = word.charAt(i - 1) == term.charAt(j - 1) ? 0 : 1;
+                int v = Math.min(Math.min(d[i - 1][j] + 1, d[i][j - 1] + 1), d[i - 1][j - 1] + cost);
+                if (i > 1 && j > 1 && word.charAt(i - 1) == term.charAt(j - 2) && word.charAt(i - 2) == term.charAt(j - 1)) {
+                    v = Math.min(v, d[i - 2][j - 2] + 1);
+                }
+                d[i][j] = v;
+                rowMin = Math.min(rowMin, v);
+            }
+            if (rowMin > maxEdits) return maxEdits + 1;
+        }
+        int best = Integer.MAX_VALUE;
+        for (int j = Math.max(0, n - maxEdits); j <= m; j++) best = Math.min(best, d[n][j]);
+        return Math.min(best, maxEdits + 1);
+    }
+}
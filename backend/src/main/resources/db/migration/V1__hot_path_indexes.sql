@@ -0,0 +1,38 @@
+-- Indexes behind the hot read paths. Built concurrently (except the restaurants one below) so
+-- applying this to a live database doesn't block review writes. A failed concurrent build leaves
+-- an invalid index that "if not exists" would then skip, so SchemaMigrations refuses to start
+-- while any index is invalid.
+
+-- Profile pages and the friends feed (ReviewRepository.findByUser_Id*, countByUser_Id)
+create index concurrently if not exists reviews_user_created_idx on public.reviews (user_id, created_at desc);
+
+-- Restaurant detail (ReviewRepository.findByRestaurant_IdOrderByCreatedAtDesc, countByRestaurant_Id)
+create index concurrently if not exists reviews_restaurant_created_idx on public.reviews (restaurant_id, created_at desc);
+
+-- Follower counts and notification fan-out, which pages through a user's followers in
+-- follower_id order; follower lookups use the (follower_id, following_id) primary key
+create index concurrently if not exists follows_following_follower_idx on public.follows (following_id, follower_id);
+
+-- Restaurant upsert by provider id (RestaurantRepository.findByProviderAndProviderId). Usually
+-- already served by the restaurants_provider_unique constraint, so only built when no valid
+-- unique index covers exactly (provider, provider_id). DO runs in a transaction, so this one
+-- can't be concurrent; it only blocks writes on databases that were missing it. The body is a
+-- plain string rather than $$-quoted because the script is split on semicolons outside quotes.
+do '
+begin
+  if not exists (
+    select 1 from pg_index i
+    where i.indrelid = ''public.restaurants''::regclass
+      and i.indisunique and i.indisvalid and i.indpred is null and i.indexprs is null
+      and i.indnkeyatts = 2
+      and (select array_agg(a.attname::text order by a.attname) from pg_attribute a
+           where a.attrelid = i.indrelid and a.attnum = any (i.indkey)) = array[''provider'', ''provider_id'']
+  ) then
+    create unique index restaurants_provider_unique on public.restaurants (provider, provider_id);
+  end if;
+end
+';
+
+-- Username prefix search (ProfileRepository.findByUsernamePrefix); text_pattern_ops so
+-- LIKE 'prefix%' can use it whatever the database collation
+create index concurrently if not exists profiles_username_lower_idx on public.profiles (lower(username) text_pattern_ops);
@@ -0,0 +1,36 @@
+-- Per-restaurant rating aggregate maintained by RatingService. The insert backfills from existing
+-- reviews and is safe to re-run.
+
+create table if not exists public.restaurant_ratings (
+  restaurant_id uuid primary key references public.restaurants (id) on delete cascade,
+  review_count bigint not null default 0,
+  rating_sum bigint not null default 0,
+  count_1 bigint not null default 0,
+  count_2 bigint not null default 0,
+  count_3 bigint not null default 0,
+  count_4 bigint not null default 0,
+  count_5 bigint not null default 0,
+  score double precision
+);
+
+-- The prior the stored scores were computed with; RatingService re-scores only when it changes
+create table if not exists public.rating_prior (
+  id smallint primary key check (id = 1),
+  prior_weight double precision not null,
+  prior_mean double precision not null
+);
+
+create index if not exists restaurant_ratings_score_idx on public.restaurant_ratings (score desc);
+create index if not exists restaurants_lat_lng_idx on public.restaurants (lat, lng);
+
+-- prior weight 5, prior mean 3.5 (ratings.prior-weight / ratings.prior-mean)
+insert into public.restaurant_ratings (restaurant_id, review_count, rating_sum, count_1, count_2, count_3, count_4, count_5, score)
+select restaurant_id, count(*), sum(rating),
+       count(*) filter (where rating = 1), count(*) filter (where rating = 2), count(*) filter (where rating = 3),
+       count(*) filter (where rating = 4), count(*) filter (where rating = 5),
+       (5 * 3.5 + sum(rating)) / (5 + count(*))
+from public.reviews
+group by restaurant_id
+on conflict (restaurant_id) do nothing;
+
+insert into public.rating_prior (id, prior_weight, prior_mean) values (1, 5, 3.5) on conflict (id) do nothing;
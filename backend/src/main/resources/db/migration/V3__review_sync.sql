@@ -0,0 +1,15 @@
+-- Delta sync (/sync) support; safe to re-run.
+
+-- Rows written before updated_at was always set would never show up in a delta
+update public.reviews set updated_at = coalesce(created_at, now()) where updated_at is null;
+
+create index if not exists reviews_user_updated_idx on public.reviews (user_id, updated_at, id);
+
+create table if not exists public.review_tombstones (
+  review_id uuid primary key,
+  user_id uuid not null,
+  restaurant_id uuid not null,
+  deleted_at timestamptz not null
+);
+
+create index if not exists review_tombstones_user_deleted_idx on public.review_tombstones (user_id, deleted_at, review_id);
@@ -0,0 +1,8 @@
+-- Precomputed per-user recommendations (/restaurants/recommended); safe to re-run. The table is
+-- rewritten wholesale by the nightly batch job.
+
+create table if not exists public.user_recommendations (
+  user_id uuid primary key,
+  items bytea not null,
+  computed_at timestamptz not null
+);
@@ -0,0 +1,4 @@
+-- Thumbnails of review photos, index-aligned with photo_urls (null until PhotoService has
+-- generated one); safe to re-run.
+
+alter table public.reviews add column if not exists thumbnail_urls jsonb;
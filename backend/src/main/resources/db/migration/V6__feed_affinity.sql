@@ -0,0 +1,11 @@
+-- Decayed interaction scores between a viewer and the authors they read, shared by every
+-- instance's FeedRanker. score is as of updated_at_ms (epoch millis); readers decay it from there.
+-- Served by the primary key: a viewer's rows are loaded together and written one pair at a time.
+
+create table if not exists public.feed_affinity (
+  viewer_id uuid not null,
+  author_id uuid not null,
+  score double precision not null,
+  updated_at_ms bigint not null,
+  primary key (viewer_id, author_id)
+);
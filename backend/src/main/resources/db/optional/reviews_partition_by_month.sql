@@ -0,0 +1,45 @@
+-- Optional: range-partition reviews by created_at, one partition per month. Not a versioned
+-- migration because it rewrites the table; run it by hand in a maintenance window once reviews is
+-- big enough that the per-user and per-restaurant indexes no longer stay in memory.
+--
+-- Postgres requires the partition key in every unique constraint, so the primary key becomes
+-- (id, created_at) and rows without created_at are stamped first. Drop any foreign key that
+-- references reviews(id) before running. Partitions are created through 12 months ahead; rows
+-- past the last one land in reviews_default until the next run of the loop at the bottom.
+
+begin;
+
+update public.reviews set created_at = coalesce(updated_at, now()) where created_at is null;
+
+alter table public.reviews rename to reviews_unpartitioned;
+
+create table public.reviews (like public.reviews_unpartitioned including defaults)
+  partition by range (created_at);
+alter table public.reviews alter column created_at set not null;
+alter table public.reviews add primary key (id, created_at);
+alter table public.reviews add foreign key (user_id) references public.profiles (id);
+alter table public.reviews add foreign key (restaurant_id) references public.restaurants (id);
+
+create table public.reviews_default partition of public.reviews default;
+
+do $$
+declare
+  month date := date_trunc('month', coalesce((select min(created_at) from public.reviews_unpartitioned), now()));
+begin
+  while month <= date_trunc('month', now() + interval '12 months') loop
+    execute format('create table if not exists public.reviews_%s partition of public.reviews for values from (%L) to (%L)',
+                   to_char(month, 'YYYY_MM'), month, month + interval '1 month');
+    month := month + interval '1 month';
+  end loop;
+end $$;
+
+insert into public.reviews select * from public.reviews_unpartitioned;
+
+-- Indexes on the parent cascade to every partition, current and future
+create index reviews_user_created_idx_p on public.reviews (user_id, created_at desc);
+create index reviews_restaurant_created_idx_p on public.reviews (restaurant_id, created_at desc);
+create index reviews_user_updated_idx_p on public.reviews (user_id, updated_at, id);
+
+drop table public.reviews_unpartitioned;
+
+commit;
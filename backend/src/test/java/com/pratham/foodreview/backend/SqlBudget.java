@@ -0,0 +1,31 @@
+package com.pratham.foodreview.backend;
+
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// MockMvc matchers over the X-Sql-* headers written by SqlStatsFilter (sql-stats.enabled is on
+// in the test profile):
+//   mvc.perform(get("/reviewfeed/feed")...).andExpect(SqlBudget.atMost(4));
+public final class SqlBudget {
+
+	private SqlBudget() {}
+
+	public static ResultMatcher atMost(int statements) {
+		return result -> {
+			String count = result.getResponse().getHeader("X-Sql-Count");
+			assertNotNull(count, "no X-Sql-Count header; is sql-stats.enabled on?");
+			String repeated = result.getResponse().getHeader("X-Sql-Repeated");
+			assertTrue(Integer.parseInt(count) <= statements,
+				result.getRequest().getMethod() + " " + result.getRequest().getRequestURI() + " ran " + count
+					+ " SQL statements, budget is " + statements + (repeated != null ? "; repeated: " + repeated : ""));
+		};
+	}
+
+	public static ResultMatcher noRepeatedStatements() {
+		return result -> assertNull(result.getResponse().getHeader("X-Sql-Repeated"),
+			result.getRequest().getRequestURI() + " repeats a statement");
+	}
+}
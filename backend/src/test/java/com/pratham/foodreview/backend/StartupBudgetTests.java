@@ -0,0 +1,40 @@
+package com.pratham.foodreview.backend;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Time from SpringApplication.run to the first successful response, with the fast-start profile.
+// The default budget is loose enough for CI; tighten it with -Dstartup.budget-ms.
+class StartupBudgetTests {
+
+	@Test
+	void firstRequestWithinBudget() throws Exception {
+		long budgetMs = Long.getLong("startup.budget-ms", 15000);
+		long start = System.nanoTime();
+
+		try (ConfigurableApplicationContext ctx = new SpringApplicationBuilder(BackendApplication.class)
+				.profiles("test", "fast-start")
+				.properties("server.port=0")
+				.run()) {
+			int port = ctx.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+			HttpResponse<String> response = HttpClient.newHttpClient().send(
+				HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/health")).build(),
+				HttpResponse.BodyHandlers.ofString());
+			long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+			assertEquals(200, response.statusCode());
+			assertTrue(elapsedMs < budgetMs,
+				"time to first request " + elapsedMs + " ms exceeded budget " + budgetMs + " ms");
+		}
+	}
+}
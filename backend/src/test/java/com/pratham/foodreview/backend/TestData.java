@@ -0,0 +1,103 @@
+package com.pratham.foodreview.backend;
+
+import com.pratham.foodreview.backend.entity.Follow;
+import com.pratham.foodreview.backend.entity.FollowId;
+import com.pratham.foodreview.backend.entity.Profile;
+import com.pratham.foodreview.backend.entity.Restaurant;
+import com.pratham.foodreview.backend.entity.Review;
+import com.pratham.foodreview.backend.repo.FollowRepository;
+import com.pratham.foodreview.backend.repo.ProfileRepository;
+import com.pratham.foodreview.backend.repo.RestaurantRepository;
+import com.pratham.foodreview.backend.repo.ReviewRepository;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+// Saved rows for tests, each committed on its own. Picked up by component scanning, so any
+// @SpringBootTest can autowire it:
+//   Review r = data.review(data.profile(), data.restaurant(), 5, "great", OffsetDateTime.now());
+// Names and provider ids are random, so rows from other tests never collide.
+@Component
+public class TestData {
+
+	private final ProfileRepository profileRepository;
+	private final RestaurantRepository restaurantRepository;
+	private final ReviewRepository reviewRepository;
+	private final FollowRepository followRepository;
+
+	public TestData(ProfileRepository profileRepository, RestaurantRepository restaurantRepository,
+			ReviewRepository reviewRepository, FollowRepository followRepository) {
+		this.profileRepository = profileRepository;
+		this.restaurantRepository = restaurantRepository;
+		this.reviewRepository = reviewRepository;
+		this.followRepository = followRepository;
+	}
+
+	public Profile profile() {
+		Profile p = new Profile();
+		p.setId(UUID.randomUUID());
+		p.setUsername("user_" + p.getId());
+		p.setCreatedAt(OffsetDateTime.now());
+		return profileRepository.save(p);
+	}
+
+	public Restaurant restaurant() {
+		return restaurant("test", "Test Spot", null, null);
+	}
+
+	public Restaurant restaurant(String name) {
+		return restaurant("test", name, null, null);
+	}
+
+	public Restaurant restaurant(double lat, double lng) {
+		return restaurant("test", "Test Spot", lat, lng);
+	}
+
+	public Restaurant restaurant(String provider, String name, Double lat, Double lng) {
+		Restaurant r = new Restaurant();
+		r.setProvider(provider);
+		r.setProviderId(UUID.randomUUID().toString());
+		r.setName(name);
+		r.setLat(lat);
+		r.setLng(lng);
+		r.setCreatedAt(OffsetDateTime.now());
+		return restaurantRepository.save(r);
+	}
+
+	public Review review(Profile user, Restaurant restaurant) {
+		return review(user, restaurant, 4, null, OffsetDateTime.now());
+	}
+
+	public Review review(Profile user, Restaurant restaurant, int rating) {
+		return review(user, restaurant, rating, null, OffsetDateTime.now());
+	}
+
+	public Review review(Profile user, Restaurant restaurant, String text) {
+		return review(user, restaurant, 4, text, OffsetDateTime.now());
+	}
+
+	public Review review(Profile user, Restaurant restaurant, int rating, String text, OffsetDateTime at) {
+		Review review = new Review();
+		review.setUser(user);
+		review.setRestaurant(restaurant);
+		review.setRating(rating);
+		review.setText(text);
+		review.setCreatedAt(at);
+		review.setUpdatedAt(at);
+		return reviewRepository.save(review);
+	}
+
+	public void follow(Profile follower, Profile following) {
+		follow(follower.getId(), following.getId());
+	}
+
+	public void follow(UUID follower, UUID following) {
+		Follow f = new Follow();
+		f.setId(new FollowId(follower, following));
+		f.setFollower(profileRepository.getReferenceById(follower));
+		f.setFollowing(profileRepository.getReferenceById(following));
+		f.setCreatedAt(OffsetDateTime.now());
+		followRepository.save(f);
+	}
+}
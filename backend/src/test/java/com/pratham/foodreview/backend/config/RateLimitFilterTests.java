@@ -0,0 +1,89 @@
+package com.pratham.foodreview.backend.config;
+
+import com.pratham.foodreview.backend.service.RateLimitService;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Drives the filter directly; no security context, so callers are keyed by remote address.
+class RateLimitFilterTests {
+
+	private static RateLimitService limiter(String mode, int maxKeys, int capacity, double refillPerSecond) {
+		return new RateLimitService(true, mode, 250, 16, maxKeys, capacity, refillPerSecond, 1, 1, 1, 1);
+	}
+
+	private static MockHttpServletResponse call(RateLimitFilter filter, String ip) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/restaurants/search");
+		request.setRemoteAddr(ip);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		MockFilterChain chain = new MockFilterChain();
+		filter.doFilter(request, response, chain);
+		// The chain only sees requests that were let through
+		assertEquals(response.getStatus() == 200, chain.getRequest() != null);
+		return response;
+	}
+
+	@Test
+	void rejectsPastTheBurstWithRetryAfter() throws Exception {
+		RateLimitFilter filter = new RateLimitFilter(limiter("reject", 100, 2, 0.5));
+		assertEquals(200, call(filter, "10.0.0.1").getStatus());
+		assertEquals(200, call(filter, "10.0.0.1").getStatus());
+
+		MockHttpServletResponse rejected = call(filter, "10.0.0.1");
+		assertEquals(429, rejected.getStatus());
+		assertEquals("2", rejected.getHeader("Retry-After"));
+		assertTrue(rejected.getContentAsString().contains("Too many requests"));
+		// Another caller has its own budget
+		assertEquals(200, call(filter, "10.0.0.2").getStatus());
+	}
+
+	@Test
+	void queueModeWaitsForATokenInsteadOfRejecting() throws Exception {
+		RateLimitFilter filter = new RateLimitFilter(limiter("queue", 100, 1, 10));
+		assertEquals(200, call(filter, "10.0.0.1").getStatus());
+		long start = System.nanoTime();
+		MockHttpServletResponse queued = call(filter, "10.0.0.1");
+		long waitedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		assertEquals(200, queued.getStatus());
+		assertNull(queued.getHeader("Retry-After"));
+		assertTrue(waitedMs >= 50, "waited " + waitedMs + " ms");
+	}
+
+	@Test
+	void newCallersShareAnOverflowBucketOnceMaxKeysIsReached() throws Exception {
+		RateLimitService limiter = limiter("reject", 3, 2, 0.5);
+		RateLimitFilter filter = new RateLimitFilter(limiter);
+		for (int i = 0; i < 3; i++) assertEquals(200, call(filter, "10.0.1." + i).getStatus());
+		for (int i = 0; i < 20; i++) call(filter, "10.0.2." + i);
+
+		assertEquals(3, limiter.stats().get("activeKeys"));
+		assertEquals(20L, limiter.stats().get("overflowed"));
+		// The spray drained the shared bucket; callers admitted earlier keep their own
+		MockHttpServletResponse sprayed = call(filter, "10.0.3.1");
+		assertEquals(429, sprayed.getStatus());
+		assertNotNull(sprayed.getHeader("Retry-After"));
+		assertEquals(200, call(filter, "10.0.1.0").getStatus());
+	}
+
+	@Test
+	void sweepDropsRefilledBuckets() throws Exception {
+		RateLimitService limiter = limiter("reject", 3, 1, 100);
+		RateLimitFilter filter = new RateLimitFilter(limiter);
+		for (int i = 0; i < 3; i++) call(filter, "10.0.1." + i);
+		Thread.sleep(30);
+		limiter.sweep();
+
+		assertEquals(0, limiter.stats().get("activeKeys"));
+		assertEquals(3L, limiter.stats().get("swept"));
+		call(filter, "10.0.2.1");
+		assertEquals(0L, limiter.stats().get("overflowed"));
+	}
+}
@@ -0,0 +1,210 @@
+package com.pratham.foodreview.backend.config;
+
+import com.pratham.foodreview.backend.repo.FollowRepository;
+import com.pratham.foodreview.backend.repo.ProfileRepository;
+import com.pratham.foodreview.backend.repo.RestaurantRatingRepository;
+import com.pratham.foodreview.backend.repo.RestaurantRepository;
+import com.pratham.foodreview.backend.repo.ReviewRepository;
+import com.pratham.foodreview.backend.repo.ReviewTombstoneRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SchemaTests {
+
+	@Autowired
+	DataSource dataSource;
+
+	@Autowired
+	QueryPlanCheck queryPlanCheck;
+
+	@Autowired
+	RequestSqlStats requestSqlStats;
+
+	@Autowired
+	ReviewRepository reviewRepository;
+
+	@Autowired
+	ReviewTombstoneRepository reviewTombstoneRepository;
+
+	@Autowired
+	FollowRepository followRepository;
+
+	@Autowired
+	RestaurantRepository restaurantRepository;
+
+	@Autowired
+	RestaurantRatingRepository restaurantRatingRepository;
+
+	@Autowired
+	ProfileRepository profileRepository;
+
+	@Test
+	void repositoryQueriesUseIndexes() {
+		assertEquals(List.of(), queryPlanCheck.sequentialScans(QueryPlanCheck.CHECKS));
+	}
+
+	// Plain JdbcTemplate SQL, so there is no Hibernate statement to compare against
+	private static final Set<String> JDBC_CHECKS = Set.of("NotificationFanout.readChunk", "FeedRanker.load");
+
+	@Test
+	void checksMatchTheSqlTheirRepositoryMethodsGenerate() {
+		UUID id = UUID.randomUUID();
+		OffsetDateTime at = OffsetDateTime.now();
+		PageRequest page = PageRequest.of(0, 10);
+		Map<String, Runnable> queries = new LinkedHashMap<>();
+		queries.put("ReviewRepository.findByUser_IdOrderByCreatedAtDesc", () -> reviewRepository.findByUser_IdOrderByCreatedAtDesc(id));
+		queries.put("ReviewRepository.findByUser_IdInOrderByCreatedAtDesc",
+			() -> reviewRepository.findByUser_IdInOrderByCreatedAtDesc(List.of(id, UUID.randomUUID()), page));
+		queries.put("ReviewRepository.findByRestaurant_IdOrderByCreatedAtDesc",
+			() -> reviewRepository.findByRestaurant_IdOrderByCreatedAtDesc(id));
+		queries.put("ReviewRepository.findChangedSince", () -> reviewRepository.findChangedSince(List.of(id), at, id, at, page));
+		queries.put("ReviewTombstoneRepository.findDeletedSince",
+			() -> reviewTombstoneRepository.findDeletedSince(List.of(id), at, id, at, page));
+		queries.put("FollowRepository.findByFollower_Id", () -> followRepository.findByFollower_Id(id));
+		queries.put("FollowRepository.countByFollowing_Id", () -> followRepository.countByFollowing_Id(id));
+		queries.put("FollowRepository.countFollowersByIds", () -> followRepository.countFollowersByIds(List.of(id, UUID.randomUUID())));
+		queries.put("RestaurantRepository.findByProviderAndProviderId", () -> restaurantRepository.findByProviderAndProviderId("google", "p"));
+		queries.put("RestaurantRepository.findByProviderAndProviderIdIn",
+			() -> restaurantRepository.findByProviderAndProviderIdIn("google", List.of("p", "q")));
+		queries.put("RestaurantRatingRepository.findByRestaurantIdIn",
+			() -> restaurantRatingRepository.findByRestaurantIdIn(List.of(id, UUID.randomUUID())));
+		queries.put("ProfileRepository.findByUsername", () -> profileRepository.findByUsername("u"));
+		queries.put("ProfileRepository.findByUsernamePrefix", () -> profileRepository.findByUsernamePrefix("ab", page));
+
+		for (QueryPlanCheck.Check check : QueryPlanCheck.CHECKS) {
+			if (JDBC_CHECKS.contains(check.query())) continue;
+			Runnable query = queries.get(check.query());
+			assertNotNull(query, "no repository call for " + check.query());
+			SqlShape expected = SqlShape.of(check.sql());
+			RequestSqlStats.Window window = requestSqlStats.begin();
+			try {
+				query.run();
+			} finally {
+				requestSqlStats.end(window, "SchemaTests", false);
+			}
+			SqlShape generated = window.shapes().stream()
+				.map(SqlShape::of)
+				.filter(s -> s.table().equals(expected.table()))
+				.findFirst()
+				.orElseThrow(() -> new AssertionError(check.query() + " ran no query on " + expected.table() + ": " + window.shapes()));
+			assertEquals(expected, generated, check.query() + ": " + window.shapes());
+		}
+	}
+
+	@Test
+	void migrationScriptsSplitIntoWholeStatements() throws Exception {
+		List<String> executed = new ArrayList<>();
+		Statement statement = (Statement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Statement.class },
+			(proxy, method, args) -> {
+				if (method.getName().equals("execute")) executed.add((String) args[0]);
+				// No result sets, and -1 from getUpdateCount() for no more results
+				return method.getReturnType() == boolean.class ? false : method.getReturnType() == int.class ? -1 : null;
+			});
+		Connection connection = (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Connection.class },
+			(proxy, method, args) -> method.getName().equals("createStatement") ? statement : null);
+
+		ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/migration/V1__hot_path_indexes.sql"));
+
+		assertEquals(5, executed.size());
+		String conditional = executed.get(3);
+		assertTrue(conditional.startsWith("do '") && conditional.contains("end if;"), conditional);
+		assertTrue(conditional.contains("create unique index restaurants_provider_unique"), conditional);
+	}
+
+	@Test
+	void unindexedFiltersAreReported() {
+		List<String> scans = queryPlanCheck.sequentialScans(List.of(
+			new QueryPlanCheck.Check("byRating", "select id from reviews where rating = 5")));
+		assertEquals(1, scans.size());
+		assertTrue(scans.get(0).startsWith("byRating: "));
+	}
+
+	@Test
+	void productionMigrationsAreOrderedFromOne() throws Exception {
+		List<SchemaMigrations.Migration> migrations = SchemaMigrations.load("classpath:db/migration");
+		for (int i = 0; i < migrations.size(); i++) {
+			assertEquals(i + 1, migrations.get(i).version());
+		}
+	}
+
+	@Test
+	void migrationsApplyOnceInVersionOrder() throws Exception {
+		SchemaMigrations migrations = new SchemaMigrations(dataSource, "classpath:db/test-migration");
+		migrations.afterPropertiesSet();
+		migrations.afterPropertiesSet();
+
+		JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+		assertEquals(List.of("create_widgets", "index_widgets"),
+			jdbc.queryForList("select description from schema_migrations order by version", String.class));
+		assertEquals(1, jdbc.queryForObject("select count(*) from migration_widgets", Integer.class));
+	}
+
+	// Table, filtered columns and sort columns of a statement, with aliases, literals and sort
+	// directions left out. A filter on a joined table's key (u1_0.id = ? for join ... on
+	// u1_0.id = r1_0.user_id) counts as a filter on the main table's foreign key.
+	record SqlShape(String table, Set<String> filters, List<String> orderBy) {
+		private static final Pattern LITERAL = Pattern.compile("'(?:[^']|'')*'");
+		private static final Pattern JOIN = Pattern.compile("\\bjoin \\S+ \\w+ on (\\w+\\.\\w+) ?= ?(\\w+\\.\\w+)");
+		private static final Pattern ALIAS = Pattern.compile("\\b\\w+_\\d+\\.");
+		private static final Pattern TABLE = Pattern.compile("\\bfrom\\s+(?:\\w+\\.)?(\\w+)");
+		private static final Pattern FILTER = Pattern.compile("(\\w+)\\)?\\s*(?:=|<|>|\\bin\\b|\\blike\\b|\\bis\\b)");
+		private static final Pattern TAIL = Pattern.compile("\\s+(?:order by|group by|offset|fetch|limit)\\b.*");
+
+		static SqlShape of(String sql) {
+			String s = LITERAL.matcher(sql.toLowerCase()).replaceAll("?").replaceAll("\\s+", " ");
+			Matcher join = JOIN.matcher(s);
+			List<String[]> keys = new ArrayList<>();
+			while (join.find()) keys.add(new String[] { join.group(1), join.group(2) });
+			int from = s.indexOf(" where ");
+			if (from >= 0) {
+				String where = s.substring(from);
+				for (String[] k : keys) where = where.replace(k[0], k[1]);
+				s = s.substring(0, from) + where;
+			}
+			s = ALIAS.matcher(s).replaceAll("");
+			Matcher table = TABLE.matcher(s);
+			assertTrue(table.find(), sql);
+			int where = s.indexOf(" where ");
+			Set<String> filters = new TreeSet<>();
+			if (where >= 0) {
+				Matcher m = FILTER.matcher(TAIL.matcher(s.substring(where + 7)).replaceFirst(""));
+				while (m.find()) filters.add(m.group(1));
+			}
+			List<String> orderBy = new ArrayList<>();
+			int order = s.indexOf(" order by ");
+			if (order >= 0) {
+				String columns = s.substring(order + 10).replaceFirst("\\s+(?:offset|fetch|limit)\\b.*", "");
+				for (String c : columns.split(",")) orderBy.add(c.trim().split(" ")[0]);
+			}
+			return new SqlShape(table.group(1), filters, orderBy);
+		}
+	}
+}
@@ -0,0 +1,117 @@
+package com.pratham.foodreview.backend.controller;
+
+import com.pratham.foodreview.backend.TestData;
+import com.pratham.foodreview.backend.entity.Profile;
+import com.pratham.foodreview.backend.entity.Restaurant;
+import com.pratham.foodreview.backend.repo.RestaurantRepository;
+import com.pratham.foodreview.backend.service.ClusterIndex;
+import com.pratham.foodreview.backend.service.RatingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Uses coordinates in New Zealand so restaurants created by other tests stay out of the viewport.
+@SpringBootTest(properties = "clusters.max-results=5")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ClusterTests {
+
+	private static final String COUNTRY = "165,-48,180,-34";
+	private static final String CHRISTCHURCH = "172.5,-43.6,172.8,-43.45";
+
+	@Autowired
+	MockMvc mvc;
+
+	@Autowired
+	ClusterIndex clusterIndex;
+
+	@Autowired
+	RatingService ratingService;
+
+	@Autowired
+	RestaurantRepository restaurantRepository;
+
+	@Autowired
+	TestData data;
+
+	Profile reviewer;
+	Restaurant auckland;
+
+	@BeforeEach
+	void seed() {
+		// Christchurch restaurants were committed by an earlier test method; the index is shared
+		restaurantRepository.findAll().stream()
+			.filter(r -> "cluster-test".equals(r.getProvider()))
+			.findAny()
+			.ifPresentOrElse(r -> {}, this::createRestaurants);
+		clusterIndex.rebuild();
+		reviewer = data.profile();
+	}
+
+	@Test
+	void coarseZoomReturnsClustersWithCountsAndRatings() throws Exception {
+		mvc.perform(get("/restaurants/clusters").param("bbox", COUNTRY).param("zoom", "5"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.zoom").value(5))
+			.andExpect(jsonPath("$.clusters.length()").value(2))
+			.andExpect(jsonPath("$.clusters[?(@.restaurantId == null)].count").value(10))
+			.andExpect(jsonPath("$.clusters[?(@.restaurantId == null)].averageRating").value(4.0))
+			.andExpect(jsonPath("$.clusters[?(@.restaurantId != null)].name").value("Auckland Spot"));
+	}
+
+	@Test
+	void deepZoomSplitsIntoRestaurantsUnderTheCap() throws Exception {
+		mvc.perform(get("/restaurants/clusters").param("bbox", "172.605,-43.535,172.615,-43.525").param("zoom", "20"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.zoom").value(20))
+			.andExpect(jsonPath("$.clusters[0].restaurantId").isNotEmpty())
+			.andExpect(jsonPath("$.clusters[0].count").value(1));
+
+		// All ten at street level would exceed max-results=5, so the answer comes from a coarser level
+		mvc.perform(get("/restaurants/clusters").param("bbox", CHRISTCHURCH).param("zoom", "20"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.zoom").value(lessThan(20)))
+			.andExpect(jsonPath("$.clusters.length()").value(lessThanOrEqualTo(5)));
+	}
+
+	@Test
+	void newReviewedRestaurantsJoinTheIndexWithoutRebuild() throws Exception {
+		String body = "{\"provider\":\"cluster-live\",\"providerId\":\"" + UUID.randomUUID() + "\",\"name\":\"Live Spot\","
+			+ "\"lat\":-36.86,\"lng\":174.77,\"rating\":2,\"text\":\"ok\"}";
+		mvc.perform(post("/reviews").contentType(MediaType.APPLICATION_JSON).content(body)
+				.with(jwt().jwt(j -> j.subject(reviewer.getId().toString()))))
+			.andExpect(status().isOk());
+
+		mvc.perform(get("/restaurants/clusters").param("bbox", "174,-37.5,175.5,-36").param("zoom", "5"))
+			.andExpect(jsonPath("$.clusters.length()").value(1))
+			.andExpect(jsonPath("$.clusters[0].count").value(2))
+			.andExpect(jsonPath("$.clusters[0].reviewCount").value(2))
+			.andExpect(jsonPath("$.clusters[0].averageRating").value(3.5));
+	}
+
+	private void createRestaurants() {
+		Profile p = data.profile();
+		for (int i = 0; i < 10; i++) {
+			Restaurant r = data.restaurant("cluster-test", "Christchurch " + i, -43.53 + i * 0.003, 172.61 + i * 0.007);
+			data.review(p, r, i % 2 == 0 ? 3 : 5);
+		}
+		auckland = data.restaurant("cluster-test", "Auckland Spot", -36.85, 174.76);
+		data.review(p, auckland, 5);
+		ratingService.rebuildAll();
+	}
+}
@@ -0,0 +1,37 @@
+package com.pratham.foodreview.backend.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class DebugControllerTests {
+
+	@Autowired
+	MockMvc mvc;
+
+	@Test
+	void servesEachSubsystemAndGroupsTheCaches() throws Exception {
+		mvc.perform(get("/debug/pool"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.enabled").exists());
+		mvc.perform(get("/debug/caches"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.restaurantDetail").isMap())
+			.andExpect(jsonPath("$.placesPhotos").isMap())
+			.andExpect(jsonPath("$.ingredients").isMap())
+			.andExpect(jsonPath("$.reviewFragments").isMap())
+			.andExpect(jsonPath("$.invalidationBus").isMap());
+		mvc.perform(get("/debug/requests")).andExpect(status().isOk());
+		mvc.perform(get("/debug/nothing-here")).andExpect(status().isNotFound());
+	}
+}
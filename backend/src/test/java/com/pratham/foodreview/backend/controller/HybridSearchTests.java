@@ -0,0 +1,144 @@
+package com.pratham.foodreview.backend.controller;
+
+import com.pratham.foodreview.backend.dto.RestaurantSearchResult;
+import com.pratham.foodreview.backend.entity.Restaurant;
+import com.pratham.foodreview.backend.repo.RestaurantRepository;
+import com.pratham.foodreview.backend.service.HybridSearchService;
+import com.pratham.foodreview.backend.service.RateLimitService;
+import com.pratham.foodreview.backend.service.RatingService;
+import com.pratham.foodreview.backend.service.SearchService;
+import com.pratham.foodreview.backend.service.TypeaheadIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.sql.DataSource;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Google is stubbed; made-up names keep other tests' restaurants out of the local matches.
+@SpringBootTest
+@ActiveProfiles("test")
+class HybridSearchTests {
+
+	@Autowired
+	TypeaheadIndex typeaheadIndex;
+
+	@Autowired
+	RestaurantRepository restaurantRepository;
+
+	@Autowired
+	RatingService ratingService;
+
+	@Autowired
+	RateLimitService rateLimitService;
+
+	@Autowired
+	DataSource dataSource;
+
+	@BeforeEach
+	void seed() {
+		if (restaurantRepository.findByProviderAndProviderId("google", "hybrid-grill").isEmpty()) {
+			rated(restaurant("Vellomar Grill", "hybrid-grill"), 4);
+			restaurant("Vellomar Cafe", "hybrid-cafe");
+			rated(restaurant("Harbour Kitchen", "hybrid-harbour"), 2);
+		}
+		typeaheadIndex.rebuild();
+	}
+
+	@Test
+	void mergesSourcesAndRanksLocallyReviewedFirst() {
+		HybridSearchService search = service(() -> List.of(
+			google("hybrid-new", "Vellomar Bistro"),
+			google("hybrid-cafe", "Vellomar Cafe"),
+			google("hybrid-harbour", "Harbour Kitchen")), 2000);
+
+		HybridSearchService.Result result = search.search("vellomar", 40.0, -83.0);
+
+		assertEquals(List.of(), result.missingSources());
+		assertEquals(List.of("hybrid-harbour", "hybrid-grill", "hybrid-new", "hybrid-cafe"),
+			result.restaurants().stream().map(RestaurantSearchResult::providerId).toList());
+		RestaurantSearchResult harbour = result.restaurants().get(0);
+		assertEquals(2L, harbour.reviewCount());
+		assertEquals(4.5, harbour.rating());
+		RestaurantSearchResult cafe = result.restaurants().get(3);
+		assertEquals(0L, cafe.reviewCount());
+		assertTrue(cafe.id() != null);
+		assertNull(result.restaurants().get(2).id());
+	}
+
+	@Test
+	void slowGoogleLeavesLocalResults() {
+		HybridSearchService search = service(() -> {
+			try {
+				Thread.sleep(5000);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return List.of(google("hybrid-late", "Vellomar Late"));
+		}, 100);
+
+		long started = System.nanoTime();
+		HybridSearchService.Result result = search.search("vellomar", 40.0, -83.0);
+
+		assertTrue(System.nanoTime() - started < 2_000_000_000L);
+		assertEquals(List.of("google"), result.missingSources());
+		assertEquals(List.of("hybrid-grill", "hybrid-cafe"),
+			result.restaurants().stream().map(RestaurantSearchResult::providerId).toList());
+	}
+
+	@Test
+	void rateLimitedGoogleWithNothingLocalIsStillBusy() {
+		HybridSearchService search = service(() -> {
+			throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS);
+		}, 2000);
+
+		ResponseStatusException e = assertThrows(ResponseStatusException.class,
+			() -> search.search("qwzzyx", 40.0, -83.0));
+		assertEquals(HttpStatus.TOO_MANY_REQUESTS, e.getStatusCode());
+		assertEquals(List.of("google"), search.search("vellomar", 40.0, -83.0).missingSources());
+	}
+
+	private HybridSearchService service(Supplier<List<RestaurantSearchResult>> googleResults, long deadlineMs) {
+		SearchService stub = new SearchService("test-api-key", rateLimitService) {
+			@Override
+			public List<RestaurantSearchResult> searchRestaurants(String query, Double lat, Double lng) {
+				return googleResults.get();
+			}
+		};
+		return new HybridSearchService(stub, typeaheadIndex, restaurantRepository, ratingService, deadlineMs, 20, 2, 4);
+	}
+
+	private static RestaurantSearchResult google(String placeId, String name) {
+		return new RestaurantSearchResult("google", placeId, name, "Somewhere", 40.0, -83.0, null, 2, 4.5, null, null, null);
+	}
+
+	private Restaurant restaurant(String name, String placeId) {
+		Restaurant r = new Restaurant();
+		r.setProvider("google");
+		r.setProviderId(placeId);
+		r.setName(name);
+		r.setAddress("1 Test St");
+		r.setLat(40.0);
+		r.setLng(-83.0);
+		r.setCreatedAt(OffsetDateTime.now());
+		return restaurantRepository.save(r);
+	}
+
+	private void rated(Restaurant r, int reviews) {
+		new JdbcTemplate(dataSource).update(
+			"insert into restaurant_ratings (restaurant_id, review_count, rating_sum, count_4, score) values (?, ?, ?, ?, ?)",
+			r.getId(), reviews, reviews * 4, reviews, 4.0);
+	}
+}
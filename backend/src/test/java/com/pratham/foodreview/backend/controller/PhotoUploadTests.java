@@ -0,0 +1,131 @@
+package com.pratham.foodreview.backend.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import com.pratham.foodreview.backend.TestData;
+import com.pratham.foodreview.backend.entity.Review;
+import com.pratham.foodreview.backend.repo.ReviewRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "photos.storage-root=target/test-photos")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PhotoUploadTests {
+
+	@Autowired
+	MockMvc mvc;
+
+	@Autowired
+	ReviewRepository reviewRepository;
+
+	@Autowired
+	TestData data;
+
+	@Test
+	void uploadStoresOriginalThenSwapsInDisplayVariant() throws Exception {
+		Review review = createReview();
+		UUID owner = review.getUser().getId();
+
+		BufferedImage image = new BufferedImage(2400, 1600, BufferedImage.TYPE_INT_RGB);
+		ByteArrayOutputStream png = new ByteArrayOutputStream();
+		ImageIO.write(image, "png", png);
+
+		String originalUrl = JsonPath.read(mvc.perform(multipart("/reviews/{id}/photos", review.getId())
+				.file(new MockMultipartFile("file", "dinner.png", "image/png", png.toByteArray()))
+				.with(jwt().jwt(j -> j.subject(owner.toString()))))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.photoUrls.length()").value(1))
+			.andExpect(jsonPath("$.variantsPending").value(true))
+			.andReturn().getResponse().getContentAsString(), "$.url");
+
+		Review updated = null;
+		for (int i = 0; i < 100 && updated == null; i++) {
+			Review r = reviewRepository.findById(review.getId()).orElseThrow();
+			if (r.getPhotoUrls().get(0).endsWith("_1080.jpg")) updated = r;
+			else Thread.sleep(50);
+		}
+		assertTrue(updated != null, "display variant was not attached");
+
+		String displayUrl = updated.getPhotoUrls().get(0);
+		BufferedImage display = ImageIO.read(file(displayUrl).toFile());
+		assertEquals(1080, display.getWidth());
+		String thumbnailUrl = updated.getThumbnailUrls().get(0);
+		assertEquals(displayUrl.replace("_1080.jpg", "_thumb.jpg"), thumbnailUrl);
+		assertTrue(Files.exists(file(thumbnailUrl)));
+		assertFalse(Files.exists(file(originalUrl)), "original is deleted once replaced");
+	}
+
+	@Test
+	void photoLimitHoldsUnderConcurrentUploads() throws Exception {
+		Review review = createReview();
+		List<String> existing = new ArrayList<>();
+		for (int i = 0; i < 9; i++) existing.add("/media/existing/" + i + ".jpg");
+		review.setPhotoUrls(existing);
+		reviewRepository.save(review);
+		UUID owner = review.getUser().getId();
+
+		BufferedImage image = new BufferedImage(8, 8, BufferedImage.TYPE_INT_RGB);
+		ByteArrayOutputStream png = new ByteArrayOutputStream();
+		ImageIO.write(image, "png", png);
+
+		ExecutorService pool = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<Integer>> statuses = new ArrayList<>();
+			for (int i = 0; i < 4; i++) {
+				statuses.add(pool.submit(() -> mvc.perform(multipart("/reviews/{id}/photos", review.getId())
+						.file(new MockMultipartFile("file", "x.png", "image/png", png.toByteArray()))
+						.with(jwt().jwt(j -> j.subject(owner.toString()))))
+					.andReturn().getResponse().getStatus()));
+			}
+			int ok = 0;
+			for (Future<Integer> status : statuses) if (status.get() == 200) ok++;
+			assertEquals(1, ok);
+		} finally {
+			pool.shutdown();
+		}
+		assertEquals(10, reviewRepository.findById(review.getId()).orElseThrow().getPhotoUrls().size());
+	}
+
+	@Test
+	void rejectsUploadsFromOtherUsers() throws Exception {
+		Review review = createReview();
+
+		mvc.perform(multipart("/reviews/{id}/photos", review.getId())
+				.file(new MockMultipartFile("file", "x.png", "image/png", new byte[] {1, 2, 3}))
+				.with(jwt().jwt(j -> j.subject(UUID.randomUUID().toString()))))
+			.andExpect(status().isForbidden());
+	}
+
+	private static Path file(String url) {
+		return Path.of("target/test-photos", url.substring("/media/".length()));
+	}
+
+	private Review createReview() {
+		return data.review(data.profile(), data.restaurant("Photo Spot"), 5);
+	}
+}
@@ -0,0 +1,110 @@
+package com.pratham.foodreview.backend.controller;
+
+import com.pratham.foodreview.backend.TestData;
+import com.pratham.foodreview.backend.dto.ProfilePageResponse;
+import com.pratham.foodreview.backend.entity.Profile;
+import com.pratham.foodreview.backend.entity.Restaurant;
+import com.pratham.foodreview.backend.repo.FollowRepository;
+import com.pratham.foodreview.backend.repo.ProfileRepository;
+import com.pratham.foodreview.backend.repo.ReviewRepository;
+import com.pratham.foodreview.backend.service.ProfilePageService;
+import com.pratham.foodreview.backend.service.ReviewFragmentCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ProfilePageTests {
+
+	@Autowired
+	MockMvc mvc;
+
+	@Autowired
+	ProfileRepository profileRepository;
+
+	@Autowired
+	ReviewRepository reviewRepository;
+
+	@Autowired
+	FollowRepository followRepository;
+
+	@Autowired
+	ReviewFragmentCache reviewFragmentCache;
+
+	@Autowired
+	PlatformTransactionManager transactionManager;
+
+	@Autowired
+	TestData data;
+
+	@Test
+	void pageHasProfileCountsAndFirstReviews() throws Exception {
+		Profile user = data.profile();
+		Profile fan = data.profile();
+		data.follow(fan, user);
+		Restaurant spot = data.restaurant();
+		for (int i = 0; i < 3; i++) data.review(user, spot, 4, "page review " + i, OffsetDateTime.now().plusMinutes(i));
+
+		mvc.perform(get("/users/" + user.getId() + "/page").param("limit", "2"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.username").value(user.getUsername()))
+			.andExpect(jsonPath("$.reviewCount").value(3))
+			.andExpect(jsonPath("$.followerCount").value(1))
+			.andExpect(jsonPath("$.followingCount").value(0))
+			.andExpect(jsonPath("$.reviews.length()").value(2))
+			.andExpect(jsonPath("$.reviews[0].text").value("page review 2"))
+			.andExpect(jsonPath("$.hasMoreReviews").value(true))
+			.andExpect(jsonPath("$.unavailable").isEmpty());
+	}
+
+	@Test
+	void unknownUserIsNotFound() throws Exception {
+		mvc.perform(get("/users/" + UUID.randomUUID() + "/page"))
+			.andExpect(status().isNotFound());
+	}
+
+	@Test
+	void lateCountsAreLeftOut() {
+		Profile user = data.profile();
+		data.review(user, data.restaurant(), "still shown");
+		FollowRepository slowFollows = (FollowRepository) Proxy.newProxyInstance(
+			FollowRepository.class.getClassLoader(), new Class<?>[] {FollowRepository.class},
+			(proxy, method, args) -> {
+				if (method.getName().equals("countByFollowing_Id")) Thread.sleep(500);
+				try {
+					return method.invoke(followRepository, args);
+				} catch (InvocationTargetException e) {
+					throw e.getCause();
+				}
+			});
+		ProfilePageService service = new ProfilePageService(profileRepository, reviewRepository, slowFollows,
+			reviewFragmentCache, transactionManager, 4, 16, 1000, 50, 1000, 50);
+
+		ProfilePageResponse page = service.getPage(user.getId(), 20);
+
+		assertEquals(user.getUsername(), page.username());
+		assertNull(page.reviewCount());
+		assertNull(page.followerCount());
+		assertNotNull(page.reviews());
+		assertEquals(List.of("counts"), page.unavailable());
+	}
+}
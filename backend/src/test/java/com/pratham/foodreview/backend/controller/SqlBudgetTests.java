@@ -0,0 +1,143 @@
+package com.pratham.foodreview.backend.controller;
+
+import com.pratham.foodreview.backend.SqlBudget;
+import com.pratham.foodreview.backend.TestData;
+import com.pratham.foodreview.backend.config.RequestSqlStats;
+import com.pratham.foodreview.backend.entity.Profile;
+import com.pratham.foodreview.backend.entity.Restaurant;
+import com.pratham.foodreview.backend.service.ReviewFragmentCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Statement budgets for hot read endpoints. Each fixture has several authors and restaurants, so
+// a per-row lazy load or count pushes the endpoint over its budget and fails the build.
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SqlBudgetTests {
+
+	private static final int AUTHORS = 6;
+
+	@Autowired
+	MockMvc mvc;
+
+	@Autowired
+	RequestSqlStats requestSqlStats;
+
+	@Autowired
+	ReviewFragmentCache reviewFragmentCache;
+
+	@Autowired
+	TestData data;
+
+	Profile reader;
+	Restaurant shared;
+
+	@BeforeEach
+	void seed() {
+		reader = data.profile();
+		shared = data.restaurant();
+		for (int i = 0; i < AUTHORS; i++) {
+			Profile author = data.profile();
+			data.follow(reader, author);
+			data.follow(author, reader);
+			data.review(author, data.restaurant());
+			data.review(author, shared);
+			data.review(reader, data.restaurant());
+		}
+		// Cached fragments would hide the mapping queries
+		reviewFragmentCache.clear();
+	}
+
+	@Test
+	void friendsFeed() throws Exception {
+		mvc.perform(get("/reviewfeed/feed").with(jwt().jwt(j -> j.subject(reader.getId().toString()))))
+			.andExpect(status().isOk())
+			.andExpect(SqlBudget.atMost(4))
+			.andExpect(SqlBudget.noRepeatedStatements());
+	}
+
+	@Test
+	void normalizedFriendsFeed() throws Exception {
+		mvc.perform(get("/reviewfeed/feed").param("shape", "normalized")
+				.with(jwt().jwt(j -> j.subject(reader.getId().toString()))))
+			.andExpect(status().isOk())
+			.andExpect(SqlBudget.atMost(4))
+			.andExpect(SqlBudget.noRepeatedStatements());
+	}
+
+	@Test
+	void restaurantDetail() throws Exception {
+		mvc.perform(get("/restaurants/" + shared.getId()))
+			.andExpect(status().isOk())
+			.andExpect(SqlBudget.atMost(3))
+			.andExpect(SqlBudget.noRepeatedStatements());
+		mvc.perform(get("/reviews/my-reviews").param("shape", "normalized")
+				.with(jwt().jwt(j -> j.subject(reader.getId().toString()))))
+			.andExpect(status().isOk())
+			.andExpect(SqlBudget.atMost(3))
+			.andExpect(SqlBudget.noRepeatedStatements());
+	}
+
+	@Test
+	void trending() throws Exception {
+		mvc.perform(get("/restaurants/trending"))
+			.andExpect(status().isOk())
+			.andExpect(SqlBudget.atMost(2))
+			.andExpect(SqlBudget.noRepeatedStatements());
+	}
+
+	@Test
+	void profilePages() throws Exception {
+		mvc.perform(get("/users/" + reader.getId()))
+			.andExpect(status().isOk())
+			.andExpect(SqlBudget.atMost(4));
+		mvc.perform(get("/reviews/my-reviews").with(jwt().jwt(j -> j.subject(reader.getId().toString()))))
+			.andExpect(status().isOk())
+			.andExpect(SqlBudget.atMost(3))
+			.andExpect(SqlBudget.noRepeatedStatements());
+		mvc.perform(get("/reviews/my-reviews").param("shape", "normalized")
+				.with(jwt().jwt(j -> j.subject(reader.getId().toString()))))
+			.andExpect(status().isOk())
+			.andExpect(SqlBudget.atMost(3))
+			.andExpect(SqlBudget.noRepeatedStatements());
+	}
+
+	@Test
+	void repeatedShapesAreFlagged() {
+		RequestSqlStats.Window window = requestSqlStats.begin();
+		RequestSqlStats.Inspector inspector = new RequestSqlStats.Inspector();
+		for (int i = 0; i < 7; i++) {
+			inspector.inspect("select count(*) from reviews r1_0 where r1_0.restaurant_id = '" + UUID.randomUUID() + "'");
+		}
+		inspector.inspect("select p1_0.id from profiles p1_0 where p1_0.id in (?, ?, ?)");
+		inspector.inspect("select p1_0.id from profiles p1_0 where p1_0.id in (?)");
+		requestSqlStats.end(window, "GET /test", true);
+
+		assertEquals(9, window.statements());
+		Map.Entry<String, Integer> worst = window.mostRepeated();
+		assertEquals(7, worst.getValue());
+		assertEquals("select count(*) from reviews r1_0 where r1_0.restaurant_id = ?", worst.getKey());
+	}
+
+	@Test
+	void headersReportEveryRequest() throws Exception {
+		mvc.perform(get("/health"))
+			.andExpect(header().string("X-Sql-Count", "0"))
+			.andExpect(header().exists("X-Sql-Time-Ms"));
+	}
+}
@@ -0,0 +1,126 @@
+package com.pratham.foodreview.backend.controller;
+
+import com.pratham.foodreview.backend.TestData;
+import com.pratham.foodreview.backend.entity.Profile;
+import com.pratham.foodreview.backend.entity.Restaurant;
+import com.pratham.foodreview.backend.service.InvalidationBus;
+import com.pratham.foodreview.backend.service.SuggestionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SuggestionTests {
+
+	@Autowired
+	MockMvc mvc;
+
+	@Autowired
+	SuggestionService suggestionService;
+
+	@Autowired
+	InvalidationBus invalidationBus;
+
+	@Autowired
+	TestData data;
+
+	@Test
+	void ranksFriendsOfFriendsAndFollowsUpdateIncrementally() throws Exception {
+		Profile me = data.profile();
+		Profile b = data.profile();
+		Profile c = data.profile();
+		Profile twoMutual = data.profile();
+		Profile oneMutual = data.profile();
+		follow(me, b);
+		follow(me, c);
+		follow(b, twoMutual);
+		follow(c, twoMutual);
+		follow(b, oneMutual);
+
+		mvc.perform(get("/users/suggestions").with(as(me)))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.length()").value(2))
+			.andExpect(jsonPath("$[0].id").value(twoMutual.getId().toString()))
+			.andExpect(jsonPath("$[0].mutualFollows").value(2))
+			.andExpect(jsonPath("$[1].id").value(oneMutual.getId().toString()));
+
+		// Following someone removes them from suggestions without a rebuild
+		follow(me, twoMutual);
+		mvc.perform(get("/users/suggestions").with(as(me)))
+			.andExpect(jsonPath("$[*].id", not(hasItem(twoMutual.getId().toString()))));
+
+		mvc.perform(delete("/users/" + twoMutual.getId() + "/follow").with(as(me)))
+			.andExpect(status().isNoContent());
+		awaitLocalInvalidations();
+		mvc.perform(get("/users/suggestions").with(as(me)))
+			.andExpect(jsonPath("$[0].id").value(twoMutual.getId().toString()));
+	}
+
+	@Test
+	void boostsPeopleWhoReviewedTheSamePlaces() throws Exception {
+		Profile me = data.profile();
+		Profile sameTaste = data.profile();
+		Restaurant spot = data.restaurant();
+		data.review(me, spot);
+		data.review(sameTaste, spot);
+		suggestionService.rebuild();
+
+		mvc.perform(get("/users/suggestions").with(as(me)))
+			.andExpect(jsonPath("$[0].id").value(sameTaste.getId().toString()))
+			.andExpect(jsonPath("$[0].mutualFollows").value(0))
+			.andExpect(jsonPath("$[0].sharedRestaurants").value(1));
+	}
+
+	@Test
+	void followRequiresAuthAndRejectsSelf() throws Exception {
+		Profile me = data.profile();
+		mvc.perform(post("/users/" + me.getId() + "/follow"))
+			.andExpect(status().isUnauthorized());
+		mvc.perform(post("/users/" + me.getId() + "/follow").with(as(me)))
+			.andExpect(status().isBadRequest());
+		mvc.perform(post("/users/" + UUID.randomUUID() + "/follow").with(as(me)))
+			.andExpect(status().isNotFound());
+	}
+
+	private void follow(Profile follower, Profile following) throws Exception {
+		mvc.perform(post("/users/" + following.getId() + "/follow").with(as(follower)))
+			.andExpect(status().isNoContent());
+		awaitLocalInvalidations();
+	}
+
+	// Follow edges reach the suggestion graph on the invalidation bus's thread
+	private void awaitLocalInvalidations() {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while ((int) invalidationBus.stats().get("localPending") > 0) {
+			assertTrue(System.nanoTime() < deadline, "local invalidations did not finish");
+			try {
+				Thread.sleep(10);
+			} catch (InterruptedException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+	}
+
+	private static RequestPostProcessor as(Profile p) {
+		return jwt().jwt(j -> j.subject(p.getId().toString()));
+	}
+}
@@ -0,0 +1,142 @@
+package com.pratham.foodreview.backend.controller;
+
+import com.pratham.foodreview.backend.entity.Profile;
+import com.pratham.foodreview.backend.entity.Restaurant;
+import com.pratham.foodreview.backend.repo.ProfileRepository;
+import com.pratham.foodreview.backend.repo.RestaurantRepository;
+import com.pratham.foodreview.backend.service.TypeaheadIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.lessThan;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Made-up names keep restaurants created by other tests out of the results.
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TypeaheadTests {
+
+	@Autowired
+	MockMvc mvc;
+
+	@Autowired
+	TypeaheadIndex typeaheadIndex;
+
+	@Autowired
+	ProfileRepository profileRepository;
+
+	@Autowired
+	RestaurantRepository restaurantRepository;
+
+	@BeforeEach
+	void seed() {
+		if (restaurantRepository.findAll().stream().noneMatch(r -> "typeahead-test".equals(r.getProvider()))) {
+			restaurant("Zephyrine Pizzeria", "12 Harbour St", List.of("Pizza", "Italian"), 40.0, -83.0);
+			restaurant("Zephyrine Noodle Bar", "4 Mill Rd", List.of("Noodles"), 40.0, -83.0);
+			restaurant("Quorvan Dumplings", "1 North Ave", List.of("Chinese"), 40.0, -83.0);
+			restaurant("Quorvan Dumplings", "9 South Ave", List.of("Chinese"), 41.0, -83.0);
+		}
+		typeaheadIndex.rebuild();
+	}
+
+	@Test
+	void prefixesOfNameWordsMatch() throws Exception {
+		mvc.perform(get("/restaurants/typeahead").param("q", "zeph"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.length()").value(2));
+
+		mvc.perform(get("/restaurants/typeahead").param("q", "Zéphyrine pi"))
+			.andExpect(jsonPath("$.length()").value(1))
+			.andExpect(jsonPath("$[0].name").value("Zephyrine Pizzeria"))
+			.andExpect(jsonPath("$[0].provider").value("typeahead-test"));
+	}
+
+	@Test
+	void categoriesAndAddressesMatchButNamesRankFirst() throws Exception {
+		mvc.perform(get("/restaurants/typeahead").param("q", "zephyrine italian"))
+			.andExpect(jsonPath("$.length()").value(1))
+			.andExpect(jsonPath("$[0].categories[1]").value("Italian"));
+
+		mvc.perform(get("/restaurants/typeahead").param("q", "zephyrine mill"))
+			.andExpect(jsonPath("$.length()").value(1))
+			.andExpect(jsonPath("$[0].name").value("Zephyrine Noodle Bar"));
+	}
+
+	@Test
+	void typosWithinOneEditStillMatch() throws Exception {
+		// transposition, substitution, and a typo in a word that is still being typed
+		for (String q : List.of("zehpyrine pizzeria", "zephyrime pizzeria", "zephyrine pizx")) {
+			mvc.perform(get("/restaurants/typeahead").param("q", q))
+				.andExpect(jsonPath("$[0].name").value("Zephyrine Pizzeria"));
+		}
+		mvc.perform(get("/restaurants/typeahead").param("q", "zxqwyrine"))
+			.andExpect(jsonPath("$.length()").value(0));
+	}
+
+	@Test
+	void nearbyRestaurantsRankFirstWhenLocationIsGiven() throws Exception {
+		mvc.perform(get("/restaurants/typeahead").param("q", "quorvan").param("lat", "41.01").param("lng", "-83.0"))
+			.andExpect(jsonPath("$.length()").value(2))
+			.andExpect(jsonPath("$[0].address").value("9 South Ave"))
+			.andExpect(jsonPath("$[0].distanceKm").value(lessThan(2.0)));
+
+		mvc.perform(get("/restaurants/typeahead").param("q", "quorvan").param("lat", "40.01").param("lng", "-83.0"))
+			.andExpect(jsonPath("$[0].address").value("1 North Ave"));
+	}
+
+	@Test
+	void restaurantsCreatedWithAReviewAreFoundWithoutRebuild() throws Exception {
+		Profile user = new Profile();
+		user.setId(UUID.randomUUID());
+		user.setUsername("typeahead_" + user.getId());
+		user.setCreatedAt(OffsetDateTime.now());
+		profileRepository.save(user);
+
+		String name = "Blixtrum Tacos " + UUID.randomUUID().toString().substring(0, 8);
+		String body = "{\"provider\":\"typeahead-live\",\"providerId\":\"" + UUID.randomUUID() + "\",\"name\":\"" + name + "\","
+			+ "\"address\":\"7 Quay St\",\"lat\":40.0,\"lng\":-83.0,\"rating\":4,\"text\":\"good\"}";
+		mvc.perform(post("/reviews").contentType(MediaType.APPLICATION_JSON).content(body)
+				.with(jwt().jwt(j -> j.subject(user.getId().toString()))))
+			.andExpect(status().isOk());
+
+		mvc.perform(get("/restaurants/typeahead").param("q", name.toLowerCase()))
+			.andExpect(jsonPath("$.length()").value(1))
+			.andExpect(jsonPath("$[0].name").value(name));
+	}
+
+	@Test
+	void rejectsBadLimits() throws Exception {
+		mvc.perform(get("/restaurants/typeahead").param("q", "zeph").param("limit", "0"))
+			.andExpect(status().isBadRequest());
+		mvc.perform(get("/restaurants/typeahead").param("q", "zeph").param("lat", "40"))
+			.andExpect(status().isBadRequest());
+	}
+
+	private void restaurant(String name, String address, List<String> categories, double lat, double lng) {
+		Restaurant r = new Restaurant();
+		r.setProvider("typeahead-test");
+		r.setProviderId(UUID.randomUUID().toString());
+		r.setName(name);
+		r.setAddress(address);
+		r.setCategories(categories);
+		r.setLat(lat);
+		r.setLng(lng);
+		r.setCreatedAt(OffsetDateTime.now());
+		restaurantRepository.save(r);
+	}
+}
@@ -0,0 +1,128 @@
+package com.pratham.foodreview.backend.controller;
+
+import com.pratham.foodreview.backend.TestData;
+import com.pratham.foodreview.backend.entity.Profile;
+import com.pratham.foodreview.backend.entity.Restaurant;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+	"spring.jpa.properties.hibernate.generate_statistics=true",
+	"users.batch-max-ids=10"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class UserBatchTests {
+
+	@Autowired
+	MockMvc mvc;
+
+	@Autowired
+	EntityManagerFactory emf;
+
+	@Autowired
+	TestData data;
+
+	@Test
+	void batchLookupKeepsOrderSkipsUnknownAndCounts() throws Exception {
+		Profile a = data.profile();
+		Profile b = data.profile();
+		data.follow(a, b);
+		data.review(a, data.restaurant());
+		data.review(a, data.restaurant());
+
+		mvc.perform(get("/users").param("ids", b.getId() + "," + UUID.randomUUID() + "," + a.getId()))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.length()").value(2))
+			.andExpect(jsonPath("$[0].id").value(b.getId().toString()))
+			.andExpect(jsonPath("$[0].followerCount").value(1))
+			.andExpect(jsonPath("$[0].reviewCount").value(0))
+			.andExpect(jsonPath("$[1].id").value(a.getId().toString()))
+			.andExpect(jsonPath("$[1].followingCount").value(1))
+			.andExpect(jsonPath("$[1].reviewCount").value(2));
+	}
+
+	@Test
+	void batchLookupUsesConstantQueries() throws Exception {
+		assertEquals(statementsForUsers(2), statementsForUsers(8));
+	}
+
+	@Test
+	void rejectsOversizedBatches() throws Exception {
+		List<String> ids = new ArrayList<>();
+		for (int i = 0; i < 11; i++) ids.add(UUID.randomUUID().toString());
+		mvc.perform(get("/users").param("ids", String.join(",", ids)))
+			.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void feedMappingLoadsAuthorsAndRestaurantsInBatches() throws Exception {
+		assertEquals(statementsForFeed(2), statementsForFeed(6));
+	}
+
+	@Test
+	void normalizedFeedReferencesSideTables() throws Exception {
+		Profile reader = data.profile();
+		Profile author = data.profile();
+		data.follow(reader, author);
+		Restaurant spot = data.restaurant("Batch Spot");
+		data.review(author, spot);
+		data.review(author, spot);
+
+		mvc.perform(get("/reviewfeed/feed").param("shape", "normalized")
+				.with(jwt().jwt(j -> j.subject(reader.getId().toString()))))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.reviews.length()").value(2))
+			.andExpect(jsonPath("$.reviews[0].userId").value(author.getId().toString()))
+			.andExpect(jsonPath("$.reviews[0].userName").doesNotExist())
+			.andExpect(jsonPath("$.users.length()").value(1))
+			.andExpect(jsonPath("$.restaurants['" + spot.getId() + "'].name").value("Batch Spot"));
+	}
+
+	private long statementsForUsers(int n) throws Exception {
+		List<String> ids = new ArrayList<>();
+		for (int i = 0; i < n; i++) {
+			Profile p = data.profile();
+			data.review(p, data.restaurant());
+			ids.add(p.getId().toString());
+		}
+		Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+		stats.clear();
+		mvc.perform(get("/users").param("ids", String.join(",", ids)))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.length()").value(n));
+		return stats.getPrepareStatementCount();
+	}
+
+	private long statementsForFeed(int authors) throws Exception {
+		Profile reader = data.profile();
+		for (int i = 0; i < authors; i++) {
+			Profile author = data.profile();
+			data.follow(reader, author);
+			data.review(author, data.restaurant());
+		}
+		Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+		stats.clear();
+		mvc.perform(get("/reviewfeed/feed").with(jwt().jwt(j -> j.subject(reader.getId().toString()))))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.length()").value(authors));
+		return stats.getPrepareStatementCount();
+	}
+}
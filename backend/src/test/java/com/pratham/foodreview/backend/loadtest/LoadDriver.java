@@ -0,0 +1,154 @@
+package com.pratham.foodreview.backend.loadtest;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+
+// Closed-loop load driver replaying a mobile traffic mix. Each worker thread records latencies
+// into its own arrays so the hot loop never contends; they are merged once at the end.
+// Bearer tokens are the caller's profile id, which the test JwtDecoder accepts as the subject.
+public class LoadDriver {
+
+	public record Endpoint(String name, int weight, BiFunction<Random, UUID, String> path) {}
+
+	private final HttpClient client = HttpClient.newBuilder()
+		.connectTimeout(Duration.ofSeconds(5))
+		.build();
+	private final String baseUrl;
+	private final List<Endpoint> mix;
+	private final SyntheticDataGenerator.Dataset data;
+	private final int totalWeight;
+
+	public LoadDriver(String baseUrl, SyntheticDataGenerator.Dataset data) {
+		this(baseUrl, data, defaultMix(data));
+	}
+
+	public LoadDriver(String baseUrl, SyntheticDataGenerator.Dataset data, List<Endpoint> mix) {
+		this.baseUrl = baseUrl;
+		this.data = data;
+		this.mix = mix;
+		this.totalWeight = mix.stream().mapToInt(Endpoint::weight).sum();
+	}
+
+	public static List<Endpoint> defaultMix(SyntheticDataGenerator.Dataset data) {
+		// Restaurant views follow the same skew as reviews so the hot spots get hammered
+		SyntheticDataGenerator.Zipf restaurants = new SyntheticDataGenerator.Zipf(data.restaurantIds().size(), 1.05, new Random(7));
+		return List.of(
+			new Endpoint("GET /reviewfeed/feed", 30, (rnd, user) -> "/reviewfeed/feed"),
+			new Endpoint("GET /restaurants/{id}", 25, (rnd, user) -> {
+				synchronized (restaurants) {
+					return "/restaurants/" + data.restaurantIds().get(restaurants.next());
+				}
+			}),
+			new Endpoint("GET /me", 15, (rnd, user) -> "/me"),
+			new Endpoint("GET /users/search", 20, (rnd, user) -> {
+				String name = data.usernames().get(rnd.nextInt(data.usernames().size()));
+				return "/users/search?q=" + URLEncoder.encode(name.substring(0, 1 + rnd.nextInt(3)), StandardCharsets.UTF_8);
+			}),
+			new Endpoint("GET /restaurants/trending", 10, (rnd, user) -> "/restaurants/trending")
+		);
+	}
+
+	public LoadReport run(String label, int threads, Duration warmup, Duration duration) throws Exception {
+		long warmupEnd = System.nanoTime() + warmup.toNanos();
+		long end = warmupEnd + duration.toNanos();
+
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		List<Future<Recorder>> futures = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			long seed = 1000L + t;
+			futures.add(pool.submit(() -> worker(new Random(seed), warmupEnd, end)));
+		}
+		List<Recorder> recorders = new ArrayList<>();
+		for (Future<Recorder> f : futures) recorders.add(f.get());
+		pool.shutdown();
+
+		double seconds = duration.toNanos() / 1e9;
+		Map<String, LoadReport.EndpointStats> stats = new LinkedHashMap<>();
+		for (int e = 0; e < mix.size(); e++) {
+			int n = 0;
+			long errors = 0;
+			for (Recorder r : recorders) {
+				n += r.counts[e];
+				errors += r.errors[e];
+			}
+			long[] merged = new long[n];
+			int pos = 0;
+			for (Recorder r : recorders) {
+				System.arraycopy(r.latencies[e], 0, merged, pos, r.counts[e]);
+				pos += r.counts[e];
+			}
+			stats.put(mix.get(e).name(), LoadReport.EndpointStats.of(merged, n, errors, seconds));
+		}
+		return new LoadReport(label, seconds, stats);
+	}
+
+	private Recorder worker(Random random, long warmupEnd, long end) {
+		Recorder recorder = new Recorder(mix.size());
+		while (true) {
+			long start = System.nanoTime();
+			if (start >= end) break;
+
+			int e = pick(random);
+			UUID user = data.profileIds().get(random.nextInt(data.profileIds().size()));
+			HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + mix.get(e).path().apply(random, user)))
+				.header("Authorization", "Bearer " + user)
+				.timeout(Duration.ofSeconds(30))
+				.GET()
+				.build();
+			boolean ok;
+			try {
+				HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+				ok = response.statusCode() < 400;
+			} catch (Exception ex) {
+				ok = false;
+			}
+			if (start >= warmupEnd) recorder.record(e, System.nanoTime() - start, ok);
+		}
+		return recorder;
+	}
+
+	private int pick(Random random) {
+		int r = random.nextInt(totalWeight);
+		for (int e = 0; e < mix.size(); e++) {
+			r -= mix.get(e).weight();
+			if (r < 0) return e;
+		}
+		return mix.size() - 1;
+	}
+
+	private static class Recorder {
+		final long[][] latencies;
+		final int[] counts;
+		final long[] errors;
+
+		Recorder(int endpoints) {
+			latencies = new long[endpoints][1024];
+			counts = new int[endpoints];
+			errors = new long[endpoints];
+		}
+
+		void record(int e, long nanos, boolean ok) {
+			if (counts[e] == latencies[e].length) {
+				latencies[e] = Arrays.copyOf(latencies[e], latencies[e].length * 2);
+			}
+			latencies[e][counts[e]++] = nanos;
+			if (!ok) errors[e]++;
+		}
+	}
+}
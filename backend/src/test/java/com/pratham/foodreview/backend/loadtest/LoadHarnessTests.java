@@ -0,0 +1,101 @@
+package com.pratham.foodreview.backend.loadtest;
+
+import com.pratham.foodreview.backend.service.RatingService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ActiveProfilesResolver;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Full load run, opt-in:
+//   mvn test -Dtest=LoadHarnessTests -Dloadtest=true [-Dloadtest.profiles=96000] ...
+// Sizes, duration and threads come from loadtest.* system properties. The report is written to
+// loadtest.report and, if loadtest.baseline points at an earlier report, compared against it.
+// Point loadtest.spring-profiles at a profile with a local Postgres to run against real plans.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+	properties = {"rate-limit.enabled=false", "spring.jpa.properties.hibernate.jdbc.batch_size=100"})
+@ActiveProfiles(resolver = LoadHarnessTests.ProfileResolver.class)
+@Import(LoadTestConfig.class)
+class LoadHarnessTests {
+
+	private static final Logger log = LoggerFactory.getLogger(LoadHarnessTests.class);
+
+	@LocalServerPort
+	int port;
+
+	@Autowired
+	EntityManager em;
+
+	@Autowired
+	PlatformTransactionManager transactionManager;
+
+	@Autowired
+	RatingService ratingService;
+
+	@Test
+	@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+	void replayMobileTrafficMix() throws Exception {
+		SyntheticDataGenerator.Params params = new SyntheticDataGenerator.Params(
+			Integer.getInteger("loadtest.users", 2000),
+			Integer.getInteger("loadtest.restaurants", 300),
+			Integer.getInteger("loadtest.reviews", 20000),
+			Integer.getInteger("loadtest.mean-follows", 20),
+			Long.getLong("loadtest.seed", 42L),
+			40.7128, -74.0060);
+		long genStart = System.nanoTime();
+		SyntheticDataGenerator.Dataset data = new SyntheticDataGenerator(em, transactionManager).generate(params);
+		// The generator persists reviews directly, so build the rating aggregates in one pass
+		ratingService.rebuildAll();
+		log.info("Generated {} profiles, {} follows, {} restaurants, {} reviews in {} ms",
+			data.profileIds().size(), data.follows(), data.restaurantIds().size(), data.reviews(),
+			(System.nanoTime() - genStart) / 1_000_000);
+
+		LoadReport report = new LoadDriver("http://localhost:" + port, data).run(
+			String.format("users=%d restaurants=%d reviews=%d threads=%d", params.profiles(), params.restaurants(),
+				params.reviews(), Integer.getInteger("loadtest.threads", 8)),
+			Integer.getInteger("loadtest.threads", 8),
+			Duration.ofSeconds(Long.getLong("loadtest.warmup-seconds", 5)),
+			Duration.ofSeconds(Long.getLong("loadtest.duration-seconds", 20)));
+
+		Path out = Path.of(System.getProperty("loadtest.report", "target/loadtest/report.tsv"));
+		report.write(out);
+		log.info("Load report written to {}:\n{}", out, Files.readString(out));
+
+		String baseline = System.getProperty("loadtest.baseline");
+		if (baseline != null) {
+			log.info("Change against {}:\n{}", baseline, report.compareTo(LoadReport.read(Path.of(baseline))));
+		}
+	}
+
+	// Small always-on run so the generator and driver don't rot between real load runs.
+	@Test
+	void smokeRun() throws Exception {
+		SyntheticDataGenerator.Dataset data = new SyntheticDataGenerator(em, transactionManager)
+			.generate(new SyntheticDataGenerator.Params(40, 10, 200, 5, 7L, 40.7128, -74.0060));
+		ratingService.rebuildAll();
+		LoadReport report = new LoadDriver("http://localhost:" + port, data)
+			.run("smoke", 2, Duration.ZERO, Duration.ofSeconds(1));
+
+		report.endpoints().forEach((name, stats) -> assertEquals(0, stats.errors(), name + " returned errors"));
+	}
+
+	static class ProfileResolver implements ActiveProfilesResolver {
+		@Override
+		public String[] resolve(Class<?> testClass) {
+			return System.getProperty("loadtest.spring-profiles", "test").split(",");
+		}
+	}
+}
@@ -0,0 +1,80 @@
+package com.pratham.foodreview.backend.loadtest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Per-endpoint latency/throughput summary, written as a tab-separated file so two runs can be
+// diffed or compared with compareTo().
+public record LoadReport(String label, double seconds, Map<String, EndpointStats> endpoints) {
+
+	public record EndpointStats(long count, long errors, double throughput,
+								double p50Ms, double p99Ms, double p999Ms, double maxMs) {
+
+		static EndpointStats of(long[] latenciesNanos, int n, long errors, double seconds) {
+			long[] sorted = Arrays.copyOf(latenciesNanos, n);
+			Arrays.sort(sorted);
+			return new EndpointStats(n, errors, n / seconds,
+				percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 0.999),
+				n == 0 ? 0 : sorted[n - 1] / 1e6);
+		}
+
+		private static double percentile(long[] sorted, double q) {
+			if (sorted.length == 0) return 0;
+			int idx = (int) Math.ceil(q * sorted.length) - 1;
+			return sorted[Math.max(0, Math.min(sorted.length - 1, idx))] / 1e6;
+		}
+	}
+
+	private static final String HEADER = "endpoint\tcount\terrors\tthroughput_rps\tp50_ms\tp99_ms\tp999_ms\tmax_ms";
+
+	public void write(Path file) throws IOException {
+		if (file.getParent() != null) Files.createDirectories(file.getParent());
+		StringBuilder sb = new StringBuilder();
+		sb.append("# ").append(label).append(String.format(" duration=%.1fs%n", seconds));
+		sb.append(HEADER).append('\n');
+		endpoints.forEach((name, s) -> sb.append(String.format("%s\t%d\t%d\t%.1f\t%.3f\t%.3f\t%.3f\t%.3f%n",
+			name, s.count(), s.errors(), s.throughput(), s.p50Ms(), s.p99Ms(), s.p999Ms(), s.maxMs())));
+		Files.writeString(file, sb);
+	}
+
+	public static LoadReport read(Path file) throws IOException {
+		List<String> lines = Files.readAllLines(file);
+		Map<String, EndpointStats> endpoints = new LinkedHashMap<>();
+		String label = "";
+		for (String line : lines) {
+			if (line.startsWith("#")) {
+				label = line.substring(1).trim();
+				continue;
+			}
+			if (line.isBlank() || line.startsWith("endpoint\t")) continue;
+			String[] f = line.split("\t");
+			endpoints.put(f[0], new EndpointStats(Long.parseLong(f[1]), Long.parseLong(f[2]),
+				Double.parseDouble(f[3]), Double.parseDouble(f[4]), Double.parseDouble(f[5]),
+				Double.parseDouble(f[6]), Double.parseDouble(f[7])));
+		}
+		return new LoadReport(label, 0, endpoints);
+	}
+
+	// Relative change per endpoint against a baseline run; negative latency deltas are improvements.
+	public String compareTo(LoadReport baseline) {
+		StringBuilder sb = new StringBuilder("endpoint\tthroughput\tp50\tp99\tp999\n");
+		endpoints.forEach((name, s) -> {
+			EndpointStats b = baseline.endpoints().get(name);
+			if (b == null) return;
+			sb.append(String.format("%s\t%s\t%s\t%s\t%s%n", name,
+				delta(s.throughput(), b.throughput()), delta(s.p50Ms(), b.p50Ms()),
+				delta(s.p99Ms(), b.p99Ms()), delta(s.p999Ms(), b.p999Ms())));
+		});
+		return sb.toString();
+	}
+
+	private static String delta(double now, double before) {
+		if (before == 0) return "n/a";
+		return String.format("%+.1f%%", (now - before) / before * 100);
+	}
+}
@@ -0,0 +1,24 @@
+package com.pratham.foodreview.backend.loadtest;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.time.Instant;
+
+// Replaces the Supabase JWKS decoder: the bearer token itself is taken as the subject, so
+// synthetic users can call authenticated endpoints with "Authorization: Bearer <profileId>".
+@TestConfiguration
+public class LoadTestConfig {
+
+	@Bean
+	JwtDecoder jwtDecoder() {
+		return token -> Jwt.withTokenValue(token)
+			.header("alg", "none")
+			.subject(token)
+			.issuedAt(Instant.now())
+			.expiresAt(Instant.now().plusSeconds(3600))
+			.build();
+	}
+}
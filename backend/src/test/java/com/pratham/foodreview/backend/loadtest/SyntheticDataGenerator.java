@@ -0,0 +1,187 @@
+package com.pratham.foodreview.backend.loadtest;
+
+import com.pratham.foodreview.backend.entity.Follow;
+import com.pratham.foodreview.backend.entity.FollowId;
+import com.pratham.foodreview.backend.entity.Profile;
+import com.pratham.foodreview.backend.entity.Restaurant;
+import com.pratham.foodreview.backend.entity.Review;
+import jakarta.persistence.EntityManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.IntConsumer;
+
+// Seeded synthetic dataset: profiles with a power-law follow graph, restaurants scattered around
+// a city centre, and reviews whose restaurant popularity is Zipf-distributed so a few spots go
+// "viral". Works against the H2 test profile or a local Postgres through the normal entities.
+public class SyntheticDataGenerator {
+
+	private static final String[] CATEGORIES = {"pizza", "ramen", "tacos", "sushi", "burgers", "thai", "indian", "bakery", "vegan", "bbq"};
+	private static final String[] DISHES = {"margherita", "tonkotsu", "al pastor", "omakase", "smash burger", "pad see ew",
+		"butter chicken", "croissant", "buddha bowl", "brisket", "carbonara", "pho", "dumplings", "falafel"};
+	private static final String[] WORDS = {"great", "solid", "crispy", "slow service", "would return", "overpriced",
+		"hidden gem", "fresh", "salty", "generous portions", "cozy", "loud"};
+
+	public record Params(int profiles, int restaurants, int reviews, int meanFollows, long seed,
+						 double centerLat, double centerLng) {
+		public static Params of(int profiles, int restaurants, int reviews) {
+			return new Params(profiles, restaurants, reviews, 20, 42L, 40.7128, -74.0060);
+		}
+	}
+
+	public record Dataset(List<UUID> profileIds, List<String> usernames, List<UUID> restaurantIds,
+						  int follows, int reviews) {}
+
+	private final EntityManager em;
+	private final TransactionTemplate tx;
+
+	public SyntheticDataGenerator(EntityManager em, PlatformTransactionManager transactionManager) {
+		this.em = em;
+		this.tx = new TransactionTemplate(transactionManager);
+	}
+
+	public Dataset generate(Params params) {
+		Random random = new Random(params.seed());
+		String prefix = Long.toString(params.seed(), 36) + "_";
+		OffsetDateTime now = OffsetDateTime.now();
+
+		List<UUID> profileIds = new ArrayList<>(params.profiles());
+		List<String> usernames = new ArrayList<>(params.profiles());
+		inBatches(params.profiles(), i -> {
+			Profile p = new Profile();
+			p.setId(new UUID(params.seed(), i));
+			p.setUsername(username(random, prefix, i));
+			p.setDisplayName("User " + i);
+			p.setBio("synthetic profile " + i);
+			p.setCreatedAt(now.minusDays(random.nextInt(365)));
+			em.persist(p);
+			profileIds.add(p.getId());
+			usernames.add(p.getUsername());
+		});
+
+		List<UUID> restaurantIds = new ArrayList<>(params.restaurants());
+		inBatches(params.restaurants(), i -> {
+			Restaurant r = new Restaurant();
+			r.setProvider("synthetic");
+			r.setProviderId(prefix + "place_" + i);
+			r.setName(CATEGORIES[i % CATEGORIES.length] + " spot " + i);
+			r.setAddress((100 + i) + " Synthetic Ave");
+			r.setLat(params.centerLat() + random.nextGaussian() * 0.05);
+			r.setLng(params.centerLng() + random.nextGaussian() * 0.05);
+			r.setCategories(List.of(CATEGORIES[i % CATEGORIES.length]));
+			r.setPriceTier(1 + random.nextInt(4));
+			r.setCreatedAt(now.minusDays(random.nextInt(365)));
+			r.setUpdatedAt(r.getCreatedAt());
+			em.persist(r);
+			restaurantIds.add(r.getId());
+		});
+
+		// Out-degree is Pareto distributed and followees are picked by Zipf rank, so a handful
+		// of accounts end up with most of the followers.
+		Zipf popularUsers = new Zipf(params.profiles(), 1.1, random);
+		int[] follows = {0};
+		inBatches(params.profiles(), i -> {
+			int degree = paretoDegree(random, params.meanFollows(), params.profiles() - 1);
+			Set<Integer> picked = new HashSet<>();
+			for (int attempts = 0; picked.size() < degree && attempts < degree * 4; attempts++) {
+				int target = popularUsers.next();
+				if (target == i || !picked.add(target)) continue;
+				Follow f = new Follow();
+				f.setId(new FollowId(profileIds.get(i), profileIds.get(target)));
+				f.setFollower(em.getReference(Profile.class, profileIds.get(i)));
+				f.setFollowing(em.getReference(Profile.class, profileIds.get(target)));
+				f.setCreatedAt(now.minusDays(random.nextInt(365)));
+				em.persist(f);
+				follows[0]++;
+			}
+		});
+
+		Zipf popularRestaurants = new Zipf(params.restaurants(), 1.05, random);
+		inBatches(params.reviews(), i -> {
+			Review review = new Review();
+			review.setUser(em.getReference(Profile.class, profileIds.get(random.nextInt(profileIds.size()))));
+			review.setRestaurant(em.getReference(Restaurant.class, restaurantIds.get(popularRestaurants.next())));
+			review.setRating(rating(random));
+			review.setText(WORDS[random.nextInt(WORDS.length)] + ", " + WORDS[random.nextInt(WORDS.length)]);
+			String[] dishes = new String[random.nextInt(4)];
+			for (int d = 0; d < dishes.length; d++) dishes[d] = DISHES[random.nextInt(DISHES.length)];
+			review.setDishes(dishes);
+			OffsetDateTime created = now.minusMinutes(random.nextInt(90 * 24 * 60));
+			review.setCreatedAt(created);
+			review.setUpdatedAt(created);
+			em.persist(review);
+		});
+
+		return new Dataset(profileIds, usernames, restaurantIds, follows[0], params.reviews());
+	}
+
+	private void inBatches(int count, IntConsumer body) {
+		int batch = 500;
+		for (int start = 0; start < count; start += batch) {
+			int from = start;
+			int to = Math.min(count, start + batch);
+			tx.executeWithoutResult(status -> {
+				for (int i = from; i < to; i++) body.accept(i);
+				em.flush();
+				em.clear();
+			});
+		}
+	}
+
+	private static String username(Random random, String prefix, int i) {
+		String[] stems = {"foodie", "chef", "eater", "taster", "critic", "gourmet", "snacker", "brunch"};
+		return stems[random.nextInt(stems.length)] + "_" + prefix + i;
+	}
+
+	private static int paretoDegree(Random random, int mean, int max) {
+		// Pareto with alpha 2 has mean 2 * xmin
+		double xmin = Math.max(1, mean / 2.0);
+		double degree = xmin / Math.sqrt(1 - random.nextDouble());
+		return (int) Math.min(max, Math.round(degree));
+	}
+
+	private static int rating(Random random) {
+		double u = random.nextDouble();
+		if (u < 0.05) return 1;
+		if (u < 0.12) return 2;
+		if (u < 0.30) return 3;
+		if (u < 0.65) return 4;
+		return 5;
+	}
+
+	// Samples ranks 0..n-1 with P(k) proportional to 1/(k+1)^s via a precomputed CDF.
+	public static class Zipf {
+		private final double[] cdf;
+		private final Random random;
+
+		public Zipf(int n, double s, Random random) {
+			this.cdf = new double[n];
+			this.random = random;
+			double sum = 0;
+			for (int k = 0; k < n; k++) {
+				sum += 1.0 / Math.pow(k + 1, s);
+				cdf[k] = sum;
+			}
+			for (int k = 0; k < n; k++) cdf[k] /= sum;
+		}
+
+		public int next() {
+			double u = random.nextDouble();
+			int lo = 0;
+			int hi = cdf.length - 1;
+			while (lo < hi) {
+				int mid = (lo + hi) >>> 1;
+				if (cdf[mid] < u) lo = mid + 1;
+				else hi = mid;
+			}
+			return lo;
+		}
+	}
+}
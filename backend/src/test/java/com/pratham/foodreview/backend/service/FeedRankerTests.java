@@ -0,0 +1,230 @@
+package com.pratham.foodreview.backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pratham.foodreview.backend.TestData;
+import com.pratham.foodreview.backend.entity.Profile;
+import com.pratham.foodreview.backend.entity.Restaurant;
+import com.pratham.foodreview.backend.entity.Review;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class FeedRankerTests {
+
+	private static final Logger log = LoggerFactory.getLogger(FeedRankerTests.class);
+
+	@Autowired
+	MockMvc mvc;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	@Autowired
+	FeedRanker feedRanker;
+
+	@Autowired
+	SuggestionService suggestionService;
+
+	@Autowired
+	ClusterIndex clusterIndex;
+
+	@Autowired
+	DataSource dataSource;
+
+	@Autowired
+	TestData data;
+
+	@Test
+	void closeFriendIsNotBuriedByProlificAcquaintance() throws Exception {
+		Profile viewer = data.profile();
+		Profile prolific = data.profile();
+		Profile friend = data.profile();
+		data.follow(viewer, prolific);
+		data.follow(viewer, friend);
+		Restaurant spot = data.restaurant(40.0, -83.0);
+		for (int i = 0; i < 10; i++) data.review(prolific, spot, 4, null, OffsetDateTime.now().minusMinutes(i));
+		Review friendReview = data.review(friend, spot, 4, null, OffsetDateTime.now().minusHours(3));
+
+		// Reading the friend's review and visiting their profile page
+		for (int i = 0; i < 2; i++) {
+			mvc.perform(get("/reviewfeed/" + friendReview.getId()).with(as(viewer))).andExpect(status().isOk());
+		}
+		mvc.perform(get("/users/" + friend.getId() + "/page").with(as(viewer))).andExpect(status().isOk());
+
+		assertEquals(friendReview.getId().toString(), feed(viewer, "ranked").get(0).get("id").asText());
+		JsonNode recent = feed(viewer, "recent");
+		assertEquals(prolific.getId().toString(), recent.get(0).get("userId").asText());
+		assertEquals(friendReview.getId().toString(), recent.get(10).get("id").asText());
+	}
+
+	@Test
+	void coReviewedRestaurantsRaiseAffinity() {
+		Profile viewer = data.profile();
+		Profile stranger = data.profile();
+		Profile regular = data.profile();
+		Restaurant shared = data.restaurant(40.0, -83.0);
+		data.review(viewer, shared, 5, null, OffsetDateTime.now().minusDays(10));
+		data.review(regular, shared, 5, null, OffsetDateTime.now().minusDays(10));
+		suggestionService.rebuild();
+
+		OffsetDateTime at = OffsetDateTime.now().minusHours(1);
+		Review fromStranger = data.review(stranger, data.restaurant(40.0, -83.0), 4, null, at);
+		Review fromRegular = data.review(regular, data.restaurant(40.0, -83.0), 4, null, at.minusMinutes(5));
+
+		assertEquals(List.of(fromRegular, fromStranger), feedRanker.rank(viewer.getId(), List.of(fromStranger, fromRegular), 2));
+	}
+
+	@Test
+	void nearbyPlacesRankAboveFarOnes() {
+		Profile viewer = data.profile();
+		Profile author = data.profile();
+		OffsetDateTime at = OffsetDateTime.now().minusHours(2);
+		Review far = data.review(author, data.restaurant(51.5, -0.12), 4, null, at);
+		Review near = data.review(author, data.restaurant(40.001, -83.001), 4, null, at);
+		feedRanker.recordLocation(viewer.getId(), 40.0, -83.0);
+		clusterIndex.rebuild();
+
+		assertEquals(List.of(near, far), feedRanker.rank(viewer.getId(), List.of(far, near), 5));
+		assertEquals(List.of(near), feedRanker.rank(viewer.getId(), List.of(far, near), 1));
+	}
+
+	@Test
+	void affinityIsSharedAcrossInstancesAndViewerCacheIsBounded() {
+		Profile viewer = data.profile();
+		Profile friend = data.profile();
+		Profile stranger = data.profile();
+		OffsetDateTime at = OffsetDateTime.now().minusHours(1);
+		Review fromStranger = data.review(stranger, data.restaurant(40.0, -83.0), 4, null, at);
+		Review fromFriend = data.review(friend, data.restaurant(40.0, -83.0), 4, null, at.minusMinutes(5));
+
+		FeedRanker here = instance(2);
+		FeedRanker there = instance(2);
+		for (int i = 0; i < 3; i++) here.recordInteraction(viewer.getId(), friend.getId());
+		// Only in memory until flushed
+		assertEquals(List.of(fromStranger, fromFriend), there.rank(viewer.getId(), List.of(fromStranger, fromFriend), 2));
+		here.flush();
+		FeedRanker fresh = instance(2);
+		// A cold viewer is ranked at once with nothing known, then with the loaded state
+		assertEquals(List.of(fromStranger, fromFriend), fresh.rank(viewer.getId(), List.of(fromStranger, fromFriend), 2));
+		awaitLoads(fresh);
+		assertEquals(List.of(fromFriend, fromStranger), fresh.rank(viewer.getId(), List.of(fromStranger, fromFriend), 2));
+
+		for (int i = 0; i < 5; i++) fresh.rank(data.profile().getId(), List.of(fromStranger), 1);
+		assertTrue((int) fresh.stats().get("cachedUsers") <= 2);
+		assertTrue((long) fresh.stats().get("viewerEvictions") > 0);
+	}
+
+	@Test
+	void coldViewerIsRankedWithoutWaitingOnTheDatabase() {
+		Profile viewer = data.profile();
+		Review review = data.review(data.profile(), data.restaurant(40.0, -83.0));
+		Set<Thread> connecting = ConcurrentHashMap.newKeySet();
+		FeedRanker ranker = new FeedRanker(suggestionService, clusterIndex, new DelegatingDataSource(dataSource) {
+			@Override
+			public Connection getConnection() throws SQLException {
+				connecting.add(Thread.currentThread());
+				return super.getConnection();
+			}
+		}, 1.0, 1.0, 0.3, 0.5, 24, 14, 0.5, 3, 0.5, 5, 256, 10, 10);
+
+		assertEquals(List.of(review), ranker.rank(viewer.getId(), List.of(review), 1));
+		awaitLoads(ranker);
+		assertFalse(connecting.contains(Thread.currentThread()));
+		assertEquals(1L, ranker.stats().get("viewerLoads"));
+	}
+
+	// Opt-in: mvn test -Dtest=FeedRankerTests -Dfeed.benchmark=true
+	// Ranking a full 200-candidate window from 40 authors with locations known.
+	@Test
+	@EnabledIfSystemProperty(named = "feed.benchmark", matches = "true")
+	void benchmarkRankingStage() {
+		Profile viewer = data.profile();
+		feedRanker.recordLocation(viewer.getId(), 40.0, -83.0);
+		List<Review> candidates = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			Profile author = new Profile();
+			author.setId(new UUID(0, i % 40));
+			Restaurant place = new Restaurant();
+			place.setId(new UUID(1, i));
+			place.setLat(40.0 + i * 0.001);
+			place.setLng(-83.0);
+			Review r = new Review();
+			r.setUser(author);
+			r.setRestaurant(place);
+			r.setRating(1 + i % 5);
+			r.setCreatedAt(OffsetDateTime.now().minusMinutes(i * 7L));
+			candidates.add(r);
+		}
+		for (int i = 0; i < 2000; i++) feedRanker.rank(viewer.getId(), candidates, 50);
+		long[] samples = new long[501];
+		for (int i = 0; i < samples.length; i++) {
+			long start = System.nanoTime();
+			feedRanker.rank(viewer.getId(), candidates, 50);
+			samples[i] = System.nanoTime() - start;
+		}
+		Arrays.sort(samples);
+		double medianMicros = samples[samples.length / 2] / 1000.0;
+		log.info("Ranking 200 candidates: median {} us, p99 {} us", String.format("%.1f", medianMicros),
+			String.format("%.1f", samples[samples.length * 99 / 100] / 1000.0));
+		assertTrue(medianMicros < 1000);
+	}
+
+	private FeedRanker instance(int maxCachedUsers) {
+		return new FeedRanker(suggestionService, clusterIndex, dataSource, 1.0, 1.0, 0.3, 0.5, 24, 14, 0.5, 3, 0.5, 5,
+			256, maxCachedUsers, 10);
+	}
+
+	private static void awaitLoads(FeedRanker ranker) {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while ((int) ranker.stats().get("viewerLoadsPending") > 0) {
+			assertTrue(System.nanoTime() < deadline, "viewer loads did not finish");
+			try {
+				Thread.sleep(10);
+			} catch (InterruptedException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+	}
+
+	private JsonNode feed(Profile viewer, String order) throws Exception {
+		String body = mvc.perform(get("/reviewfeed/feed").param("order", order).with(as(viewer)))
+			.andExpect(status().isOk())
+			.andReturn().getResponse().getContentAsString();
+		return objectMapper.readTree(body);
+	}
+
+	private static RequestPostProcessor as(Profile p) {
+		return jwt().jwt(j -> j.subject(p.getId().toString()));
+	}
+}
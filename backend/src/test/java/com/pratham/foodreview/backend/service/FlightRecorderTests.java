@@ -0,0 +1,95 @@
+package com.pratham.foodreview.backend.service;
+
+import com.pratham.foodreview.backend.TestData;
+import com.pratham.foodreview.backend.entity.Profile;
+import com.pratham.foodreview.backend.entity.Restaurant;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class FlightRecorderTests {
+
+	@Autowired
+	MockMvc mvc;
+
+	@Autowired
+	FlightRecorder flightRecorder;
+
+	@Autowired
+	TestData data;
+
+	@Test
+	void keepsOnlyTheSlowestAndWrapsTheRing() throws Exception {
+		FlightRecorder recorder = new FlightRecorder(4, 2, 60, false);
+		long[] sleeps = {1, 30, 5, 20, 1, 1};
+		for (long ms : sleeps) {
+			RequestTrace trace = recorder.begin();
+			Thread.sleep(ms);
+			recorder.end(trace, "GET", "/sleep/" + ms, 200);
+		}
+
+		List<FlightRecorder.Snapshot> slowest = recorder.slowest();
+		assertEquals(List.of("/sleep/30", "/sleep/20"), slowest.stream().map(FlightRecorder.Snapshot::route).toList());
+		List<FlightRecorder.Snapshot> recent = recorder.recent();
+		assertEquals(4, recent.size());
+		assertEquals("/sleep/5", recent.get(0).route());
+	}
+
+	@Test
+	void fasterRequestsAreKeptOnceASlowBurstExpires() throws Exception {
+		FlightRecorder recorder = new FlightRecorder(16, 2, Duration.ofMillis(200), false);
+		for (int i = 0; i < 2; i++) {
+			RequestTrace trace = recorder.begin();
+			Thread.sleep(40);
+			recorder.end(trace, "GET", "/burst", 200);
+		}
+		Thread.sleep(250);
+
+		// Nothing reads the slowest set in between, so only end() can notice the burst expired
+		for (int i = 0; i < 2; i++) {
+			RequestTrace trace = recorder.begin();
+			recorder.end(trace, "GET", "/fast", 200);
+		}
+		assertEquals(List.of("/fast", "/fast"), recorder.slowest().stream().map(FlightRecorder.Snapshot::route).toList());
+	}
+
+	@Test
+	void requestsAreBrokenDownByPhase() throws Exception {
+		Profile author = data.profile();
+		Restaurant spot = data.restaurant();
+		for (int i = 0; i < 3; i++) data.review(author, spot, "traced " + i);
+
+		mvc.perform(get("/reviewfeed/user/" + author.getId())).andExpect(status().isOk());
+
+		FlightRecorder.Snapshot last = flightRecorder.recent().stream()
+			.filter(s -> s.route().equals("/reviewfeed/user/{userId}"))
+			.reduce((a, b) -> b)
+			.orElseThrow();
+		assertEquals(200, last.status());
+		assertTrue(last.phaseCounts()[RequestTrace.Phase.SQL.ordinal()] > 0);
+		assertTrue(last.phaseNanos()[RequestTrace.Phase.SQL.ordinal()] > 0);
+		assertTrue(last.phaseNanos()[RequestTrace.Phase.MAPPING.ordinal()] > 0);
+		assertEquals(3, last.phaseCounts()[RequestTrace.Phase.SERIALIZATION.ordinal()]);
+		assertTrue(last.phaseCounts()[RequestTrace.Phase.POOL_WAIT.ordinal()] > 0);
+
+		mvc.perform(get("/debug/requests").param("route", "/reviewfeed/user/{userId}"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.recent.requests").isNumber())
+			.andExpect(jsonPath("$.recent.avgPhaseMs.sql").isNumber());
+	}
+}
@@ -0,0 +1,178 @@
+package com.pratham.foodreview.backend.service;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Runs the cache against a local stub standing in for the menu scraper.
+class IngredientCacheTests {
+
+	@TempDir
+	Path dir;
+
+	HttpServer stub;
+	AtomicInteger upstreamHits = new AtomicInteger();
+	volatile int upstreamStatus = 200;
+
+	@BeforeEach
+	void startStub() throws IOException {
+		stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		stub.setExecutor(Executors.newCachedThreadPool());
+		stub.createContext("/api/ingredients", exchange -> {
+			int n = upstreamHits.incrementAndGet();
+			String request = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+			byte[] body = ("{\"call\":" + n + ",\"echo\":" + request + "}").getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().add("Content-Type", "application/json");
+			exchange.sendResponseHeaders(upstreamStatus, body.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(body);
+			}
+		});
+		stub.start();
+	}
+
+	@AfterEach
+	void stopStub() {
+		stub.stop(0);
+	}
+
+	private IngredientCache cache(long ttlSeconds, long maxBytes) throws IOException {
+		String upstream = "http://127.0.0.1:" + stub.getAddress().getPort() + "/api/ingredients";
+		RateLimitService unlimited = new RateLimitService(false, "reject", 0, 0, 0, 1, 1, 1, 1, 1, 1);
+		return new IngredientCache(dir.toString(), ttlSeconds, maxBytes, 1 << 16, upstream, unlimited);
+	}
+
+	private static Map<String, Object> request(String dish, boolean reversed) {
+		Map<String, Object> r = new LinkedHashMap<>();
+		if (reversed) {
+			r.put("restaurant", "Luigi's");
+			r.put("dish", dish);
+		} else {
+			r.put("dish", dish);
+			r.put("restaurant", "Luigi's");
+		}
+		return r;
+	}
+
+	@Test
+	void repeatsAreServedFromTheLogRegardlessOfKeyOrder() throws Exception {
+		IngredientCache cache = cache(3600, 1 << 20);
+		IngredientCache.Result first = cache.lookup(request("carbonara", false));
+		IngredientCache.Result second = cache.lookup(request("carbonara", true));
+
+		assertEquals("MISS", first.cache());
+		assertEquals("HIT", second.cache());
+		assertArrayEquals(first.body(), second.body());
+		assertEquals(1, upstreamHits.get());
+		// Upstream sees the canonical form
+		assertTrue(new String(first.body(), StandardCharsets.UTF_8).contains("{\"dish\":\"carbonara\",\"restaurant\":\"Luigi's\"}"));
+	}
+
+	@Test
+	void survivesRestartAndTruncatesTornTail() throws Exception {
+		IngredientCache cache = cache(3600, 1 << 20);
+		byte[] body = cache.lookup(request("ragu", false)).body();
+		cache.lookup(request("pesto", false));
+		cache.close();
+
+		// Simulate a crash halfway through an append
+		Path log = dir.resolve("ingredients.log");
+		long intact = Files.size(log);
+		try (FileChannel ch = FileChannel.open(log, StandardOpenOption.APPEND)) {
+			ch.write(ByteBuffer.wrap(new byte[] {0x49, 0x4E, 0x47, 0x43, 1, 2, 3}));
+		}
+
+		IngredientCache reopened = cache(3600, 1 << 20);
+		IngredientCache.Result again = reopened.lookup(request("ragu", true));
+		assertEquals("HIT", again.cache());
+		assertArrayEquals(body, again.body());
+		assertEquals(2, upstreamHits.get());
+		assertEquals(intact, Files.size(log));
+		assertEquals(2, reopened.stats().get("entries"));
+	}
+
+	@Test
+	void expiredEntriesAreRefetched() throws Exception {
+		IngredientCache cache = cache(0, 1 << 20);
+		cache.lookup(request("gnocchi", false));
+		Thread.sleep(5);
+		assertEquals("MISS", cache.lookup(request("gnocchi", false)).cache());
+		assertEquals(2, upstreamHits.get());
+	}
+
+	@Test
+	void compactionKeepsNewestEntriesWithinMaxBytes() throws Exception {
+		IngredientCache cache = cache(3600, 600);
+		for (String dish : List.of("a", "b", "c", "d", "e", "f", "g", "h", "i", "j", "k", "l")) {
+			cache.lookup(request(dish, false));
+		}
+		awaitCompactions(cache);
+		Map<String, Object> stats = cache.stats();
+		assertTrue((Long) stats.get("compactions") > 0);
+		assertTrue((Long) stats.get("fileBytes") <= 600);
+		assertEquals(Files.size(dir.resolve("ingredients.log")), stats.get("fileBytes"));
+
+		int before = upstreamHits.get();
+		assertEquals("HIT", cache.lookup(request("l", false)).cache());
+		assertEquals("MISS", cache.lookup(request("a", false)).cache());
+		assertEquals(before + 1, upstreamHits.get());
+	}
+
+	@Test
+	void compactionSurvivesRestart() throws Exception {
+		IngredientCache cache = cache(3600, 600);
+		for (String dish : List.of("a", "b", "c", "d", "e", "f", "g", "h")) {
+			cache.lookup(request(dish, false));
+		}
+		awaitCompactions(cache);
+		byte[] newest = cache.lookup(request("h", false)).body();
+		cache.close();
+
+		IngredientCache reopened = cache(3600, 600);
+		assertEquals(cache.stats().get("entries"), reopened.stats().get("entries"));
+		IngredientCache.Result again = reopened.lookup(request("h", true));
+		assertEquals("HIT", again.cache());
+		assertArrayEquals(newest, again.body());
+		assertTrue(Files.notExists(dir.resolve("ingredients.log.compact")));
+	}
+
+	@Test
+	void upstreamErrorsAreNotCached() throws Exception {
+		IngredientCache cache = cache(3600, 1 << 20);
+		upstreamStatus = 500;
+		assertEquals(502, cache.lookup(request("risotto", false)).status());
+		upstreamStatus = 200;
+		assertEquals("MISS", cache.lookup(request("risotto", false)).cache());
+		assertEquals(2, upstreamHits.get());
+	}
+
+	private static void awaitCompactions(IngredientCache cache) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while ((int) cache.stats().get("compactionsPending") > 0) {
+			assertTrue(System.nanoTime() < deadline, "timed out");
+			Thread.sleep(10);
+		}
+	}
+}
@@ -0,0 +1,168 @@
+package com.pratham.foodreview.backend.service;
+
+import com.pratham.foodreview.backend.dto.RestaurantDetailResponse;
+import com.pratham.foodreview.backend.dto.ReviewResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InvalidationBusTests {
+
+	// Drops the next published message when asked, standing in for a lost NOTIFY
+	static class LossyTransport extends InMemoryInvalidationTransport {
+		volatile boolean dropNext;
+
+		@Override
+		public void publish(String payload) {
+			if (dropNext) {
+				dropNext = false;
+				return;
+			}
+			super.publish(payload);
+		}
+	}
+
+	private final List<InvalidationBus> started = new ArrayList<>();
+
+	@AfterEach
+	void stopBuses() {
+		started.forEach(InvalidationBus::stop);
+	}
+
+	private InvalidationBus bus(InvalidationTransport transport) {
+		// Long intervals so the test drives flush/heartbeat itself
+		InvalidationBus bus = new InvalidationBus(transport, 60_000, 60_000);
+		bus.start();
+		started.add(bus);
+		return bus;
+	}
+
+	private static void awaitLocal(InvalidationBus bus) {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while ((int) bus.stats().get("localPending") > 0) {
+			assertTrue(System.nanoTime() < deadline, "local dispatch did not finish");
+			try {
+				Thread.sleep(10);
+			} catch (InterruptedException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+	}
+
+	private static RestaurantDetailResponse detail(UUID id, String reviewerId) {
+		ReviewResponse review = new ReviewResponse("r", reviewerId, "name", null, id.toString(), "Joe's", null, null,
+			null, 5, "ok", List.of(), List.of(), List.of(), "2026-01-01T00:00:00Z");
+		return new RestaurantDetailResponse(id.toString(), "Joe's", null, 1.0, 2.0, null, List.of(), 1, 1, null, List.of(review));
+	}
+
+	private static int loads(RestaurantDetailCache cache, UUID id, String reviewerId) {
+		AtomicInteger loads = new AtomicInteger();
+		cache.get(id, i -> {
+			loads.incrementAndGet();
+			return detail(i, reviewerId);
+		});
+		return loads.get();
+	}
+
+	@Test
+	void invalidationReachesOtherInstanceAfterFlush() {
+		InvalidationBus a = bus(new InMemoryInvalidationTransport());
+		InvalidationBus b = bus(new InMemoryInvalidationTransport());
+		RestaurantDetailCache cacheA = new RestaurantDetailCache(true, 1 << 20, 300, a);
+		RestaurantDetailCache cacheB = new RestaurantDetailCache(true, 1 << 20, 300, b);
+		UUID id = UUID.randomUUID();
+		loads(cacheA, id, "u");
+		loads(cacheB, id, "u");
+
+		cacheA.invalidateAfterCommit(id);
+		awaitLocal(a);
+		assertEquals(1, loads(cacheA, id, "u"), "local copy dropped without a flush");
+		assertEquals(0, loads(cacheB, id, "u"), "remote copy survives until the flush");
+
+		a.flush();
+		assertEquals(1, loads(cacheB, id, "u"));
+	}
+
+	@Test
+	void localSubscribersRunOffThePublishingThread() {
+		InvalidationBus a = bus(new InMemoryInvalidationTransport());
+		List<Thread> ranOn = new CopyOnWriteArrayList<>();
+		a.subscribe("restaurant", key -> ranOn.add(Thread.currentThread()), () -> {});
+
+		a.publishAfterCommit("restaurant", UUID.randomUUID());
+		awaitLocal(a);
+		assertEquals(1, ranOn.size());
+		assertNotSame(Thread.currentThread(), ranOn.get(0));
+	}
+
+	@Test
+	void burstsAreCoalescedIntoOneMessage() {
+		InvalidationBus a = bus(new InMemoryInvalidationTransport());
+		List<String> seen = new ArrayList<>();
+		InvalidationBus b = bus(new InMemoryInvalidationTransport());
+		b.subscribe("restaurant", seen::add, () -> {});
+
+		UUID hot = UUID.randomUUID();
+		for (int i = 0; i < 100; i++) a.publish("restaurant", hot);
+		a.publish("restaurant", UUID.randomUUID());
+		a.flush();
+
+		assertEquals(2, seen.size());
+		assertEquals(101L, a.stats().get("published"));
+		assertEquals(2L, a.stats().get("sentKeys"));
+		assertEquals(1L, a.stats().get("messages"));
+	}
+
+	@Test
+	void missedMessageTriggersResync() {
+		LossyTransport lossy = new LossyTransport();
+		InvalidationBus a = bus(lossy);
+		InvalidationBus b = bus(new InMemoryInvalidationTransport());
+		AtomicInteger resyncs = new AtomicInteger();
+		Consumer<String> ignore = key -> {};
+		b.subscribe("restaurant", ignore, resyncs::incrementAndGet);
+
+		a.publish("restaurant", UUID.randomUUID());
+		a.flush();
+		lossy.dropNext = true;
+		a.publish("restaurant", UUID.randomUUID());
+		a.flush();
+		assertEquals(0, resyncs.get());
+
+		a.publish("restaurant", UUID.randomUUID());
+		a.flush();
+		assertEquals(1, resyncs.get(), "sequence gap detected on the next message");
+
+		lossy.dropNext = true;
+		a.publish("restaurant", UUID.randomUUID());
+		a.flush();
+		a.heartbeat();
+		assertEquals(2, resyncs.get(), "heartbeat exposes a lost trailing message");
+	}
+
+	@Test
+	void profileChangeDropsSnapshotsWithThatReviewer() {
+		InvalidationBus a = bus(new InMemoryInvalidationTransport());
+		RestaurantDetailCache cache = new RestaurantDetailCache(true, 1 << 20, 300, a);
+		UUID withUser = UUID.randomUUID();
+		UUID without = UUID.randomUUID();
+		loads(cache, withUser, "user-1");
+		loads(cache, without, "user-2");
+
+		a.publishAfterCommit(InvalidationKeys.PROFILE, "user-1");
+		awaitLocal(a);
+		assertEquals(1, loads(cache, withUser, "user-1"));
+		assertEquals(0, loads(cache, without, "user-2"));
+	}
+}
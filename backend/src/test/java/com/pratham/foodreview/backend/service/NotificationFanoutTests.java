@@ -0,0 +1,194 @@
+package com.pratham.foodreview.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pratham.foodreview.backend.TestData;
+import com.pratham.foodreview.backend.dto.CreateReviewRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class NotificationFanoutTests {
+
+	@Autowired
+	MockMvc mvc;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	@Autowired
+	DataSource dataSource;
+
+	@Autowired
+	NotificationSink notificationSink;
+
+	@Autowired
+	TestData data;
+
+	private final List<NotificationFanout> started = new ArrayList<>();
+
+	@AfterEach
+	void stopFanouts() {
+		started.forEach(NotificationFanout::shutdown);
+	}
+
+	@Test
+	void postingReviewNotifiesFollowersAfterCommit() throws Exception {
+		UUID author = data.profile().getId();
+		List<UUID> followers = followers(author, 3);
+
+		String body = objectMapper.writeValueAsString(new CreateReviewRequest("test", UUID.randomUUID().toString(),
+			"Fanout Spot", null, 10.0, 20.0, 5, "great", List.of()));
+		String response = mvc.perform(post("/reviews")
+				.with(jwt().jwt(j -> j.subject(author.toString())))
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(body))
+			.andExpect(status().isOk())
+			.andReturn().getResponse().getContentAsString();
+		UUID reviewId = UUID.fromString(objectMapper.readTree(response).get("id").asText());
+
+		LogNotificationSink sink = (LogNotificationSink) notificationSink;
+		await(() -> sink.recent().stream()
+			.filter(d -> d.batch().stream().anyMatch(n -> n.reviewId().equals(reviewId)))
+			.map(LogNotificationSink.Delivery::recipient)
+			.distinct().count() == followers.size());
+	}
+
+	@Test
+	void largeAccountIsReadInChunksAndCoalescedPerFollower() {
+		UUID big = data.profile().getId();
+		UUID small = data.profile().getId();
+		List<UUID> followers = followers(big, 1_250);
+		List<UUID> shared = followers.subList(0, 10);
+		for (UUID f : shared) data.follow(f, small);
+
+		LogNotificationSink sink = new LogNotificationSink(10_000);
+		NotificationFanout fanout = fanout(sink, 100, 1_000, 100_000, 1);
+		fanout.publish(notification(big));
+		fanout.publish(notification(big));
+		fanout.publish(notification(small));
+
+		await(() -> (long) fanout.stats().get("delivered") == 2L * followers.size() + shared.size());
+		Map<String, Object> stats = fanout.stats();
+		// 13 pages for each of the big account's posts, one for the small account's
+		assertEquals(27L, stats.get("chunks"));
+		assertEquals((long) followers.size(), stats.get("deliveries"));
+
+		Set<UUID> recipients = new HashSet<>();
+		for (LogNotificationSink.Delivery d : sink.recent()) {
+			assertTrue(recipients.add(d.recipient()), "one delivery per follower in the window");
+			assertEquals(shared.contains(d.recipient()) ? 3 : 2, d.batch().size());
+		}
+	}
+
+	@Test
+	void slowSinkPushesBackOnFanoutNotOnPublisher() throws Exception {
+		UUID big = data.profile().getId();
+		List<UUID> followers = followers(big, 400);
+		CountDownLatch open = new CountDownLatch(1);
+		NotificationSink blocked = (recipient, batch) -> open.await();
+		NotificationFanout fanout = new NotificationFanout(dataSource, blocked, true, 1, 2, 50, 10, 20, 10,
+			1, 1, 3, 5);
+		started.add(fanout);
+
+		long t = System.nanoTime();
+		for (int i = 0; i < 20; i++) fanout.publish(notification(big));
+		long publishMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t);
+
+		await(() -> (long) fanout.stats().get("backpressureWaits") > 0);
+		Map<String, Object> stats = fanout.stats();
+		assertTrue(publishMs < 200, "publishing took " + publishMs + " ms");
+		assertTrue((long) stats.get("droppedPosts") > 0, "a full queue drops posts instead of blocking");
+		assertTrue((int) stats.get("pendingNotifications") < 20 + 50, "fan-out waits for pending to drain");
+
+		open.countDown();
+		long accepted = 20 - (long) fanout.stats().get("droppedPosts");
+		await(() -> (long) fanout.stats().get("followersRead") == accepted * followers.size()
+			&& (int) fanout.stats().get("pendingNotifications") == 0);
+	}
+
+	@Test
+	void failedDeliveriesAreRetriedThenDropped() {
+		UUID author = data.profile().getId();
+		List<UUID> followers = followers(author, 5);
+		UUID unlucky = followers.get(0);
+		Map<UUID, Integer> attempts = new ConcurrentHashMap<>();
+		LogNotificationSink log = new LogNotificationSink(100);
+		NotificationSink flaky = (recipient, batch) -> {
+			int n = attempts.merge(recipient, 1, Integer::sum);
+			if (recipient.equals(unlucky) || n < 3) throw new IllegalStateException("gateway down");
+			log.deliver(recipient, batch);
+		};
+
+		NotificationFanout fanout = fanout(flaky, 100, 20, 100_000, 2);
+		fanout.publish(notification(author));
+
+		await(() -> (long) fanout.stats().get("deadLettered") == 1 && log.recent().size() == followers.size() - 1);
+		assertEquals(3, attempts.get(unlucky));
+		assertEquals(2L * followers.size(), fanout.stats().get("retries"));
+	}
+
+	private NotificationFanout fanout(NotificationSink sink, int chunkSize, long coalesceMs, int maxPending, int deliveryThreads) {
+		NotificationFanout fanout = new NotificationFanout(dataSource, sink, true, 2, 64, chunkSize, coalesceMs, 20,
+			maxPending, deliveryThreads, 64, 3, 5);
+		started.add(fanout);
+		return fanout;
+	}
+
+	private static NotificationSink.Notification notification(UUID author) {
+		return new NotificationSink.Notification(author, UUID.randomUUID(), UUID.randomUUID(), System.currentTimeMillis());
+	}
+
+	private List<UUID> followers(UUID following, int count) {
+		List<UUID> ids = new ArrayList<>(count);
+		List<Object[]> profiles = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			UUID id = UUID.randomUUID();
+			ids.add(id);
+			profiles.add(new Object[] { id, "fanout_" + id });
+		}
+		JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+		jdbc.batchUpdate("insert into profiles (id, username, created_at) values (?, ?, now())", profiles);
+		jdbc.batchUpdate("insert into follows (follower_id, following_id, created_at) values (?, ?, now())",
+			ids.stream().map(id -> new Object[] { id, following }).toList());
+		return ids;
+	}
+
+	private static void await(BooleanSupplier condition) {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (!condition.getAsBoolean()) {
+			assertTrue(System.nanoTime() < deadline, "timed out");
+			try {
+				Thread.sleep(10);
+			} catch (InterruptedException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+	}
+}
@@ -0,0 +1,120 @@
+package com.pratham.foodreview.backend.service;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Runs the cache against a local stub standing in for the Places photo endpoint.
+class PlacesPhotoCacheTests {
+
+	private static final byte[] IMAGE = new byte[4096];
+
+	@TempDir
+	Path dir;
+
+	HttpServer stub;
+	AtomicInteger upstreamHits = new AtomicInteger();
+	CountDownLatch release = new CountDownLatch(0);
+
+	@BeforeEach
+	void startStub() throws IOException {
+		for (int i = 0; i < IMAGE.length; i++) IMAGE[i] = (byte) i;
+		stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		stub.setExecutor(Executors.newCachedThreadPool());
+		stub.createContext("/photo", exchange -> {
+			upstreamHits.incrementAndGet();
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			exchange.getResponseHeaders().add("Content-Type", "image/jpeg");
+			exchange.sendResponseHeaders(200, IMAGE.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(IMAGE);
+			}
+		});
+		stub.start();
+	}
+
+	@AfterEach
+	void stopStub() {
+		stub.stop(0);
+	}
+
+	private PlacesPhotoCache cache(long maxBytes) throws IOException {
+		String upstream = "http://127.0.0.1:" + stub.getAddress().getPort() + "/photo";
+		RateLimitService unlimited = new RateLimitService(false, "reject", 0, 0, 0, 1, 1, 1, 1, 1, 1);
+		return new PlacesPhotoCache(dir.toString(), maxBytes, 1 << 20, 400, 0, upstream, "test-key", unlimited);
+	}
+
+	@Test
+	void concurrentMissesShareOneUpstreamFetch() throws Exception {
+		PlacesPhotoCache cache = cache(1 << 20);
+		release = new CountDownLatch(1);
+
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<PlacesPhotoCache.CachedPhoto>> results = new ArrayList<>();
+			for (int i = 0; i < 8; i++) results.add(pool.submit(() -> cache.get("ref_hot")));
+			Thread.sleep(200);
+			release.countDown();
+			for (Future<PlacesPhotoCache.CachedPhoto> f : results) {
+				assertArrayEquals(IMAGE, Files.readAllBytes(f.get(5, TimeUnit.SECONDS).path()));
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+		assertEquals(1, upstreamHits.get());
+
+		cache.get("ref_hot");
+		assertEquals(1, upstreamHits.get());
+	}
+
+	@Test
+	void evictsLeastRecentlyUsedByTotalBytes() throws Exception {
+		PlacesPhotoCache cache = cache(IMAGE.length * 3L);
+		Path first = cache.get("ref_1").path();
+		cache.get("ref_2");
+		cache.get("ref_3");
+		cache.get("ref_1");
+		cache.get("ref_4");
+
+		assertTrue((long) cache.stats().get("bytes") <= IMAGE.length * 3L);
+		assertTrue(Files.exists(first), "recently read entry should survive");
+		cache.get("ref_2");
+		assertEquals(5, upstreamHits.get(), "ref_2 should have been evicted and refetched");
+	}
+
+	@Test
+	void survivesRestart() throws Exception {
+		cache(1 << 20).get("ref_kept");
+		PlacesPhotoCache restarted = cache(1 << 20);
+
+		assertEquals(1, restarted.stats().get("entries"));
+		restarted.get("ref_kept");
+		assertEquals(1, upstreamHits.get());
+		assertFalse(Files.list(dir).anyMatch(p -> p.toString().endsWith(".tmp")));
+	}
+}
@@ -0,0 +1,60 @@
+package com.pratham.foodreview.backend.service;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PoolControllerTests {
+
+	private static PoolMetrics.Window window(double meanWaitMs, long timeouts, double meanUsageMs, int peakActive) {
+		return new PoolMetrics.Window(100, meanWaitMs, meanWaitMs * 3, timeouts, 100, meanUsageMs, peakActive);
+	}
+
+	private static PoolController controller() throws Exception {
+		return new PoolController(new JdbcDataSource(), true, 2, 8, 5, 1.5, 3);
+	}
+
+	@Test
+	void growsByHalfUnderWaitsUpToTheLimit() throws Exception {
+		PoolController c = controller();
+		PoolController.Decision d = c.decide(window(20, 0, 10, 4), 4, 3);
+		assertEquals(PoolController.Action.GROW, d.action());
+		assertEquals(6, d.toSize());
+
+		assertEquals(8, c.decide(window(20, 1, 10, 6), 6, 0).toSize());
+		assertEquals(PoolController.Action.HOLD, c.decide(window(20, 1, 10, 8), 8, 5).action());
+	}
+
+	@Test
+	void holdsWhenHoldTimeRisesAfterGrowing() throws Exception {
+		PoolController c = controller();
+		assertEquals(PoolController.Action.GROW, c.decide(window(20, 0, 10, 2), 2, 2).action());
+		PoolController.Decision d = c.decide(window(20, 0, 25, 3), 3, 2);
+		assertEquals(PoolController.Action.HOLD, d.action());
+		assertEquals(3, d.toSize());
+	}
+
+	@Test
+	void shrinksOneAtATimeAfterQuietWindows() throws Exception {
+		PoolController c = controller();
+		assertEquals(PoolController.Action.HOLD, c.decide(window(0, 0, 5, 1), 6, 0).action());
+		assertEquals(PoolController.Action.HOLD, c.decide(window(0, 0, 5, 1), 6, 0).action());
+		PoolController.Decision d = c.decide(window(0, 0, 5, 1), 6, 0);
+		assertEquals(PoolController.Action.SHRINK, d.action());
+		assertEquals(5, d.toSize());
+
+		// a busy window resets the streak
+		c.decide(window(0, 0, 5, 1), 5, 0);
+		c.decide(window(0, 0, 5, 4), 5, 0);
+		assertEquals(PoolController.Action.HOLD, c.decide(window(0, 0, 5, 1), 5, 0).action());
+	}
+
+	@Test
+	void neverShrinksBelowMinimum() throws Exception {
+		PoolController c = controller();
+		for (int i = 0; i < 10; i++) {
+			assertEquals(PoolController.Action.HOLD, c.decide(window(0, 0, 5, 0), 2, 0).action());
+		}
+	}
+}
@@ -0,0 +1,143 @@
+package com.pratham.foodreview.backend.service;
+
+import com.pratham.foodreview.backend.dto.CreateReviewRequest;
+import com.pratham.foodreview.backend.dto.RatingSummary;
+import com.pratham.foodreview.backend.dto.ReviewResponse;
+import com.pratham.foodreview.backend.dto.ReviewUpdate;
+import com.pratham.foodreview.backend.dto.TrendingRestaurantResponse;
+import com.pratham.foodreview.backend.entity.Profile;
+import com.pratham.foodreview.backend.repo.ProfileRepository;
+import com.pratham.foodreview.backend.repo.RestaurantRatingRepository;
+import com.pratham.foodreview.backend.repo.RestaurantRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.sql.DataSource;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class RatingServiceTests {
+
+	@Autowired
+	RatingService ratingService;
+
+	@Autowired
+	ReviewService reviewService;
+
+	@Autowired
+	ProfileRepository profileRepository;
+
+	@Autowired
+	RestaurantRatingRepository ratingRepository;
+
+	@Autowired
+	RestaurantRepository restaurantRepository;
+
+	@Autowired
+	DataSource dataSource;
+
+	@Autowired
+	PlatformTransactionManager transactionManager;
+
+	@Test
+	void aggregatesFollowCreatesAndRatingChanges() {
+		UUID user = createProfile();
+		String place = "rating-" + UUID.randomUUID();
+		ReviewResponse first = reviewService.createReview(user, request(place, 10.0, 10.0, 5));
+		reviewService.createReview(user, request(place, 10.0, 10.0, 3));
+		reviewService.updateReview(user, UUID.fromString(first.id()), new ReviewUpdate("changed my mind", 2, List.of()));
+
+		RatingSummary summary = ratingService.summaryFor(UUID.fromString(first.restaurantId()));
+		assertEquals(2, summary.count());
+		assertEquals(2.5, summary.average(), 1e-9);
+		assertEquals(List.of(0L, 1L, 1L, 0L, 0L), summary.histogram());
+		// (5 * 3.5 + 5) / (5 + 2)
+		assertEquals(22.5 / 7, summary.score(), 1e-9);
+
+		ratingService.rebuildAll();
+		assertEquals(summary, ratingService.summaryFor(UUID.fromString(first.restaurantId())));
+	}
+
+	@Test
+	void topRatedNearbyOrdersByScoreWithinRadius() {
+		UUID user = createProfile();
+		String prefix = "nearby-" + UUID.randomUUID();
+		// ~1km apart around (-33.9, 18.4), plus one just outside a 5km radius
+		UUID good = restaurantWith(user, prefix + "-good", -33.900, 18.400, 5, 5, 5, 4);
+		UUID single = restaurantWith(user, prefix + "-single", -33.905, 18.405, 5);
+		UUID poor = restaurantWith(user, prefix + "-poor", -33.910, 18.410, 2, 3);
+		restaurantWith(user, prefix + "-far", -33.950, 18.400, 5, 5, 5, 5, 5);
+
+		List<TrendingRestaurantResponse> top = ratingService.topRatedNearby(-33.9, 18.4, 5, 10, 1);
+		assertEquals(List.of(good.toString(), single.toString(), poor.toString()),
+			top.stream().map(TrendingRestaurantResponse::id).toList());
+
+		List<TrendingRestaurantResponse> established = ratingService.topRatedNearby(-33.9, 18.4, 5, 10, 2);
+		assertEquals(List.of(good.toString(), poor.toString()),
+			established.stream().map(TrendingRestaurantResponse::id).toList());
+	}
+
+	@Test
+	void refreshScoresOnlyRescoresWhenPriorChanges() {
+		UUID user = createProfile();
+		String place = "prior-" + UUID.randomUUID();
+		UUID restaurant = UUID.fromString(reviewService.createReview(user, request(place, 10.0, 10.0, 5)).restaurantId());
+		JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+		jdbc.update("update restaurant_ratings set score = 0 where restaurant_id = ?", restaurant);
+
+		// Same prior as the stored scores: the table is left alone
+		ratingService.refreshScores();
+		assertEquals(0.0, ratingService.summaryFor(restaurant).score(), 1e-9);
+
+		TransactionTemplate tx = new TransactionTemplate(transactionManager);
+		RatingService changed = new RatingService(ratingRepository, restaurantRepository, 1, 3.0);
+		try {
+			tx.executeWithoutResult(status -> changed.refreshScores());
+			// (1 * 3.0 + 5) / (1 + 1)
+			assertEquals(4.0, ratingService.summaryFor(restaurant).score(), 1e-9);
+		} finally {
+			ratingService.refreshScores();
+		}
+		// (5 * 3.5 + 5) / (5 + 1)
+		assertEquals(3.75, ratingService.summaryFor(restaurant).score(), 1e-9);
+	}
+
+	@Test
+	void rejectsRatingsOutsideOneToFive() {
+		UUID user = createProfile();
+		assertThrows(ResponseStatusException.class,
+			() -> reviewService.createReview(user, request("bad-" + UUID.randomUUID(), 0.0, 0.0, 6)));
+	}
+
+	private UUID restaurantWith(UUID user, String place, double lat, double lng, int... ratings) {
+		UUID id = null;
+		for (int rating : ratings) {
+			id = UUID.fromString(reviewService.createReview(user, request(place, lat, lng, rating)).restaurantId());
+		}
+		return id;
+	}
+
+	private UUID createProfile() {
+		Profile p = new Profile();
+		p.setId(UUID.randomUUID());
+		p.setUsername("rater_" + p.getId().toString().substring(0, 8));
+		p.setCreatedAt(OffsetDateTime.now());
+		return profileRepository.save(p).getId();
+	}
+
+	private static CreateReviewRequest request(String place, double lat, double lng, int rating) {
+		return new CreateReviewRequest("test", place, place, "1 Test St", lat, lng, rating, "ok", List.of());
+	}
+}
@@ -0,0 +1,135 @@
+package com.pratham.foodreview.backend.service;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecommendationEngineTests {
+
+	private static final Logger log = LoggerFactory.getLogger(RecommendationEngineTests.class);
+
+	private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+	@AfterAll
+	static void shutdown() {
+		POOL.shutdown();
+	}
+
+	@Test
+	void recommendsNeighboursOfLikedItemsOnly() {
+		// Items 0..3. Users 0-3 love 0 and 1 and dislike 2 and 3; user 4 loves 0 and dislikes 2.
+		int[][] rows = {
+			{0, 0, 5}, {0, 1, 5}, {0, 2, 1}, {0, 3, 1},
+			{1, 0, 5}, {1, 1, 5}, {1, 2, 1}, {1, 3, 1},
+			{2, 0, 5}, {2, 1, 5}, {2, 2, 1}, {2, 3, 1},
+			{3, 0, 5}, {3, 1, 5}, {3, 2, 1}, {3, 3, 1},
+			{4, 0, 5}, {4, 2, 1},
+		};
+		RecommendationEngine.Output out = new RecommendationEngine(10, 10, 0).run(input(5, 4, rows), POOL);
+
+		// 1 is pulled up by liking 0; 3 is pushed down by disliking 2, so it is left out
+		assertEquals(1, out.count(4));
+		assertEquals(1, out.items()[out.offsets()[4]]);
+		assertTrue(out.scores()[out.offsets()[4]] > 0);
+		// Everyone else has already rated every item
+		for (int u = 0; u < 4; u++) assertEquals(0, out.count(u));
+	}
+
+	@Test
+	void resultsAreCappedSortedAndIndependentOfParallelism() {
+		RecommendationEngine.Input in = synthetic(2_000, 300, 20_000, 7);
+		RecommendationEngine engine = new RecommendationEngine(20, 5, 10);
+		RecommendationEngine.Output parallel = engine.run(in, POOL);
+		ForkJoinPool single = new ForkJoinPool(1);
+		try {
+			RecommendationEngine.Output sequential = engine.run(in, single);
+			assertArrayEquals(sequential.offsets(), parallel.offsets());
+			assertArrayEquals(sequential.items(), parallel.items());
+			assertArrayEquals(sequential.scores(), parallel.scores());
+		} finally {
+			single.shutdown();
+		}
+
+		int withRecommendations = 0;
+		for (int u = 0; u < in.users(); u++) {
+			assertTrue(parallel.count(u) <= 5);
+			if (parallel.count(u) > 0) withRecommendations++;
+			for (int p = parallel.offsets()[u] + 1; p < parallel.offsets()[u + 1]; p++) {
+				assertTrue(parallel.scores()[p - 1] >= parallel.scores()[p]);
+			}
+		}
+		assertTrue(withRecommendations > in.users() / 2);
+	}
+
+	// Opt-in: mvn test -Dtest=RecommendationEngineTests -Drecommendations.benchmark=true
+	// Single-threaded unless -Drecommendations.benchmark.parallelism says otherwise
+	@Test
+	@EnabledIfSystemProperty(named = "recommendations.benchmark", matches = "true")
+	void benchmarkFullScale() {
+		RecommendationEngine.Input in = synthetic(
+			Integer.getInteger("recommendations.benchmark.users", 100_000),
+			Integer.getInteger("recommendations.benchmark.restaurants", 20_000),
+			Integer.getInteger("recommendations.benchmark.reviews", 1_000_000), 42);
+		RecommendationEngine engine = new RecommendationEngine(50, 30, 10);
+		ForkJoinPool pool = new ForkJoinPool(Integer.getInteger("recommendations.benchmark.parallelism", 1));
+		try {
+			for (int run = 0; run < 3; run++) {
+				long start = System.nanoTime();
+				RecommendationEngine.Output out = engine.run(in, pool);
+				log.info("users={} restaurants={} reviews={} parallelism={} run={} took {} ms, {} recommendations",
+					in.users(), in.items(), in.userOf().length, pool.getParallelism(), run,
+					(System.nanoTime() - start) / 1_000_000, out.items().length);
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	private static RecommendationEngine.Input input(int users, int items, int[][] rows) {
+		int[] userOf = new int[rows.length];
+		int[] itemOf = new int[rows.length];
+		byte[] rating = new byte[rows.length];
+		for (int k = 0; k < rows.length; k++) {
+			userOf[k] = rows[k][0];
+			itemOf[k] = rows[k][1];
+			rating[k] = (byte) rows[k][2];
+		}
+		return new RecommendationEngine.Input(users, items, userOf, itemOf, rating);
+	}
+
+	// Skewed popularity (a few restaurants get most reviews) and a taste cluster per user, so
+	// co-rating is realistic rather than uniform. Duplicate (user, restaurant) pairs are dropped.
+	private static RecommendationEngine.Input synthetic(int users, int items, int reviews, long seed) {
+		SplittableRandom random = new SplittableRandom(seed);
+		int clusters = 16;
+		long[] keys = new long[reviews];
+		for (int k = 0; k < reviews; k++) {
+			int user = random.nextInt(users);
+			double skew = Math.pow(random.nextDouble(), 2.5);
+			int item = (int) (skew * items);
+			keys[k] = (long) user * items + item;
+		}
+		keys = Arrays.stream(keys).distinct().toArray();
+		int[] userOf = new int[keys.length];
+		int[] itemOf = new int[keys.length];
+		byte[] rating = new byte[keys.length];
+		for (int k = 0; k < keys.length; k++) {
+			userOf[k] = (int) (keys[k] / items);
+			itemOf[k] = (int) (keys[k] % items);
+			boolean sameTaste = userOf[k] % clusters == itemOf[k] % clusters;
+			int r = (sameTaste ? 4 : 3) + random.nextInt(3) - 1;
+			rating[k] = (byte) Math.max(1, Math.min(5, r));
+		}
+		return new RecommendationEngine.Input(users, items, userOf, itemOf, rating);
+	}
+}
@@ -0,0 +1,78 @@
+package com.pratham.foodreview.backend.service;
+
+import com.pratham.foodreview.backend.TestData;
+import com.pratham.foodreview.backend.entity.Profile;
+import com.pratham.foodreview.backend.entity.Restaurant;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class RecommendationServiceTests {
+
+	@Autowired
+	MockMvc mvc;
+
+	@Autowired
+	RecommendationService recommendationService;
+
+	@Autowired
+	RatingService ratingService;
+
+	@Autowired
+	TestData data;
+
+	@Test
+	void servesPrecomputedRecommendations() throws Exception {
+		Restaurant liked = data.restaurant("Liked");
+		Restaurant companion = data.restaurant("Companion");
+		Restaurant disliked = data.restaurant("Disliked");
+		for (int i = 0; i < 4; i++) {
+			Profile p = data.profile();
+			data.review(p, liked, 5);
+			data.review(p, companion, 5);
+			data.review(p, disliked, 1);
+		}
+		Profile reader = data.profile();
+		data.review(reader, liked, 5);
+		data.review(reader, disliked, 1);
+		ratingService.rebuildAll();
+
+		assertTrue(recommendationService.rebuild() > 0);
+
+		mvc.perform(get("/restaurants/recommended").with(jwt().jwt(j -> j.subject(reader.getId().toString()))))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.length()").value(1))
+			.andExpect(jsonPath("$[0].id").value(companion.getId().toString()))
+			.andExpect(jsonPath("$[0].rating.count").value(4));
+	}
+
+	@Test
+	void unknownUsersGetTopRatedAndAnonymousCallersAreRejected() throws Exception {
+		Profile p = data.profile();
+		data.review(p, data.restaurant("Solo"), 5);
+		ratingService.rebuildAll();
+
+		mvc.perform(get("/restaurants/recommended").param("limit", "3")
+				.with(jwt().jwt(j -> j.subject(UUID.randomUUID().toString()))))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.length()").value(greaterThan(0)));
+
+		mvc.perform(get("/restaurants/recommended"))
+			.andExpect(status().isUnauthorized());
+	}
+}
@@ -0,0 +1,88 @@
+package com.pratham.foodreview.backend.service;
+
+import com.pratham.foodreview.backend.dto.RestaurantDetailResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RestaurantDetailCacheTests {
+
+	private static RestaurantDetailResponse detail(UUID id) {
+		return new RestaurantDetailResponse(id.toString(), "Joe's", "1 Main St", 1.0, 2.0, null, List.of(), 1, 0, null, List.of());
+	}
+
+	private static InvalidationBus localBus() {
+		return new InvalidationBus(new InMemoryInvalidationTransport(), 50, 5000);
+	}
+
+	@Test
+	void concurrentMissesShareOneLoad() throws Exception {
+		RestaurantDetailCache cache = new RestaurantDetailCache(true, 1 << 20, 300, localBus());
+		UUID id = UUID.randomUUID();
+		AtomicInteger loads = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<RestaurantDetailResponse>> results = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				results.add(pool.submit(() -> cache.get(id, key -> {
+					loads.incrementAndGet();
+					try {
+						release.await(5, TimeUnit.SECONDS);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					return detail(key);
+				})));
+			}
+			Thread.sleep(100);
+			release.countDown();
+			RestaurantDetailResponse first = results.get(0).get(5, TimeUnit.SECONDS);
+			for (Future<RestaurantDetailResponse> f : results) {
+				assertSame(first, f.get(5, TimeUnit.SECONDS));
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+		assertEquals(1, loads.get());
+	}
+
+	@Test
+	void invalidateForcesRebuild() {
+		RestaurantDetailCache cache = new RestaurantDetailCache(true, 1 << 20, 300, localBus());
+		UUID id = UUID.randomUUID();
+		AtomicInteger loads = new AtomicInteger();
+
+		cache.get(id, key -> { loads.incrementAndGet(); return detail(key); });
+		cache.get(id, key -> { loads.incrementAndGet(); return detail(key); });
+		assertEquals(1, loads.get());
+
+		cache.invalidateAfterCommit(id);
+		cache.get(id, key -> { loads.incrementAndGet(); return detail(key); });
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	void evictsWhenOverByteBudget() {
+		RestaurantDetailResponse sample = detail(UUID.randomUUID());
+		long perEntry = RestaurantDetailCache.estimateBytes(sample);
+		RestaurantDetailCache cache = new RestaurantDetailCache(true, perEntry * 3, 300, localBus());
+		for (int i = 0; i < 10; i++) {
+			cache.get(UUID.randomUUID(), RestaurantDetailCacheTests::detail);
+		}
+		assertTrue((long) cache.stats().get("retainedBytes") <= perEntry * 3);
+	}
+}
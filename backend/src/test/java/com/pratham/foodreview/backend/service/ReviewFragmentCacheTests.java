@@ -0,0 +1,157 @@
+package com.pratham.foodreview.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pratham.foodreview.backend.TestData;
+import com.pratham.foodreview.backend.entity.Profile;
+import com.pratham.foodreview.backend.entity.Restaurant;
+import com.pratham.foodreview.backend.entity.Review;
+import com.pratham.foodreview.backend.repo.ReviewRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ReviewFragmentCacheTests {
+
+	private static final Logger log = LoggerFactory.getLogger(ReviewFragmentCacheTests.class);
+
+	@Autowired
+	MockMvc mvc;
+
+	@Autowired
+	ReviewFragmentCache cache;
+
+	@Autowired
+	ReviewFeedService reviewFeedService;
+
+	@Autowired
+	ReviewMapper reviewMapper;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	@Autowired
+	ReviewRepository reviewRepository;
+
+	@Autowired
+	PlatformTransactionManager transactionManager;
+
+	@Autowired
+	TestData data;
+
+	@Test
+	void assembledListMatchesMapperOutput() throws Exception {
+		Profile author = data.profile();
+		for (int i = 0; i < 3; i++) data.review(author, data.restaurant(), "text " + i);
+		byte[] expected = objectMapper.writeValueAsBytes(reviewFeedService.getUserReviews(author.getId()));
+
+		long hits = (long) cache.stats().get("hits");
+		byte[] cold = userReviews(author);
+		byte[] warm = userReviews(author);
+
+		assertArrayEquals(expected, cold);
+		assertArrayEquals(expected, warm);
+		assertEquals(hits + 3, (long) cache.stats().get("hits"));
+	}
+
+	@Test
+	void editedReviewsAndRenamedAuthorsAreReencoded() throws Exception {
+		Profile author = data.profile();
+		Review review = data.review(author, data.restaurant(), "before");
+		userReviews(author);
+
+		mvc.perform(put("/reviews/" + review.getId()).contentType(MediaType.APPLICATION_JSON)
+				.content("{\"content\":\"after\",\"rating\":3}")
+				.with(jwt().jwt(j -> j.subject(author.getId().toString()))))
+			.andExpect(status().isOk());
+		mvc.perform(get("/reviewfeed/user/" + author.getId()))
+			.andExpect(jsonPath("$[0].text").value("after"));
+
+		String renamed = "renamed_" + UUID.randomUUID();
+		mvc.perform(patch("/me").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"username\":\"" + renamed + "\"}")
+				.with(jwt().jwt(j -> j.subject(author.getId().toString()))))
+			.andExpect(status().isOk());
+		mvc.perform(get("/reviewfeed/user/" + author.getId()))
+			.andExpect(jsonPath("$[0].userName").value(renamed))
+			.andExpect(jsonPath("$[0].text").value("after"));
+	}
+
+	// Opt-in: mvn test -Dtest=ReviewFragmentCacheTests -Dreview-fragments.benchmark=true
+	// A 50-review feed from 10 authors: mapping plus Jackson on every request versus
+	// concatenating warm fragments. Both include the list query's entities already in hand.
+	@Test
+	@EnabledIfSystemProperty(named = "review-fragments.benchmark", matches = "true")
+	void benchmarkFeedSizedResponses() throws Exception {
+		List<Profile> authors = IntStream.range(0, 10).mapToObj(i -> data.profile()).toList();
+		Restaurant spot = data.restaurant();
+		for (int i = 0; i < 50; i++) {
+			data.review(authors.get(i % authors.size()), spot, "A longer review body so the fragment is feed-sized. ".repeat(4) + i);
+		}
+		TransactionTemplate tx = new TransactionTemplate(transactionManager);
+		tx.setReadOnly(true);
+		tx.executeWithoutResult(status -> {
+			List<Review> feed = authors.stream()
+				.flatMap(a -> reviewRepository.findByUser_IdOrderByCreatedAtDesc(a.getId()).stream())
+				.toList();
+			try {
+				double mappedMicros = medianMicros(() -> objectMapper.writeValueAsBytes(reviewMapper.toResponses(feed)));
+				double cachedMicros = medianMicros(() -> cache.toJsonArray(feed));
+				log.info("50-review feed ({} B): mapped+serialized {} us, fragments {} us ({}x)",
+					cache.toJsonArray(feed).length, String.format("%.1f", mappedMicros),
+					String.format("%.1f", cachedMicros), String.format("%.1f", mappedMicros / cachedMicros));
+				assertTrue(cachedMicros < mappedMicros);
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+		});
+	}
+
+	private byte[] userReviews(Profile author) throws Exception {
+		return mvc.perform(get("/reviewfeed/user/" + author.getId()))
+			.andExpect(status().isOk())
+			.andReturn().getResponse().getContentAsByteArray();
+	}
+
+	private static double medianMicros(ThrowingRunnable body) throws Exception {
+		for (int i = 0; i < 500; i++) body.run();
+		long[] samples = new long[201];
+		for (int i = 0; i < samples.length; i++) {
+			long start = System.nanoTime();
+			body.run();
+			samples[i] = System.nanoTime() - start;
+		}
+		Arrays.sort(samples);
+		return samples[samples.length / 2] / 1000.0;
+	}
+
+	private interface ThrowingRunnable {
+		void run() throws Exception;
+	}
+}
@@ -0,0 +1,110 @@
+package com.pratham.foodreview.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pratham.foodreview.backend.dto.NormalizedReviewList;
+import com.pratham.foodreview.backend.dto.ReviewResponse;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReviewMapperTests {
+
+	private static final Logger log = LoggerFactory.getLogger(ReviewMapperTests.class);
+
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	@Test
+	void normalizeSendsEachUserAndRestaurantOnce() {
+		List<ReviewResponse> feed = feed(50, 8, 5, new Random(1));
+		NormalizedReviewList normalized = ReviewMapper.normalize(feed);
+
+		assertEquals(50, normalized.reviews().size());
+		assertEquals(feed.stream().map(ReviewResponse::userId).distinct().count(), normalized.users().size());
+		assertEquals(feed.stream().map(ReviewResponse::restaurantId).distinct().count(), normalized.restaurants().size());
+		for (int i = 0; i < feed.size(); i++) {
+			ReviewResponse flat = feed.get(i);
+			NormalizedReviewList.Review review = normalized.reviews().get(i);
+			assertEquals(flat.id(), review.id());
+			assertEquals(flat.userName(), normalized.users().get(review.userId()).userName());
+			assertEquals(flat.restaurantName(), normalized.restaurants().get(review.restaurantId()).name());
+		}
+	}
+
+	// Payload size and serialization time of a 50-item friends feed in both shapes. Logged so
+	// runs can be compared; only the size win is asserted.
+	@Test
+	void normalizedFeedIsSmallerThanFlat() throws Exception {
+		List<ReviewResponse> feed = feed(50, 8, 5, new Random(2));
+
+		byte[] flat = mapper.writeValueAsBytes(feed);
+		byte[] normalized = mapper.writeValueAsBytes(ReviewMapper.normalize(feed));
+		double flatMicros = medianMicros(() -> mapper.writeValueAsBytes(feed));
+		double normalizedMicros = medianMicros(() -> mapper.writeValueAsBytes(ReviewMapper.normalize(feed)));
+
+		log.info("50-item feed: flat {} B ({} B gzip, {} us), normalized {} B ({} B gzip, {} us)",
+			flat.length, gzip(flat), String.format("%.1f", flatMicros),
+			normalized.length, gzip(normalized), String.format("%.1f", normalizedMicros));
+		assertTrue(normalized.length < flat.length * 0.8, "normalized " + normalized.length + " vs flat " + flat.length);
+	}
+
+	private static double medianMicros(ThrowingRunnable body) throws Exception {
+		for (int i = 0; i < 2000; i++) body.run();
+		long[] samples = new long[501];
+		for (int i = 0; i < samples.length; i++) {
+			long start = System.nanoTime();
+			body.run();
+			samples[i] = System.nanoTime() - start;
+		}
+		Arrays.sort(samples);
+		return samples[samples.length / 2] / 1000.0;
+	}
+
+	private static int gzip(byte[] bytes) throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+			gz.write(bytes);
+		}
+		return out.size();
+	}
+
+	private static List<ReviewResponse> feed(int size, int users, int restaurants, Random random) {
+		List<ReviewResponse> out = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			int u = random.nextInt(users);
+			int r = random.nextInt(restaurants);
+			out.add(new ReviewResponse(
+				UUID.randomUUID().toString(),
+				new UUID(1, u).toString(),
+				"friend_number_" + u,
+				"https://xyzcompany.supabase.co/storage/v1/object/public/avatars/" + new UUID(1, u) + ".jpg",
+				new UUID(2, r).toString(),
+				"Restaurant With A Longish Name " + r,
+				(100 + r) + " Some Avenue, Brooklyn, NY 11201, United States",
+				"https://maps.googleapis.com/maps/api/place/photo?maxwidth=800&photo_reference=AUc7tXW" + r,
+				"ChIJ" + Integer.toHexString(r * 7919) + "abcdefghijklmnopqrstu",
+				1 + random.nextInt(5),
+				"Really good, would come back for the noodles",
+				List.of(),
+				List.of(),
+				List.of("dumplings"),
+				"2026-10-18T12:00:00Z"
+			));
+		}
+		return out;
+	}
+
+	private interface ThrowingRunnable {
+		void run() throws Exception;
+	}
+}
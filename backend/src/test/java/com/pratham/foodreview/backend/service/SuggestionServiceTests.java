@@ -0,0 +1,117 @@
+package com.pratham.foodreview.backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SuggestionServiceTests {
+
+	private static final Logger log = LoggerFactory.getLogger(SuggestionServiceTests.class);
+
+	@Autowired
+	SuggestionService suggestionService;
+
+	@Autowired
+	DataSource dataSource;
+
+	@Test
+	void backgroundRebuildsCollapseIntoOneWaiting() throws Exception {
+		awaitNoRebuilds();
+		long dropped = (long) suggestionService.stats().get("rebuildsDropped");
+		// rebuild() is synchronized: holding the monitor keeps the first background run waiting
+		synchronized (suggestionService) {
+			for (int i = 0; i < 5; i++) suggestionService.rebuildInBackground();
+			// At most one running and one queued. A worker still between tasks leaves only the
+			// queue slot for ours, so at least three are dropped.
+			assertTrue((long) suggestionService.stats().get("rebuildsDropped") >= dropped + 3);
+		}
+		awaitNoRebuilds();
+	}
+
+	@Test
+	void scheduledRebuildDoesNotWaitForARunningOne() throws Exception {
+		awaitNoRebuilds();
+		synchronized (suggestionService) {
+			// Another thread, since the monitor held here is reentrant for this one
+			CompletableFuture.runAsync(suggestionService::scheduledRebuild).get(1, TimeUnit.SECONDS);
+			assertTrue((int) suggestionService.stats().get("rebuildsPending") > 0);
+		}
+		awaitNoRebuilds();
+	}
+
+	// Opt-in: mvn test -Dtest=SuggestionServiceTests -Dsuggestions.benchmark=true
+	// Rebuilds the graph from the follows table, then ranks for random users. Each profile
+	// follows a skewed sample of others, so a few accounts have most of the followers. Run it on
+	// its own: the rows are left in the in-memory database.
+	@Test
+	@EnabledIfSystemProperty(named = "suggestions.benchmark", matches = "true")
+	void benchmarkRebuildAndRank() {
+		int profiles = Integer.getInteger("suggestions.benchmark.profiles", 50_000);
+		int followsEach = Integer.getInteger("suggestions.benchmark.follows-each", 30);
+		JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+		UUID[] ids = new UUID[profiles];
+		for (int i = 0; i < profiles; i++) ids[i] = new UUID(0x5ba5e, i);
+		List<Object[]> rows = new ArrayList<>();
+		for (UUID id : ids) rows.add(new Object[] { id, "bench_" + id });
+		jdbc.batchUpdate("insert into profiles (id, username, created_at) values (?, ?, now())", rows);
+		SplittableRandom random = new SplittableRandom(42);
+		rows.clear();
+		for (int u = 0; u < profiles; u++) {
+			Set<Integer> picked = new HashSet<>();
+			while (picked.size() < followsEach) {
+				int v = (int) (Math.pow(random.nextDouble(), 2.5) * profiles);
+				if (v != u) picked.add(v);
+			}
+			for (int v : picked) rows.add(new Object[] { ids[u], ids[v] });
+			if (rows.size() >= 100_000) {
+				jdbc.batchUpdate("insert into follows (follower_id, following_id, created_at) values (?, ?, now())", rows);
+				rows.clear();
+			}
+		}
+		jdbc.batchUpdate("insert into follows (follower_id, following_id, created_at) values (?, ?, now())", rows);
+
+		long start = System.nanoTime();
+		suggestionService.rebuild();
+		log.info("Built {} in {} ms", suggestionService.stats(), (System.nanoTime() - start) / 1_000_000);
+
+		for (int i = 0; i < 1000; i++) suggestionService.rank(ids[random.nextInt(profiles)], 20);
+		long[] samples = new long[2001];
+		for (int i = 0; i < samples.length; i++) {
+			UUID me = ids[random.nextInt(profiles)];
+			long t = System.nanoTime();
+			suggestionService.rank(me, 20);
+			samples[i] = System.nanoTime() - t;
+		}
+		Arrays.sort(samples);
+		log.info("Ranking: p50 {} ms, p99 {} ms", String.format("%.2f", samples[samples.length / 2] / 1e6),
+			String.format("%.2f", samples[samples.length * 99 / 100] / 1e6));
+	}
+
+	private void awaitNoRebuilds() throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while ((int) suggestionService.stats().get("rebuildsPending") > 0) {
+			assertTrue(System.nanoTime() < deadline, "timed out");
+			Thread.sleep(10);
+		}
+	}
+}
@@ -0,0 +1,94 @@
+package com.pratham.foodreview.backend.service;
+
+import com.pratham.foodreview.backend.TestData;
+import com.pratham.foodreview.backend.dto.CreateReviewRequest;
+import com.pratham.foodreview.backend.dto.ReviewResponse;
+import com.pratham.foodreview.backend.dto.ReviewUpdate;
+import com.pratham.foodreview.backend.dto.SyncResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {"sync.page-size=2", "sync.settle-ms=0"})
+@ActiveProfiles("test")
+class SyncServiceTests {
+
+	@Autowired
+	SyncService syncService;
+
+	@Autowired
+	ReviewService reviewService;
+
+	@Autowired
+	TestData data;
+
+	@Test
+	void pagesThroughChangesThenReturnsOnlyDeltas() {
+		UUID reader = data.profile().getId();
+		UUID author = data.profile().getId();
+		data.follow(reader, author);
+		ReviewResponse first = review(author, 4);
+		review(author, 5);
+		review(reader, 3);
+
+		SyncResponse page1 = syncService.sync(reader, null);
+		assertTrue(page1.full());
+		assertTrue(page1.hasMore());
+		assertEquals(2, page1.reviews().size());
+
+		SyncResponse page2 = syncService.sync(reader, page1.token());
+		assertFalse(page2.full());
+		assertFalse(page2.hasMore());
+		assertEquals(1, page2.reviews().size());
+
+		SyncResponse idle = syncService.sync(reader, page2.token());
+		assertTrue(idle.reviews().isEmpty());
+		assertTrue(idle.deletedReviewIds().isEmpty());
+
+		reviewService.updateReview(author, UUID.fromString(first.id()), new ReviewUpdate("better second time", 5, List.of()));
+		SyncResponse updated = syncService.sync(reader, idle.token());
+		assertEquals(List.of(first.id()), updated.reviews().stream().map(ReviewResponse::id).toList());
+		assertEquals("better second time", updated.reviews().get(0).text());
+
+		reviewService.deleteReview(author, UUID.fromString(first.id()));
+		SyncResponse deleted = syncService.sync(reader, updated.token());
+		assertTrue(deleted.reviews().isEmpty());
+		assertEquals(List.of(first.id()), deleted.deletedReviewIds());
+	}
+
+	@Test
+	void followChangeForcesFullResync() {
+		UUID reader = data.profile().getId();
+		UUID author = data.profile().getId();
+		review(author, 4);
+
+		SyncResponse before = syncService.sync(reader, null);
+		assertTrue(before.reviews().isEmpty());
+
+		data.follow(reader, author);
+		SyncResponse after = syncService.sync(reader, before.token());
+		assertTrue(after.full());
+		assertEquals(1, after.reviews().size());
+	}
+
+	@Test
+	void rejectsGarbageTokens() {
+		assertThrows(ResponseStatusException.class, () -> syncService.sync(data.profile().getId(), "not-a-token"));
+	}
+
+	private ReviewResponse review(UUID user, int rating) {
+		String place = "sync-" + UUID.randomUUID();
+		return reviewService.createReview(user,
+			new CreateReviewRequest("test", place, place, null, 1.0, 1.0, rating, "ok", List.of()));
+	}
+}
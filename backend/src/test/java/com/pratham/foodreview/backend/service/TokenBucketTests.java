@@ -0,0 +1,29 @@
+package com.pratham.foodreview.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTests {
+
+	@Test
+	void allowsBurstThenRejects() {
+		TokenBucket bucket = new TokenBucket(3, 1);
+		for (int i = 0; i < 3; i++) {
+			assertEquals(0, bucket.reserve(0));
+		}
+		assertEquals(-1, bucket.reserve(0));
+		assertTrue(bucket.nanosUntilAvailable() > 0);
+	}
+
+	@Test
+	void queuesWithinMaxWait() {
+		TokenBucket bucket = new TokenBucket(1, 10);
+		assertEquals(0, bucket.reserve(0));
+		long wait = bucket.reserve(TimeUnit.SECONDS.toNanos(1));
+		assertTrue(wait > 0 && wait <= TimeUnit.MILLISECONDS.toNanos(100));
+	}
+}
@@ -0,0 +1,2 @@
+create table if not exists migration_widgets (id integer primary key, name varchar(64));
+insert into migration_widgets (id, name) select 1, 'first' where not exists (select 1 from migration_widgets where id = 1);
@@ -0,0 +1 @@
+create index if not exists migration_widgets_name_idx on migration_widgets (name);
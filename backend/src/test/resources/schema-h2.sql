@@ -0,0 +1,95 @@
+-- H2 mirror of the Supabase schema for the test profile. Hibernate can't emit it itself because
+-- H2 has no text[] type, so ddl-auto is off in tests and this runs through spring.sql.init.
+
+create table if not exists profiles (
+  id uuid primary key,
+  username varchar(255) unique,
+  display_name varchar(255),
+  avatar_url varchar(1024),
+  bio varchar(1024),
+  created_at timestamp with time zone
+);
+
+create table if not exists restaurants (
+  id uuid primary key,
+  provider varchar(64) not null,
+  provider_id varchar(255) not null,
+  name varchar(255) not null,
+  address varchar(512),
+  lat double precision,
+  lng double precision,
+  photo_url varchar(1024),
+  categories jsonb,
+  price_tier integer,
+  created_at timestamp with time zone,
+  updated_at timestamp with time zone,
+  constraint restaurants_provider_unique unique (provider, provider_id)
+);
+
+create table if not exists reviews (
+  id uuid primary key,
+  user_id uuid not null references profiles (id),
+  restaurant_id uuid not null references restaurants (id),
+  rating integer not null,
+  text varchar(4096),
+  photo_urls jsonb,
+  thumbnail_urls jsonb,
+  created_at timestamp with time zone,
+  updated_at timestamp with time zone,
+  dishes varchar(255) array
+);
+
+create table if not exists follows (
+  follower_id uuid not null references profiles (id),
+  following_id uuid not null references profiles (id),
+  created_at timestamp with time zone,
+  primary key (follower_id, following_id)
+);
+
+create table if not exists rating_prior (
+  id smallint primary key check (id = 1),
+  prior_weight double precision not null,
+  prior_mean double precision not null
+);
+
+create table if not exists restaurant_ratings (
+  restaurant_id uuid primary key references restaurants (id),
+  review_count bigint not null default 0,
+  rating_sum bigint not null default 0,
+  count_1 bigint not null default 0,
+  count_2 bigint not null default 0,
+  count_3 bigint not null default 0,
+  count_4 bigint not null default 0,
+  count_5 bigint not null default 0,
+  score double precision
+);
+
+create table if not exists review_tombstones (
+  review_id uuid primary key,
+  user_id uuid not null,
+  restaurant_id uuid not null,
+  deleted_at timestamp with time zone not null
+);
+
+create table if not exists user_recommendations (
+  user_id uuid primary key,
+  items varbinary not null,
+  computed_at timestamp with time zone not null
+);
+
+create table if not exists feed_affinity (
+  viewer_id uuid not null,
+  author_id uuid not null,
+  score double precision not null,
+  updated_at_ms bigint not null,
+  primary key (viewer_id, author_id)
+);
+
+-- Mirrors db/migration (H2 has no expression indexes, so lower(username) is left out)
+create index if not exists reviews_user_created_idx on reviews (user_id, created_at desc);
+create index if not exists reviews_restaurant_created_idx on reviews (restaurant_id, created_at desc);
+create index if not exists reviews_user_updated_idx on reviews (user_id, updated_at, id);
+create index if not exists follows_following_follower_idx on follows (following_id, follower_id);
+create index if not exists review_tombstones_user_deleted_idx on review_tombstones (user_id, deleted_at, review_id);
+create index if not exists restaurant_ratings_score_idx on restaurant_ratings (score desc);
+create index if not exists restaurants_lat_lng_idx on restaurants (lat, lng);